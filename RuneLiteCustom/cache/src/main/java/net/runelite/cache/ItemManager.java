@@ -26,18 +26,20 @@ package net.runelite.cache;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import net.runelite.cache.definitions.ItemDefinition;
 import net.runelite.cache.definitions.exporters.ItemExporter;
 import net.runelite.cache.definitions.loaders.ItemLoader;
 import net.runelite.cache.definitions.providers.ItemProvider;
 import net.runelite.cache.fs.Archive;
-import net.runelite.cache.fs.ArchiveFiles;
-import net.runelite.cache.fs.FSFile;
 import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.LazyArchive;
+import net.runelite.cache.fs.ParallelLoader;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.util.IDClass;
@@ -46,6 +48,8 @@ public class ItemManager implements ItemProvider
 {
 	private final Store store;
 	private final Map<Integer, ItemDefinition> items = new HashMap<>();
+	private LazyArchive<ItemDefinition> lazy;
+	private volatile boolean linked;
 
 	public ItemManager(Store store)
 	{
@@ -54,24 +58,53 @@ public class ItemManager implements ItemProvider
 
 	public void load() throws IOException
 	{
-		ItemLoader loader = new ItemLoader();
-
 		Storage storage = store.getStorage();
 		Index index = store.getIndex(IndexType.CONFIGS);
 		Archive archive = index.getArchive(ConfigType.ITEM.getId());
 
-		byte[] archiveData = storage.loadArchive(archive);
-		ArchiveFiles files = archive.getFiles(archiveData);
+		List<ItemDefinition> defs = ParallelLoader.decodeFiles(storage, archive, null, () -> new ItemLoader()::load);
 
-		for (FSFile f : files.getFiles())
+		for (ItemDefinition def : defs)
 		{
-			ItemDefinition def = loader.load(f.getFileId(), f.getContents());
-			items.put(f.getFileId(), def);
+			items.put(def.id, def);
 		}
 	}
 
+	/**
+	 * Load the items without decoding them. Each is decoded when it is first looked up, and at most
+	 * {@code cacheSize} are kept decoded.
+	 */
+	public void loadLazy(int cacheSize) throws IOException
+	{
+		Storage storage = store.getStorage();
+		Index index = store.getIndex(IndexType.CONFIGS);
+		Archive archive = index.getArchive(ConfigType.ITEM.getId());
+
+		lazy = LazyArchive.load(storage, archive, null, cacheSize, () ->
+		{
+			ItemLoader loader = new ItemLoader();
+			return (id, b) ->
+			{
+				ItemDefinition def = loader.load(id, b);
+				if (linked)
+				{
+					link(def);
+				}
+				return def;
+			};
+		});
+	}
+
 	public void link()
 	{
+		if (lazy != null)
+		{
+			// link items as they are decoded
+			linked = true;
+			lazy.invalidate();
+			return;
+		}
+
 		for (ItemDefinition oc : items.values())
 		{
 			link(oc);
@@ -96,11 +129,27 @@ public class ItemManager implements ItemProvider
 
 	public Collection<ItemDefinition> getItems()
 	{
+		if (lazy != null)
+		{
+			// decodes all of them again
+			try
+			{
+				return Collections.unmodifiableCollection(lazy.decodeAll());
+			}
+			catch (IOException ex)
+			{
+				throw new UncheckedIOException(ex);
+			}
+		}
 		return Collections.unmodifiableCollection(items.values());
 	}
 
 	public ItemDefinition getItem(int itemId)
 	{
+		if (lazy != null)
+		{
+			return lazy.get(itemId);
+		}
 		return items.get(itemId);
 	}
 
@@ -108,7 +157,7 @@ public class ItemManager implements ItemProvider
 	{
 		out.mkdirs();
 
-		for (ItemDefinition def : items.values())
+		for (ItemDefinition def : getItems())
 		{
 			ItemExporter exporter = new ItemExporter(def);
 
@@ -123,7 +172,7 @@ public class ItemManager implements ItemProvider
 		try (IDClass ids = IDClass.create(java, "ItemID");
 			IDClass nulls = IDClass.create(java, "NullItemID"))
 		{
-			for (ItemDefinition def : items.values())
+			for (ItemDefinition def : getItems())
 			{
 				if (def.name.equalsIgnoreCase("NULL"))
 				{
@@ -27,14 +27,18 @@ package net.runelite.cache;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.imageio.ImageIO;
 import lombok.Getter;
 import lombok.Setter;
@@ -51,11 +55,11 @@ import net.runelite.cache.definitions.loaders.OverlayLoader;
 import net.runelite.cache.definitions.loaders.SpriteLoader;
 import net.runelite.cache.definitions.loaders.UnderlayLoader;
 import net.runelite.cache.fs.Archive;
-import net.runelite.cache.fs.ArchiveFiles;
-import net.runelite.cache.fs.FSFile;
 import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.ParallelLoader;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.jagex.DiskStorage;
 import net.runelite.cache.item.RSTextureProvider;
 import net.runelite.cache.models.JagexColor;
 import net.runelite.cache.region.Location;
@@ -64,6 +68,7 @@ import net.runelite.cache.region.Region;
 import net.runelite.cache.region.RegionLoader;
 import net.runelite.cache.util.BigBufferedImage;
 import net.runelite.cache.util.KeyProvider;
+import net.runelite.cache.util.StripedPngWriter;
 import net.runelite.cache.util.XteaKeyManager;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -160,6 +165,7 @@ public class MapImageDumper
 		options.addOption(Option.builder().longOpt("cachedir").hasArg().required().build());
 		options.addOption(Option.builder().longOpt("xteapath").hasArg().required().build());
 		options.addOption(Option.builder().longOpt("outputdir").hasArg().required().build());
+		options.addOption(Option.builder().longOpt("tiled").desc("draw regions in parallel and stream the images to disk").build());
 
 		CommandLineParser parser = new DefaultParser();
 		CommandLine cmd;
@@ -177,6 +183,7 @@ public class MapImageDumper
 		final String cacheDirectory = cmd.getOptionValue("cachedir");
 		final String xteaJSONPath = cmd.getOptionValue("xteapath");
 		final String outputDirectory = cmd.getOptionValue("outputdir");
+		final boolean tiled = cmd.hasOption("tiled");
 
 		XteaKeyManager xteaKeyManager = new XteaKeyManager();
 		try (FileInputStream fin = new FileInputStream(xteaJSONPath))
@@ -188,7 +195,8 @@ public class MapImageDumper
 		File outDir = new File(outputDirectory);
 		outDir.mkdirs();
 
-		try (Store store = new Store(base))
+		// read mapped, so the parallel loads don't queue on the data file
+		try (Store store = new Store(new DiskStorage(base, true)))
 		{
 			store.load();
 
@@ -197,11 +205,17 @@ public class MapImageDumper
 
 			for (int i = 0; i < Region.Z; ++i)
 			{
-				BufferedImage image = dumper.drawMap(i);
-
 				File imageFile = new File(outDir, "img-" + i + ".png");
 
-				ImageIO.write(image, "png", imageFile);
+				if (tiled)
+				{
+					dumper.drawMapTiled(i, imageFile);
+				}
+				else
+				{
+					BufferedImage image = dumper.drawMap(i);
+					ImageIO.write(image, "png", imageFile);
+				}
 				log.info("Wrote image {}", imageFile);
 			}
 		}
@@ -215,20 +229,23 @@ public class MapImageDumper
 
 	public MapImageDumper load() throws IOException
 	{
-		loadUnderlays(store);
-		loadOverlays(store);
-		objectManager.load();
-
 		TextureManager textureManager = new TextureManager(store);
-		textureManager.load();
-		rsTextureProvider = new RSTextureProvider(textureManager, sprites);
 
-		loadRegions();
-		areas.load();
-		sprites.load();
-		loadSprites();
-		fonts.load();
-		worldMapManager.load();
+		// each load fills its own tables, and decodes its own archives in parallel as well
+		ParallelLoader.all(
+			() -> loadUnderlays(store),
+			() -> loadOverlays(store),
+			objectManager::load,
+			textureManager::load,
+			this::loadRegions,
+			areas::load,
+			sprites::load,
+			this::loadSprites,
+			fonts::load,
+			worldMapManager::load
+		);
+
+		rsTextureProvider = new RSTextureProvider(textureManager, sprites);
 
 		return this;
 	}
@@ -264,7 +281,99 @@ public class MapImageDumper
 		drawMap(image, z);
 		drawObjects(image, z);
 		drawMapIcons(image, z);
-		drawMapLabels(image, z);
+		drawMapLabels(image, regionLoader.getLowestX().getBaseX(), regionLoader.getHighestY().getBaseY(), z);
+
+		return image;
+	}
+
+	/**
+	 * Draw a plane of the map like {@link #drawMap(int)}, and write it to a PNG file as it is drawn. The map is drawn
+	 * a row of regions at a time, with each region of the row drawn into its own tile in parallel, so only one row of
+	 * the map is held in memory at once.
+	 *
+	 * @param z plane
+	 * @param imageFile file to write the image to
+	 * @throws IOException if the image can't be written
+	 */
+	public void drawMapTiled(int z, File imageFile) throws IOException
+	{
+		if (TILE_SHAPE_2D == null)
+		{
+			// the tiles are drawn in parallel, and drawMap would otherwise generate these on each thread
+			generateTileShapes();
+		}
+
+		int minRegionX = regionLoader.getLowestX().getRegionX();
+		int maxRegionX = regionLoader.getHighestX().getRegionX();
+		int minRegionY = regionLoader.getLowestY().getRegionY();
+		int maxRegionY = regionLoader.getHighestY().getRegionY();
+
+		int tileWidth = Region.X * MAP_SCALE;
+		int tileHeight = Region.Y * MAP_SCALE;
+		int pixelsX = (maxRegionX - minRegionX + 1) * tileWidth;
+		int pixelsY = (maxRegionY - minRegionY + 1) * tileHeight;
+
+		log.info("Map image dimensions: {}px x {}px, {}px per map square, drawn in rows of {}px ({} MB)", pixelsX, pixelsY,
+			MAP_SCALE, tileHeight, (pixelsX * tileHeight * 4 / 1024 / 1024));
+
+		List<Integer> columns = IntStream.rangeClosed(minRegionX, maxRegionX).boxed().collect(Collectors.toList());
+		int[] row = new int[pixelsX * tileHeight];
+
+		try (StripedPngWriter writer = new StripedPngWriter(new BufferedOutputStream(new FileOutputStream(imageFile)),
+			pixelsX, pixelsY, transparency))
+		{
+			// the top of the image is the north most row of regions
+			for (int regionY = maxRegionY; regionY >= minRegionY; --regionY)
+			{
+				final int ry = regionY;
+				List<BufferedImage> tiles = ParallelLoader.decode(columns, () -> rx -> drawRegionTile(rx, ry, z));
+
+				for (int i = 0; i < tiles.size(); ++i)
+				{
+					tiles.get(i).getRGB(0, 0, tileWidth, tileHeight, row, i * tileWidth, pixelsX);
+				}
+
+				writer.write(row, 0, pixelsX, tileHeight);
+			}
+		}
+	}
+
+	private BufferedImage drawRegionTile(int regionX, int regionY, int z)
+	{
+		int pixelsX = Region.X * MAP_SCALE;
+		int pixelsY = Region.Y * MAP_SCALE;
+
+		BufferedImage image = new BufferedImage(pixelsX, pixelsY, transparency ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+
+		Region region = regionLoader.findRegionForRegionCoordinates(regionX, regionY);
+		if (region != null)
+		{
+			drawMap(image, 0, 0, z, region);
+		}
+
+		// objects and icons of the surrounding regions can be drawn over the edge of this one, and are drawn in the
+		// same passes as in drawMap, so they overlap the same way
+		for (int dx = -1; dx <= 1; ++dx)
+		{
+			for (int dy = -1; dy <= 1; ++dy)
+			{
+				drawNeighborObjects(image, regionX, regionY, dx, dy, z);
+			}
+		}
+
+		for (int dx = -1; dx <= 1; ++dx)
+		{
+			for (int dy = -1; dy <= 1; ++dy)
+			{
+				Region neighbor = regionLoader.findRegionForRegionCoordinates(regionX + dx, regionY + dy);
+				if (neighbor != null)
+				{
+					drawMapIcons(image, Region.X * dx, Region.Y * -dy, neighbor, z);
+				}
+			}
+		}
+
+		drawMapLabels(image, regionX * Region.X, regionY * Region.Y, z);
 
 		return image;
 	}
@@ -1581,7 +1690,7 @@ public class MapImageDumper
 		}
 	}
 
-	private void drawMapLabels(BufferedImage image, int z)
+	private void drawMapLabels(BufferedImage image, int baseX, int baseY, int z)
 	{
 		if (!renderLabels)
 		{
@@ -1599,6 +1708,15 @@ public class MapImageDumper
 				continue;
 			}
 
+			int drawX = worldPosition.getX() - baseX;
+			int drawY = baseY - worldPosition.getY() + Region.Y - 2;
+			if (drawX < -Region.X || drawY < -Region.Y
+				|| drawX >= image.getWidth() / MAP_SCALE + Region.X || drawY >= image.getHeight() / MAP_SCALE + Region.Y)
+			{
+				// labels are centered on their position, and none is wider than a region
+				continue;
+			}
+
 			FontName fontSize = fontSizes[area.getTextScale()];
 			FontDefinition font = fonts.findFontByName(fontSize.getName());
 			String areaLabel = area.getName();
@@ -1615,8 +1733,6 @@ public class MapImageDumper
 					SpriteDefinition sprite = sprites.findSpriteByArchiveName(fontSize.getName(), c);
 					if (sprite.getWidth() != 0 && sprite.getHeight() != 0)
 					{
-						int drawX = worldPosition.getX() - regionLoader.getLowestX().getBaseX();
-						int drawY = regionLoader.getHighestY().getBaseY() - worldPosition.getY() + Region.Y - 2;
 						blitGlyph(image,
 							(drawX * MAP_SCALE) + advance - (stringWidth / 2),
 							(drawY * MAP_SCALE) + ascent - (font.getAscent() / 2),
@@ -1782,14 +1898,8 @@ public class MapImageDumper
 		Index index = store.getIndex(IndexType.CONFIGS);
 		Archive archive = index.getArchive(ConfigType.UNDERLAY.getId());
 
-		byte[] archiveData = storage.loadArchive(archive);
-		ArchiveFiles files = archive.getFiles(archiveData);
-
-		for (FSFile file : files.getFiles())
+		for (UnderlayDefinition underlay : ParallelLoader.decodeFiles(storage, archive, null, () -> new UnderlayLoader()::load))
 		{
-			UnderlayLoader loader = new UnderlayLoader();
-			UnderlayDefinition underlay = loader.load(file.getFileId(), file.getContents());
-
 			underlays.put(underlay.getId(), underlay);
 		}
 	}
@@ -1805,14 +1915,8 @@ public class MapImageDumper
 		Index index = store.getIndex(IndexType.CONFIGS);
 		Archive archive = index.getArchive(ConfigType.OVERLAY.getId());
 
-		byte[] archiveData = storage.loadArchive(archive);
-		ArchiveFiles files = archive.getFiles(archiveData);
-
-		for (FSFile file : files.getFiles())
+		for (OverlayDefinition overlay : ParallelLoader.decodeFiles(storage, archive, null, () -> new OverlayLoader()::load))
 		{
-			OverlayLoader loader = new OverlayLoader();
-			OverlayDefinition overlay = loader.load(file.getFileId(), file.getContents());
-
 			overlays.put(overlay.getId(), overlay);
 		}
 	}
@@ -1842,7 +1946,11 @@ public class MapImageDumper
 
 	private void blitIcon(BufferedImage dst, int x, int y, SpriteDefinition sprite, float scale)
 	{
-		sprite.normalize(); //Sprites are required to be normalized to have small sprites draw correctly
+		synchronized (sprite)
+		{
+			// sprites are shared between tiles drawn in parallel
+			sprite.normalize(); //Sprites are required to be normalized to have small sprites draw correctly
+		}
 		x += sprite.getOffsetX();
 		y += sprite.getOffsetY();
 		int displayHeight = (int) (sprite.getHeight() * scale);
@@ -1904,24 +2012,31 @@ public class MapImageDumper
 
 	private void blitGlyph(BufferedImage dst, int x, int y, int color, SpriteDefinition glyph)
 	{
+		// the glyph is shared between tiles drawn in parallel, so it is colored in a copy
 		int[] pixels = glyph.getPixels();
+		int[] colorPixels = new int[pixels.length];
 		int[] shadowPixels = new int[pixels.length];
 		for (int i = 0; i < pixels.length; ++i)
 		{
 			if (pixels[i] != 0)
 			{
-				pixels[i] = color;
+				colorPixels[i] = color;
 				shadowPixels[i] = 0xFF000000;
 			}
 		}
-		SpriteDefinition shadow = new SpriteDefinition();
-		shadow.setPixels(shadowPixels);
-		shadow.setOffsetX(glyph.getOffsetX());
-		shadow.setOffsetY(glyph.getOffsetY());
-		shadow.setWidth(glyph.getWidth());
-		shadow.setHeight(glyph.getHeight());
 
-		blitGlyphIcon(dst, x + 1, y + 1, shadow);
-		blitGlyphIcon(dst, x, y, glyph);
+		blitGlyphIcon(dst, x + 1, y + 1, copyGlyph(glyph, shadowPixels));
+		blitGlyphIcon(dst, x, y, copyGlyph(glyph, colorPixels));
+	}
+
+	private static SpriteDefinition copyGlyph(SpriteDefinition glyph, int[] pixels)
+	{
+		SpriteDefinition copy = new SpriteDefinition();
+		copy.setPixels(pixels);
+		copy.setOffsetX(glyph.getOffsetX());
+		copy.setOffsetY(glyph.getOffsetY());
+		copy.setWidth(glyph.getWidth());
+		copy.setHeight(glyph.getHeight());
+		return copy;
 	}
 }
@@ -26,17 +26,19 @@ package net.runelite.cache;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import net.runelite.cache.definitions.NpcDefinition;
 import net.runelite.cache.definitions.exporters.NpcExporter;
 import net.runelite.cache.definitions.loaders.NpcLoader;
 import net.runelite.cache.fs.Archive;
-import net.runelite.cache.fs.ArchiveFiles;
-import net.runelite.cache.fs.FSFile;
 import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.LazyArchive;
+import net.runelite.cache.fs.ParallelLoader;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.util.IDClass;
@@ -45,6 +47,7 @@ public class NpcManager
 {
 	private final Store store;
 	private final Map<Integer, NpcDefinition> npcs = new HashMap<>();
+	private LazyArchive<NpcDefinition> lazy;
 
 	public NpcManager(Store store)
 	{
@@ -53,31 +56,58 @@ public class NpcManager
 
 	public void load() throws IOException
 	{
-		NpcLoader loader = new NpcLoader();
-
 		Storage storage = store.getStorage();
 		Index index = store.getIndex(IndexType.CONFIGS);
 		Archive archive = index.getArchive(ConfigType.NPC.getId());
 
-		loader.configureForRevision(archive.getRevision());
-
-		byte[] archiveData = storage.loadArchive(archive);
-		ArchiveFiles files = archive.getFiles(archiveData);
+		int revision = archive.getRevision();
+		List<NpcDefinition> defs = ParallelLoader.decodeFiles(storage, archive, null,
+			() -> new NpcLoader().configureForRevision(revision)::load);
 
-		for (FSFile f : files.getFiles())
+		for (NpcDefinition npc : defs)
 		{
-			NpcDefinition npc = loader.load(f.getFileId(), f.getContents());
-			npcs.put(f.getFileId(), npc);
+			npcs.put(npc.id, npc);
 		}
 	}
 
+	/**
+	 * Load the npcs without decoding them. Each is decoded when it is first looked up, and at most
+	 * {@code cacheSize} are kept decoded.
+	 */
+	public void loadLazy(int cacheSize) throws IOException
+	{
+		Storage storage = store.getStorage();
+		Index index = store.getIndex(IndexType.CONFIGS);
+		Archive archive = index.getArchive(ConfigType.NPC.getId());
+
+		int revision = archive.getRevision();
+		lazy = LazyArchive.load(storage, archive, null, cacheSize,
+			() -> new NpcLoader().configureForRevision(revision)::load);
+	}
+
 	public Collection<NpcDefinition> getNpcs()
 	{
+		if (lazy != null)
+		{
+			// decodes all of them again
+			try
+			{
+				return Collections.unmodifiableCollection(lazy.decodeAll());
+			}
+			catch (IOException ex)
+			{
+				throw new UncheckedIOException(ex);
+			}
+		}
 		return Collections.unmodifiableCollection(npcs.values());
 	}
 
 	public NpcDefinition get(int npcId)
 	{
+		if (lazy != null)
+		{
+			return lazy.get(npcId);
+		}
 		return npcs.get(npcId);
 	}
 
@@ -85,7 +115,7 @@ public class NpcManager
 	{
 		out.mkdirs();
 
-		for (NpcDefinition def : npcs.values())
+		for (NpcDefinition def : getNpcs())
 		{
 			NpcExporter exporter = new NpcExporter(def);
 
@@ -100,7 +130,7 @@ public class NpcManager
 		try (IDClass ids = IDClass.create(java, "NpcID");
 			IDClass nulls = IDClass.create(java, "NullNpcID"))
 		{
-			for (NpcDefinition def : npcs.values())
+			for (NpcDefinition def : getNpcs())
 			{
 				if (def.name.equalsIgnoreCase("NULL"))
 				{
@@ -26,17 +26,19 @@ package net.runelite.cache;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import net.runelite.cache.definitions.ObjectDefinition;
 import net.runelite.cache.definitions.exporters.ObjectExporter;
 import net.runelite.cache.definitions.loaders.ObjectLoader;
 import net.runelite.cache.fs.Archive;
-import net.runelite.cache.fs.ArchiveFiles;
-import net.runelite.cache.fs.FSFile;
 import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.LazyArchive;
+import net.runelite.cache.fs.ParallelLoader;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.util.IDClass;
@@ -45,6 +47,7 @@ public class ObjectManager
 {
 	private final Store store;
 	private final Map<Integer, ObjectDefinition> objects = new HashMap<>();
+	private LazyArchive<ObjectDefinition> lazy;
 
 	public ObjectManager(Store store)
 	{
@@ -53,31 +56,58 @@ public class ObjectManager
 
 	public void load() throws IOException
 	{
-		ObjectLoader loader = new ObjectLoader();
-
 		Storage storage = store.getStorage();
 		Index index = store.getIndex(IndexType.CONFIGS);
 		Archive archive = index.getArchive(ConfigType.OBJECT.getId());
 
-		loader.configureForRevision(archive.getRevision());
-
-		byte[] archiveData = storage.loadArchive(archive);
-		ArchiveFiles files = archive.getFiles(archiveData);
+		int revision = archive.getRevision();
+		List<ObjectDefinition> defs = ParallelLoader.decodeFiles(storage, archive, null,
+			() -> new ObjectLoader().configureForRevision(revision)::load);
 
-		for (FSFile f : files.getFiles())
+		for (ObjectDefinition def : defs)
 		{
-			ObjectDefinition def = loader.load(f.getFileId(), f.getContents());
-			objects.put(f.getFileId(), def);
+			objects.put(def.getId(), def);
 		}
 	}
 
+	/**
+	 * Load the objects without decoding them. Each is decoded when it is first looked up, and at most
+	 * {@code cacheSize} are kept decoded.
+	 */
+	public void loadLazy(int cacheSize) throws IOException
+	{
+		Storage storage = store.getStorage();
+		Index index = store.getIndex(IndexType.CONFIGS);
+		Archive archive = index.getArchive(ConfigType.OBJECT.getId());
+
+		int revision = archive.getRevision();
+		lazy = LazyArchive.load(storage, archive, null, cacheSize,
+			() -> new ObjectLoader().configureForRevision(revision)::load);
+	}
+
 	public Collection<ObjectDefinition> getObjects()
 	{
+		if (lazy != null)
+		{
+			// decodes all of them again
+			try
+			{
+				return Collections.unmodifiableCollection(lazy.decodeAll());
+			}
+			catch (IOException ex)
+			{
+				throw new UncheckedIOException(ex);
+			}
+		}
 		return Collections.unmodifiableCollection(objects.values());
 	}
 
 	public ObjectDefinition getObject(int id)
 	{
+		if (lazy != null)
+		{
+			return lazy.get(id);
+		}
 		return objects.get(id);
 	}
 
@@ -85,7 +115,7 @@ public class ObjectManager
 	{
 		out.mkdirs();
 
-		for (ObjectDefinition def : objects.values())
+		for (ObjectDefinition def : getObjects())
 		{
 			ObjectExporter exporter = new ObjectExporter(def);
 
@@ -100,7 +130,7 @@ public class ObjectManager
 		try (IDClass ids = IDClass.create(java, "ObjectID");
 			IDClass nulls = IDClass.create(java, "NullObjectID"))
 		{
-			for (ObjectDefinition def : objects.values())
+			for (ObjectDefinition def : getObjects())
 			{
 				if ("null".equals(def.getName()))
 				{
@@ -32,6 +32,7 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import net.runelite.cache.definitions.SpriteDefinition;
 import net.runelite.cache.definitions.exporters.SpriteExporter;
@@ -39,6 +40,7 @@ import net.runelite.cache.definitions.loaders.SpriteLoader;
 import net.runelite.cache.definitions.providers.SpriteProvider;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.ParallelLoader;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.util.Djb2;
@@ -59,17 +61,15 @@ public class SpriteManager implements SpriteProvider
 		Storage storage = store.getStorage();
 		Index index = store.getIndex(IndexType.SPRITES);
 
-		for (Archive a : index.getArchives())
-		{
-			byte[] contents = a.decompress(storage.loadArchive(a));
-
-			SpriteLoader loader = new SpriteLoader();
-			SpriteDefinition[] defs = loader.load(a.getArchiveId(), contents);
+		List<Archive> archives = index.getArchives();
+		List<SpriteDefinition[]> defs = ParallelLoader.decodeArchives(storage, archives, () -> new SpriteLoader()::load);
 
-			for (SpriteDefinition sprite : defs)
+		for (int i = 0; i < archives.size(); ++i)
+		{
+			for (SpriteDefinition sprite : defs.get(i))
 			{
 				sprites.put(sprite.getId(), sprite);
-				spriteIdsByArchiveNameHash.put(a.getNameHash(), sprite.getId());
+				spriteIdsByArchiveNameHash.put(archives.get(i).getNameHash(), sprite.getId());
 			}
 		}
 	}
@@ -31,9 +31,8 @@ import net.runelite.cache.definitions.TextureDefinition;
 import net.runelite.cache.definitions.loaders.TextureLoader;
 import net.runelite.cache.definitions.providers.TextureProvider;
 import net.runelite.cache.fs.Archive;
-import net.runelite.cache.fs.ArchiveFiles;
-import net.runelite.cache.fs.FSFile;
 import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.ParallelLoader;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
 
@@ -53,16 +52,7 @@ public class TextureManager implements TextureProvider
 		Index index = store.getIndex(IndexType.TEXTURES);
 		Archive archive = index.getArchive(0);
 
-		byte[] archiveData = storage.loadArchive(archive);
-		ArchiveFiles files = archive.getFiles(archiveData);
-
-		TextureLoader loader = new TextureLoader();
-
-		for (FSFile file : files.getFiles())
-		{
-			TextureDefinition texture = loader.load(file.getFileId(), file.getContents());
-			textures.add(texture);
-		}
+		textures.addAll(ParallelLoader.decodeFiles(storage, archive, null, () -> new TextureLoader()::load));
 	}
 
 	public List<TextureDefinition> getTextures()
@@ -43,7 +43,6 @@ public class Archive
 	@Getter
 	private final int archiveId;
 	@Getter
-	@Setter
 	private int nameHash;
 	@Getter
 	@Setter
@@ -70,6 +69,16 @@ public class Archive
 		this.archiveId = id;
 	}
 
+	public void setNameHash(int nameHash)
+	{
+		int oldNameHash = this.nameHash;
+		this.nameHash = nameHash;
+		if (oldNameHash != nameHash)
+		{
+			index.nameHashChanged(this, oldNameHash);
+		}
+	}
+
 	public byte[] decompress(byte[] data) throws IOException
 	{
 		return decompress(data, null);
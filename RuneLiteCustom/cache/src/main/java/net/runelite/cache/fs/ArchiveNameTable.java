@@ -0,0 +1,101 @@
+package net.runelite.cache.fs;
+
+/**
+ * Open addressing hash table from archive name hash to archive, with linear probing
+ */
+final class ArchiveNameTable
+{
+	private int[] hashes;
+	private Archive[] archives;
+	private int size;
+
+	ArchiveNameTable(int expected)
+	{
+		int capacity = 16;
+		while (capacity < expected * 2)
+		{
+			capacity <<= 1;
+		}
+		hashes = new int[capacity];
+		archives = new Archive[capacity];
+	}
+
+	Archive get(int hash)
+	{
+		final int mask = archives.length - 1;
+		for (int i = mix(hash) & mask; archives[i] != null; i = (i + 1) & mask)
+		{
+			if (hashes[i] == hash)
+			{
+				return archives[i];
+			}
+		}
+		return null;
+	}
+
+	void put(int hash, Archive archive)
+	{
+		if ((size + 1) * 2 > archives.length)
+		{
+			resize(archives.length << 1);
+		}
+
+		final int mask = archives.length - 1;
+		int i = mix(hash) & mask;
+		for (; archives[i] != null; i = (i + 1) & mask)
+		{
+			if (hashes[i] == hash)
+			{
+				archives[i] = archive;
+				return;
+			}
+		}
+
+		hashes[i] = hash;
+		archives[i] = archive;
+		++size;
+	}
+
+	/**
+	 * Put an archive if there is no archive with its name hash, or the archive there has a higher id, which is the
+	 * archive a linear search of the index would find first
+	 */
+	void offer(Archive archive)
+	{
+		Archive existing = get(archive.getNameHash());
+		if (existing == null || existing.getArchiveId() > archive.getArchiveId())
+		{
+			put(archive.getNameHash(), archive);
+		}
+	}
+
+	int size()
+	{
+		return size;
+	}
+
+	private void resize(int capacity)
+	{
+		int[] oldHashes = hashes;
+		Archive[] oldArchives = archives;
+
+		hashes = new int[capacity];
+		archives = new Archive[capacity];
+		size = 0;
+
+		for (int i = 0; i < oldArchives.length; ++i)
+		{
+			if (oldArchives[i] != null)
+			{
+				put(oldHashes[i], oldArchives[i]);
+			}
+		}
+	}
+
+	private static int mix(int hash)
+	{
+		// djb2 hashes of similar names differ mostly in their low bits
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+}
@@ -61,6 +61,8 @@ public class Index
 	private int compression; // compression method of this index's data in 255
 
 	private final List<Archive> archives = new ArrayList<>();
+	// built on the first lookup by name, and dropped when the archive it has for a name hash changes
+	private volatile ArchiveNameTable names;
 
 	public Index(int id)
 	{
@@ -83,6 +85,12 @@ public class Index
 		idx = -idx - 1;
 		Archive archive = new Archive(this, id);
 		this.archives.add(idx, archive);
+
+		ArchiveNameTable names = this.names;
+		if (names != null)
+		{
+			names.offer(archive);
+		}
 		return archive;
 	}
 
@@ -127,20 +135,53 @@ public class Index
 
 	public boolean removeArchive(Archive archive)
 	{
-		return archives.remove(archive);
+		int idx = archives.indexOf(archive);
+		if (idx < 0)
+		{
+			return false;
+		}
+
+		Archive removed = archives.remove(idx);
+		ArchiveNameTable names = this.names;
+		if (names != null && names.get(removed.getNameHash()) == removed)
+		{
+			this.names = null;
+		}
+		return true;
 	}
 
 	public Archive findArchiveByName(String name)
 	{
-		int hash = Djb2.hash(name);
-		for (Archive a : archives)
+		ArchiveNameTable names = this.names;
+		if (names == null)
 		{
-			if (a.getNameHash() == hash)
+			names = new ArchiveNameTable(archives.size());
+			for (Archive a : archives)
 			{
-				return a;
+				names.offer(a);
 			}
+			this.names = names;
+		}
+		return names.get(Djb2.hash(name));
+	}
+
+	void nameHashChanged(Archive archive, int oldNameHash)
+	{
+		ArchiveNameTable names = this.names;
+		if (names == null)
+		{
+			return;
+		}
+
+		if (names.get(oldNameHash) == archive)
+		{
+			// another archive may have the old name hash too
+			this.names = null;
+		}
+		else if (getArchive(archive.getArchiveId()) == archive)
+		{
+			names.offer(archive);
 		}
-		return null;
 	}
 
 	public IndexData toIndexData()
@@ -0,0 +1,206 @@
+package net.runelite.cache.fs;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import net.runelite.cache.index.FileData;
+import net.runelite.cache.io.InputStream;
+
+/**
+ * An archive whose files are decoded when they are first looked up. Only the decompressed archive is kept, with the
+ * offsets of each file within it, and at most a fixed number of decoded files are kept after their lookup, with
+ * the least recently used dropped first.
+ *
+ * @param <T> decoded file type
+ */
+public class LazyArchive<T>
+{
+	private final byte[] data;
+	private final int[] fileIds;
+	private final int chunks;
+	// of each chunk of each file, indexed by chunk * fileIds.length + file
+	private final int[] offsets;
+	private final int[] sizes;
+
+	private final Supplier<? extends ParallelLoader.FileDecoder<? extends T>> decoders;
+	private final ThreadLocal<ParallelLoader.FileDecoder<? extends T>> decoder;
+	private final Cache<Integer, T> cache;
+
+	private LazyArchive(byte[] data, int[] fileIds, int maximumSize, Supplier<? extends ParallelLoader.FileDecoder<? extends T>> decoders)
+	{
+		this.data = data;
+		this.fileIds = fileIds;
+		this.decoders = decoders;
+		this.decoder = ThreadLocal.withInitial(decoders);
+		this.cache = CacheBuilder.newBuilder()
+			.maximumSize(maximumSize)
+			.build();
+
+		final int filesCount = fileIds.length;
+		if (filesCount == 1)
+		{
+			chunks = 1;
+			offsets = new int[]{0};
+			sizes = new int[]{data.length};
+			return;
+		}
+
+		// same layout as ArchiveFiles.loadContents
+		InputStream stream = new InputStream(data);
+		stream.setOffset(stream.getLength() - 1);
+		chunks = stream.readUnsignedByte();
+
+		stream.setOffset(stream.getLength() - 1 - chunks * filesCount * 4);
+		offsets = new int[chunks * filesCount];
+		sizes = new int[chunks * filesCount];
+
+		int offset = 0;
+		for (int chunk = 0; chunk < chunks; ++chunk)
+		{
+			int chunkSize = 0;
+			for (int id = 0; id < filesCount; ++id)
+			{
+				chunkSize += stream.readInt();
+
+				offsets[chunk * filesCount + id] = offset;
+				sizes[chunk * filesCount + id] = chunkSize;
+				offset += chunkSize;
+			}
+		}
+	}
+
+	/**
+	 * Load and decompress an archive, without decoding its files
+	 *
+	 * @param storage storage to load the archive from
+	 * @param archive archive
+	 * @param keys xtea keys, or null
+	 * @param maximumSize number of decoded files to keep
+	 * @param decoders makes the decoder of each thread
+	 * @throws IOException if the archive can't be loaded
+	 */
+	public static <T> LazyArchive<T> load(Storage storage, Archive archive, int[] keys, int maximumSize,
+		Supplier<? extends ParallelLoader.FileDecoder<? extends T>> decoders) throws IOException
+	{
+		byte[] data = archive.decompress(storage.loadArchive(archive), keys);
+		if (data == null)
+		{
+			throw new IOException("unable to load archive " + archive.getIndex().getId() + "/" + archive.getArchiveId());
+		}
+
+		int[] fileIds = Arrays.stream(archive.getFileData())
+			.mapToInt(FileData::getId)
+			.toArray();
+		return new LazyArchive<>(data, fileIds, maximumSize, decoders);
+	}
+
+	/**
+	 * @return the ids of the archive's files, in ascending order
+	 */
+	public int[] getFileIds()
+	{
+		return fileIds.clone();
+	}
+
+	/**
+	 * Get a file, decoding it if it isn't cached
+	 *
+	 * @param fileId file id
+	 * @return the decoded file, or null if there is no such file
+	 * @throws UncheckedIOException if the file fails to decode
+	 */
+	public T get(int fileId)
+	{
+		T value = cache.getIfPresent(fileId);
+		if (value != null)
+		{
+			return value;
+		}
+
+		final int file = Arrays.binarySearch(fileIds, fileId);
+		if (file < 0)
+		{
+			return null;
+		}
+
+		try
+		{
+			return cache.get(fileId, () -> decoder.get().decode(fileId, contents(file)));
+		}
+		catch (ExecutionException | UncheckedExecutionException ex)
+		{
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException)
+			{
+				throw new UncheckedIOException((IOException) cause);
+			}
+			Throwables.throwIfUnchecked(cause);
+			throw new RuntimeException(cause);
+		}
+	}
+
+	/**
+	 * Decode every file, in parallel. The files are not cached.
+	 *
+	 * @return the decoded files, in file order
+	 * @throws IOException if a file fails to decode
+	 */
+	public List<T> decodeAll() throws IOException
+	{
+		List<Integer> files = Arrays.stream(fileIds).boxed().collect(Collectors.toList());
+		return ParallelLoader.decode(files, () ->
+		{
+			ParallelLoader.FileDecoder<? extends T> decoder = decoders.get();
+			return fileId ->
+			{
+				T value = cache.getIfPresent(fileId);
+				return value != null ? value : decoder.decode(fileId, contents(Arrays.binarySearch(fileIds, fileId)));
+			};
+		});
+	}
+
+	/**
+	 * Drop the decoded files
+	 */
+	public void invalidate()
+	{
+		cache.invalidateAll();
+	}
+
+	long cachedCount()
+	{
+		return cache.size();
+	}
+
+	private byte[] contents(int file)
+	{
+		if (chunks == 1)
+		{
+			return Arrays.copyOfRange(data, offsets[file], offsets[file] + sizes[file]);
+		}
+
+		int size = 0;
+		for (int chunk = 0; chunk < chunks; ++chunk)
+		{
+			size += sizes[chunk * fileIds.length + file];
+		}
+
+		byte[] contents = new byte[size];
+		int pos = 0;
+		for (int chunk = 0; chunk < chunks; ++chunk)
+		{
+			int i = chunk * fileIds.length + file;
+			System.arraycopy(data, offsets[i], contents, pos, sizes[i]);
+			pos += sizes[i];
+		}
+		return contents;
+	}
+}
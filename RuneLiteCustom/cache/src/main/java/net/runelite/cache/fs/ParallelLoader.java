@@ -0,0 +1,183 @@
+package net.runelite.cache.fs;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Loads the cache on a shared {@link ForkJoinPool}. Archives are fetched, decrypted and decompressed, and their files
+ * decoded, on all of the pool's threads. Each thread decodes with a loader of its own, made by the caller's
+ * supplier, so loaders only need to be safe to use from one thread.
+ */
+public final class ParallelLoader
+{
+	@FunctionalInterface
+	public interface Decoder<T, R>
+	{
+		R decode(T value) throws IOException;
+	}
+
+	@FunctionalInterface
+	public interface FileDecoder<R>
+	{
+		R decode(int id, byte[] contents) throws IOException;
+	}
+
+	@FunctionalInterface
+	public interface Task
+	{
+		void run() throws IOException;
+	}
+
+	private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool ->
+	{
+		ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+		thread.setName("cache-loader-" + thread.getPoolIndex());
+		return thread;
+	}, null, false);
+
+	private ParallelLoader()
+	{
+	}
+
+	public static ForkJoinPool getPool()
+	{
+		return POOL;
+	}
+
+	/**
+	 * Decode each value in parallel
+	 *
+	 * @param values values to decode
+	 * @param decoders makes the decoder of each thread
+	 * @return the decoded values, in the order of {@code values}
+	 * @throws IOException if a value fails to decode
+	 */
+	public static <T, R> List<R> decode(List<T> values, Supplier<? extends Decoder<? super T, ? extends R>> decoders) throws IOException
+	{
+		ThreadLocal<Decoder<? super T, ? extends R>> decoder = ThreadLocal.withInitial(decoders);
+		Object[] results = new Object[values.size()];
+
+		run(() -> IntStream.range(0, results.length).parallel().forEach(i ->
+		{
+			try
+			{
+				results[i] = decoder.get().decode(values.get(i));
+			}
+			catch (IOException ex)
+			{
+				throw new UncheckedIOException(ex);
+			}
+		}));
+
+		@SuppressWarnings("unchecked")
+		List<R> list = (List<R>) Arrays.asList(results);
+		return list;
+	}
+
+	/**
+	 * Load an archive and decode each of its files in parallel
+	 *
+	 * @param storage storage to load the archive from
+	 * @param archive archive
+	 * @param keys xtea keys, or null
+	 * @param decoders makes the decoder of each thread
+	 * @return the decoded files, in file order
+	 * @throws IOException if the archive can't be loaded or a file fails to decode
+	 */
+	public static <R> List<R> decodeFiles(Storage storage, Archive archive, int[] keys, Supplier<? extends FileDecoder<? extends R>> decoders) throws IOException
+	{
+		ArchiveFiles files = archive.getFiles(storage.loadArchive(archive), keys);
+		return decode(new ArrayList<>(files.getFiles()), () ->
+		{
+			FileDecoder<? extends R> decoder = decoders.get();
+			return file -> decoder.decode(file.getFileId(), file.getContents());
+		});
+	}
+
+	/**
+	 * Load each archive and decode its decompressed contents in parallel
+	 *
+	 * @param storage storage to load the archives from
+	 * @param archives archives
+	 * @param decoders makes the decoder of each thread, which is given the archive id and contents
+	 * @return the decoded archives, in the order of {@code archives}
+	 * @throws IOException if an archive can't be loaded or fails to decode
+	 */
+	public static <R> List<R> decodeArchives(Storage storage, List<Archive> archives, Supplier<? extends FileDecoder<? extends R>> decoders) throws IOException
+	{
+		return decode(archives, () ->
+		{
+			FileDecoder<? extends R> decoder = decoders.get();
+			return archive -> decoder.decode(archive.getArchiveId(), archive.decompress(storage.loadArchive(archive)));
+		});
+	}
+
+	/**
+	 * Run tasks in parallel, and wait for all of them
+	 *
+	 * @param tasks tasks
+	 * @throws IOException if a task failed
+	 */
+	public static void all(Task... tasks) throws IOException
+	{
+		decode(Arrays.asList(tasks), () -> task ->
+		{
+			task.run();
+			return null;
+		});
+	}
+
+	private static void run(Runnable task) throws IOException
+	{
+		if (ForkJoinTask.getPool() == POOL)
+		{
+			// already on the pool, where a parallel stream runs on the pool's threads without a new task
+			try
+			{
+				task.run();
+			}
+			catch (UncheckedIOException ex)
+			{
+				throw ex.getCause();
+			}
+			return;
+		}
+
+		try
+		{
+			POOL.submit(task).get();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+		catch (ExecutionException ex)
+		{
+			Throwable cause = ex.getCause();
+			if (cause instanceof UncheckedIOException)
+			{
+				throw ((UncheckedIOException) cause).getCause();
+			}
+			if (cause instanceof RuntimeException)
+			{
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error)
+			{
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+}
@@ -40,20 +40,47 @@ public class DataFile implements Closeable
 	private static final int SECTOR_SIZE = 520;
 
 	private final RandomAccessFile dat;
+	private final MappedFile mapped;
 
 	public DataFile(File file) throws FileNotFoundException
+	{
+		this(file, false);
+	}
+
+	/**
+	 * @param file data file
+	 * @param mapped whether to read through a mapping of the file, which lets any number of threads read at once
+	 * @throws FileNotFoundException
+	 */
+	public DataFile(File file, boolean mapped) throws FileNotFoundException
 	{
 		this.dat = new RandomAccessFile(file, "rw");
+		this.mapped = mapped ? new MappedFile(dat.getChannel(), SECTOR_SIZE) : null;
 	}
 
 	@Override
 	public void close() throws IOException
 	{
+		if (mapped != null)
+		{
+			mapped.unmap();
+		}
 		dat.close();
 	}
 
-	public void clear() throws IOException
+	/**
+	 * Truncate the file. Not allowed on a mapped file, as the old mapping stays valid until it is collected and
+	 * reading it past the new end of the file crashes the JVM.
+	 *
+	 * @throws IOException
+	 * @throws IllegalStateException if the file was opened mapped
+	 */
+	public synchronized void clear() throws IOException
 	{
+		if (mapped != null)
+		{
+			throw new IllegalStateException("can't clear a mapped file");
+		}
 		dat.setLength(0L);
 	}
 
@@ -66,7 +93,88 @@ public class DataFile implements Closeable
 	 * @return
 	 * @throws IOException
 	 */
-	public synchronized byte[] read(int indexId, int archiveId, int sector, int size) throws IOException
+	public byte[] read(int indexId, int archiveId, int sector, int size) throws IOException
+	{
+		if (mapped != null)
+		{
+			return readMapped(indexId, archiveId, sector, size);
+		}
+		return readFile(indexId, archiveId, sector, size);
+	}
+
+	private byte[] readMapped(int indexId, int archiveId, int sector, int size) throws IOException
+	{
+		if (sector <= 0 || !mapped.covers((long) SECTOR_SIZE * sector))
+		{
+			logger.warn("bad read, requested sector {}", sector);
+			return null;
+		}
+
+		final boolean largeArchive = archiveId > 0xFFFF;
+		final int headerSize = largeArchive ? 10 : 8;
+		final byte[] data = new byte[size];
+
+		for (int part = 0, readBytesCount = 0, nextSector;
+			size > readBytesCount;
+			sector = nextSector)
+		{
+			if (sector == 0)
+			{
+				logger.warn("Unexpected end of file");
+				return null;
+			}
+
+			int dataBlockSize = Math.min(size - readBytesCount, SECTOR_SIZE - headerSize);
+			ByteBuffer buf = mapped.slice((long) SECTOR_SIZE * sector, headerSize + dataBlockSize);
+			if (buf == null)
+			{
+				logger.warn("Short read when reading file data for {}/{}", indexId, archiveId);
+				return null;
+			}
+
+			int currentIndex;
+			int currentPart;
+			int currentArchive;
+			if (largeArchive)
+			{
+				currentArchive = buf.getInt();
+				currentPart = buf.getShort() & 0xFFFF;
+			}
+			else
+			{
+				currentArchive = buf.getShort() & 0xFFFF;
+				currentPart = buf.getShort() & 0xFFFF;
+			}
+			nextSector = ((buf.get() & 0xFF) << 16)
+				| ((buf.get() & 0xFF) << 8)
+				| (buf.get() & 0xFF);
+			currentIndex = buf.get() & 0xFF;
+
+			if (archiveId != currentArchive || currentPart != part || indexId != currentIndex)
+			{
+				logger.warn("data mismatch {} != {}, {} != {}, {} != {}",
+					archiveId, currentArchive,
+					part, currentPart,
+					indexId, currentIndex);
+				return null;
+			}
+
+			if (!mapped.covers((long) SECTOR_SIZE * nextSector))
+			{
+				logger.warn("Invalid next sector");
+				return null;
+			}
+
+			buf.get(data, readBytesCount, dataBlockSize);
+			readBytesCount += dataBlockSize;
+
+			++part;
+		}
+
+		return data;
+	}
+
+	private synchronized byte[] readFile(int indexId, int archiveId, int sector, int size) throws IOException
 	{
 		if (sector <= 0L || dat.length() / SECTOR_SIZE < (long) sector)
 		{
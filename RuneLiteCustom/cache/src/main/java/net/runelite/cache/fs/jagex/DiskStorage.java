@@ -32,6 +32,7 @@ import java.util.List;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Container;
 import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.ParallelLoader;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.index.ArchiveData;
@@ -47,17 +48,30 @@ public class DiskStorage implements Storage
 	private static final String MAIN_FILE_CACHE_IDX = "main_file_cache.idx";
 
 	private final File folder;
+	private final boolean mapped;
 
 	private final DataFile data;
 	private final IndexFile index255;
 	private final List<IndexFile> indexFiles = new ArrayList<>();
 
 	public DiskStorage(File folder) throws IOException
+	{
+		this(folder, false);
+	}
+
+	/**
+	 * @param folder cache folder
+	 * @param mapped whether to read the cache through mappings of its files, so that archives can be loaded from
+	 * many threads at once
+	 * @throws IOException
+	 */
+	public DiskStorage(File folder, boolean mapped) throws IOException
 	{
 		this.folder = folder;
+		this.mapped = mapped;
 
-		this.data = new DataFile(new File(folder, MAIN_FILE_CACHE_DAT));
-		this.index255 = new IndexFile(255, new File(folder, MAIN_FILE_CACHE_IDX + "255"));
+		this.data = new DataFile(new File(folder, MAIN_FILE_CACHE_DAT), mapped);
+		this.index255 = new IndexFile(255, new File(folder, MAIN_FILE_CACHE_IDX + "255"), mapped);
 	}
 
 	@Override
@@ -98,7 +112,7 @@ public class DiskStorage implements Storage
 			}
 		}
 
-		IndexFile indexFile = new IndexFile(i, new File(folder, MAIN_FILE_CACHE_IDX + i));
+		IndexFile indexFile = new IndexFile(i, new File(folder, MAIN_FILE_CACHE_IDX + i), mapped);
 		indexFiles.add(indexFile);
 		return indexFile;
 	}
@@ -106,10 +120,12 @@ public class DiskStorage implements Storage
 	@Override
 	public void load(Store store) throws IOException
 	{
-		for (Index index : store.getIndexes())
+		// the indexes are independent of each other
+		ParallelLoader.decode(store.getIndexes(), () -> index ->
 		{
 			loadIndex(index);
-		}
+			return null;
+		});
 	}
 
 	public byte[] readIndex(int indexId) throws IOException
@@ -29,6 +29,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import org.slf4j.Logger;
@@ -45,23 +46,51 @@ public class IndexFile implements Closeable
 	private final int indexFileId;
 	private final File file;
 	private final RandomAccessFile idx;
+	private final MappedFile mapped;
 	private final byte[] buffer = new byte[INDEX_ENTRY_LEN];
 
 	public IndexFile(int indexFileId, File file) throws FileNotFoundException
+	{
+		this(indexFileId, file, false);
+	}
+
+	/**
+	 * @param indexFileId index id
+	 * @param file index file
+	 * @param mapped whether to read through a mapping of the file, which lets any number of threads read at once
+	 * @throws FileNotFoundException
+	 */
+	public IndexFile(int indexFileId, File file, boolean mapped) throws FileNotFoundException
 	{
 		this.indexFileId = indexFileId;
 		this.file = file;
 		this.idx = new RandomAccessFile(file, "rw");
+		this.mapped = mapped ? new MappedFile(idx.getChannel(), INDEX_ENTRY_LEN) : null;
 	}
 
 	@Override
 	public void close() throws IOException
 	{
+		if (mapped != null)
+		{
+			mapped.unmap();
+		}
 		idx.close();
 	}
 
-	public void clear() throws IOException
+	/**
+	 * Truncate the file. Not allowed on a mapped file, as the old mapping stays valid until it is collected and
+	 * reading it past the new end of the file crashes the JVM.
+	 *
+	 * @throws IOException
+	 * @throws IllegalStateException if the file was opened mapped
+	 */
+	public synchronized void clear() throws IOException
 	{
+		if (mapped != null)
+		{
+			throw new IllegalStateException("can't clear a mapped file");
+		}
 		idx.setLength(0L);
 	}
 
@@ -80,7 +109,26 @@ public class IndexFile implements Closeable
 		idx.write(buffer);
 	}
 
-	public synchronized IndexEntry read(int id) throws IOException
+	public IndexEntry read(int id) throws IOException
+	{
+		if (mapped == null)
+		{
+			return readFile(id);
+		}
+
+		ByteBuffer buf = mapped.slice((long) id * INDEX_ENTRY_LEN, INDEX_ENTRY_LEN);
+		if (buf == null)
+		{
+			logger.debug("short read for id {} on index {}", id, indexFileId);
+			return null;
+		}
+
+		int length = ((buf.get() & 0xFF) << 16) | ((buf.get() & 0xFF) << 8) | (buf.get() & 0xFF);
+		int sector = ((buf.get() & 0xFF) << 16) | ((buf.get() & 0xFF) << 8) | (buf.get() & 0xFF);
+		return entry(id, length, sector);
+	}
+
+	private synchronized IndexEntry readFile(int id) throws IOException
 	{
 		idx.seek(id * INDEX_ENTRY_LEN);
 		int i = idx.read(buffer);
@@ -92,7 +140,11 @@ public class IndexFile implements Closeable
 
 		int length = ((buffer[0] & 0xFF) << 16) | ((buffer[1] & 0xFF) << 8) | (buffer[2] & 0xFF);
 		int sector = ((buffer[3] & 0xFF) << 16) | ((buffer[4] & 0xFF) << 8) | (buffer[5] & 0xFF);
+		return entry(id, length, sector);
+	}
 
+	private IndexEntry entry(int id, int length, int sector)
+	{
 		if (length <= 0 || sector <= 0)
 		{
 			logger.debug("invalid length or sector {}/{}", length, sector);
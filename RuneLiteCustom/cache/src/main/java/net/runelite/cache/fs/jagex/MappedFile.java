@@ -0,0 +1,119 @@
+package net.runelite.cache.fs.jagex;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Read only mapping of a file made of fixed size records. The file is mapped in chunks of whole records, so that no
+ * record spans two chunks, and is mapped again as it grows. Reads are positional and take no lock.
+ * <p>
+ * Writes made through the file's channel or {@link java.io.RandomAccessFile} are seen by the mapping, so the file
+ * may still be written while mapped, but not truncated.
+ */
+class MappedFile
+{
+	private static final class Mapping
+	{
+		private final ByteBuffer[] chunks;
+		private final long length;
+
+		private Mapping(ByteBuffer[] chunks, long length)
+		{
+			this.chunks = chunks;
+			this.length = length;
+		}
+	}
+
+	private static final Mapping EMPTY = new Mapping(new ByteBuffer[0], 0L);
+
+	private final FileChannel channel;
+	private final int recordSize;
+	private final int chunkSize;
+	private volatile Mapping mapping = EMPTY;
+
+	MappedFile(FileChannel channel, int recordSize)
+	{
+		this.channel = channel;
+		this.recordSize = recordSize;
+		this.chunkSize = (Integer.MAX_VALUE / recordSize) * recordSize;
+	}
+
+	/**
+	 * Get a view of part of a record
+	 *
+	 * @param position position of the bytes, which must not cross a record boundary
+	 * @param length number of bytes
+	 * @return a buffer positioned at the bytes and limited to them, or null if the file is too short
+	 * @throws IOException
+	 */
+	ByteBuffer slice(long position, int length) throws IOException
+	{
+		assert position % recordSize + length <= recordSize;
+
+		long end = position + length;
+		Mapping m = mapping;
+		if (end > m.length)
+		{
+			m = map(end);
+			if (end > m.length)
+			{
+				return null;
+			}
+		}
+
+		ByteBuffer chunk = m.chunks[(int) (position / chunkSize)];
+		int offset = (int) (position % chunkSize);
+		ByteBuffer buffer = chunk.duplicate();
+		buffer.limit(offset + length);
+		buffer.position(offset);
+		return buffer;
+	}
+
+	/**
+	 * @return whether the file is at least {@code length} bytes long
+	 * @throws IOException
+	 */
+	boolean covers(long length) throws IOException
+	{
+		return length <= mapping.length || length <= map(length).length;
+	}
+
+	/**
+	 * Drop the mapping, when the file is closed
+	 */
+	synchronized void unmap()
+	{
+		// the buffers are unmapped once they are collected
+		mapping = EMPTY;
+	}
+
+	private synchronized Mapping map(long end) throws IOException
+	{
+		Mapping m = mapping;
+		if (end <= m.length)
+		{
+			return m;
+		}
+
+		long size = channel.size();
+		if (size <= m.length)
+		{
+			return m;
+		}
+
+		int count = (int) ((size + chunkSize - 1) / chunkSize);
+		ByteBuffer[] chunks = Arrays.copyOf(m.chunks, count);
+		// full chunks are kept, and a partial last chunk is mapped again at its new length
+		for (int i = (int) (m.length / chunkSize); i < count; ++i)
+		{
+			long start = (long) i * chunkSize;
+			chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(chunkSize, size - start));
+		}
+
+		m = new Mapping(chunks, size);
+		mapping = m;
+		return m;
+	}
+}
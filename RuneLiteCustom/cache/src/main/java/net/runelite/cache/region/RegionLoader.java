@@ -27,7 +27,10 @@ package net.runelite.cache.region;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.definitions.LocationsDefinition;
@@ -36,6 +39,7 @@ import net.runelite.cache.definitions.loaders.LocationsLoader;
 import net.runelite.cache.definitions.loaders.MapLoader;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.ParallelLoader;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.util.KeyProvider;
@@ -49,6 +53,9 @@ public class RegionLoader
 	private final Index index;
 	private final KeyProvider keyProvider;
 
+	// map and land archive ids of each region, at regionId * 2 and regionId * 2 + 1, or -1
+	private volatile int[] regionArchives;
+
 	private final Map<Integer, Region> regions = new HashMap<>();
 	private Region lowestX = null, lowestY = null;
 	private Region highestX = null, highestY = null;
@@ -67,35 +74,58 @@ public class RegionLoader
 			return;
 		}
 
-		for (int i = 0; i < MAX_REGION; ++i)
+		int[] regionArchives = getRegionArchives();
+		List<Integer> ids = IntStream.range(0, MAX_REGION)
+			.filter(i -> regionArchives[i * 2] != -1)
+			.boxed()
+			.collect(Collectors.toList());
+		List<Region> loaded = ParallelLoader.decode(ids, () -> i ->
 		{
 			try
 			{
-				this.loadRegionFromArchive(i);
+				return readRegion(i);
 			}
 			catch (IOException ex)
 			{
 				log.debug("Can't decrypt region " + i, ex);
+				return null;
+			}
+		});
+
+		for (Region region : loaded)
+		{
+			if (region != null)
+			{
+				regions.put(region.getRegionID(), region);
 			}
 		}
 	}
 
 	public Region loadRegionFromArchive(int i) throws IOException
+	{
+		Region region = readRegion(i);
+		if (region != null)
+		{
+			regions.put(i, region);
+		}
+		return region;
+	}
+
+	private Region readRegion(int i) throws IOException
 	{
 		int x = i >> 8;
 		int y = i & 0xFF;
 
 		Storage storage = store.getStorage();
-		Archive map = index.findArchiveByName("m" + x + "_" + y);
-		Archive land = index.findArchiveByName("l" + x + "_" + y);
-
-		assert (map == null) == (land == null);
-
-		if (map == null || land == null)
+		int[] regionArchives = getRegionArchives();
+		if (regionArchives[i * 2] == -1 || regionArchives[i * 2 + 1] == -1)
 		{
 			return null;
 		}
 
+		Archive map = index.getArchive(regionArchives[i * 2]);
+		Archive land = index.getArchive(regionArchives[i * 2 + 1]);
+
 		byte[] data = map.decompress(storage.loadArchive(map));
 
 		MapDefinition mapDef = new MapLoader().load(x, y, data);
@@ -111,11 +141,40 @@ public class RegionLoader
 			region.loadLocations(locDef);
 		}
 
-		regions.put(i, region);
-
 		return region;
 	}
 
+	private int[] getRegionArchives()
+	{
+		int[] regionArchives = this.regionArchives;
+		if (regionArchives != null)
+		{
+			return regionArchives;
+		}
+
+		regionArchives = new int[MAX_REGION * 2];
+		for (int i = 0; i < MAX_REGION; ++i)
+		{
+			int x = i >> 8;
+			int y = i & 0xFF;
+
+			Archive map = index.findArchiveByName("m" + x + "_" + y);
+			Archive land = index.findArchiveByName("l" + x + "_" + y);
+
+			assert (map == null) == (land == null);
+
+			if (map == null || land == null)
+			{
+				regionArchives[i * 2] = regionArchives[i * 2 + 1] = -1;
+				continue;
+			}
+
+			regionArchives[i * 2] = map.getArchiveId();
+			regionArchives[i * 2 + 1] = land.getArchiveId();
+		}
+		return this.regionArchives = regionArchives;
+	}
+
 	public Region loadRegion(int id, MapDefinition map, LocationsDefinition locs)
 	{
 		Region r = new Region(id);
@@ -0,0 +1,212 @@
+package net.runelite.cache.util;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes a PNG image a strip of rows at a time, top to bottom, so the whole image is never held in memory. Pixels are
+ * given as packed ARGB ints, like {@link java.awt.image.BufferedImage#getRGB(int, int)}, and written as 8 bit RGB, or
+ * RGBA if the image has alpha.
+ */
+public class StripedPngWriter implements Closeable
+{
+	private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+	private static final int IDAT_SIZE = 64 * 1024;
+
+	private static final int COLOR_RGB = 2;
+	private static final int COLOR_RGBA = 6;
+	private static final int FILTER_SUB = 1;
+
+	private final DataOutputStream out;
+	private final int width;
+	private final int height;
+	private final boolean alpha;
+	private final int bytesPerPixel;
+
+	private final Deflater deflater = new Deflater();
+	private final DeflaterOutputStream idat;
+	private final byte[] row;
+	private int rowsWritten;
+
+	public StripedPngWriter(OutputStream out, int width, int height, boolean alpha) throws IOException
+	{
+		if (width <= 0 || height <= 0)
+		{
+			throw new IllegalArgumentException("invalid image size " + width + "x" + height);
+		}
+
+		this.out = new DataOutputStream(out);
+		this.width = width;
+		this.height = height;
+		this.alpha = alpha;
+		this.bytesPerPixel = alpha ? 4 : 3;
+		this.row = new byte[1 + width * bytesPerPixel];
+		this.idat = new DeflaterOutputStream(new ChunkOutputStream(), deflater, IDAT_SIZE);
+
+		this.out.write(SIGNATURE);
+
+		byte[] header = new byte[13];
+		writeInt(header, 0, width);
+		writeInt(header, 4, height);
+		header[8] = 8; // bit depth
+		header[9] = (byte) (alpha ? COLOR_RGBA : COLOR_RGB);
+		// compression, filter and interlace methods are all 0
+		writeChunk("IHDR", header, header.length);
+	}
+
+	/**
+	 * Write the next rows of the image
+	 *
+	 * @param argb pixels
+	 * @param offset offset of the first pixel of the first row
+	 * @param scansize distance between the start of each row
+	 * @param rows number of rows
+	 * @throws IOException if the rows can't be written
+	 */
+	public void write(int[] argb, int offset, int scansize, int rows) throws IOException
+	{
+		if (rowsWritten + rows > height)
+		{
+			throw new IllegalStateException("writing row " + (rowsWritten + rows) + " of " + height);
+		}
+
+		for (int y = 0; y < rows; ++y)
+		{
+			int pos = offset + y * scansize;
+			int idx = 0;
+			row[idx++] = FILTER_SUB;
+
+			int prevR = 0, prevG = 0, prevB = 0, prevA = 0;
+			for (int x = 0; x < width; ++x)
+			{
+				int pixel = argb[pos + x];
+				int r = (pixel >>> 16) & 0xff;
+				int g = (pixel >>> 8) & 0xff;
+				int b = pixel & 0xff;
+
+				row[idx++] = (byte) (r - prevR);
+				row[idx++] = (byte) (g - prevG);
+				row[idx++] = (byte) (b - prevB);
+				if (alpha)
+				{
+					int a = pixel >>> 24;
+					row[idx++] = (byte) (a - prevA);
+					prevA = a;
+				}
+
+				prevR = r;
+				prevG = g;
+				prevB = b;
+			}
+
+			idat.write(row);
+		}
+
+		rowsWritten += rows;
+	}
+
+	/**
+	 * Finish the image and close the underlying stream
+	 *
+	 * @throws IOException if the image can't be written, or not all of its rows were written
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		try
+		{
+			if (rowsWritten != height)
+			{
+				throw new IOException("wrote " + rowsWritten + " of " + height + " rows");
+			}
+
+			idat.close();
+			writeChunk("IEND", new byte[0], 0);
+		}
+		finally
+		{
+			deflater.end();
+			out.close();
+		}
+	}
+
+	private void writeChunk(String type, byte[] data, int length) throws IOException
+	{
+		byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+
+		CRC32 crc = new CRC32();
+		crc.update(typeBytes);
+		crc.update(data, 0, length);
+
+		out.writeInt(length);
+		out.write(typeBytes);
+		out.write(data, 0, length);
+		out.writeInt((int) crc.getValue());
+	}
+
+	private static void writeInt(byte[] b, int off, int value)
+	{
+		b[off] = (byte) (value >>> 24);
+		b[off + 1] = (byte) (value >>> 16);
+		b[off + 2] = (byte) (value >>> 8);
+		b[off + 3] = (byte) value;
+	}
+
+	/**
+	 * Splits the compressed image data into IDAT chunks
+	 */
+	private class ChunkOutputStream extends OutputStream
+	{
+		private final byte[] buffer = new byte[IDAT_SIZE];
+		private int size;
+
+		@Override
+		public void write(int b) throws IOException
+		{
+			if (size == buffer.length)
+			{
+				flushChunk();
+			}
+			buffer[size++] = (byte) b;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException
+		{
+			while (len > 0)
+			{
+				if (size == buffer.length)
+				{
+					flushChunk();
+				}
+
+				int n = Math.min(len, buffer.length - size);
+				System.arraycopy(b, off, buffer, size, n);
+				size += n;
+				off += n;
+				len -= n;
+			}
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			flushChunk();
+		}
+
+		private void flushChunk() throws IOException
+		{
+			if (size > 0)
+			{
+				writeChunk("IDAT", buffer, size);
+				size = 0;
+			}
+		}
+	}
+}
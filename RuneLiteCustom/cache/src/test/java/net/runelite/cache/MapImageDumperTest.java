@@ -75,6 +75,33 @@ public class MapImageDumperTest
 		}
 	}
 
+	@Test
+	@Ignore
+	public void dumpMapTiled() throws IOException
+	{
+		File base = StoreLocation.LOCATION,
+			outDir = folder.newFolder();
+
+		try (Store store = new Store(base))
+		{
+			store.load();
+
+			XteaKeyManager keyManager = new XteaKeyManager();
+			keyManager.loadKeys(null);
+
+			MapImageDumper dumper = new MapImageDumper(store, keyManager);
+			dumper.load();
+
+			for (int i = 0; i < Region.Z; ++i)
+			{
+				File imageFile = new File(outDir, "img-" + i + ".png");
+
+				dumper.drawMapTiled(i, imageFile);
+				logger.info("Wrote image {}", imageFile);
+			}
+		}
+	}
+
 	@Test
 	@Ignore
 	public void dumpRegions() throws Exception
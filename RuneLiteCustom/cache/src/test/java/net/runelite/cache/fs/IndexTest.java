@@ -0,0 +1,56 @@
+package net.runelite.cache.fs;
+
+import net.runelite.cache.util.Djb2;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IndexTest
+{
+	@Test
+	public void testFindArchiveByName()
+	{
+		Index index = new Index(0);
+		for (int i = 0; i < 1000; ++i)
+		{
+			index.addArchive(i).setNameHash(Djb2.hash("m" + i));
+		}
+
+		for (int i = 0; i < 1000; ++i)
+		{
+			Assert.assertEquals(i, index.findArchiveByName("m" + i).getArchiveId());
+		}
+		Assert.assertNull(index.findArchiveByName("l0"));
+
+		// added and renamed after the first lookup
+		index.addArchive(1000).setNameHash(Djb2.hash("l0"));
+		Assert.assertEquals(1000, index.findArchiveByName("l0").getArchiveId());
+
+		index.getArchive(5).setNameHash(Djb2.hash("l5"));
+		Assert.assertNull(index.findArchiveByName("m5"));
+		Assert.assertEquals(5, index.findArchiveByName("l5").getArchiveId());
+
+		index.removeArchive(index.getArchive(6));
+		Assert.assertNull(index.findArchiveByName("m6"));
+		Assert.assertEquals(7, index.findArchiveByName("m7").getArchiveId());
+	}
+
+	@Test
+	public void testFindArchiveByNameDuplicates()
+	{
+		Index index = new Index(0);
+		index.addArchive(3).setNameHash(Djb2.hash("a"));
+		Assert.assertEquals(3, index.findArchiveByName("a").getArchiveId());
+
+		// the archive with the lowest id is found
+		index.addArchive(7).setNameHash(Djb2.hash("a"));
+		index.addArchive(1).setNameHash(Djb2.hash("a"));
+		Assert.assertEquals(1, index.findArchiveByName("a").getArchiveId());
+
+		index.removeArchive(index.getArchive(1));
+		Assert.assertEquals(3, index.findArchiveByName("a").getArchiveId());
+
+		index.getArchive(3).setNameHash(Djb2.hash("b"));
+		Assert.assertEquals(7, index.findArchiveByName("a").getArchiveId());
+		Assert.assertEquals(3, index.findArchiveByName("b").getArchiveId());
+	}
+}
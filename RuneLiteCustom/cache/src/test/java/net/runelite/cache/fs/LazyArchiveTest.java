@@ -0,0 +1,99 @@
+package net.runelite.cache.fs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.index.FileData;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LazyArchiveTest
+{
+	@Rule
+	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
+
+	@Test
+	public void testLazy() throws IOException
+	{
+		try (Store store = new Store(folder.getRoot()))
+		{
+			Archive archive = store.addIndex(0).addArchive(0);
+			ArchiveFiles files = new ArchiveFiles();
+			archive.setFileData(new FileData[100]);
+			for (int i = 0; i < 100; ++i)
+			{
+				FileData fileData = archive.getFileData()[i] = new FileData();
+				fileData.setId(i * 2);
+
+				FSFile file = new FSFile(i * 2);
+				file.setContents(("file " + i * 2).getBytes(StandardCharsets.UTF_8));
+				files.addFile(file);
+			}
+			save(store.getStorage(), archive, files.saveContents());
+
+			AtomicInteger decodes = new AtomicInteger();
+			LazyArchive<String> lazy = LazyArchive.load(store.getStorage(), archive, null, 10, () -> (id, contents) ->
+			{
+				decodes.incrementAndGet();
+				return new String(contents, StandardCharsets.UTF_8);
+			});
+
+			Assert.assertEquals("file 42", lazy.get(42));
+			Assert.assertSame(lazy.get(42), lazy.get(42));
+			Assert.assertEquals(1, decodes.get());
+			Assert.assertNull(lazy.get(43));
+
+			for (int i = 0; i < 100; ++i)
+			{
+				Assert.assertEquals("file " + i * 2, lazy.get(i * 2));
+			}
+			Assert.assertTrue(lazy.cachedCount() <= 10);
+
+			List<String> all = lazy.decodeAll();
+			Assert.assertEquals(100, all.size());
+			Assert.assertEquals("file 198", all.get(99));
+		}
+	}
+
+	@Test
+	public void testChunks() throws IOException
+	{
+		try (Store store = new Store(folder.getRoot()))
+		{
+			Archive archive = store.addIndex(0).addArchive(0);
+			archive.setFileData(new FileData[2]);
+			for (int i = 0; i < 2; ++i)
+			{
+				FileData fileData = archive.getFileData()[i] = new FileData();
+				fileData.setId(i);
+			}
+
+			// two files written in two chunks each: "ab" "xyz" then "cd" "w"
+			ByteBuffer buf = ByteBuffer.allocate(8 + 2 * 2 * 4 + 1);
+			buf.put("abxyzcdw".getBytes(StandardCharsets.UTF_8));
+			buf.putInt(2).putInt(1); // chunk sizes are deltas from the previous file's
+			buf.putInt(2).putInt(-1);
+			buf.put((byte) 2);
+			save(store.getStorage(), archive, buf.array());
+
+			LazyArchive<String> lazy = LazyArchive.load(store.getStorage(), archive, null, 10,
+				() -> (id, contents) -> new String(contents, StandardCharsets.UTF_8));
+			Assert.assertEquals("abcd", lazy.get(0));
+			Assert.assertEquals("xyzw", lazy.get(1));
+		}
+	}
+
+	private static void save(Storage storage, Archive archive, byte[] data) throws IOException
+	{
+		Container container = new Container(CompressionType.NONE, -1);
+		container.compress(data, null);
+		archive.setCrc(container.crc);
+		storage.saveArchive(archive, container.data);
+	}
+}
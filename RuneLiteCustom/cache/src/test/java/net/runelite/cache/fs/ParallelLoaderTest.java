@@ -0,0 +1,65 @@
+package net.runelite.cache.fs;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParallelLoaderTest
+{
+	@Test
+	public void testDecodeKeepsOrder() throws IOException
+	{
+		List<Integer> values = IntStream.range(0, 10000).boxed().collect(Collectors.toList());
+		List<Integer> decoded = ParallelLoader.decode(values, () ->
+		{
+			Thread owner = Thread.currentThread();
+			return value ->
+			{
+				// each thread has its own decoder
+				Assert.assertSame(owner, Thread.currentThread());
+				return value * 2;
+			};
+		});
+
+		for (int i = 0; i < values.size(); ++i)
+		{
+			Assert.assertEquals(i * 2, (int) decoded.get(i));
+		}
+	}
+
+	@Test
+	public void testDecodeThrows()
+	{
+		List<Integer> values = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+		try
+		{
+			ParallelLoader.decode(values, () -> value ->
+			{
+				if (value == 42)
+				{
+					throw new IOException("bad value");
+				}
+				return value;
+			});
+			Assert.fail();
+		}
+		catch (IOException ex)
+		{
+			Assert.assertEquals("bad value", ex.getMessage());
+		}
+	}
+
+	@Test
+	public void testNested() throws IOException
+	{
+		int[] sums = new int[2];
+		ParallelLoader.all(
+			() -> sums[0] = ParallelLoader.decode(List.of(1, 2, 3), () -> value -> value).stream().mapToInt(i -> i).sum(),
+			() -> sums[1] = ParallelLoader.decode(List.of(4, 5, 6), () -> value -> value).stream().mapToInt(i -> i).sum()
+		);
+		Assert.assertArrayEquals(new int[]{6, 15}, sums);
+	}
+}
@@ -167,4 +167,49 @@ public class DataFileTest
 		Assert.assertEquals("testtesttesttest1", str);
 		Assert.assertEquals(42, res2.revision);
 	}
+
+	@Test
+	public void testMapped() throws IOException
+	{
+		File file = folder.newFile();
+		DataFile df = new DataFile(file, true);
+
+		byte[] small = "test".getBytes();
+		DataFileWriteResult res = df.write(42, 3, small);
+		Assert.assertArrayEquals(small, df.read(42, 3, res.sector, res.compressedLength));
+
+		// spans several sectors, and is written after the file was first mapped
+		byte[] large = new byte[2000];
+		for (int i = 0; i < large.length; ++i)
+		{
+			large[i] = (byte) i;
+		}
+		DataFileWriteResult res2 = df.write(42, 0x1FFFF, large);
+		Assert.assertArrayEquals(large, df.read(42, 0x1FFFF, res2.sector, res2.compressedLength));
+
+		Assert.assertNull(df.read(41, 3, res.sector, res.compressedLength));
+		Assert.assertNull(df.read(42, 3, res2.sector + 100, res.compressedLength));
+		Assert.assertArrayEquals(small, df.read(42, 3, res.sector, res.compressedLength));
+	}
+
+	@Test
+	public void testClearMapped() throws IOException
+	{
+		File file = folder.newFile();
+		DataFile df = new DataFile(file, true);
+		byte[] data = "test".getBytes();
+		DataFileWriteResult res = df.write(42, 3, data);
+
+		try
+		{
+			df.clear();
+			Assert.fail();
+		}
+		catch (IllegalStateException ex)
+		{
+			// the file is left as it was
+		}
+		Assert.assertArrayEquals(data, df.read(42, 3, res.sector, res.compressedLength));
+		df.close();
+	}
 }
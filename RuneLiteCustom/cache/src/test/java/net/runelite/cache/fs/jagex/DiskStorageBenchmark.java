@@ -0,0 +1,99 @@
+package net.runelite.cache.fs.jagex;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Reads every archive of the test cache through {@link DiskStorage}, with its files read through a
+ * {@link java.io.RandomAccessFile} under a lock or through mappings of them. The threaded scans have each thread
+ * read the whole cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiskStorageBenchmark
+{
+	@Param({"false", "true"})
+	public boolean mapped;
+
+	private Store store;
+	private DiskStorage storage;
+	private int[][] archives;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException
+	{
+		storage = new DiskStorage(StoreLocation.LOCATION, mapped);
+		store = new Store(storage);
+		store.load();
+
+		archives = new int[256][];
+		for (Index index : store.getIndexes())
+		{
+			archives[index.getId()] = index.getArchives().stream()
+				.mapToInt(Archive::getArchiveId)
+				.toArray();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException
+	{
+		store.close();
+	}
+
+	@Benchmark
+	public void scan(Blackhole bh) throws IOException
+	{
+		for (int index = 0; index < archives.length; ++index)
+		{
+			if (archives[index] == null)
+			{
+				continue;
+			}
+
+			for (int archive : archives[index])
+			{
+				bh.consume(storage.load(index, archive));
+			}
+		}
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void scanThreaded(Blackhole bh) throws IOException
+	{
+		scan(bh);
+	}
+
+	public static void main(String[] args) throws Exception
+	{
+		new Runner(new OptionsBuilder()
+			.include(DiskStorageBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
@@ -47,4 +47,42 @@ public class IndexFileTest
 		IndexEntry entry2 = index.read(7);
 		Assert.assertEquals(entry, entry2);
 	}
+
+	@Test
+	public void testMapped() throws IOException
+	{
+		File file = folder.newFile();
+		IndexFile index = new IndexFile(5, file, true);
+		Assert.assertNull(index.read(7));
+
+		IndexEntry entry = new IndexEntry(index, 7, 8, 9);
+		index.write(entry);
+		Assert.assertEquals(entry, index.read(7));
+
+		IndexEntry entry2 = new IndexEntry(index, 7, 10, 11);
+		index.write(entry2);
+		Assert.assertEquals(entry2, index.read(7));
+		Assert.assertNull(index.read(8));
+	}
+
+	@Test
+	public void testClearMapped() throws IOException
+	{
+		File file = folder.newFile();
+		IndexFile index = new IndexFile(5, file, true);
+		IndexEntry entry = new IndexEntry(index, 7, 8, 9);
+		index.write(entry);
+
+		try
+		{
+			index.clear();
+			Assert.fail();
+		}
+		catch (IllegalStateException ex)
+		{
+			// the file is left as it was
+		}
+		Assert.assertEquals(entry, index.read(7));
+		index.close();
+	}
 }
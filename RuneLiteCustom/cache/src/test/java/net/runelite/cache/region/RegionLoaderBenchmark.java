@@ -0,0 +1,111 @@
+package net.runelite.cache.region;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.util.Djb2;
+import net.runelite.cache.util.XteaKeyManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Finds the map and land archives of every region of the test cache, by scanning the archives of the maps index as
+ * {@link Index#findArchiveByName(String)} used to and through its name hash table, and loads every region.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegionLoaderBenchmark
+{
+	private static final int MAX_REGION = 32768;
+
+	private Store store;
+	private Index index;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException
+	{
+		store = new Store(StoreLocation.LOCATION);
+		store.load();
+		index = store.getIndex(IndexType.MAPS);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException
+	{
+		store.close();
+	}
+
+	@Benchmark
+	public void findArchivesLinear(Blackhole bh)
+	{
+		for (int i = 0; i < MAX_REGION; ++i)
+		{
+			int x = i >> 8;
+			int y = i & 0xFF;
+
+			bh.consume(scan(Djb2.hash("m" + x + "_" + y)));
+			bh.consume(scan(Djb2.hash("l" + x + "_" + y)));
+		}
+	}
+
+	@Benchmark
+	public void findArchivesHashed(Blackhole bh)
+	{
+		for (int i = 0; i < MAX_REGION; ++i)
+		{
+			int x = i >> 8;
+			int y = i & 0xFF;
+
+			bh.consume(index.findArchiveByName("m" + x + "_" + y));
+			bh.consume(index.findArchiveByName("l" + x + "_" + y));
+		}
+	}
+
+	@Benchmark
+	public void loadRegions(Blackhole bh) throws IOException
+	{
+		RegionLoader regionLoader = new RegionLoader(store, new XteaKeyManager());
+		regionLoader.loadRegions();
+		bh.consume(regionLoader.getRegions());
+	}
+
+	private Archive scan(int hash)
+	{
+		for (Archive a : index.getArchives())
+		{
+			if (a.getNameHash() == hash)
+			{
+				return a;
+			}
+		}
+		return null;
+	}
+
+	public static void main(String[] args) throws Exception
+	{
+		new Runner(new OptionsBuilder()
+			.include(RegionLoaderBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
@@ -0,0 +1,77 @@
+package net.runelite.cache.util;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import javax.imageio.ImageIO;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class StripedPngWriterTest
+{
+	@Test
+	public void testRgb() throws IOException
+	{
+		testImage(300, 200, false);
+	}
+
+	@Test
+	public void testRgba() throws IOException
+	{
+		testImage(300, 200, true);
+	}
+
+	@Test(expected = IOException.class)
+	public void testMissingRows() throws IOException
+	{
+		try (StripedPngWriter writer = new StripedPngWriter(new ByteArrayOutputStream(), 4, 4, false))
+		{
+			writer.write(new int[4 * 2], 0, 4, 2);
+		}
+	}
+
+	private static void testImage(int width, int height, boolean alpha) throws IOException
+	{
+		Random random = new Random(42);
+		int[] pixels = new int[width * height];
+		for (int i = 0; i < pixels.length; ++i)
+		{
+			// runs of one color, like a map has
+			pixels[i] = i % 7 == 0 || i == 0 ? random.nextInt() : pixels[i - 1];
+		}
+
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		try (StripedPngWriter writer = new StripedPngWriter(bout, width, height, alpha))
+		{
+			// in strips of uneven height, from a buffer wider than the image
+			int[] strip = new int[(width + 10) * 64];
+			for (int y = 0; y < height; y += 64)
+			{
+				int rows = Math.min(64, height - y);
+				for (int r = 0; r < rows; ++r)
+				{
+					System.arraycopy(pixels, (y + r) * width, strip, 5 + r * (width + 10), width);
+				}
+				writer.write(strip, 5, width + 10, rows);
+			}
+		}
+
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(bout.toByteArray()));
+		assertEquals(width, image.getWidth());
+		assertEquals(height, image.getHeight());
+		for (int y = 0; y < height; ++y)
+		{
+			for (int x = 0; x < width; ++x)
+			{
+				int expected = pixels[y * width + x];
+				if (!alpha)
+				{
+					expected |= 0xFF000000;
+				}
+				assertEquals(expected, image.getRGB(x, y));
+			}
+		}
+	}
+}
@@ -25,30 +25,164 @@
 package net.runelite.client.callback;
 
 import com.google.inject.Inject;
-import java.util.Iterator;
+import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BooleanSupplier;
 import javax.inject.Singleton;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
+import net.runelite.client.util.HandlerProfiler;
 
+/**
+ * Runs tasks on the client thread. Queued tasks run at the start of the next client cycle, highest
+ * {@link InvokePriority} first. Once a cycle has spent its frame budget on them, the remaining
+ * {@link InvokePriority#NORMAL} and {@link InvokePriority#LOW} tasks wait for the next cycle.
+ * A task which returns false is retried on the next cycle, or with an exponential back-off if it was queued with
+ * {@link #invokeWithBackOff(BooleanSupplier, InvokePriority)}.
+ */
 @Singleton
 @Slf4j
 public class ClientThread
 {
-	private final ConcurrentLinkedQueue<BooleanSupplier> invokes = new ConcurrentLinkedQueue<>();
-	private final ConcurrentLinkedQueue<BooleanSupplier> invokesAtTickEnd = new ConcurrentLinkedQueue<>();
+	private static final InvokePriority[] PRIORITIES = InvokePriority.values();
+	private static final long RETRY_DELAY = TimeUnit.MILLISECONDS.toNanos(5);
+	private static final long MAX_RETRY_DELAY = TimeUnit.MILLISECONDS.toNanos(250);
+	private static final int DEPTH_WARNING = 5000;
+	private static final long DEPTH_WARNING_INTERVAL = TimeUnit.SECONDS.toNanos(30);
+
+	@Value
+	public static class Stats
+	{
+		/**
+		 * Tasks waiting to run, including ones waiting to be retried
+		 */
+		private final int depth;
+		/**
+		 * Tasks which ran for the first time since the previous {@link #getStats()}
+		 */
+		private final long started;
+		private final long meanWaitNanos;
+		private final long maxWaitNanos;
+		/**
+		 * Failed attempts since the previous {@link #getStats()}
+		 */
+		private final long retries;
+		/**
+		 * Cycles since the previous {@link #getStats()} which left tasks for the next cycle to stay in budget
+		 */
+		private final long overBudgetCycles;
+	}
+
+	private static final class Task implements Comparable<Task>
+	{
+		// a Runnable, or a BooleanSupplier which returns false to be retried
+		private final Object target;
+		private final InvokePriority priority;
+		private final boolean backOff;
+		private final long queuedNanos;
+		private long seq;
+		private int attempts;
+		private long dueNanos;
+
+		private Task(Object target, InvokePriority priority)
+		{
+			this(target, priority, false);
+		}
+
+		private Task(Object target, InvokePriority priority, boolean backOff)
+		{
+			this.target = target;
+			this.priority = priority;
+			this.backOff = backOff;
+			this.queuedNanos = System.nanoTime();
+		}
+
+		private boolean run()
+		{
+			if (target instanceof Runnable)
+			{
+				((Runnable) target).run();
+				return true;
+			}
+			return ((BooleanSupplier) target).getAsBoolean();
+		}
+
+		@Override
+		public int compareTo(Task o)
+		{
+			return Long.compare(dueNanos - o.dueNanos, 0);
+		}
+
+		@Override
+		public String toString()
+		{
+			return target.toString();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private final ConcurrentLinkedQueue<Task>[] invokes = new ConcurrentLinkedQueue[PRIORITIES.length];
+	private final ConcurrentLinkedQueue<Task> invokesAtTickEnd = new ConcurrentLinkedQueue<>();
+	// client thread only, tasks backing off ordered by due time
+	private final PriorityQueue<Task> retries = new PriorityQueue<>();
+	private final AtomicLong nextSeq = new AtomicLong();
+	private final AtomicInteger depth = new AtomicInteger();
+	// set when a task is queued from another thread, so a throttled frame knows to stop waiting. Tasks the client
+	// thread queues for itself don't end the wait, else a task requeued every cycle would lift the frame rate cap.
+	private volatile boolean queued;
+	private long lastDepthWarning;
+
+	private final LongAdder started = new LongAdder();
+	private final LongAdder totalWaitNanos = new LongAdder();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+	private final LongAdder retried = new LongAdder();
+	private final LongAdder overBudgetCycles = new LongAdder();
+
+	/**
+	 * How long each client cycle may spend running queued tasks before leaving the rest for the next cycle
+	 */
+	@Getter
+	@Setter
+	private volatile long frameBudgetNanos = TimeUnit.MILLISECONDS.toNanos(4);
 
 	@Inject
 	private Client client;
 
+	@Inject
+	private HandlerProfiler profiler;
+
+	{
+		for (int i = 0; i < invokes.length; ++i)
+		{
+			invokes[i] = new ConcurrentLinkedQueue<>();
+		}
+	}
+
 	public void invoke(Runnable r)
 	{
-		invoke(() ->
+		invoke(r, InvokePriority.NORMAL);
+	}
+
+	/**
+	 * Will run r on the game thread; immediately if this is the game thread, otherwise at the start of
+	 * a following client cycle, ordered by priority
+	 */
+	public void invoke(Runnable r, InvokePriority priority)
+	{
+		if (client.isClientThread())
 		{
 			r.run();
-			return true;
-		});
+			return;
+		}
+
+		enqueue(new Task(r, priority));
 	}
 
 	/**
@@ -56,17 +190,24 @@ public class ClientThread
 	 * If r returns false, r will be ran again, at a later point
 	 */
 	public void invoke(BooleanSupplier r)
+	{
+		invoke(r, InvokePriority.NORMAL);
+	}
+
+	public void invoke(BooleanSupplier r, InvokePriority priority)
 	{
 		if (client.isClientThread())
 		{
 			if (!r.getAsBoolean())
 			{
-				invokes.add(r);
+				Task task = new Task(r, priority);
+				depth.incrementAndGet();
+				retry(task, System.nanoTime());
 			}
 			return;
 		}
 
-		invokeLater(r);
+		enqueue(new Task(r, priority));
 	}
 
 	/**
@@ -75,65 +216,203 @@ public class ClientThread
 	 */
 	public void invokeLater(Runnable r)
 	{
-		invokeLater(() ->
-		{
-			r.run();
-			return true;
-		});
+		enqueue(new Task(r, InvokePriority.NORMAL));
+	}
+
+	public void invokeLater(Runnable r, InvokePriority priority)
+	{
+		enqueue(new Task(r, priority));
 	}
 
 	public void invokeLater(BooleanSupplier r)
 	{
-		invokes.add(r);
+		enqueue(new Task(r, InvokePriority.NORMAL));
+	}
+
+	public void invokeLater(BooleanSupplier r, InvokePriority priority)
+	{
+		enqueue(new Task(r, priority));
+	}
+
+	/**
+	 * Will run r on the game thread after this method returns. If r returns false, it is retried on the next
+	 * cycle, then after exponentially longer delays, for tasks which poll for something that may take a while
+	 */
+	public void invokeWithBackOff(BooleanSupplier r, InvokePriority priority)
+	{
+		enqueue(new Task(r, priority, true));
 	}
 
 	public void invokeAtTickEnd(Runnable r)
 	{
-		invokesAtTickEnd.add(() ->
+		invokesAtTickEnd.add(new Task(r, InvokePriority.NORMAL));
+		depth.incrementAndGet();
+		if (!client.isClientThread())
 		{
-			r.run();
-			return true;
-		});
+			queued = true;
+		}
 	}
 
-	void invoke()
+	/**
+	 * @return tasks waiting to run, including ones waiting to be retried
+	 */
+	public int getQueueDepth()
 	{
-		invokeList(invokes);
+		return depth.get();
 	}
 
-	void invokeTickEnd()
+	/**
+	 * @return queue statistics since the previous call
+	 */
+	public Stats getStats()
 	{
-		invokeList(invokesAtTickEnd);
+		long n = started.sumThenReset();
+		long wait = totalWaitNanos.sumThenReset();
+		return new Stats(depth.get(), n, n > 0 ? wait / n : 0, maxWaitNanos.getAndSet(0),
+			retried.sumThenReset(), overBudgetCycles.sumThenReset());
 	}
 
-	private void invokeList(ConcurrentLinkedQueue<BooleanSupplier> invokes)
+	private void enqueue(Task task)
 	{
-		assert client.isClientThread();
-		Iterator<BooleanSupplier> ir = invokes.iterator();
-		while (ir.hasNext())
+		task.seq = nextSeq.getAndIncrement();
+		invokes[task.priority.ordinal()].add(task);
+		if (!client.isClientThread())
 		{
-			BooleanSupplier r = ir.next();
-			boolean remove = true;
-			try
-			{
-				remove = r.getAsBoolean();
-			}
-			catch (ThreadDeath d)
-			{
-				throw d;
-			}
-			catch (Throwable e)
+			queued = true;
+		}
+
+		if (depth.incrementAndGet() >= DEPTH_WARNING)
+		{
+			long now = System.nanoTime();
+			if (lastDepthWarning == 0 || now - lastDepthWarning >= DEPTH_WARNING_INTERVAL)
 			{
-				log.error("Exception in invoke", e);
+				lastDepthWarning = now;
+				log.warn("{} tasks are waiting for the client thread", depth.get());
 			}
-			if (remove)
+		}
+	}
+
+	void invoke()
+	{
+		assert client.isClientThread();
+		final long start = System.nanoTime();
+
+		for (Task task; (task = retries.peek()) != null && task.dueNanos - start <= 0; )
+		{
+			retries.poll();
+			task.seq = nextSeq.getAndIncrement();
+			invokes[task.priority.ordinal()].add(task);
+		}
+
+		// tasks queued while this runs wait for the next cycle, so a task which requeues itself cannot spin here
+		final long limit = nextSeq.get();
+		final long budget = frameBudgetNanos;
+		final boolean profile = profiler != null && profiler.isEnabled();
+		boolean ran = false;
+
+		for (InvokePriority priority : PRIORITIES)
+		{
+			final ConcurrentLinkedQueue<Task> queue = invokes[priority.ordinal()];
+			for (Task task; (task = queue.peek()) != null && task.seq < limit; )
 			{
-				ir.remove();
+				if (ran && priority != InvokePriority.HIGH && System.nanoTime() - start >= budget)
+				{
+					overBudgetCycles.increment();
+					return;
+				}
+
+				queue.poll();
+				run(task, profile, HandlerProfiler.CLIENT_THREAD);
+				ran = true;
 			}
-			else
+		}
+	}
+
+	void invokeTickEnd()
+	{
+		assert client.isClientThread();
+		final boolean profile = profiler != null && profiler.isEnabled();
+		for (int n = invokesAtTickEnd.size(); n > 0; --n)
+		{
+			Task task = invokesAtTickEnd.poll();
+			if (task == null)
 			{
-				log.trace("Deferring task {}", r);
+				break;
 			}
+			run(task, profile, HandlerProfiler.CLIENT_THREAD_TICK_END);
 		}
 	}
+
+	/**
+	 * @return whether a task has been queued from another thread since the last call
+	 */
+	boolean takeQueued()
+	{
+		if (!queued)
+		{
+			return false;
+		}
+		queued = false;
+		return true;
+	}
+
+	private void run(Task task, boolean profile, String source)
+	{
+		final long now = System.nanoTime();
+		if (task.attempts == 0)
+		{
+			final long wait = now - task.queuedNanos;
+			started.increment();
+			totalWaitNanos.add(wait);
+			maxWaitNanos.accumulateAndGet(wait, Math::max);
+		}
+
+		boolean done = true;
+		try
+		{
+			done = task.run();
+		}
+		catch (ThreadDeath d)
+		{
+			throw d;
+		}
+		catch (Throwable e)
+		{
+			log.error("Exception in invoke", e);
+		}
+
+		if (profile)
+		{
+			profiler.record(task.target.getClass(), source, System.nanoTime() - now);
+		}
+
+		if (done)
+		{
+			depth.decrementAndGet();
+		}
+		else
+		{
+			log.trace("Deferring task {}", task);
+			retry(task, System.nanoTime());
+		}
+	}
+
+	private void retry(Task task, long now)
+	{
+		retried.increment();
+		if (!task.backOff)
+		{
+			// queued after this cycle's limit, so it runs next cycle
+			++task.attempts;
+			task.seq = nextSeq.getAndIncrement();
+			invokes[task.priority.ordinal()].add(task);
+			return;
+		}
+
+		// the first retry is on the next cycle, then back off exponentially
+		long delay = task.attempts == 0 ? 0 : Math.min(MAX_RETRY_DELAY, RETRY_DELAY << Math.min(task.attempts - 1, 16));
+		++task.attempts;
+		task.dueNanos = now + delay;
+		retries.add(task);
+	}
 }
@@ -41,6 +41,8 @@ import java.io.StringWriter;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -68,6 +70,7 @@ import net.runelite.client.RuneLiteProperties;
 import net.runelite.client.RuntimeConfig;
 import net.runelite.client.TelemetryClient;
 import net.runelite.client.chat.ChatMessageManager;
+import net.runelite.client.config.RuneLiteConfig;
 import net.runelite.client.eventbus.EventBus;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.input.KeyManager;
@@ -92,6 +95,9 @@ import net.runelite.client.util.RSTimeUnit;
 public class Hooks implements Callbacks
 {
 	private static final long CHECK = RSTimeUnit.GAME_TICKS.getDuration().toNanos(); // ns - how often to run checks
+	private static final long LOW_RENDER_POLL = TimeUnit.MILLISECONDS.toNanos(1); // ns - how often a throttled frame checks for client thread work
+	// lets launch scripts turn low render mode on for a client without touching its config
+	private static final boolean LOW_RENDER_FORCED = Boolean.getBoolean("runelite.lowrender");
 
 	private static final GameTick GAME_TICK = new GameTick();
 	private static final BeforeRender BEFORE_RENDER = new BeforeRender();
@@ -115,6 +121,7 @@ public class Hooks implements Callbacks
 	private final RuntimeConfig runtimeConfig;
 	private final boolean developerMode;
 	private final RenderCallbackManager renderCallbackManager;
+	private final RuneLiteConfig runeLiteConfig;
 
 	private Dimension lastStretchedDimensions;
 	private VolatileImage stretchedImage;
@@ -123,6 +130,10 @@ public class Hooks implements Callbacks
 	private long lastCheck;
 	private boolean shouldProcessGameTick;
 
+	private boolean lowRender;
+	private long lowRenderFrameNanos;
+	private long lastFrame;
+
 	private static MainBufferProvider lastMainBufferProvider;
 	private static Graphics2D lastGraphics;
 
@@ -186,7 +197,8 @@ public class Hooks implements Callbacks
 		@Nullable TelemetryClient telemetryClient,
 		@Nullable RuntimeConfig runtimeConfig,
 		@Named("developerMode") final boolean developerMode,
-		RenderCallbackManager renderCallbackManager
+		RenderCallbackManager renderCallbackManager,
+		RuneLiteConfig runeLiteConfig
 	)
 	{
 		this.client = client;
@@ -206,6 +218,7 @@ public class Hooks implements Callbacks
 		this.runtimeConfig = runtimeConfig;
 		this.developerMode = developerMode;
 		this.renderCallbackManager = renderCallbackManager;
+		this.runeLiteConfig = runeLiteConfig;
 		eventBus.register(this);
 	}
 
@@ -258,6 +271,8 @@ public class Hooks implements Callbacks
 			chatMessageManager.process();
 
 			checkWorldMap();
+
+			checkLowRender();
 		}
 		catch (Exception ex)
 		{
@@ -275,9 +290,42 @@ public class Hooks implements Callbacks
 	@Override
 	public void frame()
 	{
+		if (lowRender)
+		{
+			throttleFrame();
+		}
+
 		eventBus.post(BEFORE_RENDER);
 	}
 
+	private void checkLowRender()
+	{
+		boolean enabled = LOW_RENDER_FORCED || runeLiteConfig.lowRenderMode();
+		if (enabled != lowRender)
+		{
+			log.info("Low render mode {}", enabled ? "enabled" : "disabled");
+			lowRender = enabled;
+		}
+		lowRenderFrameNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, runeLiteConfig.lowRenderFps());
+	}
+
+	/**
+	 * Hold the client thread until the next low render frame is due. The engine catches up the game cycles
+	 * it missed before drawing, so this only lowers the frame rate, see FpsDrawListener. Tasks queued for the
+	 * client thread from other threads end the wait early, so they are not held back by the frame rate.
+	 */
+	private void throttleFrame()
+	{
+		long now = System.nanoTime();
+		long due = lastFrame + lowRenderFrameNanos;
+		while (due - now > 0 && !clientThread.takeQueued())
+		{
+			LockSupport.parkNanos(Math.min(due - now, LOW_RENDER_POLL));
+			now = System.nanoTime();
+		}
+		lastFrame = now;
+	}
+
 	/**
 	 * When the world map opens it loads about ~100mb of data into memory, which
 	 * represents about half of the total memory allocated by the client.
@@ -383,21 +431,24 @@ public class Hooks implements Callbacks
 			return;
 		}
 
-		final Graphics2D graphics2d = getGraphics(mainBufferProvider);
-
-		try
+		if (!lowRender)
 		{
-			renderer.renderOverlayLayer(graphics2d, OverlayLayer.ALWAYS_ON_TOP);
-		}
-		catch (Exception ex)
-		{
-			log.error("Error during overlay rendering", ex);
-		}
+			final Graphics2D graphics2d = getGraphics(mainBufferProvider);
 
-		notifier.processFlash(graphics2d);
+			try
+			{
+				renderer.renderOverlayLayer(graphics2d, OverlayLayer.ALWAYS_ON_TOP);
+			}
+			catch (Exception ex)
+			{
+				log.error("Error during overlay rendering", ex);
+			}
 
-		// Draw clientUI overlays
-		clientUi.paintOverlays(graphics2d);
+			notifier.processFlash(graphics2d);
+
+			// Draw clientUI overlays
+			clientUi.paintOverlays(graphics2d);
+		}
 
 		if (client.isGpu())
 		{
@@ -409,7 +460,7 @@ public class Hooks implements Callbacks
 		// Stretch the game image if the user has that enabled
 		Image image = mainBufferProvider.getImage();
 		final Image finalImage;
-		if (client.isStretchedEnabled())
+		if (client.isStretchedEnabled() && !lowRender)
 		{
 			GraphicsConfiguration gc = clientUi.getGraphicsConfiguration();
 			Dimension stretchedDimensions = client.getStretchedDimensions();
@@ -474,6 +525,12 @@ public class Hooks implements Callbacks
 		// Draw the image onto the game canvas
 		graphics.drawImage(finalImage, 0, 0, client.getCanvas());
 
+		if (lowRender)
+		{
+			// screenshot requests wait for the next frame drawn outside of low render mode
+			return;
+		}
+
 		// finalImage is backed by the client buffer which will change soon. make a copy
 		// so that callbacks can safely use it later from threads.
 		drawManager.processDrawComplete(() -> screenshot(finalImage));
@@ -498,6 +555,11 @@ public class Hooks implements Callbacks
 	@Override
 	public void drawScene()
 	{
+		if (lowRender)
+		{
+			return;
+		}
+
 		MainBufferProvider bufferProvider = (MainBufferProvider) client.getBufferProvider();
 		Graphics2D graphics2d = getGraphics(bufferProvider);
 
@@ -514,6 +576,11 @@ public class Hooks implements Callbacks
 	@Override
 	public void drawAboveOverheads()
 	{
+		if (lowRender)
+		{
+			return;
+		}
+
 		MainBufferProvider bufferProvider = (MainBufferProvider) client.getBufferProvider();
 		Graphics2D graphics2d = getGraphics(bufferProvider);
 
@@ -536,6 +603,11 @@ public class Hooks implements Callbacks
 	@Override
 	public void drawInterface(int interfaceId, List<WidgetItem> widgetItems)
 	{
+		if (lowRender)
+		{
+			return;
+		}
+
 		MainBufferProvider bufferProvider = (MainBufferProvider) client.getBufferProvider();
 		Graphics2D graphics2d = getGraphics(bufferProvider);
 
@@ -552,6 +624,11 @@ public class Hooks implements Callbacks
 	@Override
 	public void drawLayer(Widget layer, List<WidgetItem> widgetItems)
 	{
+		if (lowRender)
+		{
+			return;
+		}
+
 		MainBufferProvider bufferProvider = (MainBufferProvider) client.getBufferProvider();
 		Graphics2D graphics2d = getGraphics(bufferProvider);
 
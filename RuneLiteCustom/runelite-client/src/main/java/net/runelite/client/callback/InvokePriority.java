@@ -0,0 +1,20 @@
+package net.runelite.client.callback;
+
+/**
+ * Order in which {@link ClientThread} runs queued tasks within a frame
+ */
+public enum InvokePriority
+{
+	/**
+	 * Latency sensitive work, such as replaying input. Run first, and never held back by the frame budget.
+	 */
+	HIGH,
+	/**
+	 * The default
+	 */
+	NORMAL,
+	/**
+	 * Work which can wait, such as cache warming. Run once everything else has.
+	 */
+	LOW
+}
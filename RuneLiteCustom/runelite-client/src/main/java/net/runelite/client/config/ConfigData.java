@@ -25,54 +25,71 @@
 package net.runelite.client.config;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.nio.channels.FileChannel;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.AtomicMoveNotSupportedException;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * A config profile's properties. Reads are lock free. Changes are written behind: they collect in memory and, given
+ * an executor, are appended to the {@link ConfigJournal} log once writes have been quiet for {@link #FLUSH_DELAY_MS}.
+ * {@link #compact()} folds the log back into the properties file.
+ */
 @Slf4j
 class ConfigData
 {
+	private static final long FLUSH_DELAY_MS = 1000;
+	private static final long MAX_FLUSH_DELAY_MS = 10_000;
+	private static final long COMPACT_LOG_BYTES = 256 * 1024;
+
 	private final File configPath;
+	@Nullable
+	private final ScheduledExecutorService executor;
 
 	private final ConcurrentHashMap<String, String> properties;
 	private Map<String, String> patchChanges = new HashMap<>();
 
+	// changes not yet on disk
+	private Map<String, String> unflushed = new HashMap<>();
+	private boolean flushScheduled;
+	private long firstUnflushed;
+	private long lastUnflushed;
+
+	// held while writing, so that flushes and compactions don't interleave
+	private final Object writeLock = new Object();
+
 	ConfigData(File configPath)
+	{
+		this(configPath, null);
+	}
+
+	ConfigData(File configPath, @Nullable ScheduledExecutorService executor)
 	{
 		this.configPath = configPath;
+		this.executor = executor;
 
-		Properties props = new Properties();
-		try (FileInputStream in = new FileInputStream(configPath);
-			InputStreamReader reader = new InputStreamReader(in, StandardCharsets.UTF_8))
+		// no lock needed, the snapshot is replaced atomically and a log record being appended fails its checksum
+		Map<String, String> props;
+		try
 		{
-			props.load(reader);
+			props = ConfigJournal.read(configPath);
 		}
-		catch (FileNotFoundException ignored)
-		{
-		}
-		catch (Exception ex)
+		catch (IOException ex)
 		{
 			throw new RuntimeException(ex);
 		}
 
-		properties = new ConcurrentHashMap<>(props.size());
-		props.forEach((k, v) -> properties.put((String) k, (String) v));
+		properties = new ConcurrentHashMap<>(props);
 	}
 
 	String getProperty(String key)
@@ -86,6 +103,8 @@ class ConfigData
 		if (!Objects.equals(old, value))
 		{
 			patchChanges.put(key, value);
+			unflushed.put(key, value);
+			scheduleFlush();
 		}
 		return old;
 	}
@@ -96,6 +115,8 @@ class ConfigData
 		if (old != null)
 		{
 			patchChanges.put(key, null);
+			unflushed.put(key, null);
+			scheduleFlush();
 		}
 		return old;
 	}
@@ -103,7 +124,9 @@ class ConfigData
 	synchronized void putAll(Map<String, String> values)
 	{
 		patchChanges.putAll(values);
+		unflushed.putAll(values);
 		properties.putAll(values);
+		scheduleFlush();
 	}
 
 	Set<String> keySet()
@@ -128,77 +151,178 @@ class ConfigData
 		return p;
 	}
 
-	void patch(Map<String, String> patch)
+	/**
+	 * Append the unflushed changes to the log, compacting it if it has grown large
+	 */
+	void flush()
 	{
-		// load + patch + store instead of just flushing the in-memory properties to disk so that
-		// multiple clients editing one config data (such as rs profile config) get their data merged
-		// correctly
-
-		File lckFile = new File(configPath.getParentFile(), configPath.getName() + ".lck");
-		try (FileOutputStream lockOut = new FileOutputStream(lckFile);
-			FileChannel lckChannel = lockOut.getChannel())
+		synchronized (writeLock)
 		{
-			lckChannel.lock();
-
-			Properties tempProps = new Properties();
-			try (FileInputStream in = new FileInputStream(configPath);
-				InputStreamReader reader = new InputStreamReader(in, StandardCharsets.UTF_8))
+			Map<String, String> changes = swapUnflushed();
+			if (changes.isEmpty())
 			{
-				tempProps.load(reader);
+				return;
 			}
-			catch (FileNotFoundException e)
+
+			try (FileLock lock = new FileLock())
 			{
-				log.debug("config file {} does not exist", configPath);
+				long logSize = ConfigJournal.append(configPath, changes);
+				if (logSize > COMPACT_LOG_BYTES)
+				{
+					log.debug("compacting config log of {} ({} bytes)", configPath, logSize);
+					rewrite();
+				}
 			}
-
-			if (tempProps.isEmpty())
+			catch (IOException ex)
 			{
-				// this probably doesn't happen outside of the very first save (when no file exists)
-				// but to be safe in the event the prop is deleted off disk, flush the entire properties
-				// from memory
-				tempProps.putAll(properties);
+				log.error("unable to save configuration file", ex);
+				restoreUnflushed(changes);
 			}
-			else
+		}
+	}
+
+	/**
+	 * Write the config to the properties file, including the unflushed changes and changes logged by other clients
+	 * sharing this config
+	 */
+	void compact()
+	{
+		synchronized (writeLock)
+		{
+			Map<String, String> changes = swapUnflushed();
+			try (FileLock lock = new FileLock())
 			{
-				// apply patches
-				for (Map.Entry<String, String> entry : patch.entrySet())
+				if (!changes.isEmpty())
 				{
-					if (entry.getValue() == null)
-					{
-						tempProps.remove(entry.getKey());
-					}
-					else
-					{
-						tempProps.put(entry.getKey(), entry.getValue());
-					}
+					ConfigJournal.append(configPath, changes);
 				}
+				else if (!ConfigJournal.hasLog(configPath))
+				{
+					return;
+				}
+
+				rewrite();
+			}
+			catch (IOException ex)
+			{
+				log.error("unable to save configuration file", ex);
+				restoreUnflushed(changes);
 			}
+		}
+	}
+
+	private void rewrite() throws IOException
+	{
+		// load + patch + store instead of just flushing the in-memory properties to disk so that
+		// multiple clients editing one config data (such as rs profile config) get their data merged
+		// correctly
+		Map<String, String> props = configPath.exists() ? ConfigJournal.read(configPath) : Collections.emptyMap();
+		if (props.isEmpty())
+		{
+			// this probably doesn't happen outside of the very first save (when no file exists)
+			// but to be safe in the event the prop is deleted off disk, flush the entire properties
+			// from memory
+			props = new HashMap<>(properties);
+		}
 
-			File tempFile = File.createTempFile("runelite_config", null, configPath.getParentFile());
-			try (FileOutputStream out = new FileOutputStream(tempFile);
-				FileChannel channel = out.getChannel();
-				OutputStreamWriter writer = new OutputStreamWriter(out, StandardCharsets.UTF_8))
+		ConfigJournal.compact(configPath, props);
+	}
+
+	private synchronized Map<String, String> swapUnflushed()
+	{
+		if (unflushed.isEmpty())
+		{
+			return Collections.emptyMap();
+		}
+
+		Map<String, String> u = unflushed;
+		unflushed = new HashMap<>();
+		return u;
+	}
+
+	private synchronized void restoreUnflushed(Map<String, String> changes)
+	{
+		// anything changed since is newer
+		changes.forEach(unflushed::putIfAbsent);
+	}
+
+	void scheduleFlush()
+	{
+		assert Thread.holdsLock(this);
+
+		lastUnflushed = System.nanoTime();
+		if (executor == null || flushScheduled)
+		{
+			return;
+		}
+
+		firstUnflushed = lastUnflushed;
+		schedule(FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+	}
+
+	private void schedule(long delay, TimeUnit unit)
+	{
+		try
+		{
+			executor.schedule(this::scheduledFlush, delay, unit);
+			flushScheduled = true;
+		}
+		catch (RejectedExecutionException ex)
+		{
+			// shutting down, the changes are saved by the final compact
+			flushScheduled = false;
+		}
+	}
+
+	private void scheduledFlush()
+	{
+		synchronized (this)
+		{
+			// wait for writes to go quiet, up to a limit
+			long now = System.nanoTime();
+			long wait = Math.min(
+				lastUnflushed + TimeUnit.MILLISECONDS.toNanos(FLUSH_DELAY_MS),
+				firstUnflushed + TimeUnit.MILLISECONDS.toNanos(MAX_FLUSH_DELAY_MS)) - now;
+			if (wait > 0)
 			{
-				channel.lock();
-				tempProps.store(writer, "RuneLite configuration");
-				writer.flush();
-				channel.force(true);
+				schedule(wait, TimeUnit.NANOSECONDS);
+				return;
 			}
 
+			flushScheduled = false;
+		}
+
+		flush();
+	}
+
+	/**
+	 * Lock on the config file, shared with other clients
+	 */
+	private class FileLock implements AutoCloseable
+	{
+		private final File lckFile = new File(configPath.getParentFile(), configPath.getName() + ".lck");
+		private final FileOutputStream lockOut;
+
+		FileLock() throws IOException
+		{
+			lockOut = new FileOutputStream(lckFile);
 			try
 			{
-				Files.move(tempFile.toPath(), configPath.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				FileChannel lckChannel = lockOut.getChannel();
+				lckChannel.lock();
 			}
-			catch (AtomicMoveNotSupportedException ex)
+			catch (IOException ex)
 			{
-				log.debug("atomic move not supported", ex);
-				Files.move(tempFile.toPath(), configPath.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				lockOut.close();
+				throw ex;
 			}
 		}
-		catch (IOException ex)
+
+		@Override
+		public void close() throws IOException
 		{
-			log.error("unable to save configuration file", ex);
+			lockOut.close();
+			lckFile.delete();
 		}
-		lckFile.delete();
 	}
 }
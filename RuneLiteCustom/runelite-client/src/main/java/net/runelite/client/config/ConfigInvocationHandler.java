@@ -24,11 +24,15 @@
  */
 package net.runelite.client.config;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.client.util.ReflectUtil;
 
@@ -38,30 +42,160 @@ class ConfigInvocationHandler implements InvocationHandler
 	// Special object to represent null values in the cache
 	private static final Object NULL = new Object();
 
+	/**
+	 * The invalidation count of one config key. Shared by the accessors of every interface with the key, and holds
+	 * nothing of theirs so that plugin classes can still be unloaded.
+	 */
+	private static final class KeyVersion
+	{
+		private volatile int version;
+	}
+
+	/**
+	 * A loaded value, with the versions it was loaded at
+	 */
+	private static final class Loaded
+	{
+		private final Object value;
+		private final int epoch;
+		private final int version;
+
+		private Loaded(Object value, int epoch, int version)
+		{
+			this.value = value;
+			this.epoch = epoch;
+			this.version = version;
+		}
+	}
+
+	/**
+	 * A config getter, with its key worked out up front and the value it last returned
+	 */
+	private static final class Accessor
+	{
+		private final Method method;
+		private final String group;
+		private final String key;
+		private final Type type;
+		private final KeyVersion keyVersion;
+		// boxed as it is returned; a proxy returns Object, so an unboxed slot would box again on every call
+		private volatile Loaded loaded;
+
+		private Accessor(Method method, String group, String key, KeyVersion keyVersion)
+		{
+			this.method = method;
+			this.group = group;
+			this.key = key;
+			this.type = method.getGenericReturnType();
+			this.keyVersion = keyVersion;
+		}
+	}
+
+	/**
+	 * The accessors of one config interface
+	 */
+	private final class Table
+	{
+		private final Class<?> iface;
+		private final String group;
+		private final Map<Method, Accessor> accessors;
+		// the Method instances a proxy calls with are its own, so they are recorded as seen to find them by identity
+		private volatile Map<Method, Accessor> seen = Collections.emptyMap();
+
+		private Table(Class<?> iface)
+		{
+			this.iface = iface;
+
+			ConfigGroup configGroup = iface.getAnnotation(ConfigGroup.class);
+			group = configGroup == null ? null : configGroup.value();
+
+			Map<Method, Accessor> accessors = new HashMap<>();
+			if (group != null)
+			{
+				for (Method method : iface.getMethods())
+				{
+					ConfigItem item = method.getAnnotation(ConfigItem.class);
+					if (item == null || method.getParameterCount() != 0)
+					{
+						continue;
+					}
+
+					KeyVersion keyVersion = keyVersions.computeIfAbsent(group + "." + item.keyName(), k -> new KeyVersion());
+					accessors.put(method, new Accessor(method, group, item.keyName(), keyVersion));
+				}
+			}
+			this.accessors = accessors;
+		}
+
+		private Accessor get(Method method)
+		{
+			Accessor accessor = seen.get(method);
+			if (accessor != null)
+			{
+				return accessor;
+			}
+
+			accessor = accessors.get(method);
+			if (accessor != null)
+			{
+				synchronized (this)
+				{
+					Map<Method, Accessor> copy = new IdentityHashMap<>(seen);
+					copy.put(method, accessor);
+					seen = copy;
+				}
+			}
+			return accessor;
+		}
+	}
+
 	private final ConfigManager manager;
-	private final Cache<Method, Object> cache = CacheBuilder.newBuilder()
-		.maximumSize(256)
-		.build();
+	private final Map<String, KeyVersion> keyVersions = new ConcurrentHashMap<>();
+	private final ClassValue<Table> tables = new ClassValue<>()
+	{
+		@Override
+		protected Table computeValue(Class<?> proxyClass)
+		{
+			return new Table(proxyClass.getInterfaces()[0]);
+		}
+	};
+	// bumped to invalidate every key
+	private volatile int epoch;
 
 	ConfigInvocationHandler(ConfigManager manager)
 	{
 		this.manager = manager;
 	}
 
+	/**
+	 * Build the accessor table of a config proxy ahead of its first call
+	 */
+	void prepare(Object proxy)
+	{
+		tables.get(proxy.getClass());
+	}
+
 	@Override
 	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
 	{
-		// Use cached configuration value if available
+		Table table = tables.get(proxy.getClass());
+
 		if (args == null)
 		{
-			Object cachedValue = cache.getIfPresent(method);
-			if (cachedValue != null)
+			Accessor accessor = table.get(method);
+			if (accessor != null)
 			{
-				return cachedValue == NULL ? null : cachedValue;
+				// Use cached configuration value if available
+				Loaded loaded = accessor.loaded;
+				if (loaded != null && loaded.epoch == epoch && loaded.version == accessor.keyVersion.version)
+				{
+					return loaded.value == NULL ? null : loaded.value;
+				}
+				return load(proxy, accessor);
 			}
 		}
 
-		Class<?> iface = proxy.getClass().getInterfaces()[0];
+		Class<?> iface = table.iface;
 
 		if ("toString".equals(method.getName()) && args == null)
 		{
@@ -78,10 +212,9 @@ class ConfigInvocationHandler implements InvocationHandler
 			return proxy == args[0];
 		}
 
-		ConfigGroup group = iface.getAnnotation(ConfigGroup.class);
 		ConfigItem item = method.getAnnotation(ConfigItem.class);
 
-		if (group == null)
+		if (table.group == null)
 		{
 			log.warn("Configuration proxy class {} has no @ConfigGroup!", proxy.getClass());
 			return null;
@@ -95,81 +228,91 @@ class ConfigInvocationHandler implements InvocationHandler
 
 		if (args == null)
 		{
-			log.trace("cache miss (size: {}, group: {}, key: {})", cache.size(), group.value(), item.keyName());
+			// a getter with a @ConfigItem has an accessor
+			throw new IllegalStateException("no accessor for " + method);
+		}
 
-			// Getting configuration item
-			String value = manager.getConfiguration(group.value(), item.keyName());
+		// Setting a configuration value
 
-			if (value == null)
-			{
-				if (method.isDefault())
-				{
-					Object defaultValue = callDefaultMethod(proxy, method, null);
-					cache.put(method, defaultValue == null ? NULL : defaultValue);
-					return defaultValue;
-				}
+		if (args.length != 1)
+		{
+			throw new RuntimeException("Invalid number of arguments to configuration method");
+		}
 
-				cache.put(method, NULL);
-				return null;
-			}
+		String group = table.group;
+		Object newValue = args[0];
 
-			// Convert value to return type
-			try
-			{
-				Object objectValue = manager.stringToObject(value, method.getGenericReturnType());
-				cache.put(method, objectValue == null ? NULL : objectValue);
-				return objectValue;
-			}
-			catch (Exception e)
+		Class<?> type = method.getParameterTypes()[0];
+		Object oldValue = manager.getConfiguration(group, item.keyName(), type);
+
+		if (Objects.equals(oldValue, newValue))
+		{
+			// nothing to do
+			return null;
+		}
+
+		if (method.isDefault())
+		{
+			Object defaultValue = callDefaultMethod(proxy, method, args);
+
+			if (Objects.equals(newValue, defaultValue))
 			{
-				log.warn("Unable to unmarshal {}.{} ", group.value(), item.keyName(), e);
-				if (method.isDefault())
-				{
-					return callDefaultMethod(proxy, method, null);
-				}
+				// Just unset if it goes back to the default
+				manager.unsetConfiguration(group, item.keyName());
 				return null;
 			}
 		}
+
+		if (newValue == null)
+		{
+			manager.unsetConfiguration(group, item.keyName());
+		}
 		else
 		{
-			// Setting a configuration value
-
-			if (args.length != 1)
-			{
-				throw new RuntimeException("Invalid number of arguments to configuration method");
-			}
+			String newValueStr = manager.objectToString(newValue);
+			manager.setConfiguration(group, item.keyName(), newValueStr);
+		}
+		return null;
+	}
 
-			Object newValue = args[0];
+	private Object load(Object proxy, Accessor accessor) throws Throwable
+	{
+		log.trace("cache miss (group: {}, key: {})", accessor.group, accessor.key);
 
-			Class<?> type = method.getParameterTypes()[0];
-			Object oldValue = manager.getConfiguration(group.value(), item.keyName(), type);
+		// read before the value, so that an invalidation made while loading leaves it stale
+		int epoch = this.epoch;
+		int version = accessor.keyVersion.version;
 
-			if (Objects.equals(oldValue, newValue))
-			{
-				// nothing to do
-				return null;
-			}
+		// Getting configuration item
+		String value = manager.getConfiguration(accessor.group, accessor.key);
+		Method method = accessor.method;
 
+		if (value == null)
+		{
 			if (method.isDefault())
 			{
-				Object defaultValue = callDefaultMethod(proxy, method, args);
-
-				if (Objects.equals(newValue, defaultValue))
-				{
-					// Just unset if it goes back to the default
-					manager.unsetConfiguration(group.value(), item.keyName());
-					return null;
-				}
+				Object defaultValue = callDefaultMethod(proxy, method, null);
+				accessor.loaded = new Loaded(defaultValue == null ? NULL : defaultValue, epoch, version);
+				return defaultValue;
 			}
 
-			if (newValue == null)
-			{
-				manager.unsetConfiguration(group.value(), item.keyName());
-			}
-			else
+			accessor.loaded = new Loaded(NULL, epoch, version);
+			return null;
+		}
+
+		// Convert value to return type
+		try
+		{
+			Object objectValue = manager.stringToObject(value, accessor.type);
+			accessor.loaded = new Loaded(objectValue == null ? NULL : objectValue, epoch, version);
+			return objectValue;
+		}
+		catch (Exception e)
+		{
+			log.warn("Unable to unmarshal {}.{} ", accessor.group, accessor.key, e);
+			if (method.isDefault())
 			{
-				String newValueStr = manager.objectToString(newValue);
-				manager.setConfiguration(group.value(), item.keyName(), newValueStr);
+				return callDefaultMethod(proxy, method, null);
 			}
 			return null;
 		}
@@ -184,9 +327,30 @@ class ConfigInvocationHandler implements InvocationHandler
 			.invokeWithArguments(args);
 	}
 
+	/**
+	 * Drop all cached values
+	 */
 	void invalidate()
 	{
 		log.trace("cache invalidate");
-		cache.invalidateAll();
+		synchronized (keyVersions)
+		{
+			++epoch;
+		}
+	}
+
+	/**
+	 * Drop the cached values of one key
+	 */
+	void invalidate(String group, String key)
+	{
+		KeyVersion keyVersion = keyVersions.get(group + "." + key);
+		if (keyVersion != null)
+		{
+			synchronized (keyVersion)
+			{
+				++keyVersion.version;
+			}
+		}
 	}
 }
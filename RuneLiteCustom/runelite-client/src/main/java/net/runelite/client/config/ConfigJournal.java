@@ -0,0 +1,451 @@
+package net.runelite.client.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.CRC32;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * On disk formats of a {@link ConfigData}. The {@code .properties} file stays the canonical copy which is exported,
+ * cloned and synced; next to it are
+ * <ul>
+ * <li>a binary snapshot of the same contents, which loads without {@link Properties#load} parsing the text</li>
+ * <li>an append only log of the changes made since the properties were last written</li>
+ * </ul>
+ * Both are stamped with the size and modification time of the properties file they were written against, and are
+ * ignored if it has since been replaced, such as by a remote sync or an import.
+ * <p>
+ * Callers hold the config's file lock.
+ */
+@Slf4j
+final class ConfigJournal
+{
+	private static final int SNAPSHOT_MAGIC = 0x524C4353; // RLCS
+	private static final int LOG_MAGIC = 0x524C434C; // RLCL
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 4 + 4 + 8 + 8;
+
+	@Value
+	private static class Stamp
+	{
+		long length;
+		long modified;
+
+		static Stamp of(File file)
+		{
+			// File.length and lastModified return 0 for missing files, which is fine as nothing is stamped with an
+			// empty properties file
+			return new Stamp(file.length(), file.lastModified());
+		}
+	}
+
+	private ConfigJournal()
+	{
+	}
+
+	static File snapshotFile(File configPath)
+	{
+		return new File(configPath.getParentFile(), configPath.getName() + ".snap");
+	}
+
+	static File logFile(File configPath)
+	{
+		return new File(configPath.getParentFile(), configPath.getName() + ".log");
+	}
+
+	static List<File> sidecars(File configPath)
+	{
+		return List.of(snapshotFile(configPath), logFile(configPath));
+	}
+
+	/**
+	 * Read the config from the snapshot, or the properties if the snapshot is missing or stale, and replay the log
+	 * over it
+	 */
+	static Map<String, String> read(File configPath) throws IOException
+	{
+		final Stamp stamp = Stamp.of(configPath);
+		Map<String, String> properties = readSnapshot(configPath, stamp);
+		if (properties == null)
+		{
+			properties = readProperties(configPath);
+		}
+		replayLog(configPath, stamp, properties);
+		return properties;
+	}
+
+	/**
+	 * @return whether the log holds changes not yet in the properties
+	 */
+	static boolean hasLog(File configPath)
+	{
+		return logFile(configPath).length() > HEADER_SIZE;
+	}
+
+	/**
+	 * Append changes to the log. A null value unsets the key.
+	 *
+	 * @return the size of the log
+	 */
+	static long append(File configPath, Map<String, String> changes) throws IOException
+	{
+		final Stamp stamp = Stamp.of(configPath);
+		final File logFile = logFile(configPath);
+		final long validLength = validLogLength(configPath, stamp);
+		if (validLength < 0)
+		{
+			// the log is missing or belongs to an older properties file, whose changes are already in it
+			writeAtomic(logFile, header(LOG_MAGIC, stamp));
+		}
+		else if (validLength < logFile.length())
+		{
+			// a record cut short by a crash would hide every record appended after it from replay
+			log.warn("dropping torn config log record in {}", configPath);
+			try (RandomAccessFile raf = new RandomAccessFile(logFile, "rw"))
+			{
+				raf.setLength(validLength);
+			}
+		}
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream payload = new DataOutputStream(bytes);
+		payload.writeInt(changes.size());
+		for (Map.Entry<String, String> entry : changes.entrySet())
+		{
+			writeString(payload, entry.getKey());
+			writeString(payload, entry.getValue());
+		}
+
+		final byte[] data = bytes.toByteArray();
+		final CRC32 crc = new CRC32();
+		crc.update(data);
+
+		final ByteBuffer record = ByteBuffer.allocate(8 + data.length);
+		record.putInt(data.length);
+		record.putInt((int) crc.getValue());
+		record.put(data);
+
+		try (FileOutputStream out = new FileOutputStream(logFile, true))
+		{
+			// a record cut short by a crash fails its length or checksum, and is dropped on replay and truncated
+			// before the next append
+			out.write(record.array());
+		}
+		return logFile.length();
+	}
+
+	/**
+	 * Write the full config to the properties file and snapshot, and empty the log
+	 */
+	static void compact(File configPath, Map<String, String> contents) throws IOException
+	{
+		final Properties props = new Properties();
+		props.putAll(contents);
+
+		final File tempFile = File.createTempFile("runelite_config", null, configPath.getParentFile());
+		try (FileOutputStream out = new FileOutputStream(tempFile);
+			FileChannel channel = out.getChannel();
+			OutputStreamWriter writer = new OutputStreamWriter(out, StandardCharsets.UTF_8))
+		{
+			channel.lock();
+			props.store(writer, "RuneLite configuration");
+			writer.flush();
+			channel.force(true);
+		}
+		move(tempFile, configPath);
+
+		final Stamp stamp = Stamp.of(configPath);
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		out.write(header(SNAPSHOT_MAGIC, stamp));
+		out.writeInt(contents.size());
+		for (Map.Entry<String, String> entry : contents.entrySet())
+		{
+			writeString(out, entry.getKey());
+			writeString(out, entry.getValue());
+		}
+		final CRC32 crc = new CRC32();
+		crc.update(bytes.toByteArray());
+		out.writeInt((int) crc.getValue());
+
+		writeAtomic(snapshotFile(configPath), bytes.toByteArray());
+		writeAtomic(logFile(configPath), header(LOG_MAGIC, stamp));
+	}
+
+	private static Map<String, String> readSnapshot(File configPath, Stamp stamp)
+	{
+		final byte[] data;
+		try
+		{
+			data = Files.readAllBytes(snapshotFile(configPath).toPath());
+		}
+		catch (NoSuchFileException ex)
+		{
+			return null;
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to read config snapshot", ex);
+			return null;
+		}
+
+		try
+		{
+			final ByteBuffer buf = ByteBuffer.wrap(data);
+			if (!stamp.equals(readHeader(buf, SNAPSHOT_MAGIC)))
+			{
+				log.debug("config snapshot of {} is stale", configPath);
+				return null;
+			}
+
+			final CRC32 crc = new CRC32();
+			crc.update(data, 0, data.length - 4);
+			if ((int) crc.getValue() != ByteBuffer.wrap(data, data.length - 4, 4).getInt())
+			{
+				log.warn("config snapshot of {} is corrupt", configPath);
+				return null;
+			}
+
+			final int count = buf.getInt();
+			final Map<String, String> properties = new HashMap<>(count * 4 / 3 + 1);
+			for (int i = 0; i < count; ++i)
+			{
+				properties.put(readString(buf), readString(buf));
+			}
+			return properties;
+		}
+		catch (BufferUnderflowException | IllegalArgumentException ex)
+		{
+			log.warn("config snapshot of {} is corrupt", configPath, ex);
+			return null;
+		}
+	}
+
+	private static Map<String, String> readProperties(File configPath) throws IOException
+	{
+		final Properties props = new Properties();
+		try (FileInputStream in = new FileInputStream(configPath);
+			InputStreamReader reader = new InputStreamReader(in, StandardCharsets.UTF_8))
+		{
+			props.load(reader);
+		}
+		catch (FileNotFoundException ignored)
+		{
+		}
+
+		final Map<String, String> properties = new HashMap<>(props.size() * 4 / 3 + 1);
+		props.forEach((k, v) -> properties.put((String) k, (String) v));
+		return properties;
+	}
+
+	private static void replayLog(File configPath, Stamp stamp, Map<String, String> properties)
+	{
+		final byte[] data;
+		try
+		{
+			data = Files.readAllBytes(logFile(configPath).toPath());
+		}
+		catch (NoSuchFileException ex)
+		{
+			return;
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to read config log", ex);
+			return;
+		}
+
+		replayLog(configPath, data, stamp, properties);
+	}
+
+	/**
+	 * @return the length of the log up to the end of its last valid record, or -1 if it is missing or stale
+	 */
+	private static long validLogLength(File configPath, Stamp stamp) throws IOException
+	{
+		final byte[] data;
+		try
+		{
+			data = Files.readAllBytes(logFile(configPath).toPath());
+		}
+		catch (NoSuchFileException ex)
+		{
+			return -1;
+		}
+
+		return replayLog(configPath, data, stamp, null);
+	}
+
+	/**
+	 * Replay the records of a log up to the first invalid one
+	 *
+	 * @param properties properties to apply the records to, or null to only validate them
+	 * @return the end of the last valid record, or -1 if the log is stale
+	 */
+	private static int replayLog(File configPath, byte[] data, Stamp stamp, Map<String, String> properties)
+	{
+		final ByteBuffer buf = ByteBuffer.wrap(data);
+		try
+		{
+			if (!stamp.equals(readHeader(buf, LOG_MAGIC)))
+			{
+				log.debug("config log of {} is stale", configPath);
+				return -1;
+			}
+		}
+		catch (BufferUnderflowException ex)
+		{
+			return -1;
+		}
+
+		final CRC32 crc = new CRC32();
+		int end = buf.position();
+		while (buf.remaining() >= 8)
+		{
+			final int length = buf.getInt();
+			final int checksum = buf.getInt();
+			if (length < 0 || length > buf.remaining())
+			{
+				// the last append didn't finish
+				log.debug("truncated config log record in {}", configPath);
+				return end;
+			}
+
+			crc.reset();
+			crc.update(data, buf.position(), length);
+			if ((int) crc.getValue() != checksum)
+			{
+				log.warn("corrupt config log record in {}", configPath);
+				return end;
+			}
+
+			final ByteBuffer record = buf.slice();
+			record.limit(length);
+			buf.position(buf.position() + length);
+
+			final Map<String, String> changes = new HashMap<>();
+			try
+			{
+				final int count = record.getInt();
+				for (int i = 0; i < count; ++i)
+				{
+					final String key = readString(record);
+					final String value = readString(record);
+					changes.put(key, value);
+				}
+			}
+			catch (BufferUnderflowException | IllegalArgumentException ex)
+			{
+				log.warn("corrupt config log record in {}", configPath, ex);
+				return end;
+			}
+
+			if (properties != null)
+			{
+				for (Map.Entry<String, String> entry : changes.entrySet())
+				{
+					if (entry.getValue() == null)
+					{
+						properties.remove(entry.getKey());
+					}
+					else
+					{
+						properties.put(entry.getKey(), entry.getValue());
+					}
+				}
+			}
+			end = buf.position();
+		}
+		return end;
+	}
+
+	private static byte[] header(int magic, Stamp stamp)
+	{
+		return ByteBuffer.allocate(HEADER_SIZE)
+			.putInt(magic)
+			.putInt(VERSION)
+			.putLong(stamp.getLength())
+			.putLong(stamp.getModified())
+			.array();
+	}
+
+	private static Stamp readHeader(ByteBuffer buf, int magic)
+	{
+		if (buf.getInt() != magic || buf.getInt() != VERSION)
+		{
+			return null;
+		}
+		return new Stamp(buf.getLong(), buf.getLong());
+	}
+
+	private static void writeString(DataOutputStream out, String str) throws IOException
+	{
+		if (str == null)
+		{
+			out.writeInt(-1);
+			return;
+		}
+
+		final byte[] b = str.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(b.length);
+		out.write(b);
+	}
+
+	private static String readString(ByteBuffer buf)
+	{
+		final int length = buf.getInt();
+		if (length == -1)
+		{
+			return null;
+		}
+		if (length < 0 || length > buf.remaining())
+		{
+			throw new IllegalArgumentException("bad string length " + length);
+		}
+
+		final String str = new String(buf.array(), buf.arrayOffset() + buf.position(), length, StandardCharsets.UTF_8);
+		buf.position(buf.position() + length);
+		return str;
+	}
+
+	private static void writeAtomic(File file, byte[] data) throws IOException
+	{
+		final File tempFile = File.createTempFile("runelite_config", null, file.getParentFile());
+		Files.write(tempFile.toPath(), data);
+		move(tempFile, file);
+	}
+
+	private static void move(File from, File to) throws IOException
+	{
+		try
+		{
+			Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException ex)
+		{
+			log.debug("atomic move not supported", ex);
+			Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+}
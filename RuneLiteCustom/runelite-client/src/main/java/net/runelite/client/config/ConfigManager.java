@@ -26,8 +26,10 @@ package net.runelite.client.config;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.ImmutableSet;
 import com.google.gson.Gson;
 import java.awt.Color;
 import java.awt.Dimension;
@@ -104,6 +106,17 @@ public class ConfigManager
 	private static final long RSPROFILE_ID = -1L;
 	private static final String RSPROFILE_NAME = "$rsprofile";
 
+	/**
+	 * File of a {@link SharedConfigStore} to keep the config profile in, shared with the other clients on the machine
+	 */
+	@Nullable
+	private static final String SHARED_CONFIG = System.getProperty("runelite.sharedconfig");
+	/**
+	 * Keys which each client keeps its own value of while sharing config
+	 */
+	private static final Set<String> SHARED_CONFIG_LOCAL_KEYS = ImmutableSet.copyOf(Splitter.on(',').trimResults().omitEmptyStrings()
+		.split(System.getProperty("runelite.sharedconfig.local", "runemirrorguest.listenPort")));
+
 	private static final int KEY_SPLITTER_GROUP = 0;
 	private static final int KEY_SPLITTER_PROFILE = 1;
 	private static final int KEY_SPLITTER_KEY = 2;
@@ -126,6 +139,8 @@ public class ConfigManager
 	private ConfigProfile rsProfile;
 	private ConfigData configProfile;
 	private ConfigData rsProfileConfigProfile;
+	@Nullable
+	private SharedConfigStore sharedConfigStore;
 
 	// null => we need to make a new profile
 	@Nullable
@@ -154,7 +169,11 @@ public class ConfigManager
 		this.profileManager = profileManager;
 		this.sessionManager = sessionManager;
 
-		scheduledExecutorService.scheduleWithFixedDelay(RunnableExceptionLogger.wrap(this::sendConfig), 30 + (int) (5 * 60 * Math.random()), 5 * 60, TimeUnit.SECONDS);
+		scheduledExecutorService.scheduleWithFixedDelay(RunnableExceptionLogger.wrap(() -> sendConfig(false)), 30 + (int) (5 * 60 * Math.random()), 5 * 60, TimeUnit.SECONDS);
+		if (SHARED_CONFIG != null)
+		{
+			scheduledExecutorService.scheduleWithFixedDelay(RunnableExceptionLogger.wrap(this::pollSharedConfig), 1, 1, TimeUnit.SECONDS);
+		}
 	}
 
 	public void switchProfile(ConfigProfile newProfile)
@@ -194,16 +213,17 @@ public class ConfigManager
 			}
 		}
 
-		ConfigData newData = new ConfigData(ProfileManager.profileConfigFile(newProfile));
+		ConfigData newData = openProfileData(newProfile);
 		Set<String> allKeys = new HashSet<>(newData.keySet());
 
 		ConfigData oldData;
 		synchronized (this)
 		{
-			handler.invalidate();
 			oldData = configProfile;
 			profile = newProfile;
 			configProfile = newData;
+			// after the swap, so that values read from the old profile meanwhile are not kept
+			handler.invalidate();
 		}
 
 		allKeys.addAll(oldData.keySet());
@@ -368,7 +388,7 @@ public class ConfigManager
 
 				if (rsProfileConfigProfile == null)
 				{
-					rsProfileConfigProfile = new ConfigData(ProfileManager.profileConfigFile(rsProfile));
+					rsProfileConfigProfile = new ConfigData(ProfileManager.profileConfigFile(rsProfile), executor);
 				}
 
 				importAndMigrate(lock, configFile, targetProfile);
@@ -454,10 +474,10 @@ public class ConfigManager
 			}
 		}
 
-		configData.patch(configData.swapChanges());
+		configData.compact();
 
 		rsProfile = updateProfile(lock, rsProfile);
-		saveConfiguration(lock, rsProfile, rsProfileConfigProfile);
+		saveConfiguration(lock, rsProfile, rsProfileConfigProfile, true);
 
 		log.info("Finished importing {} keys", keys);
 	}
@@ -551,7 +571,7 @@ public class ConfigManager
 			syncRemote(lock, rsProfile, remoteProfiles);
 
 			this.rsProfile = rsProfile;
-			rsProfileConfigProfile = new ConfigData(ProfileManager.profileConfigFile(rsProfile));
+			rsProfileConfigProfile = new ConfigData(ProfileManager.profileConfigFile(rsProfile), executor);
 
 			final String launcherDisplayName = client.getLauncherDisplayName();
 			// --profile
@@ -629,12 +649,76 @@ public class ConfigManager
 			syncRemote(lock, profile, remoteProfiles);
 
 			this.profile = profile;
-			configProfile = new ConfigData(ProfileManager.profileConfigFile(profile));
+			configProfile = openProfileData(profile);
+			handler.invalidate();
 		}
 
 		eventBus.post(new ProfileChanged());
 	}
 
+	private ConfigData openProfileData(ConfigProfile profile)
+	{
+		File configFile = ProfileManager.profileConfigFile(profile);
+		if (SHARED_CONFIG == null)
+		{
+			return new ConfigData(configFile, executor);
+		}
+
+		try
+		{
+			if (sharedConfigStore == null)
+			{
+				SharedConfigStore store = new SharedConfigStore(new File(SHARED_CONFIG));
+				if (!store.isSeeded() && store.seed(new ConfigData(configFile).get()))
+				{
+					log.info("Seeded shared config {} from profile {}", SHARED_CONFIG, profile.getName());
+				}
+				sharedConfigStore = store;
+			}
+
+			log.info("Using shared config {}", SHARED_CONFIG);
+			return new SharedConfigData(new File(RuneLite.RUNELITE_DIR, "shared-overrides.properties"), executor,
+				sharedConfigStore, SHARED_CONFIG_LOCAL_KEYS);
+		}
+		catch (IOException ex)
+		{
+			log.error("unable to open shared config {}, using profile {}", SHARED_CONFIG, profile.getName(), ex);
+			return new ConfigData(configFile, executor);
+		}
+	}
+
+	private void pollSharedConfig()
+	{
+		ConfigData data = configProfile;
+		if (!(data instanceof SharedConfigData))
+		{
+			return;
+		}
+
+		((SharedConfigData) data).poll((wholeKey, oldValue, newValue) ->
+		{
+			String[] split = splitKey(wholeKey);
+			if (split == null)
+			{
+				return;
+			}
+
+			log.debug("Shared configuration value {} changed to {}", wholeKey, newValue);
+			if (split[KEY_SPLITTER_PROFILE] == null)
+			{
+				handler.invalidate(split[KEY_SPLITTER_GROUP], split[KEY_SPLITTER_KEY]);
+			}
+
+			ConfigChanged configChanged = new ConfigChanged();
+			configChanged.setGroup(split[KEY_SPLITTER_GROUP]);
+			configChanged.setProfile(split[KEY_SPLITTER_PROFILE]);
+			configChanged.setKey(split[KEY_SPLITTER_KEY]);
+			configChanged.setOldValue(oldValue);
+			configChanged.setNewValue(newValue);
+			eventBus.post(configChanged);
+		});
+	}
+
 	private void mergeRemoteProfiles(List<Profile> remoteProfiles)
 	{
 		try (ProfileManager.Lock lock = profileManager.lock())
@@ -737,10 +821,11 @@ public class ConfigManager
 				File configFile = ProfileManager.profileConfigFile(profile);
 				// remote configuration replaces local
 				configFile.delete();
+				ConfigJournal.sidecars(configFile).forEach(File::delete);
 
 				ConfigData configData = new ConfigData(configFile);
 				configData.putAll(remoteConfiguration.getConfig());
-				configData.patch(configData.swapChanges());
+				configData.compact();
 
 				log.debug("synced remote profile {} rev {} to disk", profile, remoteConfiguration.getRev());
 				profile.setRev(remoteConfiguration.getRev());
@@ -764,6 +849,7 @@ public class ConfigManager
 			{
 				clazz
 			}, handler);
+		handler.prepare(t);
 
 		return t;
 	}
@@ -889,7 +975,11 @@ public class ConfigManager
 		}
 
 		log.debug("Setting configuration value for {} to {}", wholeKey, value);
-		handler.invalidate();
+		if (profile == null)
+		{
+			// config proxies only read keys outside of rs profiles
+			handler.invalidate(groupName, key);
+		}
 
 		ConfigChanged configChanged = new ConfigChanged();
 		configChanged.setGroup(groupName);
@@ -981,7 +1071,11 @@ public class ConfigManager
 		}
 
 		log.debug("Unsetting configuration value for {}", wholeKey);
-		handler.invalidate();
+		if (profile == null)
+		{
+			// config proxies only read keys outside of rs profiles
+			handler.invalidate(groupName, key);
+		}
 
 		ConfigChanged configChanged = new ConfigChanged();
 		configChanged.setGroup(groupName);
@@ -1350,7 +1444,18 @@ public class ConfigManager
 		sendConfig();
 	}
 
+	/**
+	 * Send pending config changes to the server and write the config to disk
+	 */
 	public void sendConfig()
+	{
+		sendConfig(true);
+	}
+
+	/**
+	 * @param compact whether to rewrite the properties files, as opposed to only logging the changes to them
+	 */
+	private void sendConfig(boolean compact)
 	{
 		eventBus.post(new ConfigSync());
 
@@ -1361,8 +1466,8 @@ public class ConfigManager
 			profile = updateProfile(lock, profile);
 			rsProfile = updateProfile(lock, rsProfile);
 
-			saveConfiguration(lock, profile, configProfile);
-			saveConfiguration(lock, rsProfile, rsProfileConfigProfile);
+			saveConfiguration(lock, profile, configProfile, compact);
+			saveConfiguration(lock, rsProfile, rsProfileConfigProfile, compact);
 		}
 	}
 
@@ -1386,12 +1491,17 @@ public class ConfigManager
 		return p;
 	}
 
-	private void saveConfiguration(ProfileManager.Lock lock, ConfigProfile profile, ConfigData data)
+	private void saveConfiguration(ProfileManager.Lock lock, ConfigProfile profile, ConfigData data, boolean compact)
 	{
 		Map<String, String> patch = data.swapChanges();
 
 		if (patch.isEmpty())
 		{
+			if (compact)
+			{
+				// changes already logged by the write behind still need folding into the properties
+				data.compact();
+			}
 			return;
 		}
 
@@ -1434,7 +1544,14 @@ public class ConfigManager
 			}
 		}
 
-		data.patch(patch);
+		if (compact)
+		{
+			data.compact();
+		}
+		else
+		{
+			data.flush();
+		}
 	}
 
 	private static ConfigPatch buildConfigPatch(@Nullable String profileName, Map<String, String> patchChanges)
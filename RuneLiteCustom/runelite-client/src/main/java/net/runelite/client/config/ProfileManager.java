@@ -214,6 +214,22 @@ public class ProfileManager
 					StandardCopyOption.REPLACE_EXISTING
 				);
 				log.info("Renamed profile file {} to {}", oldFile.getName(), newFile.getName());
+
+				// the snapshot and log are stamped with the properties file, which keeps its size and
+				// modification time over the move
+				List<File> oldSidecars = ConfigJournal.sidecars(oldFile);
+				List<File> newSidecars = ConfigJournal.sidecars(newFile);
+				for (int i = 0; i < oldSidecars.size(); ++i)
+				{
+					if (oldSidecars.get(i).exists())
+					{
+						Files.move(
+							oldSidecars.get(i).toPath(),
+							newSidecars.get(i).toPath(),
+							StandardCopyOption.REPLACE_EXISTING
+						);
+					}
+				}
 			}
 			catch (IOException e)
 			{
@@ -479,4 +479,31 @@ public interface RuneLiteConfig extends Config
 	{
 		return Keybind.ALT;
 	}
+
+	@ConfigItem(
+		keyName = "lowRenderMode",
+		name = "Low render mode",
+		description = "For clients nobody watches. Skips overlays, infoboxes, stretching and screenshots, and limits the frame rate,"
+			+ " while game ticks and plugins keep running at full speed.",
+		position = 53
+	)
+	default boolean lowRenderMode()
+	{
+		return false;
+	}
+
+	@Range(
+		min = 1,
+		max = 50
+	)
+	@ConfigItem(
+		keyName = "lowRenderFps",
+		name = "Low render FPS",
+		description = "The frame rate to limit to in low render mode. A frame is also drawn as soon as a plugin has work for the client thread.",
+		position = 54
+	)
+	default int lowRenderFps()
+	{
+		return 5;
+	}
 }
@@ -0,0 +1,269 @@
+package net.runelite.client.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Config data kept in a {@link SharedConfigStore} shared with the other clients on the machine, under a layer of
+ * per client overrides. Keys in {@code localKeys}, or already set in the overrides file, are read from and written to
+ * the overrides; the rest go to the store. Writes to the store are made behind, like {@link ConfigData}'s.
+ */
+@Slf4j
+class SharedConfigData extends ConfigData
+{
+	interface ChangeListener
+	{
+		void changed(String key, String oldValue, String newValue);
+	}
+
+	private final SharedConfigStore store;
+	private final Set<String> localKeys;
+
+	// changes not yet in the store, an empty value being an unset
+	private final ConcurrentHashMap<String, Optional<String>> unwritten = new ConcurrentHashMap<>();
+	// guarded by this
+	private Map<String, String> sharedPatchChanges = new HashMap<>();
+	private final Object writeLock = new Object();
+	private long ringPosition;
+
+	SharedConfigData(File overridesPath, @Nullable ScheduledExecutorService executor, SharedConfigStore store, Set<String> localKeys)
+	{
+		super(overridesPath, executor);
+		this.store = store;
+		this.localKeys = localKeys;
+		ringPosition = store.ringHead();
+	}
+
+	@Override
+	String getProperty(String key)
+	{
+		String local = super.getProperty(key);
+		if (local != null || localKeys.contains(key))
+		{
+			return local;
+		}
+
+		Optional<String> value = unwritten.get(key);
+		if (value != null)
+		{
+			return value.orElse(null);
+		}
+		return store.get(key);
+	}
+
+	@Override
+	synchronized String setProperty(String key, String value)
+	{
+		if (isLocal(key))
+		{
+			return super.setProperty(key, value);
+		}
+
+		String old = getProperty(key);
+		if (!Objects.equals(old, value))
+		{
+			unwritten.put(key, Optional.of(value));
+			sharedPatchChanges.put(key, value);
+			scheduleFlush();
+		}
+		return old;
+	}
+
+	@Override
+	synchronized String unset(String key)
+	{
+		if (isLocal(key))
+		{
+			String old = super.unset(key);
+			if (!localKeys.contains(key))
+			{
+				// the override hid the shared value, which would otherwise show through once it is gone
+				unsetShared(key);
+			}
+			return old;
+		}
+
+		String old = getProperty(key);
+		if (old != null)
+		{
+			unsetShared(key);
+		}
+		return old;
+	}
+
+	private void unsetShared(String key)
+	{
+		Optional<String> value = unwritten.get(key);
+		if (value != null ? value.isEmpty() : store.get(key) == null)
+		{
+			return;
+		}
+
+		unwritten.put(key, Optional.empty());
+		sharedPatchChanges.put(key, null);
+		scheduleFlush();
+	}
+
+	@Override
+	synchronized void putAll(Map<String, String> values)
+	{
+		for (Map.Entry<String, String> entry : values.entrySet())
+		{
+			if (entry.getValue() == null)
+			{
+				unset(entry.getKey());
+			}
+			else
+			{
+				setProperty(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	@Override
+	Set<String> keySet()
+	{
+		return Collections.unmodifiableSet(merged().keySet());
+	}
+
+	@Override
+	Map<String, String> get()
+	{
+		return Collections.unmodifiableMap(merged());
+	}
+
+	@Override
+	synchronized Map<String, String> swapChanges()
+	{
+		Map<String, String> local = super.swapChanges();
+		if (sharedPatchChanges.isEmpty())
+		{
+			return local;
+		}
+
+		Map<String, String> p = sharedPatchChanges;
+		sharedPatchChanges = new HashMap<>();
+		p.putAll(local);
+		return p;
+	}
+
+	@Override
+	void flush()
+	{
+		writeStore();
+		super.flush();
+	}
+
+	@Override
+	void compact()
+	{
+		writeStore();
+		store.force();
+		super.compact();
+	}
+
+	/**
+	 * Report the keys other clients have changed since the last poll
+	 */
+	void poll(ChangeListener listener)
+	{
+		Map<String, String> changed = new LinkedHashMap<>();
+		ringPosition = store.poll(ringPosition, new SharedConfigStore.Listener()
+		{
+			@Override
+			public void changed(String key, String oldValue)
+			{
+				// keep the first old value of keys changed more than once
+				changed.putIfAbsent(key, oldValue);
+			}
+
+			@Override
+			public void overflowed()
+			{
+				log.debug("shared config changes overflowed, reloading all keys");
+				for (String key : store.read().keySet())
+				{
+					changed.putIfAbsent(key, null);
+				}
+			}
+		});
+
+		for (Map.Entry<String, String> entry : changed.entrySet())
+		{
+			String key = entry.getKey();
+			if (isLocal(key) || unwritten.containsKey(key))
+			{
+				// shadowed here
+				continue;
+			}
+
+			String newValue = store.get(key);
+			if (!Objects.equals(entry.getValue(), newValue))
+			{
+				listener.changed(key, entry.getValue(), newValue);
+			}
+		}
+	}
+
+	private boolean isLocal(String key)
+	{
+		return localKeys.contains(key) || super.getProperty(key) != null;
+	}
+
+	private Map<String, String> merged()
+	{
+		Map<String, String> merged = store.read();
+		unwritten.forEach((key, value) ->
+		{
+			if (value.isPresent())
+			{
+				merged.put(key, value.get());
+			}
+			else
+			{
+				merged.remove(key);
+			}
+		});
+		merged.putAll(super.get());
+		return merged;
+	}
+
+	private void writeStore()
+	{
+		synchronized (writeLock)
+		{
+			Map<String, Optional<String>> changes = new HashMap<>(unwritten);
+			if (changes.isEmpty())
+			{
+				return;
+			}
+
+			Map<String, String> write = new HashMap<>(changes.size());
+			changes.forEach((key, value) -> write.put(key, value.orElse(null)));
+			try
+			{
+				store.write(write);
+			}
+			catch (IOException ex)
+			{
+				log.error("unable to save shared configuration", ex);
+				return;
+			}
+
+			// leave anything changed since for the next write
+			changes.forEach(unwritten::remove);
+		}
+	}
+}
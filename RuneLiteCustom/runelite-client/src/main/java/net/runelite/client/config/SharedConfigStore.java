@@ -0,0 +1,621 @@
+package net.runelite.client.config;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A config key/value store in a memory mapped file, shared by the client processes on one machine. Lookups probe
+ * a hash table in the mapping and decode only the value they find, so a process doesn't hold its own copy of the
+ * config.
+ * <p>
+ * The file holds two regions. A write, under a file lock, encodes the new contents into the inactive region, then
+ * switches the active region and bumps the change counter. Readers retry a lookup if the counter moved under them,
+ * as the region they read may have been rewritten. Each write also appends the changed keys to a ring, which
+ * other processes follow to find what changed since they last looked.
+ */
+@Slf4j
+class SharedConfigStore implements Closeable
+{
+	private static final int MAGIC = 0x524C5343; // RLSC
+	private static final int VERSION = 1;
+
+	private static final int COUNTER = 8;
+	private static final int RING_HEAD = 16;
+	private static final int ACTIVE = 24;
+	private static final int REGION_CAPACITY = 28;
+	private static final int RING_CAPACITY = 32;
+	// the ring position a write in progress will finish at
+	private static final int RING_RESERVED = 40;
+	// set once the store is first filled, so a store which was emptied is never seeded again
+	private static final int SEEDED = 48;
+	private static final int HEADER_SIZE = 64;
+
+	private static final int DEFAULT_REGION_CAPACITY = 8 << 20;
+	private static final int DEFAULT_RING_CAPACITY = 256 << 10;
+	private static final int MIN_TABLE_SIZE = 16;
+	// old values longer than this aren't put in the ring
+	private static final int MAX_RING_VALUE = 4096;
+	private static final long RING_PAD = -1L;
+
+	private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+	private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+	/**
+	 * Receives the changes made by other processes
+	 */
+	interface Listener
+	{
+		/**
+		 * @param key the key which changed
+		 * @param oldValue its value before the change, or null if unset or too large to be recorded
+		 */
+		void changed(String key, String oldValue);
+
+		/**
+		 * Too many changes were made since the last poll to say which. Any key may have changed.
+		 */
+		void overflowed();
+	}
+
+	private final File file;
+	private final File lockFile;
+	private final RandomAccessFile raf;
+	private final MappedByteBuffer buf;
+	private final int regionCapacity;
+	private final int ringCapacity;
+	private final int writerId;
+
+	SharedConfigStore(File file) throws IOException
+	{
+		this(file, DEFAULT_REGION_CAPACITY, DEFAULT_RING_CAPACITY, (int) ProcessHandle.current().pid());
+	}
+
+	SharedConfigStore(File file, int regionCapacity, int ringCapacity, int writerId) throws IOException
+	{
+		this.file = file;
+		this.lockFile = new File(file.getParentFile(), file.getName() + ".lck");
+		this.writerId = writerId;
+
+		try (FileLock lock = new FileLock())
+		{
+			raf = new RandomAccessFile(file, "rw");
+			if (raf.length() < HEADER_SIZE)
+			{
+				log.info("Creating shared config store {}", file);
+				// sparse, only the pages written take space
+				raf.setLength(HEADER_SIZE + ringCapacity + 2L * regionCapacity);
+				final ByteBuffer init = ByteBuffer.allocate(HEADER_SIZE);
+				init.putInt(0, MAGIC);
+				init.putInt(4, VERSION);
+				init.putInt(REGION_CAPACITY, regionCapacity);
+				init.putInt(RING_CAPACITY, ringCapacity);
+				raf.getChannel().write(init, 0);
+			}
+		}
+
+		final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		raf.getChannel().read(header, 0);
+		if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION)
+		{
+			raf.close();
+			throw new IOException("not a shared config store: " + file);
+		}
+
+		this.regionCapacity = header.getInt(REGION_CAPACITY);
+		this.ringCapacity = header.getInt(RING_CAPACITY);
+		buf = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + ringCapacity + 2L * this.regionCapacity);
+	}
+
+	/**
+	 * @return the change counter, which is bumped by every write
+	 */
+	long counter()
+	{
+		return (long) LONGS.getAcquire(buf, COUNTER);
+	}
+
+	/**
+	 * @return the position in the change ring, to pass to {@link #poll}
+	 */
+	long ringHead()
+	{
+		return (long) LONGS.getAcquire(buf, RING_HEAD);
+	}
+
+	String get(String key)
+	{
+		for (;;)
+		{
+			final long counter = counter();
+			try
+			{
+				final String value = lookup(regionOffset(), key);
+				VarHandle.loadLoadFence();
+				if (counter() == counter)
+				{
+					return value;
+				}
+			}
+			catch (RuntimeException ex)
+			{
+				// a region rewritten while it was read can have any garbage in it
+				if (counter() == counter)
+				{
+					throw ex;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return whether the store was already filled with its initial contents
+	 */
+	boolean isSeeded()
+	{
+		return (int) INTS.getAcquire(buf, SEEDED) != 0;
+	}
+
+	/**
+	 * Fill the store with its initial contents, unless some process already did
+	 *
+	 * @return whether the contents were written
+	 */
+	boolean seed(Map<String, String> contents) throws IOException
+	{
+		try (FileLock lock = new FileLock())
+		{
+			if (isSeeded())
+			{
+				return false;
+			}
+
+			apply(contents);
+			INTS.setRelease(buf, SEEDED, 1);
+			return true;
+		}
+	}
+
+	/**
+	 * @return a copy of the contents
+	 */
+	Map<String, String> read()
+	{
+		for (;;)
+		{
+			final long counter = counter();
+			try
+			{
+				final Map<String, String> contents = decode(regionOffset());
+				VarHandle.loadLoadFence();
+				if (counter() == counter)
+				{
+					return contents;
+				}
+			}
+			catch (RuntimeException ex)
+			{
+				if (counter() == counter)
+				{
+					throw ex;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Apply changes, a null value unsetting its key, and publish them to the other processes
+	 */
+	void write(Map<String, String> changes) throws IOException
+	{
+		if (changes.isEmpty())
+		{
+			return;
+		}
+
+		try (FileLock lock = new FileLock())
+		{
+			apply(changes);
+		}
+	}
+
+	private void apply(Map<String, String> changes) throws IOException
+	{
+		final int active = (int) INTS.getAcquire(buf, ACTIVE);
+		final Map<String, String> contents = decode(regionOffset(active));
+		final Map<String, String> old = new HashMap<>();
+		for (Map.Entry<String, String> entry : changes.entrySet())
+		{
+			final String prev = entry.getValue() == null
+				? contents.remove(entry.getKey())
+				: contents.put(entry.getKey(), entry.getValue());
+			if (!Objects.equals(prev, entry.getValue()))
+			{
+				old.put(entry.getKey(), prev);
+			}
+		}
+
+		if (old.isEmpty())
+		{
+			return;
+		}
+
+		final byte[] image = encode(contents);
+		if (image.length > regionCapacity)
+		{
+			throw new IOException("shared config store " + file + " is full");
+		}
+
+		final int inactive = active ^ 1;
+		final ByteBuffer region = buf.duplicate();
+		region.position(regionOffset(inactive));
+		region.put(image);
+
+		final long counter = counter() + 1;
+		final long head = appendRing(ringHead(), counter, old, false);
+		LONGS.setVolatile(buf, RING_RESERVED, head);
+		VarHandle.fullFence();
+		appendRing(ringHead(), counter, old, true);
+
+		INTS.setRelease(buf, ACTIVE, inactive);
+		LONGS.setRelease(buf, RING_HEAD, head);
+		LONGS.setRelease(buf, COUNTER, counter);
+	}
+
+	/**
+	 * Report the changes other processes made since a ring position
+	 *
+	 * @return the ring position to poll from next
+	 */
+	long poll(long from, Listener listener)
+	{
+		final long head = ringHead();
+		if (head == from)
+		{
+			return head;
+		}
+
+		final List<String> keys = new ArrayList<>();
+		final List<String> oldValues = new ArrayList<>();
+		boolean overflowed = head - from > ringCapacity;
+		if (!overflowed)
+		{
+			try
+			{
+				long pos = from;
+				while (pos < head)
+				{
+					int off = (int) (pos % ringCapacity);
+					if (ringCapacity - off < 8 || buf.getLong(ringOffset() + off) == RING_PAD)
+					{
+						pos += ringCapacity - off;
+						continue;
+					}
+
+					final int at = ringOffset() + off;
+					final int writer = buf.getInt(at + 8);
+					final int keyLen = buf.getInt(at + 12);
+					final String key = readString(at + 12);
+					final int oldOff = at + 16 + keyLen;
+					final String oldValue = readString(oldOff);
+					final int oldLen = buf.getInt(oldOff);
+					pos += 16 + keyLen + 4 + Math.max(oldLen, 0);
+
+					if (writer != writerId)
+					{
+						keys.add(key);
+						oldValues.add(oldValue);
+					}
+				}
+			}
+			catch (RuntimeException ex)
+			{
+				log.debug("change ring overwritten while read", ex);
+				overflowed = true;
+			}
+
+			// the records read may have been overwritten by writes since
+			VarHandle.loadLoadFence();
+			overflowed |= (long) LONGS.getVolatile(buf, RING_RESERVED) - from > ringCapacity;
+		}
+
+		if (overflowed)
+		{
+			listener.overflowed();
+		}
+		else
+		{
+			for (int i = 0; i < keys.size(); ++i)
+			{
+				listener.changed(keys.get(i), oldValues.get(i));
+			}
+		}
+		return head;
+	}
+
+	void force()
+	{
+		buf.force();
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		raf.close();
+	}
+
+	/**
+	 * @param write false to only work out where the records would end
+	 * @return the ring position after the records
+	 */
+	private long appendRing(long head, long seq, Map<String, String> old, boolean write)
+	{
+		for (Map.Entry<String, String> entry : old.entrySet())
+		{
+			final byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+			final String value = entry.getValue();
+			final byte[] oldValue = value == null || value.length() > MAX_RING_VALUE ? null : value.getBytes(StandardCharsets.UTF_8);
+			final int size = 16 + key.length + 4 + (oldValue == null ? 0 : oldValue.length);
+			if (size > ringCapacity / 4)
+			{
+				// too large to record, the readers will see an overflow
+				head += ringCapacity + 1;
+				continue;
+			}
+
+			int off = (int) (head % ringCapacity);
+			if (ringCapacity - off < size)
+			{
+				// records don't wrap, pad to the start of the ring
+				if (write && ringCapacity - off >= 8)
+				{
+					buf.putLong(ringOffset() + off, RING_PAD);
+				}
+				head += ringCapacity - off;
+				off = 0;
+			}
+
+			if (!write)
+			{
+				head += size;
+				continue;
+			}
+
+			final int at = ringOffset() + off;
+			buf.putLong(at, seq);
+			buf.putInt(at + 8, writerId);
+			buf.putInt(at + 12, key.length);
+			putBytes(at + 16, key);
+			final int oldOff = at + 16 + key.length;
+			buf.putInt(oldOff, oldValue == null ? -1 : oldValue.length);
+			if (oldValue != null)
+			{
+				putBytes(oldOff + 4, oldValue);
+			}
+			head += size;
+		}
+		return head;
+	}
+
+	private String lookup(int region, String key)
+	{
+		final int tableSize = buf.getInt(region + 4);
+		if (tableSize == 0)
+		{
+			// never written
+			return null;
+		}
+
+		final int mask = tableSize - 1;
+		final int hash = hash(key);
+		for (int i = hash & mask, probes = 0; probes < tableSize; i = (i + 1) & mask, ++probes)
+		{
+			final int slot = region + 8 + i * 8;
+			final int entry = buf.getInt(slot + 4);
+			if (entry == 0)
+			{
+				return null;
+			}
+
+			if (buf.getInt(slot) == hash && keyEquals(region + entry, key))
+			{
+				final int keyLen = buf.getInt(region + entry);
+				return readString(region + entry + 4 + keyLen);
+			}
+		}
+		throw new IllegalStateException("no free slot");
+	}
+
+	private Map<String, String> decode(int region)
+	{
+		final int count = buf.getInt(region);
+		final int tableSize = buf.getInt(region + 4);
+		final Map<String, String> contents = new HashMap<>(count * 4 / 3 + 1);
+		for (int i = 0; i < tableSize; ++i)
+		{
+			final int entry = buf.getInt(region + 8 + i * 8 + 4);
+			if (entry != 0)
+			{
+				final int keyLen = buf.getInt(region + entry);
+				contents.put(readString(region + entry), readString(region + entry + 4 + keyLen));
+			}
+		}
+		return contents;
+	}
+
+	private static byte[] encode(Map<String, String> contents)
+	{
+		int tableSize = MIN_TABLE_SIZE;
+		while (tableSize < contents.size() * 2)
+		{
+			tableSize <<= 1;
+		}
+
+		final int dataStart = 8 + tableSize * 8;
+		int size = dataStart;
+		final List<byte[]> bytes = new ArrayList<>(contents.size() * 2);
+		for (Map.Entry<String, String> entry : contents.entrySet())
+		{
+			final byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+			final byte[] value = entry.getValue().getBytes(StandardCharsets.UTF_8);
+			bytes.add(key);
+			bytes.add(value);
+			size += 8 + key.length + value.length;
+		}
+
+		final ByteBuffer image = ByteBuffer.allocate(size);
+		image.putInt(0, contents.size());
+		image.putInt(4, tableSize);
+		image.position(dataStart);
+
+		final int mask = tableSize - 1;
+		int n = 0;
+		for (String key : contents.keySet())
+		{
+			final int hash = hash(key);
+			int i = hash & mask;
+			while (image.getInt(8 + i * 8 + 4) != 0)
+			{
+				i = (i + 1) & mask;
+			}
+			image.putInt(8 + i * 8, hash);
+			image.putInt(8 + i * 8 + 4, image.position());
+
+			final byte[] k = bytes.get(n++);
+			final byte[] v = bytes.get(n++);
+			image.putInt(k.length).put(k);
+			image.putInt(v.length).put(v);
+		}
+		return image.array();
+	}
+
+	private boolean keyEquals(int at, String key)
+	{
+		final int len = buf.getInt(at);
+		if (len == key.length())
+		{
+			// ascii fast path, without encoding the key
+			boolean ascii = true;
+			for (int i = 0; i < len; ++i)
+			{
+				final char c = key.charAt(i);
+				if (c >= 0x80)
+				{
+					ascii = false;
+					break;
+				}
+				if (buf.get(at + 4 + i) != c)
+				{
+					return false;
+				}
+			}
+			if (ascii)
+			{
+				return true;
+			}
+		}
+
+		final byte[] b = key.getBytes(StandardCharsets.UTF_8);
+		if (b.length != len)
+		{
+			return false;
+		}
+		for (int i = 0; i < len; ++i)
+		{
+			if (buf.get(at + 4 + i) != b[i])
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String readString(int at)
+	{
+		final int len = buf.getInt(at);
+		if (len == -1)
+		{
+			return null;
+		}
+		if (len < 0 || len > buf.capacity() - at)
+		{
+			throw new IllegalStateException("bad string length " + len);
+		}
+
+		final byte[] b = new byte[len];
+		for (int i = 0; i < len; ++i)
+		{
+			b[i] = buf.get(at + 4 + i);
+		}
+		return new String(b, StandardCharsets.UTF_8);
+	}
+
+	private void putBytes(int at, byte[] b)
+	{
+		for (int i = 0; i < b.length; ++i)
+		{
+			buf.put(at + i, b[i]);
+		}
+	}
+
+	private int regionOffset()
+	{
+		return regionOffset((int) INTS.getAcquire(buf, ACTIVE));
+	}
+
+	private int regionOffset(int region)
+	{
+		return HEADER_SIZE + ringCapacity + (region & 1) * regionCapacity;
+	}
+
+	private int ringOffset()
+	{
+		return HEADER_SIZE;
+	}
+
+	private static int hash(String key)
+	{
+		final int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	private class FileLock implements AutoCloseable
+	{
+		private final FileOutputStream lockOut;
+
+		FileLock() throws IOException
+		{
+			lockOut = new FileOutputStream(lockFile);
+			try
+			{
+				lockOut.getChannel().lock();
+			}
+			catch (IOException ex)
+			{
+				lockOut.close();
+				throw ex;
+			}
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			lockOut.close();
+		}
+	}
+}
@@ -25,9 +25,8 @@
  */
 package net.runelite.client.eventbus;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableMultimap;
-import com.google.common.collect.Iterables;
 import java.lang.invoke.CallSite;
 import java.lang.invoke.LambdaMetafactory;
 import java.lang.invoke.MethodHandle;
@@ -36,13 +35,19 @@ import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
 import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.util.HandlerProfiler;
 import net.runelite.client.util.ReflectUtil;
 import org.slf4j.Marker;
 import org.slf4j.MarkerFactory;
@@ -53,6 +58,9 @@ import org.slf4j.MarkerFactory;
 public class EventBus
 {
 	private static final Marker DEDUPLICATE = MarkerFactory.getMarker("DEDUPLICATE");
+	private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+	private static final Comparator<Subscriber> ORDER = Comparator.comparingDouble(Subscriber::getPriority).reversed()
+		.thenComparing(s -> s.object.getClass().getName());
 
 	@Value
 	public static class Subscriber
@@ -78,8 +86,15 @@ public class EventBus
 
 	private final Consumer<Throwable> exceptionHandler;
 
+	/**
+	 * Subscribers of each event class, in the order they are called. Copy on write: the map and its arrays
+	 * are never modified once published, so {@link #post(Object)} reads them without locking.
+	 */
 	@Nonnull
-	private ImmutableMultimap<Class<?>, Subscriber> subscribers = ImmutableMultimap.of();
+	private volatile Map<Class<?>, Subscriber[]> subscribers = new IdentityHashMap<>();
+
+	@Nullable
+	private HandlerProfiler profiler;
 
 	/**
 	 * Instantiates EventBus with default exception handler
@@ -89,6 +104,15 @@ public class EventBus
 		this((e) -> log.warn(DEDUPLICATE, "Uncaught exception in event subscriber", e));
 	}
 
+	/**
+	 * Times every subscriber call with {@code profiler} while it is enabled
+	 */
+	@Inject
+	public void setProfiler(HandlerProfiler profiler)
+	{
+		this.profiler = profiler;
+	}
+
 	/**
 	 * Registers subscriber to EventBus. All methods in subscriber and it's parent classes are checked for
 	 * {@link Subscribe} annotation and then added to map of subscriptions.
@@ -98,10 +122,7 @@ public class EventBus
 	 */
 	public synchronized void register(@Nonnull final Object object)
 	{
-		final ImmutableMultimap.Builder<Class<?>, Subscriber> builder = ImmutableMultimap.builder();
-		builder.putAll(subscribers);
-		builder.orderValuesBy(Comparator.comparingDouble(Subscriber::getPriority).reversed()
-			.thenComparing(s -> s.object.getClass().getName()));
+		final Map<Class<?>, Subscriber[]> next = new IdentityHashMap<>(subscribers);
 
 		for (Class<?> clazz = object.getClass(); clazz != null; clazz = clazz.getSuperclass())
 		{
@@ -159,25 +180,22 @@ public class EventBus
 				}
 
 				final Subscriber subscriber = new Subscriber(object, method, sub.priority(), lambda);
-				builder.put(parameterClazz, subscriber);
+				next.put(parameterClazz, insert(next.get(parameterClazz), subscriber));
 				log.debug("Registering {} - {}", parameterClazz, subscriber);
 			}
 		}
 
-		subscribers = builder.build();
+		subscribers = next;
 	}
 
 	public synchronized <T> Subscriber register(Class<T> clazz, Consumer<T> subFn, float priority)
 	{
-		final ImmutableMultimap.Builder<Class<?>, Subscriber> builder = ImmutableMultimap.builder();
-		builder.putAll(subscribers);
-		builder.orderValuesBy(Comparator.comparingDouble(Subscriber::getPriority).reversed()
-			.thenComparing(s -> s.object.getClass().getName()));
+		final Map<Class<?>, Subscriber[]> next = new IdentityHashMap<>(subscribers);
 
 		Subscriber sub = new Subscriber(subFn, null, priority, (Consumer<Object>) subFn);
-		builder.put(clazz, sub);
+		next.put(clazz, insert(next.get(clazz), sub));
 
-		subscribers = builder.build();
+		subscribers = next;
 
 		return sub;
 	}
@@ -189,10 +207,7 @@ public class EventBus
 	 */
 	public synchronized void unregister(@Nonnull final Object object)
 	{
-		subscribers = ImmutableMultimap.copyOf(Iterables.filter(
-			subscribers.entries(),
-			e -> e.getValue().getObject() != object
-		));
+		remove(s -> s.getObject() == object);
 	}
 
 	public synchronized void unregister(Subscriber sub)
@@ -202,10 +217,92 @@ public class EventBus
 			return;
 		}
 
-		subscribers = ImmutableMultimap.copyOf(Iterables.filter(
-			subscribers.entries(),
-			e -> sub != e.getValue()
-		));
+		remove(s -> s == sub);
+	}
+
+	/**
+	 * Copy of {@code subs} with {@code sub} inserted after every subscriber ordered before or equal to it
+	 */
+	private static Subscriber[] insert(Subscriber[] subs, Subscriber sub)
+	{
+		if (subs == null)
+		{
+			return new Subscriber[]{sub};
+		}
+
+		int i = subs.length;
+		while (i > 0 && ORDER.compare(subs[i - 1], sub) > 0)
+		{
+			--i;
+		}
+
+		final Subscriber[] next = new Subscriber[subs.length + 1];
+		System.arraycopy(subs, 0, next, 0, i);
+		next[i] = sub;
+		System.arraycopy(subs, i, next, i + 1, subs.length - i);
+		return next;
+	}
+
+	/**
+	 * Remove every subscriber matching {@code filter}, copying only the arrays it changes
+	 */
+	private void remove(Predicate<Subscriber> filter)
+	{
+		Map<Class<?>, Subscriber[]> next = null;
+		for (Map.Entry<Class<?>, Subscriber[]> entry : subscribers.entrySet())
+		{
+			final Subscriber[] subs = entry.getValue();
+			int keep = 0;
+			for (Subscriber s : subs)
+			{
+				if (!filter.test(s))
+				{
+					++keep;
+				}
+			}
+
+			if (keep == subs.length)
+			{
+				continue;
+			}
+
+			if (next == null)
+			{
+				next = new IdentityHashMap<>(subscribers);
+			}
+
+			if (keep == 0)
+			{
+				next.remove(entry.getKey());
+				continue;
+			}
+
+			final Subscriber[] kept = new Subscriber[keep];
+			int i = 0;
+			for (Subscriber s : subs)
+			{
+				if (!filter.test(s))
+				{
+					kept[i++] = s;
+				}
+			}
+			next.put(entry.getKey(), kept);
+		}
+
+		if (next != null)
+		{
+			subscribers = next;
+		}
+	}
+
+	/**
+	 * The subscribers {@link #post(Object)} calls for events of exactly {@code clazz}, in order. Must not be modified.
+	 */
+	@VisibleForTesting
+	Subscriber[] getSubscribers(Class<?> clazz)
+	{
+		final Subscriber[] subs = subscribers.get(clazz);
+		return subs != null ? subs : NO_SUBSCRIBERS;
 	}
 
 	/**
@@ -216,8 +313,36 @@ public class EventBus
 	 */
 	public void post(@Nonnull final Object event)
 	{
-		for (final Subscriber subscriber : subscribers.get(event.getClass()))
+		final Subscriber[] subs = subscribers.get(event.getClass());
+		if (subs == null)
+		{
+			return;
+		}
+
+		if (profiler != null && profiler.isEnabled())
+		{
+			postProfiled(subs, event);
+			return;
+		}
+
+		for (final Subscriber subscriber : subs)
+		{
+			try
+			{
+				subscriber.invoke(event);
+			}
+			catch (Exception e)
+			{
+				exceptionHandler.accept(e);
+			}
+		}
+	}
+
+	private void postProfiled(final Subscriber[] subs, final Object event)
+	{
+		for (final Subscriber subscriber : subs)
 		{
+			final long start = System.nanoTime();
 			try
 			{
 				subscriber.invoke(event);
@@ -226,6 +351,7 @@ public class EventBus
 			{
 				exceptionHandler.accept(e);
 			}
+			profiler.record(subscriber.getObject().getClass(), event.getClass(), System.nanoTime() - start);
 		}
 	}
 }
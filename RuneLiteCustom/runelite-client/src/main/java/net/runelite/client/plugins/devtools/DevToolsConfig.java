@@ -29,6 +29,7 @@ import net.runelite.client.config.ConfigGroup;
 import net.runelite.client.config.ConfigItem;
 import net.runelite.client.config.Keybind;
 import net.runelite.client.config.Notification;
+import net.runelite.client.config.Units;
 
 @ConfigGroup("devtools")
 public interface DevToolsConfig extends Config
@@ -70,4 +71,25 @@ public interface DevToolsConfig extends Config
 	{
 		return Notification.ON;
 	}
+
+	@ConfigItem(
+		keyName = "handlerBudget",
+		name = "Handler budget",
+		description = "While handlers are profiled, log any event subscriber, client thread task or scheduled method taking longer than this."
+	)
+	@Units(Units.MILLISECONDS)
+	default int handlerBudget()
+	{
+		return 2;
+	}
+
+	@ConfigItem(
+		keyName = "handlerProfileDump",
+		name = "Dump handler profile",
+		description = "Profile handlers and write the totals to .runelite/profiles/handlers.json and handlers.csv every 30 seconds."
+	)
+	default boolean handlerProfileDump()
+	{
+		return false;
+	}
 }
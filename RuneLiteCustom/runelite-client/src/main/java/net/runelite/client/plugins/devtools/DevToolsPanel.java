@@ -60,6 +60,7 @@ class DevToolsPanel extends PluginPanel
 	private final VarInspector varInspector;
 	private final ScriptInspector scriptInspector;
 	private final InventoryInspector inventoryInspector;
+	private final HandlerProfilerFrame handlerProfilerFrame;
 	private final InfoBoxManager infoBoxManager;
 	private final ScheduledExecutorService scheduledExecutorService;
 
@@ -73,6 +74,7 @@ class DevToolsPanel extends PluginPanel
 		VarInspector varInspector,
 		ScriptInspector scriptInspector,
 		InventoryInspector inventoryInspector,
+		HandlerProfilerFrame handlerProfilerFrame,
 		Notifier notifier,
 		InfoBoxManager infoBoxManager,
 		ScheduledExecutorService scheduledExecutorService)
@@ -86,6 +88,7 @@ class DevToolsPanel extends PluginPanel
 		this.varInspector = varInspector;
 		this.inventoryInspector = inventoryInspector;
 		this.scriptInspector = scriptInspector;
+		this.handlerProfilerFrame = handlerProfilerFrame;
 		this.notifier = notifier;
 		this.infoBoxManager = infoBoxManager;
 		this.scheduledExecutorService = scheduledExecutorService;
@@ -220,6 +223,9 @@ class DevToolsPanel extends PluginPanel
 
 		container.add(plugin.getWorldEntities());
 
+		container.add(plugin.getHandlerProfilerButton());
+		plugin.getHandlerProfilerButton().addFrame(handlerProfilerFrame);
+
 		return container;
 	}
 }
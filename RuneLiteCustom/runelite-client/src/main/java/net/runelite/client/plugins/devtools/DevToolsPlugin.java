@@ -43,6 +43,9 @@ import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import javax.swing.JOptionPane;
 import javax.swing.JRootPane;
@@ -76,6 +79,7 @@ import net.runelite.client.chat.QueuedMessage;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.EventBus;
 import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.ui.ClientToolbar;
@@ -83,6 +87,7 @@ import net.runelite.client.ui.JagexColors;
 import net.runelite.client.ui.NavigationButton;
 import net.runelite.client.ui.overlay.OverlayManager;
 import net.runelite.client.util.ColorUtil;
+import net.runelite.client.util.HandlerProfiler;
 import net.runelite.client.util.HotkeyListener;
 import net.runelite.client.util.ImageUtil;
 import org.slf4j.LoggerFactory;
@@ -141,6 +146,15 @@ public class DevToolsPlugin extends Plugin
 	@Inject
 	private DevToolsConfig config;
 
+	@Inject
+	private HandlerProfiler handlerProfiler;
+
+	@Inject
+	private HandlerProfileDump handlerProfileDump;
+
+	@Inject
+	private ScheduledExecutorService executor;
+
 	private DevToolsButton players;
 	private DevToolsButton npcs;
 	private DevToolsButton groundItems;
@@ -173,7 +187,9 @@ public class DevToolsPlugin extends Plugin
 	private DevToolsButton menus;
 	private DevToolsButton uiDefaultsInspector;
 	private DevToolsButton worldEntities;
+	private DevToolsButton handlerProfilerButton;
 	private NavigationButton navButton;
+	private ScheduledFuture<?> handlerProfileDumpFuture;
 
 	private final HotkeyListener swingInspectorHotkeyListener = new HotkeyListener(() -> config.swingInspectorHotkey())
 	{
@@ -277,6 +293,7 @@ public class DevToolsPlugin extends Plugin
 		uiDefaultsInspector = new DevToolsButton("Swing Defaults");
 
 		worldEntities = new DevToolsButton("World Entities");
+		handlerProfilerButton = new DevToolsButton("Handler Profiler");
 
 		overlayManager.add(overlay);
 		overlayManager.add(locationOverlay);
@@ -302,6 +319,8 @@ public class DevToolsPlugin extends Plugin
 		eventBus.register(soundEffectOverlay);
 
 		Toolkit.getDefaultToolkit().addAWTEventListener(swingInspectorKeyListener, AWTEvent.KEY_EVENT_MASK);
+
+		updateHandlerProfiler();
 	}
 
 	@Override
@@ -317,6 +336,39 @@ public class DevToolsPlugin extends Plugin
 		overlayManager.remove(soundEffectOverlay);
 		clientToolbar.removeNavigation(navButton);
 		Toolkit.getDefaultToolkit().removeAWTEventListener(swingInspectorKeyListener);
+
+		if (handlerProfileDumpFuture != null)
+		{
+			handlerProfileDumpFuture.cancel(false);
+			handlerProfileDumpFuture = null;
+		}
+		handlerProfiler.setEnabled(false);
+	}
+
+	@Subscribe
+	public void onConfigChanged(ConfigChanged event)
+	{
+		if (event.getGroup().equals("devtools")
+			&& (event.getKey().equals("handlerBudget") || event.getKey().equals("handlerProfileDump")))
+		{
+			updateHandlerProfiler();
+		}
+	}
+
+	private void updateHandlerProfiler()
+	{
+		handlerProfiler.setBudgetNanos(TimeUnit.MILLISECONDS.toNanos(config.handlerBudget()));
+		handlerProfiler.setEnabled(config.handlerProfileDump() || handlerProfilerButton.isActive());
+
+		if (config.handlerProfileDump() && handlerProfileDumpFuture == null)
+		{
+			handlerProfileDumpFuture = executor.scheduleWithFixedDelay(handlerProfileDump::write, 30, 30, TimeUnit.SECONDS);
+		}
+		else if (!config.handlerProfileDump() && handlerProfileDumpFuture != null)
+		{
+			handlerProfileDumpFuture.cancel(false);
+			handlerProfileDumpFuture = null;
+		}
 	}
 
 	@Subscribe
@@ -0,0 +1,97 @@
+package net.runelite.client.plugins.devtools;
+
+import com.google.gson.Gson;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import javax.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
+import net.runelite.client.util.HandlerProfiler;
+
+/**
+ * Writes {@link HandlerProfiler} totals to {@code .runelite/profiles}: {@code handlers.json} holds the latest
+ * totals, and every write appends them to {@code handlers.csv} with a timestamp, so the cost over an interval
+ * is the difference of two rows. The csv rolls over to {@code handlers.csv.1} once it reaches 10 MB.
+ */
+@Slf4j
+class HandlerProfileDump
+{
+	private static final File DIR = new File(RuneLite.RUNELITE_DIR, "profiles");
+	private static final long MAX_CSV_BYTES = 10 << 20;
+	private static final String CSV_HEADER = "time,owner,source,calls,total_ns,max_ns,over_budget";
+
+	private final HandlerProfiler profiler;
+	private final Gson gson;
+
+	@Inject
+	HandlerProfileDump(HandlerProfiler profiler, Gson gson)
+	{
+		this.profiler = profiler;
+		this.gson = gson;
+	}
+
+	void write()
+	{
+		List<HandlerProfiler.Entry> entries = profiler.snapshot();
+		if (entries.isEmpty())
+		{
+			return;
+		}
+
+		try
+		{
+			if (!DIR.isDirectory() && !DIR.mkdirs())
+			{
+				throw new IOException("unable to create " + DIR);
+			}
+
+			File json = new File(DIR, "handlers.json");
+			File tmp = new File(DIR, "handlers.json.tmp");
+			try (Writer out = writer(tmp, false))
+			{
+				gson.toJson(entries, out);
+			}
+			Files.move(tmp.toPath(), json.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+			File csv = new File(DIR, "handlers.csv");
+			if (csv.length() >= MAX_CSV_BYTES)
+			{
+				Files.move(csv.toPath(), new File(DIR, "handlers.csv.1").toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			boolean header = !csv.exists();
+			String time = Instant.now().toString();
+			try (Writer out = writer(csv, true))
+			{
+				if (header)
+				{
+					out.write(CSV_HEADER);
+					out.write('\n');
+				}
+				for (HandlerProfiler.Entry e : entries)
+				{
+					out.write(time + ',' + e.getOwner() + ',' + e.getSource() + ',' + e.getCount() + ','
+						+ e.getTotalNanos() + ',' + e.getMaxNanos() + ',' + e.getOverBudget() + '\n');
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			log.warn("unable to write handler profile", e);
+		}
+	}
+
+	private static Writer writer(File file, boolean append) throws IOException
+	{
+		return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, append), StandardCharsets.UTF_8));
+	}
+}
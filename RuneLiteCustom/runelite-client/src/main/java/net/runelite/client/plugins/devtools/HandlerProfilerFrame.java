@@ -0,0 +1,253 @@
+package net.runelite.client.plugins.devtools;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.util.Collections;
+import java.util.List;
+import javax.inject.Inject;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTabbedPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.task.Scheduler;
+import net.runelite.client.util.HandlerProfiler;
+
+/**
+ * Live view of {@link HandlerProfiler}, the {@link ClientThread} queue and {@link Scheduler} timings. Profiling
+ * runs while this is open, or while handler profile dumps are turned on.
+ */
+class HandlerProfilerFrame extends DevToolsFrame
+{
+	private static final int REFRESH_MS = 1000;
+
+	private final HandlerProfiler profiler;
+	private final ClientThread clientThread;
+	private final Scheduler scheduler;
+	private final DevToolsConfig config;
+	private final EntryTableModel model = new EntryTableModel();
+	private final TaskTableModel taskModel = new TaskTableModel();
+	private final JLabel budget = new JLabel();
+	private final JLabel queue = new JLabel();
+	private final Timer refresh = new Timer(REFRESH_MS, ev -> refresh());
+
+	@Inject
+	HandlerProfilerFrame(HandlerProfiler profiler, ClientThread clientThread, Scheduler scheduler, DevToolsConfig config)
+	{
+		this.profiler = profiler;
+		this.clientThread = clientThread;
+		this.scheduler = scheduler;
+		this.config = config;
+
+		setTitle("RuneLite Handler Profiler");
+		setLayout(new BorderLayout());
+
+		final JTable table = new JTable(model);
+		table.setAutoCreateRowSorter(true);
+		table.getColumnModel().getColumn(0).setPreferredWidth(300);
+		table.getColumnModel().getColumn(1).setPreferredWidth(160);
+
+		final JScrollPane scrollPane = new JScrollPane(table);
+		scrollPane.setPreferredSize(new Dimension(900, 500));
+
+		final JTable taskTable = new JTable(taskModel);
+		taskTable.setAutoCreateRowSorter(true);
+		taskTable.getColumnModel().getColumn(0).setPreferredWidth(400);
+
+		final JTabbedPane tabs = new JTabbedPane();
+		tabs.addTab("Handlers", scrollPane);
+		tabs.addTab("Scheduled tasks", new JScrollPane(taskTable));
+		add(tabs, BorderLayout.CENTER);
+
+		final JPanel bottomPanel = new JPanel();
+		add(bottomPanel, BorderLayout.SOUTH);
+
+		final JButton resetBtn = new JButton("Reset");
+		resetBtn.addActionListener(ev ->
+		{
+			profiler.reset();
+			refresh();
+		});
+		bottomPanel.add(resetBtn);
+		bottomPanel.add(budget);
+		bottomPanel.add(queue);
+
+		pack();
+	}
+
+	@Override
+	public void open()
+	{
+		profiler.setEnabled(true);
+		refresh();
+		refresh.start();
+		super.open();
+	}
+
+	@Override
+	public void close()
+	{
+		refresh.stop();
+		profiler.setEnabled(config.handlerProfileDump());
+		super.close();
+	}
+
+	private void refresh()
+	{
+		budget.setText(String.format("Calls over %.1fms are logged", profiler.getBudgetNanos() / 1e6));
+		model.setEntries(profiler.snapshot());
+
+		ClientThread.Stats stats = clientThread.getStats();
+		queue.setText(String.format("Client thread: %d queued, %d started, waited %.2fms avg %.2fms max, %d retries, %d cycles over budget",
+			stats.getDepth(), stats.getStarted(), stats.getMeanWaitNanos() / 1e6, stats.getMaxWaitNanos() / 1e6,
+			stats.getRetries(), stats.getOverBudgetCycles()));
+
+		taskModel.setStats(scheduler.getStats());
+	}
+
+	private static class EntryTableModel extends AbstractTableModel
+	{
+		private static final String[] COLUMNS = {"Owner", "Source", "Calls", "Total ms", "Mean µs", "Max ms", "Over budget"};
+
+		private List<HandlerProfiler.Entry> entries = Collections.emptyList();
+
+		void setEntries(List<HandlerProfiler.Entry> entries)
+		{
+			this.entries = entries;
+			fireTableDataChanged();
+		}
+
+		@Override
+		public int getRowCount()
+		{
+			return entries.size();
+		}
+
+		@Override
+		public int getColumnCount()
+		{
+			return COLUMNS.length;
+		}
+
+		@Override
+		public String getColumnName(int column)
+		{
+			return COLUMNS[column];
+		}
+
+		@Override
+		public Class<?> getColumnClass(int column)
+		{
+			switch (column)
+			{
+				case 0:
+				case 1:
+					return String.class;
+				case 2:
+				case 6:
+					return Long.class;
+				default:
+					return Double.class;
+			}
+		}
+
+		@Override
+		public Object getValueAt(int row, int column)
+		{
+			HandlerProfiler.Entry e = entries.get(row);
+			switch (column)
+			{
+				case 0:
+					return e.getOwner();
+				case 1:
+					return e.getSource();
+				case 2:
+					return e.getCount();
+				case 3:
+					return round(e.getTotalNanos() / 1e6);
+				case 4:
+					return round(e.getCount() > 0 ? e.getTotalNanos() / 1e3 / e.getCount() : 0);
+				case 5:
+					return round(e.getMaxNanos() / 1e6);
+				default:
+					return e.getOverBudget();
+			}
+		}
+
+		private static double round(double value)
+		{
+			return Math.round(value * 100) / 100.0;
+		}
+	}
+
+	private static class TaskTableModel extends AbstractTableModel
+	{
+		private static final String[] COLUMNS = {"Task", "Runs", "Mean late ms", "Max late ms", "Max run ms", "Overruns"};
+
+		private List<Scheduler.Stats> stats = Collections.emptyList();
+
+		void setStats(List<Scheduler.Stats> stats)
+		{
+			this.stats = stats;
+			fireTableDataChanged();
+		}
+
+		@Override
+		public int getRowCount()
+		{
+			return stats.size();
+		}
+
+		@Override
+		public int getColumnCount()
+		{
+			return COLUMNS.length;
+		}
+
+		@Override
+		public String getColumnName(int column)
+		{
+			return COLUMNS[column];
+		}
+
+		@Override
+		public Class<?> getColumnClass(int column)
+		{
+			switch (column)
+			{
+				case 0:
+					return String.class;
+				case 1:
+				case 5:
+					return Long.class;
+				default:
+					return Double.class;
+			}
+		}
+
+		@Override
+		public Object getValueAt(int row, int column)
+		{
+			Scheduler.Stats s = stats.get(row);
+			switch (column)
+			{
+				case 0:
+					return s.getMethod().getMethod().getDeclaringClass().getSimpleName() + "." + s.getMethod().getMethod().getName();
+				case 1:
+					return s.getRuns();
+				case 2:
+					return EntryTableModel.round(s.getMeanLateNanos() / 1e6);
+				case 3:
+					return EntryTableModel.round(s.getMaxLateNanos() / 1e6);
+				case 4:
+					return EntryTableModel.round(s.getMaxRunNanos() / 1e6);
+				default:
+					return s.getOverruns();
+			}
+		}
+	}
+}
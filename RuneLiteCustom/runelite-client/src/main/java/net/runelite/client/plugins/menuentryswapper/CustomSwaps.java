@@ -0,0 +1,217 @@
+package net.runelite.client.plugins.menuentryswapper;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.game.ItemVariationMapping;
+import static net.runelite.client.plugins.menuentryswapper.MenuEntrySwapperPlugin.ITEM_KEY_PREFIX;
+import static net.runelite.client.plugins.menuentryswapper.MenuEntrySwapperPlugin.NPC_KEY_PREFIX;
+import static net.runelite.client.plugins.menuentryswapper.MenuEntrySwapperPlugin.NPC_SHIFT_KEY_PREFIX;
+import static net.runelite.client.plugins.menuentryswapper.MenuEntrySwapperPlugin.OBJECT_KEY_PREFIX;
+import static net.runelite.client.plugins.menuentryswapper.MenuEntrySwapperPlugin.OBJECT_SHIFT_KEY_PREFIX;
+import static net.runelite.client.plugins.menuentryswapper.MenuEntrySwapperPlugin.SHIFTCLICK_CONFIG_GROUP;
+import static net.runelite.client.plugins.menuentryswapper.MenuEntrySwapperPlugin.UI_KEY_PREFIX;
+import static net.runelite.client.plugins.menuentryswapper.MenuEntrySwapperPlugin.UI_SHIFT_KEY_PREFIX;
+import static net.runelite.client.plugins.menuentryswapper.MenuEntrySwapperPlugin.WORN_ITEM_KEY_PREFIX;
+import static net.runelite.client.plugins.menuentryswapper.MenuEntrySwapperPlugin.WORN_ITEM_SHIFT_KEY_PREFIX;
+
+/**
+ * The custom left and shift click swaps from config, compiled into {@link SwapTable}s so that swapping the menu
+ * doesn't build a config key and parse its value for every entry. Swaps on items are stored under every variation
+ * of the item, so lookups take the item id as is.
+ * <p>
+ * A published instance is never modified; {@link #update} returns a copy.
+ */
+@Slf4j
+class CustomSwaps
+{
+	static final int NONE = SwapTable.NONE;
+
+	private enum Table
+	{
+		// shift prefixes come before the plain prefixes they extend
+		ITEM(MenuEntrySwapperConfig.GROUP, ITEM_KEY_PREFIX),
+		ITEM_SHIFT(SHIFTCLICK_CONFIG_GROUP, ITEM_KEY_PREFIX),
+		WORN_ITEM_SHIFT(MenuEntrySwapperConfig.GROUP, WORN_ITEM_SHIFT_KEY_PREFIX),
+		WORN_ITEM(MenuEntrySwapperConfig.GROUP, WORN_ITEM_KEY_PREFIX),
+		OBJECT_SHIFT(MenuEntrySwapperConfig.GROUP, OBJECT_SHIFT_KEY_PREFIX),
+		OBJECT(MenuEntrySwapperConfig.GROUP, OBJECT_KEY_PREFIX),
+		NPC_SHIFT(MenuEntrySwapperConfig.GROUP, NPC_SHIFT_KEY_PREFIX),
+		NPC(MenuEntrySwapperConfig.GROUP, NPC_KEY_PREFIX),
+		UI_SHIFT(MenuEntrySwapperConfig.GROUP, UI_SHIFT_KEY_PREFIX),
+		UI(MenuEntrySwapperConfig.GROUP, UI_KEY_PREFIX);
+
+		private static final Table[] VALUES = values();
+
+		private final String group;
+		private final String prefix;
+
+		Table(String group, String prefix)
+		{
+			this.group = group;
+			this.prefix = prefix;
+		}
+
+		static Table of(String group, String key)
+		{
+			for (Table table : VALUES)
+			{
+				if (table.group.equals(group) && key.startsWith(table.prefix))
+				{
+					return table;
+				}
+			}
+			return null;
+		}
+	}
+
+	private final SwapTable[] tables;
+
+	CustomSwaps()
+	{
+		tables = new SwapTable[Table.VALUES.length];
+		for (int i = 0; i < tables.length; ++i)
+		{
+			tables[i] = new SwapTable();
+		}
+	}
+
+	private CustomSwaps(SwapTable[] tables)
+	{
+		this.tables = tables;
+	}
+
+	static CustomSwaps load(ConfigManager configManager)
+	{
+		final CustomSwaps swaps = new CustomSwaps();
+		for (String group : new String[]{MenuEntrySwapperConfig.GROUP, SHIFTCLICK_CONFIG_GROUP})
+		{
+			for (String wholeKey : configManager.getConfigurationKeys(group + "."))
+			{
+				final String key = wholeKey.substring(group.length() + 1);
+				final Table table = Table.of(group, key);
+				if (table != null)
+				{
+					swaps.set(table, key, configManager.getConfiguration(group, key));
+				}
+			}
+		}
+		return swaps;
+	}
+
+	/**
+	 * Apply a config change
+	 *
+	 * @return a copy with the change applied, or this if the key isn't a custom swap
+	 */
+	CustomSwaps update(String group, String key, String value)
+	{
+		final Table table = Table.of(group, key);
+		if (table == null)
+		{
+			return this;
+		}
+
+		final CustomSwaps swaps = new CustomSwaps(tables.clone());
+		swaps.tables[table.ordinal()] = tables[table.ordinal()].copy();
+		swaps.set(table, key, value);
+		return swaps;
+	}
+
+	int item(boolean shift, int itemId)
+	{
+		return get(shift ? Table.ITEM_SHIFT : Table.ITEM, itemId);
+	}
+
+	int wornItem(boolean shift, int itemId)
+	{
+		return get(shift ? Table.WORN_ITEM_SHIFT : Table.WORN_ITEM, itemId);
+	}
+
+	int object(boolean shift, int objectId)
+	{
+		return get(shift ? Table.OBJECT_SHIFT : Table.OBJECT, objectId);
+	}
+
+	int npc(boolean shift, int npcId)
+	{
+		return get(shift ? Table.NPC_SHIFT : Table.NPC, npcId);
+	}
+
+	int ui(boolean shift, int componentId, int itemId)
+	{
+		return get(shift ? Table.UI_SHIFT : Table.UI, uiKey(componentId, itemId));
+	}
+
+	private int get(Table table, long key)
+	{
+		return tables[table.ordinal()].get(key);
+	}
+
+	private void set(Table table, String key, String value)
+	{
+		final boolean ui = table == Table.UI || table == Table.UI_SHIFT;
+		final String suffix = key.substring(table.prefix.length());
+		final int componentId;
+		final int id;
+		final int op;
+		try
+		{
+			if (ui)
+			{
+				final int sep = suffix.indexOf('_');
+				componentId = Integer.parseInt(sep == -1 ? suffix : suffix.substring(0, sep));
+				id = sep == -1 ? -1 : Integer.parseInt(suffix.substring(sep + 1));
+			}
+			else
+			{
+				componentId = -1;
+				id = Integer.parseInt(suffix);
+			}
+
+			op = value == null || value.isEmpty() ? NONE : Integer.parseInt(value);
+		}
+		catch (NumberFormatException ex)
+		{
+			log.debug("Ignoring invalid swap {}: {}", key, value);
+			return;
+		}
+
+		final SwapTable swaps = tables[table.ordinal()];
+		if (table == Table.OBJECT || table == Table.OBJECT_SHIFT || table == Table.NPC || table == Table.NPC_SHIFT)
+		{
+			set(swaps, id, op);
+			return;
+		}
+
+		// the key holds the base item id, see ItemVariationMapping.map
+		for (int variation : ItemVariationMapping.getVariations(id))
+		{
+			if (ItemVariationMapping.map(variation) == id)
+			{
+				set(swaps, ui ? uiKey(componentId, variation) : variation, op);
+			}
+		}
+	}
+
+	private static void set(SwapTable swaps, long key, int op)
+	{
+		if (key < 0)
+		{
+			return;
+		}
+
+		if (op == NONE)
+		{
+			swaps.remove(key);
+		}
+		else
+		{
+			swaps.put(key, op);
+		}
+	}
+
+	private static long uiKey(int componentId, int itemId)
+	{
+		return (long) componentId << 32 | (itemId & 0xFFFFFFFFL);
+	}
+}
@@ -39,7 +39,9 @@ import com.google.inject.Provides;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -71,6 +73,8 @@ import net.runelite.client.chat.ChatMessageManager;
 import net.runelite.client.chat.QueuedMessage;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.events.ConfigChanged;
+import net.runelite.client.events.ProfileChanged;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.game.ItemVariationMapping;
 import net.runelite.client.game.NpcUtil;
@@ -92,16 +96,16 @@ import net.runelite.client.util.Text;
 @Slf4j
 public class MenuEntrySwapperPlugin extends Plugin
 {
-	private static final String SHIFTCLICK_CONFIG_GROUP = "shiftclick";
-	private static final String ITEM_KEY_PREFIX = "item_";
-	private static final String OBJECT_KEY_PREFIX = "object_";
-	private static final String OBJECT_SHIFT_KEY_PREFIX = "object_shift_";
-	private static final String NPC_KEY_PREFIX = "npc_";
-	private static final String NPC_SHIFT_KEY_PREFIX = "npc_shift_";
-	private static final String WORN_ITEM_KEY_PREFIX = "wornitem_";
-	private static final String WORN_ITEM_SHIFT_KEY_PREFIX = "wornitem_shift_";
-	private static final String UI_KEY_PREFIX = "ui_";
-	private static final String UI_SHIFT_KEY_PREFIX = "ui_shift_";
+	static final String SHIFTCLICK_CONFIG_GROUP = "shiftclick";
+	static final String ITEM_KEY_PREFIX = "item_";
+	static final String OBJECT_KEY_PREFIX = "object_";
+	static final String OBJECT_SHIFT_KEY_PREFIX = "object_shift_";
+	static final String NPC_KEY_PREFIX = "npc_";
+	static final String NPC_SHIFT_KEY_PREFIX = "npc_shift_";
+	static final String WORN_ITEM_KEY_PREFIX = "wornitem_";
+	static final String WORN_ITEM_SHIFT_KEY_PREFIX = "wornitem_shift_";
+	static final String UI_KEY_PREFIX = "ui_";
+	static final String UI_SHIFT_KEY_PREFIX = "ui_shift_";
 
 	private static final List<MenuAction> NPC_MENU_TYPES = ImmutableList.of(
 		MenuAction.NPC_FIRST_OPTION,
@@ -209,6 +213,10 @@ public class MenuEntrySwapperPlugin extends Plugin
 	private final Multimap<String, Swap> swaps = LinkedHashMultimap.create();
 	private final ArrayListMultimap<String, Integer> cacheOptionIndexes = ArrayListMultimap.create();
 	private Menu cacheOptionMenu;
+	// lowercased option and target of each entry, without tags, for the current menu build
+	private final Map<MenuEntry, String> cleanOptions = new IdentityHashMap<>();
+	private final Map<MenuEntry, String> cleanTargets = new IdentityHashMap<>();
+	private volatile CustomSwaps customSwaps = new CustomSwaps();
 	private boolean lastShift, curShift;
 
 	@Provides
@@ -222,12 +230,29 @@ public class MenuEntrySwapperPlugin extends Plugin
 	{
 		setupSwaps();
 		removeOldSwaps();
+		customSwaps = CustomSwaps.load(configManager);
 	}
 
 	@Override
 	public void shutDown()
 	{
 		swaps.clear();
+		customSwaps = new CustomSwaps();
+	}
+
+	@Subscribe
+	public void onConfigChanged(ConfigChanged event)
+	{
+		if (event.getProfile() == null)
+		{
+			customSwaps = customSwaps.update(event.getGroup(), event.getKey(), event.getNewValue());
+		}
+	}
+
+	@Subscribe
+	public void onProfileChanged(ProfileChanged event)
+	{
+		customSwaps = CustomSwaps.load(configManager);
 	}
 
 	@VisibleForTesting
@@ -467,14 +492,7 @@ public class MenuEntrySwapperPlugin extends Plugin
 
 	private Integer getItemSwapConfig(boolean shift, int itemId)
 	{
-		itemId = ItemVariationMapping.map(itemId);
-		String config = configManager.getConfiguration(shift ? SHIFTCLICK_CONFIG_GROUP : MenuEntrySwapperConfig.GROUP, ITEM_KEY_PREFIX + itemId);
-		if (config == null || config.isEmpty())
-		{
-			return null;
-		}
-
-		return Integer.parseInt(config);
+		return boxSwap(customSwaps.item(shift, itemId));
 	}
 
 	private void setItemSwapConfig(boolean shift, int itemId, int index)
@@ -491,15 +509,7 @@ public class MenuEntrySwapperPlugin extends Plugin
 
 	private Integer getWornItemSwapConfig(boolean shift, int itemId)
 	{
-		itemId = ItemVariationMapping.map(itemId);
-		String config = configManager.getConfiguration(MenuEntrySwapperConfig.GROUP,
-			(shift ? WORN_ITEM_SHIFT_KEY_PREFIX : WORN_ITEM_KEY_PREFIX) + itemId);
-		if (config == null || config.isEmpty())
-		{
-			return null;
-		}
-
-		return Integer.parseInt(config);
+		return boxSwap(customSwaps.wornItem(shift, itemId));
 	}
 
 	private void setWornItemSwapConfig(boolean shift, int itemId, int index)
@@ -1471,16 +1481,16 @@ public class MenuEntrySwapperPlugin extends Plugin
 
 		final int eventId = menuEntry.getIdentifier();
 		final MenuAction menuAction = menuEntry.getType();
-		final String option = Text.removeTags(menuEntry.getOption()).toLowerCase();
-		final String target = Text.removeTags(menuEntry.getTarget()).toLowerCase();
+		final String option = cleanOption(menuEntry);
+		final String target = cleanTarget(menuEntry);
 
 		final Widget w = parent != null ? parent.getWidget() : menuEntry.getWidget();
 		// Custom item swap
 		if (w != null && WidgetUtil.componentToInterface(w.getId()) == InterfaceID.INVENTORY
 			&& (lastShift ? config.shiftClickCustomization() : config.leftClickCustomization()))
 		{
-			Integer swapIndex = getItemSwapConfig(lastShift, w.getItemId());
-			if (swapIndex != null)
+			final int swapIndex = customSwaps.item(lastShift, w.getItemId());
+			if (swapIndex != CustomSwaps.NONE)
 			{
 				if (swapIndex == -1)
 				{
@@ -1514,8 +1524,8 @@ public class MenuEntrySwapperPlugin extends Plugin
 			Widget child = w.getChild(1);
 			if (child != null && child.getItemId() > -1)
 			{
-				final Integer wornItemSwapConfig = getWornItemSwapConfig(shiftModifier(), child.getItemId());
-				if (wornItemSwapConfig != null)
+				final int wornItemSwapConfig = customSwaps.wornItem(shiftModifier(), child.getItemId());
+				if (wornItemSwapConfig != CustomSwaps.NONE)
 				{
 					if (wornItemSwapConfig == menuEntry.getIdentifier())
 					{
@@ -1551,8 +1561,8 @@ public class MenuEntrySwapperPlugin extends Plugin
 				objectId = objectComposition.getId();
 			}
 
-			Integer customOption = getObjectSwapConfig(shiftModifier(), objectId);
-			if (customOption != null && customOption >= 0)
+			final int customOption = customSwaps.object(shiftModifier(), objectId);
+			if (customOption >= 0)
 			{
 				MenuAction swapAction = OBJECT_MENU_TYPES.get(customOption);
 				if (swapAction == menuAction)
@@ -1570,8 +1580,8 @@ public class MenuEntrySwapperPlugin extends Plugin
 			final NPCComposition composition = npc.getTransformedComposition();
 			assert composition != null;
 
-			Integer customOption = getNpcSwapConfig(shiftModifier(), composition.getId());
-			if (customOption != null && customOption >= 0)
+			final int customOption = customSwaps.npc(shiftModifier(), composition.getId());
+			if (customOption >= 0)
 			{
 				MenuAction swapAction = NPC_MENU_TYPES.get(customOption);
 				if (swapAction == menuAction)
@@ -1601,9 +1611,9 @@ public class MenuEntrySwapperPlugin extends Plugin
 				(index + 1 < menuEntries.length && menuEntries[index + 1].getWidget() == w))
 			{
 				final int componentId = w.getId(); // on dynamic components, this is the parent layer id
-				final int itemId = w.getIndex() == -1 ? -1 : ItemVariationMapping.map(w.getItemId());
-				final Integer op = getUiSwapConfig(shiftModifier(), componentId, itemId);
-				if (op != null && op == menuEntry.getIdentifier())
+				final int itemId = w.getIndex() == -1 ? -1 : w.getItemId();
+				final int op = customSwaps.ui(shiftModifier(), componentId, itemId);
+				if (op != CustomSwaps.NONE && op == menuEntry.getIdentifier())
 				{
 					swap(menu, menuEntries, index, menuEntries.length - 1);
 					return;
@@ -1661,6 +1671,8 @@ public class MenuEntrySwapperPlugin extends Plugin
 		// cancel -> npc op -> walk here -> ground item op
 		// which cannot be achieved with a simple swap.
 
+		final boolean shift = shiftModifier();
+		final CustomSwaps customSwaps = this.customSwaps;
 		for (MenuEntry menuEntry : client.getMenuEntries())
 		{
 			MenuAction type = menuEntry.getType();
@@ -1676,10 +1688,9 @@ public class MenuEntrySwapperPlugin extends Plugin
 					objectId = objectComposition.getId();
 				}
 
-				final boolean shift = shiftModifier();
-				Integer customOption = getObjectSwapConfig(shift, objectId);
-				if ((customOption == null && shift && config.objectShiftClickWalkHere())
-					|| (customOption != null && customOption == -1))
+				final int customOption = customSwaps.object(shift, objectId);
+				if ((customOption == CustomSwaps.NONE && shift && config.objectShiftClickWalkHere())
+					|| customOption == -1)
 				{
 					menuEntry.setDeprioritized(true);
 				}
@@ -1691,10 +1702,9 @@ public class MenuEntrySwapperPlugin extends Plugin
 				final NPCComposition composition = npc.getTransformedComposition();
 				assert composition != null;
 
-				boolean shift = shiftModifier();
-				Integer customOption = getNpcSwapConfig(shift, composition.getId());
-				if ((customOption == null && shift && config.npcShiftClickWalkHere())
-					|| (customOption != null && customOption == -1))
+				final int customOption = customSwaps.npc(shift, composition.getId());
+				if ((customOption == CustomSwaps.NONE && shift && config.npcShiftClickWalkHere())
+					|| customOption == -1)
 				{
 					menuEntry.setDeprioritized(true);
 				}
@@ -1703,7 +1713,7 @@ public class MenuEntrySwapperPlugin extends Plugin
 				|| type == MenuAction.GROUND_ITEM_THIRD_OPTION || type == MenuAction.GROUND_ITEM_FOURTH_OPTION
 				|| type == MenuAction.GROUND_ITEM_FIFTH_OPTION)
 			{
-				if (shiftModifier() && config.groundItemShiftClickWalkHere())
+				if (shift && config.groundItemShiftClickWalkHere())
 				{
 					menuEntry.setDeprioritized(true);
 				}
@@ -1724,21 +1734,29 @@ public class MenuEntrySwapperPlugin extends Plugin
 		Menu root = client.getMenu();
 		MenuEntry[] menuEntries = root.getMenuEntries();
 
-		// Perform swaps
-		int idx = 0;
-		for (MenuEntry entry : menuEntries)
+		try
 		{
-			swapMenuEntry(null, root, menuEntries, idx++, entry);
-		}
+			// Perform swaps
+			int idx = 0;
+			for (MenuEntry entry : menuEntries)
+			{
+				swapMenuEntry(null, root, menuEntries, idx++, entry);
+			}
 
-		if (config.removeDeadNpcMenus())
+			if (config.removeDeadNpcMenus())
+			{
+				removeDeadNpcs();
+			}
+		}
+		finally
 		{
-			removeDeadNpcs();
+			// invalidate option index cache, and the cleaned text of this menu's entries, even if a swap threw, as
+			// entries are reused by the next menu
+			cacheOptionIndexes.clear();
+			cacheOptionMenu = null;
+			cleanOptions.clear();
+			cleanTargets.clear();
 		}
-
-		// invalidate option index cache
-		cacheOptionIndexes.clear();
-		cacheOptionMenu = null;
 	}
 
 	private void removeDeadNpcs()
@@ -1783,7 +1801,7 @@ public class MenuEntrySwapperPlugin extends Plugin
 			{
 				int idx = indexes.get(i);
 				MenuEntry entry = entries[idx];
-				String entryTarget = Text.removeTags(entry.getTarget()).toLowerCase();
+				String entryTarget = cleanTarget(entry);
 
 				// Limit to the last index which is prior to the current entry
 				if (idx < limit && entryTarget.equals(target))
@@ -1798,8 +1816,8 @@ public class MenuEntrySwapperPlugin extends Plugin
 			for (int i = limit - 1; i >= 0; i--)
 			{
 				MenuEntry entry = entries[i];
-				String entryOption = Text.removeTags(entry.getOption()).toLowerCase();
-				String entryTarget = Text.removeTags(entry.getTarget()).toLowerCase();
+				String entryOption = cleanOption(entry);
+				String entryTarget = cleanTarget(entry);
 
 				if (entryOption.contains(option.toLowerCase()) && entryTarget.equals(target))
 				{
@@ -1821,8 +1839,7 @@ public class MenuEntrySwapperPlugin extends Plugin
 			cacheOptionIndexes.clear();
 			for (MenuEntry entry : menu.getMenuEntries())
 			{
-				String opt = Text.removeTags(entry.getOption()).toLowerCase();
-				cacheOptionIndexes.put(opt, idx++);
+				cacheOptionIndexes.put(cleanOption(entry), idx++);
 			}
 			log.trace("[{}] Rebuilt option index cache with {} entries", client.getGameCycle(), idx);
 		}
@@ -1858,8 +1875,8 @@ public class MenuEntrySwapperPlugin extends Plugin
 		// Update optionIndexes
 		if (cacheOptionMenu == menu)
 		{
-			String option1 = Text.removeTags(entry1.getOption()).toLowerCase(),
-				option2 = Text.removeTags(entry2.getOption()).toLowerCase();
+			String option1 = cleanOption(entry1),
+				option2 = cleanOption(entry2);
 
 			List<Integer> list1 = cacheOptionIndexes.get(option1),
 				list2 = cacheOptionIndexes.get(option2);
@@ -1875,6 +1892,28 @@ public class MenuEntrySwapperPlugin extends Plugin
 		}
 	}
 
+	private String cleanOption(MenuEntry entry)
+	{
+		String option = cleanOptions.get(entry);
+		if (option == null)
+		{
+			option = Text.removeTags(entry.getOption()).toLowerCase();
+			cleanOptions.put(entry, option);
+		}
+		return option;
+	}
+
+	private String cleanTarget(MenuEntry entry)
+	{
+		String target = cleanTargets.get(entry);
+		if (target == null)
+		{
+			target = Text.removeTagsCached(entry.getTarget()).toLowerCase();
+			cleanTargets.put(entry, target);
+		}
+		return target;
+	}
+
 	private static <T extends Comparable<? super T>> void sortedInsert(List<T> list, T value)
 	{
 		int idx = Collections.binarySearch(list, value);
@@ -1888,13 +1927,7 @@ public class MenuEntrySwapperPlugin extends Plugin
 
 	private Integer getObjectSwapConfig(boolean shift, int objectId)
 	{
-		String config = configManager.getConfiguration(MenuEntrySwapperConfig.GROUP, (shift ? OBJECT_SHIFT_KEY_PREFIX : OBJECT_KEY_PREFIX) + objectId);
-		if (config == null || config.isEmpty())
-		{
-			return null;
-		}
-
-		return Integer.parseInt(config);
+		return boxSwap(customSwaps.object(shift, objectId));
 	}
 
 	private void setObjectSwapConfig(boolean shift, int objectId, int index)
@@ -1924,14 +1957,7 @@ public class MenuEntrySwapperPlugin extends Plugin
 
 	private Integer getNpcSwapConfig(boolean shift, int npcId)
 	{
-		String config = configManager.getConfiguration(MenuEntrySwapperConfig.GROUP,
-			(shift ? NPC_SHIFT_KEY_PREFIX : NPC_KEY_PREFIX) + npcId);
-		if (config == null || config.isEmpty())
-		{
-			return null;
-		}
-
-		return Integer.parseInt(config);
+		return boxSwap(customSwaps.npc(shift, npcId));
 	}
 
 	private void setNpcSwapConfig(boolean shift, int npcId, int index)
@@ -1984,14 +2010,12 @@ public class MenuEntrySwapperPlugin extends Plugin
 
 	private Integer getUiSwapConfig(boolean shift, int componentId, int itemId)
 	{
-		String config = configManager.getConfiguration(MenuEntrySwapperConfig.GROUP,
-			(shift ? UI_SHIFT_KEY_PREFIX : UI_KEY_PREFIX) + componentId + (itemId != -1 ? "_" + itemId : ""));
-		if (config == null || config.isEmpty())
-		{
-			return null;
-		}
+		return boxSwap(customSwaps.ui(shift, componentId, itemId));
+	}
 
-		return Integer.parseInt(config);
+	private static Integer boxSwap(int swap)
+	{
+		return swap == CustomSwaps.NONE ? null : swap;
 	}
 
 	private void setUiSwapConfig(boolean shift, int componentId, int itemId, int op)
@@ -0,0 +1,143 @@
+package net.runelite.client.plugins.menuentryswapper;
+
+import java.util.Arrays;
+
+/**
+ * Open addressed map from non-negative long keys to int values, so that swap lookups made while the menu is
+ * rebuilt don't box their keys or values.
+ */
+final class SwapTable
+{
+	/**
+	 * Returned by {@link #get(long)} for keys without a value
+	 */
+	static final int NONE = Integer.MIN_VALUE;
+
+	private static final long FREE = Long.MIN_VALUE;
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+	private int[] values;
+	private int size;
+
+	SwapTable()
+	{
+		this(MIN_CAPACITY);
+	}
+
+	private SwapTable(int capacity)
+	{
+		keys = new long[capacity];
+		values = new int[capacity];
+		Arrays.fill(keys, FREE);
+	}
+
+	int size()
+	{
+		return size;
+	}
+
+	int get(long key)
+	{
+		final int mask = keys.length - 1;
+		for (int i = slot(key); ; i = (i + 1) & mask)
+		{
+			final long k = keys[i];
+			if (k == key)
+			{
+				return values[i];
+			}
+			if (k == FREE)
+			{
+				return NONE;
+			}
+		}
+	}
+
+	void put(long key, int value)
+	{
+		assert key >= 0 && value != NONE;
+
+		if ((size + 1) * 2 > keys.length)
+		{
+			resize(keys.length * 2);
+		}
+
+		final int mask = keys.length - 1;
+		int i = slot(key);
+		while (keys[i] != FREE && keys[i] != key)
+		{
+			i = (i + 1) & mask;
+		}
+
+		if (keys[i] == FREE)
+		{
+			keys[i] = key;
+			++size;
+		}
+		values[i] = value;
+	}
+
+	void remove(long key)
+	{
+		final int mask = keys.length - 1;
+		int gap = slot(key);
+		while (keys[gap] != key)
+		{
+			if (keys[gap] == FREE)
+			{
+				return;
+			}
+			gap = (gap + 1) & mask;
+		}
+
+		// close the gap by moving back any later entry of the run which may live there
+		for (int i = (gap + 1) & mask; keys[i] != FREE; i = (i + 1) & mask)
+		{
+			final int home = slot(keys[i]);
+			if (((i - home) & mask) >= ((i - gap) & mask))
+			{
+				keys[gap] = keys[i];
+				values[gap] = values[i];
+				gap = i;
+			}
+		}
+
+		keys[gap] = FREE;
+		--size;
+	}
+
+	SwapTable copy()
+	{
+		final SwapTable copy = new SwapTable(keys.length);
+		System.arraycopy(keys, 0, copy.keys, 0, keys.length);
+		System.arraycopy(values, 0, copy.values, 0, values.length);
+		copy.size = size;
+		return copy;
+	}
+
+	private void resize(int capacity)
+	{
+		final long[] oldKeys = keys;
+		final int[] oldValues = values;
+
+		keys = new long[capacity];
+		values = new int[capacity];
+		Arrays.fill(keys, FREE);
+		size = 0;
+
+		for (int i = 0; i < oldKeys.length; ++i)
+		{
+			if (oldKeys[i] != FREE)
+			{
+				put(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+
+	private int slot(long key)
+	{
+		// fibonacci hashing, taking the high bits
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - Integer.numberOfTrailingZeros(keys.length)));
+	}
+}
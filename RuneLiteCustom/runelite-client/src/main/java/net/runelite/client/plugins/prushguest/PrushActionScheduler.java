@@ -0,0 +1,142 @@
+package net.runelite.client.plugins.prushguest;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.MenuAction;
+import net.runelite.client.plugins.prushsync.PrushAction;
+import net.runelite.client.plugins.prushsync.PrushActionType;
+import net.runelite.client.plugins.prushsync.PrushHistogram;
+
+/**
+ * Holds received actions until the guest tick matching the host tick they were captured on.
+ * <p>
+ * Host and guest tick counters are unrelated, so the scheduler anchors them by the smallest observed
+ * difference between the local tick an action arrives on and the host tick it carries. That is the
+ * difference seen by the least delayed action, so an action due on {@code hostTick + delta + 1} runs on
+ * the guest tick following its capture, plus the configured offset. A host whose tick counter jumps,
+ * after a relog or world hop, is re-anchored.
+ * <p>
+ * Actions are offered from connection threads and drained from the client thread.
+ */
+@Slf4j
+class PrushActionScheduler
+{
+	/**
+	 * Re-anchor when an action arrives this many ticks later than the anchor predicts.
+	 */
+	static final int RESYNC_TICKS = 50;
+
+	private final PriorityQueue<Scheduled> queue = new PriorityQueue<>(
+		Comparator.comparingInt((Scheduled s) -> s.dueTick).thenComparingLong(s -> s.action.getSeq()));
+
+	private final PrushHistogram tickLag;
+
+	private boolean anchored;
+	private int tickDelta;
+
+	/**
+	 * @param tickLag records how many ticks overdue each drained action is
+	 */
+	PrushActionScheduler(PrushHistogram tickLag)
+	{
+		this.tickLag = tickLag;
+	}
+
+	/**
+	 * @param localTick the guest tick the action arrived on
+	 * @param tickOffset extra ticks to hold every action for
+	 */
+	synchronized void offer(PrushAction a, int localTick, int tickOffset)
+	{
+		int observed = localTick - a.getTick();
+		if (!anchored || observed < tickDelta || observed - tickDelta > RESYNC_TICKS)
+		{
+			if (anchored)
+			{
+				log.debug("[RuneMirrorGuest] Re-anchoring host ticks: delta {} -> {}", tickDelta, observed);
+			}
+			anchored = true;
+			tickDelta = observed;
+		}
+
+		if (isWalk(a))
+		{
+			// A later walk captured on the same host tick replaces the earlier one, as it would have on the host.
+			boolean superseded = queue.removeIf(s -> isWalk(s.action)
+				&& s.action.getTick() == a.getTick()
+				&& s.action.getSeq() < a.getSeq());
+			if (superseded)
+			{
+				log.debug("[RuneMirrorGuest] Coalesced walk on host tick {} into seq {}", a.getTick(), a.getSeq());
+			}
+		}
+
+		queue.add(new Scheduled(a, a.getTick() + tickDelta + 1 + tickOffset));
+	}
+
+	/**
+	 * Move the actions due on {@code localTick} into {@code out}, oldest first. Actions more than
+	 * {@code maxTickLag} ticks overdue are dropped, and anything beyond {@code maxActions} stays queued
+	 * for the next tick.
+	 *
+	 * @return the number of actions dropped as too old
+	 */
+	synchronized int drain(int localTick, int maxTickLag, int maxActions, List<PrushAction> out)
+	{
+		int dropped = 0;
+		int taken = 0;
+		Scheduled s;
+		while (taken < maxActions && (s = queue.peek()) != null && s.dueTick <= localTick)
+		{
+			queue.poll();
+			int lag = localTick - s.dueTick;
+			tickLag.record(lag);
+			if (lag > maxTickLag)
+			{
+				log.debug("[RuneMirrorGuest] Dropping {} seq {}: due on tick {}, now {}",
+					s.action.getType(), s.action.getSeq(), s.dueTick, localTick);
+				++dropped;
+				continue;
+			}
+
+			out.add(s.action);
+			++taken;
+		}
+		return dropped;
+	}
+
+	/**
+	 * Forget every queued action and the tick anchor, for when the guest leaves the game.
+	 */
+	synchronized void clear()
+	{
+		queue.clear();
+		anchored = false;
+	}
+
+	synchronized int size()
+	{
+		return queue.size();
+	}
+
+	private static boolean isWalk(PrushAction a)
+	{
+		return a.getType() == PrushActionType.WALK
+			|| a.getType() == PrushActionType.WALK_WORLD
+			|| (a.getType() == PrushActionType.MENU_ACTION && a.getOpcode() == MenuAction.WALK.getId());
+	}
+
+	private static class Scheduled
+	{
+		private final PrushAction action;
+		private final int dueTick;
+
+		private Scheduled(PrushAction action, int dueTick)
+		{
+			this.action = action;
+			this.dueTick = dueTick;
+		}
+	}
+}
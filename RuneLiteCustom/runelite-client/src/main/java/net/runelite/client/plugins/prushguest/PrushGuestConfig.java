@@ -27,6 +27,26 @@ public interface PrushGuestConfig extends Config
 		return 46001;
 	}
 
+	@ConfigItem(
+		keyName = "udpListen",
+		name = "UDP listen",
+		description = "Also receive actions over UDP, from this multicast group or on this port (example: 239.255.77.77:46100 or 0.0.0.0:46100). Must match the host's UDP target. Empty to disable"
+	)
+	default String udpListen()
+	{
+		return "";
+	}
+
+	@ConfigItem(
+		keyName = "sharedMemory",
+		name = "Shared memory",
+		description = "Also read actions from the shared memory file of a host on this machine"
+	)
+	default boolean sharedMemory()
+	{
+		return false;
+	}
+
 	@ConfigItem(
 		keyName = "maxTickLag",
 		name = "Max tick lag",
@@ -36,4 +56,74 @@ public interface PrushGuestConfig extends Config
 	{
 		return 1;
 	}
+
+	@ConfigItem(
+		keyName = "idleTimeoutMs",
+		name = "Idle timeout (ms)",
+		description = "Close a host connection which has sent nothing, not even a heartbeat, for this long"
+	)
+	default int idleTimeoutMs()
+	{
+		return 5000;
+	}
+
+	@ConfigItem(
+		keyName = "tickAligned",
+		name = "Tick aligned",
+		description = "Replay actions on the game tick matching the host tick they were captured on, instead of as soon as they arrive"
+	)
+	default boolean tickAligned()
+	{
+		return true;
+	}
+
+	@ConfigItem(
+		keyName = "tickOffset",
+		name = "Tick offset",
+		description = "Extra ticks to hold every action for before replaying it"
+	)
+	default int tickOffset()
+	{
+		return 0;
+	}
+
+	@ConfigItem(
+		keyName = "maxActionsPerTick",
+		name = "Max actions per tick",
+		description = "Replay at most this many actions per game tick, leaving the rest for the next tick"
+	)
+	default int maxActionsPerTick()
+	{
+		return 8;
+	}
+
+	@ConfigItem(
+		keyName = "stateGating",
+		name = "State gating",
+		description = "Skip actions the host sent from a different game state, plane or set of open interfaces (bank, shop, dialogue) than this client is in"
+	)
+	default boolean stateGating()
+	{
+		return true;
+	}
+
+	@ConfigItem(
+		keyName = "showMetrics",
+		name = "Show metrics",
+		description = "Show an overlay with the latency percentiles of each RuneMirror stage"
+	)
+	default boolean showMetrics()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "dumpMetrics",
+		name = "Dump metrics",
+		description = "Write the latency percentiles of each RuneMirror stage to .runelite/runemirror/guest-metrics.txt every 30 seconds"
+	)
+	default boolean dumpMetrics()
+	{
+		return false;
+	}
 }
@@ -0,0 +1,117 @@
+package net.runelite.client.plugins.prushguest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running totals of how the guest resolved each replayed action. Updated on the client thread, readable from
+ * anywhere.
+ */
+class PrushGuestCounters
+{
+	private final AtomicLong walks = new AtomicLong();
+	private final AtomicLong sceneWalks = new AtomicLong();
+	private final AtomicLong sceneMismatches = new AtomicLong();
+	private final AtomicLong worldFallbacks = new AtomicLong();
+	private final AtomicLong failedWalks = new AtomicLong();
+	private final AtomicLong gated = new AtomicLong();
+
+	/**
+	 * A walk was received and is about to be replayed.
+	 */
+	void walk()
+	{
+		walks.incrementAndGet();
+	}
+
+	/**
+	 * The host's scene click, shifted by this guest's offset from the host, set the expected destination.
+	 */
+	void sceneWalk()
+	{
+		sceneWalks.incrementAndGet();
+	}
+
+	/**
+	 * The host's scene click was replayed but did not set the expected destination. The walk is not retried, as
+	 * the click may still have moved the player.
+	 */
+	void sceneMismatch()
+	{
+		sceneMismatches.incrementAndGet();
+	}
+
+	/**
+	 * The scene path was not usable, so the walk was resolved through the world destination instead.
+	 */
+	void worldFallback()
+	{
+		worldFallbacks.incrementAndGet();
+	}
+
+	/**
+	 * Neither path produced a walk.
+	 */
+	void failedWalk()
+	{
+		failedWalks.incrementAndGet();
+	}
+
+	/**
+	 * An action was skipped because this guest was not in the state the host sent it from.
+	 */
+	void gated()
+	{
+		gated.incrementAndGet();
+	}
+
+	long getWalks()
+	{
+		return walks.get();
+	}
+
+	long getSceneWalks()
+	{
+		return sceneWalks.get();
+	}
+
+	long getSceneMismatches()
+	{
+		return sceneMismatches.get();
+	}
+
+	long getWorldFallbacks()
+	{
+		return worldFallbacks.get();
+	}
+
+	long getFailedWalks()
+	{
+		return failedWalks.get();
+	}
+
+	long getGated()
+	{
+		return gated.get();
+	}
+
+	void reset()
+	{
+		walks.set(0);
+		sceneWalks.set(0);
+		sceneMismatches.set(0);
+		worldFallbacks.set(0);
+		failedWalks.set(0);
+		gated.set(0);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "walks=" + walks.get()
+			+ " scene=" + sceneWalks.get()
+			+ " sceneMismatch=" + sceneMismatches.get()
+			+ " worldFallback=" + worldFallbacks.get()
+			+ " failed=" + failedWalks.get()
+			+ " gated=" + gated.get();
+	}
+}
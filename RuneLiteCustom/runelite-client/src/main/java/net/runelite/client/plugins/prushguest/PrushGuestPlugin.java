@@ -1,24 +1,50 @@
 package net.runelite.client.plugins.prushguest;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.gson.Gson;
 import com.google.inject.Provides;
 import java.awt.Canvas;
 import java.awt.event.KeyEvent;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import javax.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
+import net.runelite.api.GameState;
 import net.runelite.api.MenuAction;
 import net.runelite.api.MenuEntry;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.WidgetClosed;
+import net.runelite.api.events.WidgetLoaded;
 import net.runelite.api.gameval.InterfaceID;
 import net.runelite.api.widgets.Widget;
+import net.runelite.client.RuneLite;
 import net.runelite.client.callback.ClientThread;
+import net.runelite.client.callback.InvokePriority;
 import net.runelite.client.config.ConfigManager;
+import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.plugins.prushsync.PrushAction;
 import net.runelite.client.plugins.prushsync.PrushActionType;
+import net.runelite.client.plugins.prushsync.PrushHistogram;
+import net.runelite.client.plugins.prushsync.PrushMetrics;
+import net.runelite.client.plugins.prushsync.PrushMetricsOverlay;
+import net.runelite.client.plugins.prushsync.PrushProtocol;
+import net.runelite.client.plugins.prushsync.PrushRing;
+import net.runelite.client.plugins.prushsync.PrushStateCache;
 import net.runelite.client.plugins.prushsync.PrushSyncGson;
+import net.runelite.client.task.Schedule;
+import net.runelite.client.ui.overlay.OverlayManager;
 
 @Slf4j
 @PluginDescriptor(
@@ -29,7 +55,7 @@ import net.runelite.client.plugins.prushsync.PrushSyncGson;
 )
 public class PrushGuestPlugin extends Plugin
 {
-	private static final int PROTOCOL_VERSION = 1;
+	private static final File METRICS_FILE = new File(new File(RuneLite.RUNELITE_DIR, "runemirror"), "guest-metrics.txt");
 
 	@Inject
 	private Client client;
@@ -40,14 +66,32 @@ public class PrushGuestPlugin extends Plugin
 	@Inject
 	private PrushGuestConfig config;
 
+	@Inject
+	private OverlayManager overlayManager;
+
+	private final PrushMetrics metrics = new PrushMetrics();
+	private final PrushHistogram decodeToExecute = metrics.nanos(PrushMetrics.GUEST_DECODE_TO_EXECUTE);
+	private final PrushMetricsOverlay metricsOverlay = new PrushMetricsOverlay(this, "RuneMirror Guest", metrics);
+	private final PrushActionScheduler scheduler = new PrushActionScheduler(
+		metrics.histogram(PrushMetrics.GUEST_TICK_LAG, PrushHistogram.Unit.TICKS));
+	private final List<PrushAction> due = new ArrayList<>();
+	private final PrushGuestCounters counters = new PrushGuestCounters();
+	private final PrushStateCache stateCache = new PrushStateCache();
+
 	private Gson gson;
 	private PrushGuestServer server;
+	private PrushUdpReceiver udpReceiver;
+	private PrushRingReader ringReader;
 
 	@Override
 	protected void startUp()
 	{
 		gson = PrushSyncGson.create();
 		startServer();
+		if (config.showMetrics())
+		{
+			overlayManager.add(metricsOverlay);
+		}
 		log.info("[RuneMirrorGuest] Started (client={})", client != null ? client.hashCode() : "null");
 	}
 
@@ -55,7 +99,12 @@ public class PrushGuestPlugin extends Plugin
 	protected void shutDown()
 	{
 		stopServer();
-		log.info("[RuneMirrorGuest] Stopped");
+		scheduler.clear();
+		overlayManager.remove(metricsOverlay);
+		log.info("[RuneMirrorGuest] Stopped ({})", counters);
+		counters.reset();
+		metrics.reset();
+		stateCache.clear();
 	}
 
 	private int resolveListenPort()
@@ -82,8 +131,42 @@ public class PrushGuestPlugin extends Plugin
 	private void startServer()
 	{
 		stopServer();
-		server = new PrushGuestServer(resolveListenPort(), this::handleLine);
+		server = new PrushGuestServer(resolveListenPort(), config.idleTimeoutMs(), gson, this::handleAction, metrics);
 		server.start();
+		startUdp();
+		if (config.sharedMemory())
+		{
+			ringReader = new PrushRingReader(PrushRing.defaultFile(), this::handleAction, metrics);
+			ringReader.start();
+		}
+	}
+
+	private void startUdp()
+	{
+		String raw = config.udpListen();
+		if (raw == null || raw.trim().isEmpty())
+		{
+			return;
+		}
+
+		InetSocketAddress listen = PrushProtocol.parseAddress(raw);
+		if (listen == null || listen.isUnresolved())
+		{
+			log.warn("[RuneMirrorGuest] Invalid UDP listen address '{}'. Expected host:port", raw);
+			return;
+		}
+
+		PrushUdpReceiver receiver = new PrushUdpReceiver(listen, this::handleAction, metrics);
+		try
+		{
+			receiver.start();
+		}
+		catch (IOException e)
+		{
+			log.warn("[RuneMirrorGuest] Unable to listen for UDP on {}: {}", listen, e.getMessage());
+			return;
+		}
+		udpReceiver = receiver;
 	}
 
 	private void stopServer()
@@ -93,120 +176,272 @@ public class PrushGuestPlugin extends Plugin
 			server.stop();
 			server = null;
 		}
+		if (udpReceiver != null)
+		{
+			udpReceiver.stop();
+			udpReceiver = null;
+		}
+		if (ringReader != null)
+		{
+			ringReader.stop();
+			ringReader = null;
+		}
 	}
 
-	private void handleLine(String line)
+	@VisibleForTesting
+	void handleAction(PrushAction a)
 	{
-		PrushAction a;
-		try
+		if (a.getType() == null)
 		{
-			a = gson.fromJson(line, PrushAction.class);
+			return;
 		}
-		catch (Exception e)
+		if (a.getV() != PrushProtocol.VERSION)
 		{
-			log.debug("[RuneMirrorGuest] Bad json: {}", e.getMessage());
 			return;
 		}
-
-		if (a == null || a.getType() == null)
+		if (!config.enabled())
 		{
+			log.debug("[RuneMirrorGuest] Received action while guest config disabled: {}", a.getType());
 			return;
 		}
-		if (a.getV() != PROTOCOL_VERSION)
+
+		if (log.isDebugEnabled() && PrushMetrics.sampled(a.getSeq()))
+		{
+			log.debug("[RuneMirrorGuest] Received action: type={} tick={} seq={}", a.getType(), a.getTick(), a.getSeq());
+		}
+
+		if (!config.tickAligned() || !inGame(client.getGameState()))
 		{
+			// No ticks to align to on the login screen, so run it as soon as possible.
+			clientThread.invoke(() -> execute(a), InvokePriority.HIGH);
 			return;
 		}
-		if (!config.enabled())
+
+		scheduler.offer(a, client.getTickCount(), config.tickOffset());
+	}
+
+	@Subscribe
+	public void onGameTick(GameTick tick)
+	{
+		stateCache.invalidate();
+		int dropped = scheduler.drain(client.getTickCount(), config.maxTickLag(), config.maxActionsPerTick(), due);
+		if (dropped > 0)
+		{
+			log.info("[RuneMirrorGuest] Dropped {} actions older than {} ticks", dropped, config.maxTickLag());
+		}
+
+		try
+		{
+			for (PrushAction a : due)
+			{
+				execute(a);
+			}
+		}
+		finally
+		{
+			due.clear();
+		}
+	}
+
+	@Subscribe
+	public void onConfigChanged(ConfigChanged event)
+	{
+		if (event.getGroup().equals("runemirrorguest") && event.getKey().equals("showMetrics"))
+		{
+			if (config.showMetrics())
+			{
+				overlayManager.add(metricsOverlay);
+			}
+			else
+			{
+				overlayManager.remove(metricsOverlay);
+			}
+		}
+	}
+
+	@Schedule(
+		period = 30,
+		unit = ChronoUnit.SECONDS,
+		asynchronous = true
+	)
+	public void dumpMetrics()
+	{
+		if (!config.dumpMetrics())
 		{
-			log.debug("[RuneMirrorGuest] Received action while guest config disabled: {}", a.getType());
 			return;
 		}
 
-		log.info("[RuneMirrorGuest] Received action: type={} tick={} seq={}", a.getType(), a.getTick(), a.getSeq());
+		try
+		{
+			metrics.dump(METRICS_FILE);
+		}
+		catch (IOException e)
+		{
+			log.warn("[RuneMirrorGuest] Unable to write {}: {}", METRICS_FILE, e.getMessage());
+		}
+	}
+
+	@Subscribe
+	public void onGameStateChanged(GameStateChanged event)
+	{
+		stateCache.invalidate();
+		if (!inGame(event.getGameState()))
+		{
+			if (scheduler.size() > 0)
+			{
+				log.debug("[RuneMirrorGuest] Left the game, discarding {} queued actions", scheduler.size());
+			}
+			scheduler.clear();
+		}
+	}
+
+	@Subscribe
+	public void onWidgetLoaded(WidgetLoaded event)
+	{
+		stateCache.invalidate();
+	}
+
+	@Subscribe
+	public void onWidgetClosed(WidgetClosed event)
+	{
+		// posted before the interface is removed, so the next capture sees it gone
+		stateCache.invalidate();
+	}
+
+	private static boolean inGame(GameState state)
+	{
+		// Ticks keep counting while a new region loads.
+		return state == GameState.LOGGED_IN || state == GameState.LOADING;
+	}
+
+	private void execute(PrushAction a)
+	{
+		decodeToExecute.recordSince(a.getDecodeNanos());
+
+		// Checked when the action is due rather than on arrival, as an earlier action still waiting for its
+		// tick may be the one that opens the interface this one clicks on.
+		if (config.stateGating())
+		{
+			String mismatch = stateCache.get(client).mismatch(a);
+			if (mismatch != null)
+			{
+				counters.gated();
+				log.debug("[RuneMirrorGuest] Skipping {} seq {}: {} differs from the host's", a.getType(), a.getSeq(), mismatch);
+				return;
+			}
+		}
 
 		if (a.getType() == PrushActionType.MENU_ACTION)
 		{
-			scheduleMenuAction(a);
+			executeMenuAction(a);
+		}
+		else if (a.getType() == PrushActionType.WALK)
+		{
+			executeWalk(a);
 		}
 		else if (a.getType() == PrushActionType.WALK_WORLD)
 		{
-			scheduleWalkWorld(a);
+			executeWalkWorld(a);
 		}
 		else if (a.getType() == PrushActionType.DIALOG_CONTINUE)
 		{
-			scheduleDialogContinue();
+			executeDialogContinue();
 		}
 	}
 
-	private void scheduleMenuAction(PrushAction a)
+	private void executeMenuAction(PrushAction a)
 	{
-		clientThread.invoke(() -> {
-			try
+		try
+		{
+			log.debug("[RuneMirrorGuest] Replaying MENU_ACTION opcode={} p0={} p1={} id={} itemId={} opt='{}' tgt='{}'",
+				a.getOpcode(), a.getParam0(), a.getParam1(), a.getIdentifier(), a.getItemId(),
+				a.getOption(), a.getTarget());
+			MenuAction ma = MenuAction.of(a.getOpcode());
+			if (ma == MenuAction.UNKNOWN)
 			{
-				log.info("[RuneMirrorGuest] Replaying MENU_ACTION opcode={} p0={} p1={} id={} itemId={} opt='{}' tgt='{}'",
-					a.getOpcode(), a.getParam0(), a.getParam1(), a.getIdentifier(), a.getItemId(),
-					a.getOption(), a.getTarget());
-				MenuAction ma = MenuAction.of(a.getOpcode());
-				if (ma == MenuAction.UNKNOWN)
-				{
-					return;
-				}
-
-				client.menuAction(
-					a.getParam0(),
-					a.getParam1(),
-					ma,
-					a.getIdentifier(),
-					a.getItemId(),
-					a.getOption() == null ? "" : a.getOption(),
-					a.getTarget() == null ? "" : a.getTarget()
-				);
-
-					// Verify that the menuAction resulted in a local destination being set.
-					clientThread.invokeLater(() -> {
-						try
-						{
-							net.runelite.api.coords.LocalPoint dest = client.getLocalDestinationLocation();
-							if (dest != null)
-							{
-								log.info("[RuneMirrorGuest] MENU_ACTION resulted in local destination: scene=({}, {})", dest.getSceneX(), dest.getSceneY());
-								return;
-							}
-							// Retry once after a short delay: sometimes the client updates destination a tick later.
-							log.warn("[RuneMirrorGuest] MENU_ACTION did not set local destination; retrying once");
-							client.menuAction(
-								a.getParam0(),
-								a.getParam1(),
-								ma,
-								a.getIdentifier(),
-								a.getItemId(),
-								a.getOption() == null ? "" : a.getOption(),
-								a.getTarget() == null ? "" : a.getTarget()
-							);
-							net.runelite.api.coords.LocalPoint dest2 = client.getLocalDestinationLocation();
-							if (dest2 != null)
-							{
-								log.info("[RuneMirrorGuest] MENU_ACTION retry succeeded: scene=({}, {})", dest2.getSceneX(), dest2.getSceneY());
-							}
-							else
-							{
-								log.warn("[RuneMirrorGuest] MENU_ACTION retry also did not set local destination");
-							}
-						}
-						catch (Exception e)
-						{
-							log.debug("[RuneMirrorGuest] post-menuAction verification failed: {}", e.getMessage());
-						}
-					});
+				return;
 			}
-			catch (Exception e)
+
+			client.menuAction(
+				a.getParam0(),
+				a.getParam1(),
+				ma,
+				a.getIdentifier(),
+				a.getItemId(),
+				a.getOption() == null ? "" : a.getOption(),
+				a.getTarget() == null ? "" : a.getTarget()
+			);
+		}
+		catch (Exception e)
+		{
+			log.debug("[RuneMirrorGuest] Exec failed: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Replay a composite walk. The scene path shifts the host's scene click by this guest's offset from the
+	 * host player and replays it as a native walk click; if that is not possible, the walk falls back to the
+	 * world path. Once the click is sent the walk is never issued again, so a click which does not set the
+	 * expected destination is only counted.
+	 */
+	private void executeWalk(PrushAction a)
+	{
+		counters.walk();
+
+		LocalPoint player = client.getLocalPlayer() == null ? null : client.getLocalPlayer().getLocalLocation();
+		Integer hostSceneX = a.getHostPlayerSceneX();
+		Integer hostSceneY = a.getHostPlayerSceneY();
+		if (player == null || hostSceneX == null || hostSceneY == null)
+		{
+			fallBackToWorld(a, "no scene positions");
+			return;
+		}
+
+		WorldView wv = client.getTopLevelWorldView();
+		int sceneX = a.getParam0() + player.getSceneX() - hostSceneX;
+		int sceneY = a.getParam1() + player.getSceneY() - hostSceneY;
+		if (wv == null || player.getWorldView() != wv.getId()
+			|| sceneX < 0 || sceneY < 0 || sceneX >= wv.getSizeX() || sceneY >= wv.getSizeY())
+		{
+			fallBackToWorld(a, "destination outside the scene");
+			return;
+		}
+
+		client.menuAction(sceneX, sceneY, MenuAction.WALK, a.getIdentifier(), a.getItemId(),
+			a.getOption() == null ? "" : a.getOption(),
+			a.getTarget() == null ? "" : a.getTarget());
+
+		// The client only sets the destination once it has processed the click.
+		clientThread.invokeLater(() ->
+		{
+			LocalPoint dest = client.getLocalDestinationLocation();
+			if (dest != null && dest.getSceneX() == sceneX && dest.getSceneY() == sceneY)
 			{
-				log.debug("[RuneMirrorGuest] Exec failed: {}", e.getMessage());
+				counters.sceneWalk();
+				return;
 			}
+			counters.sceneMismatch();
+			log.debug("[RuneMirrorGuest] WALK seq {} scene click set destination {}, expected scene {},{} ({})",
+				a.getSeq(), dest, sceneX, sceneY, counters);
 		});
 	}
 
-	private void scheduleWalkWorld(PrushAction a)
+	private void fallBackToWorld(PrushAction a, String reason)
+	{
+		counters.worldFallback();
+		log.debug("[RuneMirrorGuest] WALK seq {} falling back to world path: {} ({})", a.getSeq(), reason, counters);
+		if (!executeWalkWorld(a))
+		{
+			counters.failedWalk();
+		}
+	}
+
+	/**
+	 * Walk to the action's world destination, resolved against this guest's own player position.
+	 *
+	 * @return whether a walk was issued
+	 */
+	private boolean executeWalkWorld(PrushAction a)
 	{
 		Integer wx = a.getWorldX();
 		Integer wy = a.getWorldY();
@@ -216,227 +451,225 @@ public class PrushGuestPlugin extends Plugin
 		if ((wx == null || wy == null || wp == null) && (rdx == null || rdy == null))
 		{
 			log.warn("[RuneMirrorGuest] WALK_WORLD missing required fields: wx={} wy={} plane={} relDx={} relDy={}", wx, wy, wp, rdx, rdy);
-			return;
+			return false;
 		}
 
-		clientThread.invoke(() -> {
-			try
+		try
+		{
+			if (client.getLocalPlayer() == null)
 			{
-				if (client.getLocalPlayer() == null)
-				{
-					log.warn("[RuneMirrorGuest] WALK_WORLD: localPlayer is null");
-					return;
-				}
-				// Compute destination using relative offsets if provided, otherwise use absolute world coords.
-				WorldPoint playerWp = client.getLocalPlayer().getWorldLocation();
-				if (playerWp == null)
-				{
-					log.warn("[RuneMirrorGuest] WALK_WORLD: could not get player world location");
-					return;
-				}
-				WorldPoint dest;
-				// Prefer host-base reconstruction: if host provided its worldview base and host player world
-				Integer hostBaseX = a.getHostBaseX();
-				Integer hostBaseY = a.getHostBaseY();
-				Integer hostPlayerWx = a.getHostPlayerWorldX();
-				Integer hostPlayerWy = a.getHostPlayerWorldY();
-				Integer hostPlayerWpl = a.getHostPlayerWorldPlane();
-				if (hostBaseX != null && hostBaseY != null && hostPlayerWx != null && hostPlayerWy != null && a.getParam0() != 0 && a.getParam1() != 0)
+				log.warn("[RuneMirrorGuest] WALK_WORLD: localPlayer is null");
+				return false;
+			}
+			// Compute destination using relative offsets if provided, otherwise use absolute world coords.
+			WorldPoint playerWp = client.getLocalPlayer().getWorldLocation();
+			if (playerWp == null)
+			{
+				log.warn("[RuneMirrorGuest] WALK_WORLD: could not get player world location");
+				return false;
+			}
+			WorldPoint dest;
+			// Prefer host-base reconstruction: if host provided its worldview base and host player world
+			Integer hostBaseX = a.getHostBaseX();
+			Integer hostBaseY = a.getHostBaseY();
+			Integer hostPlayerWx = a.getHostPlayerWorldX();
+			Integer hostPlayerWy = a.getHostPlayerWorldY();
+			Integer hostPlayerWpl = a.getHostPlayerWorldPlane();
+			if (hostBaseX != null && hostBaseY != null && hostPlayerWx != null && hostPlayerWy != null && a.getParam0() != 0 && a.getParam1() != 0)
+			{
+				// Reconstruct the world point the host clicked using host base + scene coords
+				int sceneX = a.getParam0();
+				int sceneY = a.getParam1();
+				WorldPoint hostClicked = new WorldPoint(hostBaseX + sceneX, hostBaseY + sceneY, hostPlayerWpl == null ? playerWp.getPlane() : hostPlayerWpl);
+				int relx = hostClicked.getX() - hostPlayerWx;
+				int rely = hostClicked.getY() - hostPlayerWy;
+				// Apply the same vector to this guest's player world position
+				dest = new WorldPoint(playerWp.getX() + relx, playerWp.getY() + rely, playerWp.getPlane());
+				int absDx = Math.abs(relx);
+				int absDy = Math.abs(rely);
+				if (absDx > 128 || absDy > 128)
 				{
-					// Reconstruct the world point the host clicked using host base + scene coords
-					int sceneX = a.getParam0();
-					int sceneY = a.getParam1();
-					WorldPoint hostClicked = new WorldPoint(hostBaseX + sceneX, hostBaseY + sceneY, hostPlayerWpl == null ? playerWp.getPlane() : hostPlayerWpl);
-					int relx = hostClicked.getX() - hostPlayerWx;
-					int rely = hostClicked.getY() - hostPlayerWy;
-					// Apply the same vector to this guest's player world position
-					dest = new WorldPoint(playerWp.getX() + relx, playerWp.getY() + rely, playerWp.getPlane());
-					int absDx = Math.abs(relx);
-					int absDy = Math.abs(rely);
-					if (absDx > 128 || absDy > 128)
+					log.warn("[RuneMirrorGuest] Computed rel vector too large relx={} rely={} — falling back to absolute world coords if available", relx, rely);
+					if (wx != null && wy != null && wp != null)
 					{
-						log.warn("[RuneMirrorGuest] Computed rel vector too large relx={} rely={} — falling back to absolute world coords if available", relx, rely);
-						if (wx != null && wy != null && wp != null)
-						{
-							dest = new WorldPoint(wx, wy, wp);
-							log.info("[RuneMirrorGuest] Using absolute fallback dest world={}", dest);
-						}
-						else
-						{
-							log.warn("[RuneMirrorGuest] No absolute world fallback present; aborting walk_world");
-							return;
-						}
+						dest = new WorldPoint(wx, wy, wp);
+						log.debug("[RuneMirrorGuest] Using absolute fallback dest world={}", dest);
 					}
 					else
 					{
-						log.info("[RuneMirrorGuest] Reconstructed hostClicked={} rel=({}, {}) -> guest dest={}", hostClicked, relx, rely, dest);
+						log.warn("[RuneMirrorGuest] No absolute world fallback present; aborting walk_world");
+						return false;
 					}
 				}
-				else if (rdx != null && rdy != null)
+				else
 				{
-					// Use relative offset from host player: apply to this guest's player world position.
-					dest = new WorldPoint(playerWp.getX() + rdx, playerWp.getY() + rdy, playerWp.getPlane());
-					// Safety: reject obviously huge offsets (likely bad data) to avoid long teleports.
-					int absDx = Math.abs(rdx);
-					int absDy = Math.abs(rdy);
-					if (absDx > 32 || absDy > 32)
+					log.debug("[RuneMirrorGuest] Reconstructed hostClicked={} rel=({}, {}) -> guest dest={}", hostClicked, relx, rely, dest);
+				}
+			}
+			else if (rdx != null && rdy != null)
+			{
+				// Use relative offset from host player: apply to this guest's player world position.
+				dest = new WorldPoint(playerWp.getX() + rdx, playerWp.getY() + rdy, playerWp.getPlane());
+				// Safety: reject obviously huge offsets (likely bad data) to avoid long teleports.
+				int absDx = Math.abs(rdx);
+				int absDy = Math.abs(rdy);
+				if (absDx > 32 || absDy > 32)
+				{
+					log.warn("[RuneMirrorGuest] WALK_WORLD rel offset too large relDx={} relDy={} — falling back to absolute world coords if available", rdx, rdy);
+					if (wx != null && wy != null && wp != null)
 					{
-						log.warn("[RuneMirrorGuest] WALK_WORLD rel offset too large relDx={} relDy={} — falling back to absolute world coords if available", rdx, rdy);
-						if (wx != null && wy != null && wp != null)
-						{
-							dest = new WorldPoint(wx, wy, wp);
-							log.info("[RuneMirrorGuest] Using absolute fallback dest world={}", dest);
-						}
-						else
-						{
-							log.warn("[RuneMirrorGuest] No absolute world fallback present; aborting walk_world");
-							return;
-						}
+						dest = new WorldPoint(wx, wy, wp);
+						log.debug("[RuneMirrorGuest] Using absolute fallback dest world={}", dest);
 					}
 					else
 					{
-						log.info("[RuneMirrorGuest] WALK_WORLD using relative offset relDx={} relDy={} -> guest dest world={} (player world={},{},{})", rdx, rdy, dest, playerWp.getX(), playerWp.getY(), playerWp.getPlane());
+						log.warn("[RuneMirrorGuest] No absolute world fallback present; aborting walk_world");
+						return false;
 					}
 				}
 				else
 				{
-					dest = new WorldPoint(wx, wy, wp);
-				}
-
-				// Resolve the WorldView that contains the destination, and convert using that WorldView.
-				net.runelite.api.WorldView wv = client.findWorldViewFromWorldPoint(dest);
-				if (wv == null)
-				{
-					log.warn("[RuneMirrorGuest] WALK_WORLD: no WorldView found for destination {}", dest);
-					return;
+					log.debug("[RuneMirrorGuest] WALK_WORLD using relative offset relDx={} relDy={} -> guest dest world={} (player world={},{},{})", rdx, rdy, dest, playerWp.getX(), playerWp.getY(), playerWp.getPlane());
 				}
+			}
+			else
+			{
+				dest = new WorldPoint(wx, wy, wp);
+			}
 
-				net.runelite.api.coords.LocalPoint lp = net.runelite.api.coords.LocalPoint.fromWorld(wv, dest);
-				if (lp == null)
-				{
-					log.warn("[RuneMirrorGuest] WALK_WORLD: destination {} is not in resolved WorldView (id={}) baseX={} baseY={} size={}x{}",
-						dest, wv.getId(), wv.getBaseX(), wv.getBaseY(), wv.getSizeX(), wv.getSizeY());
-					return;
-				}
+			// Resolve the WorldView that contains the destination, and convert using that WorldView.
+			net.runelite.api.WorldView wv = client.findWorldViewFromWorldPoint(dest);
+			if (wv == null)
+			{
+				log.warn("[RuneMirrorGuest] WALK_WORLD: no WorldView found for destination {}", dest);
+				return false;
+			}
 
-				int sceneX = lp.getSceneX();
-				int sceneY = lp.getSceneY();
+			net.runelite.api.coords.LocalPoint lp = net.runelite.api.coords.LocalPoint.fromWorld(wv, dest);
+			if (lp == null)
+			{
+				log.warn("[RuneMirrorGuest] WALK_WORLD: destination {} is not in resolved WorldView (id={}) baseX={} baseY={} size={}x{}",
+					dest, wv.getId(), wv.getBaseX(), wv.getBaseY(), wv.getSizeX(), wv.getSizeY());
+				return false;
+			}
 
-				int dx = dest.getX() - playerWp.getX();
-				int dy = dest.getY() - playerWp.getY();
+			int sceneX = lp.getSceneX();
+			int sceneY = lp.getSceneY();
 
-				log.info("[RuneMirrorGuest] WALK_WORLD dest/worldX={} worldY={} relative dx={} dy={} from player world=({}, {}, {}) -> dest world=({}, {}, {}) scene=({}, {})",
-					wx, wy, dx, dy, playerWp.getX(), playerWp.getY(), playerWp.getPlane(), dest.getX(), dest.getY(), dest.getPlane(), sceneX, sceneY);
-				
-				if (sceneX < 0 || sceneY < 0 || sceneX >= wv.getSizeX() || sceneY >= wv.getSizeY())
-				{
-					log.warn("[RuneMirrorGuest] WALK_WORLD: computed scene coords ({}, {}) are out of bounds for WorldView id={} (size: {}x{})",
-						sceneX, sceneY, wv.getId(), wv.getSizeX(), wv.getSizeY());
-					return;
-				}
+			int dx = dest.getX() - playerWp.getX();
+			int dy = dest.getY() - playerWp.getY();
 
-				client.menuAction(
-					sceneX,
-					sceneY,
-					MenuAction.WALK,
-					0,
-					-1,
-					"Walk here",
-					""
-				);
-			}
-			catch (Exception e)
+			log.debug("[RuneMirrorGuest] WALK_WORLD dest/worldX={} worldY={} relative dx={} dy={} from player world=({}, {}, {}) -> dest world=({}, {}, {}) scene=({}, {})",
+				wx, wy, dx, dy, playerWp.getX(), playerWp.getY(), playerWp.getPlane(), dest.getX(), dest.getY(), dest.getPlane(), sceneX, sceneY);
+			
+			if (sceneX < 0 || sceneY < 0 || sceneX >= wv.getSizeX() || sceneY >= wv.getSizeY())
 			{
-				log.warn("[RuneMirrorGuest] Walk exec failed: {}", e.getMessage(), e);
+				log.warn("[RuneMirrorGuest] WALK_WORLD: computed scene coords ({}, {}) are out of bounds for WorldView id={} (size: {}x{})",
+					sceneX, sceneY, wv.getId(), wv.getSizeX(), wv.getSizeY());
+				return false;
 			}
-		});
+
+			client.menuAction(
+				sceneX,
+				sceneY,
+				MenuAction.WALK,
+				0,
+				-1,
+				"Walk here",
+				""
+			);
+			return true;
+		}
+		catch (Exception e)
+		{
+			log.warn("[RuneMirrorGuest] Walk exec failed: {}", e.getMessage(), e);
+			return false;
+		}
 	}
 
-	private void scheduleDialogContinue()
+	private void executeDialogContinue()
 	{
-		clientThread.invoke(() -> {
-			try
-			{
-				log.info("[RuneMirrorGuest] scheduleDialogContinue invoked");
+		try
+		{
+			log.debug("[RuneMirrorGuest] executeDialogContinue invoked");
 
-				// First, try to simulate the actual spacebar keypress on the game canvas.
-				Canvas canvas = client.getCanvas();
-				if (canvas != null)
-				{
-					long now = System.currentTimeMillis();
-					log.info("[RuneMirrorGuest] Dispatching synthetic spacebar KeyEvent to canvas");
-					canvas.dispatchEvent(new KeyEvent(canvas, KeyEvent.KEY_PRESSED, now, 0, KeyEvent.VK_SPACE, ' '));
-					canvas.dispatchEvent(new KeyEvent(canvas, KeyEvent.KEY_RELEASED, now, 0, KeyEvent.VK_SPACE, ' '));
-				}
+			// First, try to simulate the actual spacebar keypress on the game canvas.
+			Canvas canvas = client.getCanvas();
+			if (canvas != null)
+			{
+				long now = System.currentTimeMillis();
+				log.debug("[RuneMirrorGuest] Dispatching synthetic spacebar KeyEvent to canvas");
+				canvas.dispatchEvent(new KeyEvent(canvas, KeyEvent.KEY_PRESSED, now, 0, KeyEvent.VK_SPACE, ' '));
+				canvas.dispatchEvent(new KeyEvent(canvas, KeyEvent.KEY_RELEASED, now, 0, KeyEvent.VK_SPACE, ' '));
+			}
 
-				// Also try clicking the actual chat continue widget as a backup.
-				// This does not depend on mouse position and mirrors "spacebar" behaviour reliably.
-				Widget w = client.getWidget(InterfaceID.ChatBoth.CONTINUE);
-				if (w == null)
-				{
-					w = client.getWidget(InterfaceID.ChatRight.CONTINUE);
-				}
-				if (w == null)
-				{
-					w = client.getWidget(InterfaceID.ChatLeft.CONTINUE);
-				}
+			// Also try clicking the actual chat continue widget as a backup.
+			// This does not depend on mouse position and mirrors "spacebar" behaviour reliably.
+			Widget w = client.getWidget(InterfaceID.ChatBoth.CONTINUE);
+			if (w == null)
+			{
+				w = client.getWidget(InterfaceID.ChatRight.CONTINUE);
+			}
+			if (w == null)
+			{
+				w = client.getWidget(InterfaceID.ChatLeft.CONTINUE);
+			}
 
-				if (w != null)
-				{
-					int componentId = w.getId();
-					log.info("[RuneMirrorGuest] Found CONTINUE widget id={}, sending WIDGET_CONTINUE", componentId);
-					client.menuAction(0, 0, MenuAction.WIDGET_CONTINUE, componentId, -1, "", "");
-					return;
-				}
+			if (w != null)
+			{
+				int componentId = w.getId();
+				log.debug("[RuneMirrorGuest] Found CONTINUE widget id={}, sending WIDGET_CONTINUE", componentId);
+				client.menuAction(0, 0, MenuAction.WIDGET_CONTINUE, componentId, -1, "", "");
+				return;
+			}
 
-				// Fallback: attempt to find a widget-continue menu entry.
-				MenuEntry[] entries = client.getMenuEntries();
-				if (entries == null || entries.length == 0)
-				{
-					return;
-				}
+			// Fallback: attempt to find a widget-continue menu entry.
+			MenuEntry[] entries = client.getMenuEntries();
+			if (entries == null || entries.length == 0)
+			{
+				return;
+			}
 
-				MenuEntry continueEntry = null;
-				for (int i = entries.length - 1; i >= 0; i--)
+			MenuEntry continueEntry = null;
+			for (int i = entries.length - 1; i >= 0; i--)
+			{
+				MenuEntry e = entries[i];
+				if (e == null)
 				{
-					MenuEntry e = entries[i];
-					if (e == null)
-					{
-						continue;
-					}
-					// Tutorial Island and other dialogues use WIDGET_CONTINUE with option text like
-					// "Click here to continue" (not always exactly "Continue").
-					if (e.getType() == MenuAction.WIDGET_CONTINUE)
-					{
-						continueEntry = e;
-						break;
-					}
+					continue;
 				}
-
-				if (continueEntry == null)
+				// Tutorial Island and other dialogues use WIDGET_CONTINUE with option text like
+				// "Click here to continue" (not always exactly "Continue").
+				if (e.getType() == MenuAction.WIDGET_CONTINUE)
 				{
-					log.info("[RuneMirrorGuest] No WIDGET_CONTINUE menu entry found; nothing to do");
-					return;
+					continueEntry = e;
+					break;
 				}
-
-				log.info("[RuneMirrorGuest] Using fallback WIDGET_CONTINUE menu entry option='{}' target='{}'",
-					continueEntry.getOption(), continueEntry.getTarget());
-
-				client.menuAction(
-					continueEntry.getParam0(),
-					continueEntry.getParam1(),
-					continueEntry.getType(),
-					continueEntry.getIdentifier(),
-					continueEntry.getItemId(),
-					continueEntry.getOption() == null ? "" : continueEntry.getOption(),
-					continueEntry.getTarget() == null ? "" : continueEntry.getTarget()
-				);
 			}
-			catch (Exception e)
+
+			if (continueEntry == null)
 			{
-				log.debug("[RuneMirrorGuest] Continue exec failed: {}", e.getMessage());
+				log.debug("[RuneMirrorGuest] No WIDGET_CONTINUE menu entry found; nothing to do");
+				return;
 			}
-		});
+
+			log.debug("[RuneMirrorGuest] Using fallback WIDGET_CONTINUE menu entry option='{}' target='{}'",
+				continueEntry.getOption(), continueEntry.getTarget());
+
+			client.menuAction(
+				continueEntry.getParam0(),
+				continueEntry.getParam1(),
+				continueEntry.getType(),
+				continueEntry.getIdentifier(),
+				continueEntry.getItemId(),
+				continueEntry.getOption() == null ? "" : continueEntry.getOption(),
+				continueEntry.getTarget() == null ? "" : continueEntry.getTarget()
+			);
+		}
+		catch (Exception e)
+		{
+			log.debug("[RuneMirrorGuest] Continue exec failed: {}", e.getMessage());
+		}
 	}
 
 	@Provides
@@ -1,32 +1,79 @@
 package net.runelite.client.plugins.prushguest;
 
+import com.google.gson.Gson;
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.plugins.prushsync.PrushAction;
+import net.runelite.client.plugins.prushsync.PrushActionDecoder;
+import net.runelite.client.plugins.prushsync.PrushHistogram;
+import net.runelite.client.plugins.prushsync.PrushMetrics;
+import net.runelite.client.plugins.prushsync.PrushProtocol;
+import net.runelite.client.plugins.prushsync.PrushWireFormat;
 
+/**
+ * Accepts any number of concurrent host connections, each served by its own daemon thread.
+ * <p>
+ * Hosts heartbeat idle connections, so a connection which has been silent for longer than the idle timeout
+ * is considered dead and reaped. A host which reconnects with the same session id takes over from its
+ * previous connection, closing it if it is still lingering half-open. Actions from the session at or below the
+ * last sequence number this guest accepted are dropped as duplicates. Actions the host sent while disconnected
+ * are not resent, so gaps in the sequence are only reported.
+ */
 @Slf4j
 public class PrushGuestServer
 {
-	public interface LineHandler
+	private static final int MAX_LINE_LENGTH = 1 << 16;
+	private static final int MAX_TRACKED_SESSIONS = 16;
+
+	public interface ActionHandler
 	{
-		void onLine(String line);
+		void onAction(PrushAction action);
 	}
 
 	private final int port;
-	private final LineHandler handler;
+	private final int idleTimeoutMs;
+	private final Gson gson;
+	private final ActionHandler handler;
+	private final PrushHistogram receiveToDecode;
 	private final AtomicBoolean running = new AtomicBoolean(false);
+	private final AtomicInteger connectionIds = new AtomicInteger();
+	private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+	private final Map<Long, SequenceTracker> sequences = new LinkedHashMap<Long, SequenceTracker>()
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, SequenceTracker> eldest)
+		{
+			return size() > MAX_TRACKED_SESSIONS;
+		}
+	};
 	private Thread thread;
-	private ServerSocket serverSocket;
+	private volatile ServerSocket serverSocket;
 
-	public PrushGuestServer(int port, LineHandler handler)
+	public PrushGuestServer(int port, int idleTimeoutMs, Gson gson, ActionHandler handler, PrushMetrics metrics)
 	{
 		this.port = port;
+		this.idleTimeoutMs = idleTimeoutMs;
+		this.gson = gson;
 		this.handler = handler;
+		this.receiveToDecode = metrics.nanos(PrushMetrics.GUEST_RECEIVE_TO_DECODE);
 	}
 
 	public void start()
@@ -50,27 +97,15 @@ public class PrushGuestServer
 			while (running.get())
 			{
 				Socket s = ss.accept();
-				s.setTcpNoDelay(true);
-				log.info("[RuneMirrorGuest] Host connected from {}", s.getRemoteSocketAddress());
-
-				try (BufferedReader r = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8)))
+				try
 				{
-					String line;
-					while (running.get() && (line = r.readLine()) != null)
-					{
-						if (line.isEmpty())
-						{
-							continue;
-						}
-						handler.onLine(line);
-					}
+					s.setTcpNoDelay(true);
+					s.setSoTimeout(idleTimeoutMs);
 				}
 				catch (IOException e)
 				{
-					log.warn("[RuneMirrorGuest] Connection ended: {}", e.getMessage());
-				}
-				finally
-				{
+					// such as a host which reset the connection straight away; keep listening for the others
+					log.warn("[RuneMirrorGuest] Unable to set up connection from {}: {}", s.getRemoteSocketAddress(), e.getMessage());
 					try
 					{
 						s.close();
@@ -78,12 +113,25 @@ public class PrushGuestServer
 					catch (IOException ignored)
 					{
 					}
+					continue;
 				}
+
+				Connection c = new Connection(connectionIds.incrementAndGet(), s);
+				connections.add(c);
+				log.info("[RuneMirrorGuest] Host connected from {} (connection {}, {} open)",
+					c.remote, c.id, connections.size());
+
+				Thread t = new Thread(c::run, "RuneMirrorGuestConnection-" + c.id);
+				t.setDaemon(true);
+				t.start();
 			}
 		}
 		catch (IOException e)
 		{
-			log.error("[RuneMirrorGuest] Server error on port {}: {}", port, e.getMessage());
+			if (running.get())
+			{
+				log.error("[RuneMirrorGuest] Server error on port {}: {}", port, e.getMessage());
+			}
 		}
 		finally
 		{
@@ -100,13 +148,260 @@ public class PrushGuestServer
 
 		try
 		{
-			if (serverSocket != null)
+			ServerSocket ss = serverSocket;
+			if (ss != null)
 			{
-				serverSocket.close();
+				ss.close();
 			}
 		}
 		catch (IOException ignored)
 		{
 		}
+
+		for (Connection c : connections)
+		{
+			c.close();
+		}
+	}
+
+	private SequenceTracker trackerFor(long session)
+	{
+		synchronized (sequences)
+		{
+			return sequences.computeIfAbsent(session, k -> new SequenceTracker());
+		}
+	}
+
+	/**
+	 * Read a single line a byte at a time, leaving everything after it in {@code in} for the binary or
+	 * JSON reader.
+	 */
+	private static String readLine(InputStream in) throws IOException
+	{
+		ByteArrayOutputStream line = new ByteArrayOutputStream(PrushProtocol.MAX_HANDSHAKE_LENGTH);
+		int b;
+		while ((b = in.read()) != '\n')
+		{
+			if (b < 0)
+			{
+				return line.size() == 0 ? null : line.toString(StandardCharsets.UTF_8.name());
+			}
+			if (line.size() >= MAX_LINE_LENGTH)
+			{
+				throw new IOException("line too long");
+			}
+			line.write(b);
+		}
+		return line.toString(StandardCharsets.UTF_8.name());
+	}
+
+	private static class SequenceTracker
+	{
+		private long lastSeq;
+	}
+
+	private class Connection
+	{
+		private final int id;
+		private final Socket socket;
+		private final SocketAddress remote;
+		private volatile Long session;
+		private SequenceTracker tracker;
+
+		private Connection(int id, Socket socket)
+		{
+			this.id = id;
+			this.socket = socket;
+			this.remote = socket.getRemoteSocketAddress();
+		}
+
+		private void run()
+		{
+			try (InputStream in = new BufferedInputStream(socket.getInputStream()))
+			{
+				serve(in);
+			}
+			catch (SocketTimeoutException e)
+			{
+				log.warn("[RuneMirrorGuest] Reaping connection {} from {}: nothing received for {}ms", id, remote, idleTimeoutMs);
+			}
+			catch (EOFException e)
+			{
+				log.info("[RuneMirrorGuest] Host {} disconnected (connection {})", remote, id);
+			}
+			catch (IOException e)
+			{
+				if (running.get() && !socket.isClosed())
+				{
+					log.warn("[RuneMirrorGuest] Connection {} from {} ended: {}", id, remote, e.getMessage());
+				}
+			}
+			finally
+			{
+				close();
+				connections.remove(this);
+			}
+		}
+
+		private void serve(InputStream in) throws IOException
+		{
+			String first = readLine(in);
+			if (first == null)
+			{
+				return;
+			}
+
+			PrushProtocol.Handshake hello = PrushProtocol.parseHandshake(first);
+			if (hello == null)
+			{
+				// No handshake; a legacy host or someone poking at the port with netcat.
+				log.info("[RuneMirrorGuest] No handshake from {}, reading JSON lines", remote);
+				handleJson(first);
+				serveJson(in);
+				return;
+			}
+
+			OutputStream out = socket.getOutputStream();
+			if (hello.getVersion() != PrushProtocol.VERSION)
+			{
+				log.warn("[RuneMirrorGuest] Rejecting host {} with protocol version {}, expected {}", remote, hello.getVersion(), PrushProtocol.VERSION);
+				out.write(new PrushProtocol.Handshake(PrushProtocol.VERSION, hello.getFormat(), hello.getSession()).toBytes());
+				out.flush();
+				return;
+			}
+
+			takeOver(hello.getSession());
+
+			out.write(hello.toBytes());
+			out.flush();
+			log.info("[RuneMirrorGuest] Connection {} negotiated protocol version {} format {} session {}",
+				id, hello.getVersion(), hello.getFormat(), Long.toHexString(hello.getSession()));
+
+			if (hello.getFormat() == PrushWireFormat.BINARY)
+			{
+				serveBinary(in);
+			}
+			else
+			{
+				serveJson(in);
+			}
+		}
+
+		/**
+		 * Claim a host session, closing any older connection from the same host. Such a connection can
+		 * only be a stale half-open socket the host has already given up on.
+		 */
+		private void takeOver(long session)
+		{
+			this.session = session;
+			this.tracker = trackerFor(session);
+
+			for (Connection c : connections)
+			{
+				Long s = c.session;
+				if (c != this && s != null && s == session)
+				{
+					log.info("[RuneMirrorGuest] Host session {} reconnected, closing stale connection {}", Long.toHexString(session), c.id);
+					c.close();
+				}
+			}
+
+			synchronized (tracker)
+			{
+				if (tracker.lastSeq > 0)
+				{
+					log.info("[RuneMirrorGuest] Host session {} reconnected, last accepted seq {}", Long.toHexString(session), tracker.lastSeq);
+				}
+			}
+		}
+
+		private void serveBinary(InputStream in) throws IOException
+		{
+			PrushActionDecoder decoder = new PrushActionDecoder();
+			while (running.get())
+			{
+				PrushAction a = decoder.read(in);
+				if (a != null)
+				{
+					deliver(a);
+				}
+			}
+		}
+
+		private void serveJson(InputStream in) throws IOException
+		{
+			BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+			String line;
+			while (running.get() && (line = r.readLine()) != null)
+			{
+				handleJson(line);
+			}
+		}
+
+		private void handleJson(String line)
+		{
+			if (line.isEmpty())
+			{
+				// heartbeat
+				return;
+			}
+
+			long received = System.nanoTime();
+			PrushAction a;
+			try
+			{
+				a = gson.fromJson(line, PrushAction.class);
+			}
+			catch (Exception e)
+			{
+				log.debug("[RuneMirrorGuest] Bad json: {}", e.getMessage());
+				return;
+			}
+
+			if (a != null)
+			{
+				a.setReceiveNanos(received);
+				a.setDecodeNanos(System.nanoTime());
+				deliver(a);
+			}
+		}
+
+		private void deliver(PrushAction a)
+		{
+			receiveToDecode.record(a.getDecodeNanos() - a.getReceiveNanos());
+
+			if (tracker != null)
+			{
+				synchronized (tracker)
+				{
+					long last = tracker.lastSeq;
+					if (a.getSeq() <= last)
+					{
+						log.debug("[RuneMirrorGuest] Dropping duplicate seq {} (last {}) on connection {}", a.getSeq(), last, id);
+						return;
+					}
+					if (last > 0 && a.getSeq() != last + 1)
+					{
+						// not recovered, the host doesn't keep the actions it sent while disconnected
+						log.info("[RuneMirrorGuest] Missed {} actions from host session {} (seq {} -> {})",
+							a.getSeq() - last - 1, Long.toHexString(session), last, a.getSeq());
+					}
+					tracker.lastSeq = a.getSeq();
+				}
+			}
+
+			handler.onAction(a);
+		}
+
+		private void close()
+		{
+			try
+			{
+				socket.close();
+			}
+			catch (IOException ignored)
+			{
+			}
+		}
 	}
 }
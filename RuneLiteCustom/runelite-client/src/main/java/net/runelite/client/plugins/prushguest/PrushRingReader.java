@@ -0,0 +1,281 @@
+package net.runelite.client.plugins.prushguest;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.plugins.prushsync.PrushAction;
+import net.runelite.client.plugins.prushsync.PrushActionDecoder;
+import net.runelite.client.plugins.prushsync.PrushHistogram;
+import net.runelite.client.plugins.prushsync.PrushMetrics;
+import net.runelite.client.plugins.prushsync.PrushRing;
+
+/**
+ * Reads actions a host on the same machine writes into its shared memory ring. See {@link PrushRing}.
+ * <p>
+ * The reader thread spins briefly after each record, since clicks tend to come in bursts, and otherwise parks
+ * for up to {@link #PARK_NANOS} between polls. It waits for the file to appear if the host is not running yet.
+ */
+@Slf4j
+public class PrushRingReader
+{
+	private static final int SPINS = 200;
+	private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final long ATTACH_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private final File file;
+	private final PrushGuestServer.ActionHandler handler;
+	private final PrushHistogram receiveToDecode;
+	private final PrushActionDecoder decoder = new PrushActionDecoder();
+
+	private volatile boolean running;
+	private Thread thread;
+
+	// only touched by the reader thread
+	private MappedByteBuffer buf;
+	private ByteBuffer data;
+	private int capacity;
+	private boolean joined;
+	private long session;
+	private long cursor;
+	private byte[] frame = new byte[256];
+
+	public PrushRingReader(File file, PrushGuestServer.ActionHandler handler, PrushMetrics metrics)
+	{
+		this.file = file;
+		this.handler = handler;
+		this.receiveToDecode = metrics.nanos(PrushMetrics.GUEST_RECEIVE_TO_DECODE);
+	}
+
+	public void start()
+	{
+		running = true;
+		thread = new Thread(this::run, "RuneMirrorGuestRing");
+		thread.setDaemon(true);
+		thread.start();
+		log.info("[RuneMirrorGuest] Reading actions from shared memory {}", file);
+	}
+
+	public void stop()
+	{
+		running = false;
+		if (thread != null)
+		{
+			LockSupport.unpark(thread);
+			try
+			{
+				thread.join(1000);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			thread = null;
+		}
+	}
+
+	private void run()
+	{
+		long nextAttach = System.nanoTime();
+		int idle = 0;
+		while (running)
+		{
+			if (buf == null)
+			{
+				long now = System.nanoTime();
+				if (now - nextAttach < 0 || !attach())
+				{
+					nextAttach = now + ATTACH_RETRY_NANOS;
+					LockSupport.parkNanos(PARK_NANOS * 50);
+					continue;
+				}
+			}
+
+			int n;
+			try
+			{
+				n = poll();
+			}
+			catch (RuntimeException e)
+			{
+				log.warn("[RuneMirrorGuest] Unable to read shared memory {}", file, e);
+				detach();
+				continue;
+			}
+
+			if (n > 0)
+			{
+				idle = 0;
+			}
+			else if (++idle < SPINS)
+			{
+				Thread.onSpinWait();
+			}
+			else
+			{
+				LockSupport.parkNanos(PARK_NANOS);
+			}
+		}
+		detach();
+	}
+
+	/**
+	 * Map the ring, if the host has created it.
+	 */
+	boolean attach()
+	{
+		if (!file.isFile())
+		{
+			return false;
+		}
+
+		MappedByteBuffer b;
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+		{
+			b = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+		}
+		catch (IOException e)
+		{
+			log.debug("[RuneMirrorGuest] Unable to map {}: {}", file, e.getMessage());
+			return false;
+		}
+		b.order(ByteOrder.LITTLE_ENDIAN);
+
+		int cap = PrushRing.readHeader(b);
+		if (cap == 0)
+		{
+			return false;
+		}
+
+		b.position(PrushRing.HEADER_LENGTH);
+		data = b.slice().order(ByteOrder.LITTLE_ENDIAN);
+		b.position(0);
+		buf = b;
+		capacity = cap;
+		return true;
+	}
+
+	private void detach()
+	{
+		buf = null;
+		data = null;
+	}
+
+	/**
+	 * Deliver every record written since the last poll.
+	 *
+	 * @return the number of records read
+	 */
+	int poll()
+	{
+		long s = PrushRing.session(buf);
+		if (s == 0)
+		{
+			return 0;
+		}
+		if (buf.getInt(PrushRing.CAPACITY_OFFSET) != capacity)
+		{
+			// the host restarted with another ring size
+			detach();
+			return 0;
+		}
+
+		long w = PrushRing.cursor(buf);
+		if (!joined || s != session)
+		{
+			log.info("[RuneMirrorGuest] Reading shared memory from host session {}", Long.toHexString(s));
+			// start with whatever the host writes next, rather than replaying the ring, unless the host restarted
+			cursor = joined ? 0 : w;
+			joined = true;
+			session = s;
+		}
+
+		int mask = capacity - 1;
+		long safe = capacity - PrushRing.maxRecordLength(capacity);
+		int n = 0;
+		while (cursor < w)
+		{
+			if (w - cursor > safe)
+			{
+				skip(w);
+				break;
+			}
+
+			long received = System.nanoTime();
+			int idx = (int) (cursor & mask);
+			int length = data.getInt(idx);
+			if (length <= 0 || PrushRing.recordLength(length) > PrushRing.maxRecordLength(capacity))
+			{
+				skip(w);
+				break;
+			}
+
+			if (frame.length < length)
+			{
+				frame = new byte[Math.max(length, frame.length * 2)];
+			}
+			idx = (idx + 4) & mask;
+			int first = Math.min(length, capacity - idx);
+			data.position(idx);
+			data.get(frame, 0, first);
+			if (first < length)
+			{
+				data.position(0);
+				data.get(frame, first, length - first);
+			}
+
+			// the host may have overwritten the record while it was being copied. This is the read side of a seqlock:
+			// the fence keeps the plain reads of the record above from being reordered after the cursor re-check
+			VarHandle.acquireFence();
+			long after = PrushRing.cursor(buf);
+			if (PrushRing.session(buf) != s || after - cursor > safe)
+			{
+				skip(after);
+				break;
+			}
+
+			cursor += PrushRing.recordLength(length);
+			deliver(length, received);
+			++n;
+		}
+		return n;
+	}
+
+	private void skip(long to)
+	{
+		log.info("[RuneMirrorGuest] Fell {} bytes behind host session {} in shared memory, skipping ahead",
+			to - cursor, Long.toHexString(session));
+		cursor = to;
+	}
+
+	private void deliver(int length, long received)
+	{
+		PrushAction a;
+		try
+		{
+			a = decoder.read(new ByteArrayInputStream(frame, 0, length));
+		}
+		catch (IOException e)
+		{
+			log.warn("[RuneMirrorGuest] Dropping malformed record from host session {}: {}", Long.toHexString(session), e.getMessage());
+			return;
+		}
+
+		if (a == null)
+		{
+			return;
+		}
+
+		a.setReceiveNanos(received);
+		receiveToDecode.record(a.getDecodeNanos() - received);
+		handler.onAction(a);
+	}
+}
@@ -0,0 +1,330 @@
+package net.runelite.client.plugins.prushguest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.plugins.prushsync.PrushAction;
+import net.runelite.client.plugins.prushsync.PrushActionDecoder;
+import net.runelite.client.plugins.prushsync.PrushDatagram;
+import net.runelite.client.plugins.prushsync.PrushHistogram;
+import net.runelite.client.plugins.prushsync.PrushMetrics;
+
+/**
+ * Receives actions sent by the host's UDP transport, on a multicast group or a plain port.
+ * <p>
+ * Actions are delivered in sequence order. When a gap shows up, either from a datagram arriving early or
+ * from a heartbeat announcing a sequence number not yet seen, the missing datagrams are requested from the
+ * host over TCP. Whatever the host no longer holds is skipped and logged.
+ */
+@Slf4j
+public class PrushUdpReceiver
+{
+	private static final int NACK_TIMEOUT_MS = 250;
+	private static final int RECEIVE_BUFFER_SIZE = 1 << 20;
+
+	private final InetSocketAddress listen;
+	private final PrushGuestServer.ActionHandler handler;
+	private final PrushHistogram receiveToDecode;
+	private final PrushActionDecoder decoder = new PrushActionDecoder();
+
+	private volatile boolean running;
+	private MulticastSocket socket;
+	private Thread thread;
+
+	// only touched by the receive thread
+	private boolean haveSession;
+	private long session;
+	private long nextSeq;
+	private final TreeMap<Long, byte[]> pending = new TreeMap<>();
+	private InetSocketAddress nackAddress;
+	// also closed by stop(), to interrupt a retransmission request in progress
+	private volatile Socket nackSocket;
+	private DataInputStream nackIn;
+	private DataOutputStream nackOut;
+
+	/**
+	 * @param listen the multicast group and port to join, or any other address to only listen on its port
+	 */
+	public PrushUdpReceiver(InetSocketAddress listen, PrushGuestServer.ActionHandler handler, PrushMetrics metrics)
+	{
+		this.listen = listen;
+		this.handler = handler;
+		this.receiveToDecode = metrics.nanos(PrushMetrics.GUEST_RECEIVE_TO_DECODE);
+	}
+
+	public void start() throws IOException
+	{
+		MulticastSocket s = new MulticastSocket(listen.getPort());
+		try
+		{
+			s.setReceiveBufferSize(RECEIVE_BUFFER_SIZE);
+			InetAddress group = listen.getAddress();
+			if (group != null && group.isMulticastAddress())
+			{
+				s.joinGroup(new InetSocketAddress(group, 0), null);
+			}
+		}
+		catch (IOException e)
+		{
+			s.close();
+			throw e;
+		}
+
+		socket = s;
+		running = true;
+
+		thread = new Thread(this::receiveLoop, "RuneMirrorGuestUdp");
+		thread.setDaemon(true);
+		thread.start();
+
+		log.info("[RuneMirrorGuest] Listening for UDP on {}", listen);
+	}
+
+	public void stop()
+	{
+		running = false;
+		if (socket != null)
+		{
+			socket.close();
+		}
+		// only close the socket; the receive thread owns the streams and releases them on its way out
+		Socket s = nackSocket;
+		if (s != null)
+		{
+			try
+			{
+				s.close();
+			}
+			catch (IOException ignored)
+			{
+			}
+		}
+		if (thread != null)
+		{
+			try
+			{
+				thread.join(1000);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void receiveLoop()
+	{
+		byte[] buf = new byte[PrushDatagram.MAX_LENGTH];
+		DatagramPacket packet = new DatagramPacket(buf, buf.length);
+		while (running)
+		{
+			try
+			{
+				packet.setLength(buf.length);
+				socket.receive(packet);
+				onDatagram(ByteBuffer.wrap(buf, 0, packet.getLength()), packet.getAddress(), System.nanoTime());
+			}
+			catch (IOException e)
+			{
+				if (running)
+				{
+					log.warn("[RuneMirrorGuest] UDP receive failed: {}", e.getMessage());
+				}
+			}
+		}
+		closeNack();
+	}
+
+	private void onDatagram(ByteBuffer buf, InetAddress from, long received)
+	{
+		if (!PrushDatagram.isValid(buf))
+		{
+			return;
+		}
+
+		int kind = PrushDatagram.kind(buf);
+		long seq = PrushDatagram.seq(buf);
+		long sess = PrushDatagram.session(buf);
+		if (!haveSession || sess != session)
+		{
+			closeNack();
+			pending.clear();
+			haveSession = true;
+			session = sess;
+			nackAddress = new InetSocketAddress(from, PrushDatagram.nackPort(buf));
+			// start with whatever the host sends next, rather than asking for its whole history
+			nextSeq = kind == PrushDatagram.KIND_HEARTBEAT ? seq + 1 : seq;
+			log.info("[RuneMirrorGuest] Receiving UDP from host session {} at {}", Long.toHexString(sess), nackAddress);
+		}
+
+		if (kind == PrushDatagram.KIND_HEARTBEAT)
+		{
+			if (seq >= nextSeq)
+			{
+				recover(seq + 1);
+			}
+			return;
+		}
+
+		if (seq < nextSeq)
+		{
+			return;
+		}
+
+		if (seq == nextSeq)
+		{
+			++nextSeq;
+			deliver(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining(), received);
+			drain();
+			return;
+		}
+
+		byte[] copy = new byte[buf.remaining()];
+		System.arraycopy(buf.array(), buf.arrayOffset() + buf.position(), copy, 0, copy.length);
+		pending.put(seq, copy);
+		recover(seq);
+	}
+
+	/**
+	 * Request the datagrams from {@link #nextSeq} up to, but excluding, {@code end} and deliver everything
+	 * that is then in order. Sequence numbers which still can't be had are skipped.
+	 */
+	private void recover(long end)
+	{
+		long first = Math.max(nextSeq, end - PrushDatagram.RETRANSMIT_WINDOW);
+		if (first < end)
+		{
+			requestRetransmit(first, (int) (end - first));
+		}
+
+		drain();
+		while (nextSeq < end)
+		{
+			long resume = pending.isEmpty() ? end : Math.min(pending.firstKey(), end);
+			log.info("[RuneMirrorGuest] Missed {} actions from host session {} (seq {} -> {})",
+				resume - nextSeq, Long.toHexString(session), nextSeq - 1, resume);
+			nextSeq = resume;
+			drain();
+		}
+	}
+
+	private void requestRetransmit(long first, int count)
+	{
+		try
+		{
+			if (nackSocket == null)
+			{
+				Socket s = new Socket();
+				s.connect(nackAddress, NACK_TIMEOUT_MS);
+				s.setSoTimeout(NACK_TIMEOUT_MS);
+				s.setTcpNoDelay(true);
+				nackSocket = s;
+				nackIn = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+				nackOut = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+			}
+
+			nackOut.writeLong(session);
+			nackOut.writeLong(first);
+			nackOut.writeInt(count);
+			nackOut.flush();
+
+			int n = nackIn.readInt();
+			for (int i = 0; i < n; ++i)
+			{
+				int length = nackIn.readInt();
+				if (length < PrushDatagram.HEADER_LENGTH || length > PrushDatagram.MAX_LENGTH)
+				{
+					throw new IOException("malformed retransmission of " + length + " bytes");
+				}
+
+				byte[] d = new byte[length];
+				nackIn.readFully(d);
+
+				ByteBuffer buf = ByteBuffer.wrap(d);
+				long seq = PrushDatagram.seq(buf);
+				if (PrushDatagram.isValid(buf) && PrushDatagram.kind(buf) == PrushDatagram.KIND_ACTION
+					&& PrushDatagram.session(buf) == session && seq >= nextSeq)
+				{
+					pending.put(seq, d);
+				}
+			}
+
+			log.debug("[RuneMirrorGuest] Recovered {} of {} datagrams from seq {}", n, count, first);
+		}
+		catch (IOException e)
+		{
+			log.debug("[RuneMirrorGuest] Retransmission request to {} failed: {}", nackAddress, e.getMessage());
+			closeNack();
+		}
+	}
+
+	private void drain()
+	{
+		Map.Entry<Long, byte[]> e;
+		while ((e = pending.firstEntry()) != null && e.getKey() <= nextSeq)
+		{
+			pending.pollFirstEntry();
+			if (e.getKey() == nextSeq)
+			{
+				++nextSeq;
+				byte[] d = e.getValue();
+				deliver(d, 0, d.length, System.nanoTime());
+			}
+		}
+	}
+
+	private void deliver(byte[] datagram, int offset, int length, long received)
+	{
+		PrushAction a;
+		try
+		{
+			a = decoder.read(new ByteArrayInputStream(datagram, offset + PrushDatagram.HEADER_LENGTH, length - PrushDatagram.HEADER_LENGTH));
+		}
+		catch (IOException e)
+		{
+			log.warn("[RuneMirrorGuest] Dropping malformed datagram from host session {}: {}", Long.toHexString(session), e.getMessage());
+			return;
+		}
+
+		if (a == null)
+		{
+			return;
+		}
+
+		// count from when the datagram arrived, not from when the decoder saw it
+		a.setReceiveNanos(received);
+		receiveToDecode.record(a.getDecodeNanos() - received);
+		handler.onAction(a);
+	}
+
+	private void closeNack()
+	{
+		Closeable s = nackSocket;
+		nackSocket = null;
+		nackIn = null;
+		nackOut = null;
+		if (s != null)
+		{
+			try
+			{
+				s.close();
+			}
+			catch (IOException ignored)
+			{
+			}
+		}
+	}
+}
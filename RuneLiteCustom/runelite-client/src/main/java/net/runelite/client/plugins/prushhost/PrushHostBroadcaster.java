@@ -1,104 +1,579 @@
 package net.runelite.client.plugins.prushhost;
 
-import java.io.BufferedWriter;
+import com.google.gson.Gson;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
 import java.net.InetSocketAddress;
-import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.client.plugins.prushsync.PrushAction;
+import net.runelite.client.plugins.prushsync.PrushActionEncoder;
+import net.runelite.client.plugins.prushsync.PrushHistogram;
+import net.runelite.client.plugins.prushsync.PrushMetrics;
+import net.runelite.client.plugins.prushsync.PrushProtocol;
+import net.runelite.client.plugins.prushsync.PrushSyncGson;
+import net.runelite.client.plugins.prushsync.PrushWireFormat;
 
+/**
+ * Fans actions out to every configured guest without blocking the caller.
+ * <p>
+ * Callers (usually the client thread) only encode an action once per wire format and offer it to each
+ * guest's bounded outbound queue. A single selector thread owns every {@link SocketChannel} and does all
+ * connecting, handshaking, heartbeating, writing and reconnecting. A guest whose queue overflows is dropped
+ * and reconnected later rather than being allowed to stall the host or the other guests.
+ */
 @Slf4j
-public class PrushHostBroadcaster
+public class PrushHostBroadcaster implements PrushHostTransport
 {
-	private final List<GuestConn> conns = new ArrayList<>();
+	private static final long SELECT_TIMEOUT_MS = 250;
+	private static final long RECONNECT_DELAY_MS = 2000;
+	private static final long HANDSHAKE_TIMEOUT_MS = 2000;
+
 	private final int connectTimeoutMs;
+	private final int queueCapacity;
+	private final PrushWireFormat format;
+	private final PrushMetrics metrics;
+	private final long sessionId = ThreadLocalRandom.current().nextLong();
+	// replaced rather than changed, so a loop only ever services the guests it was started with
+	private volatile List<GuestConn> conns = List.of();
+	private final ByteBuffer readBuffer = ByteBuffer.allocate(256);
+
+	// sessions which have completed the handshake but have not been picked up by broadcast() yet
+	private final Queue<GuestSession> joined = new ConcurrentLinkedQueue<>();
+	// owned by broadcast()
+	private final List<GuestSession> sessions = new ArrayList<>();
+	private final PrushActionEncoder encoder = new PrushActionEncoder();
+	private final Gson gson = PrushSyncGson.create();
+
+	// each loop runs until this is no longer its selector
+	private volatile Selector selector;
+	private Thread thread;
 
-	public PrushHostBroadcaster(int connectTimeoutMs)
+	public PrushHostBroadcaster(int connectTimeoutMs, int queueCapacity, PrushWireFormat format, PrushMetrics metrics)
 	{
 		this.connectTimeoutMs = connectTimeoutMs;
+		this.queueCapacity = Math.max(1, queueCapacity);
+		this.format = format;
+		this.metrics = metrics;
 	}
 
-	public void setTargets(List<InetSocketAddress> targets)
+	public synchronized void setTargets(List<InetSocketAddress> targets)
 	{
 		close();
+
+		final Selector sel;
+		try
+		{
+			sel = Selector.open();
+		}
+		catch (IOException e)
+		{
+			log.warn("[RuneMirrorHost] Unable to open selector: {}", e.getMessage());
+			return;
+		}
+
+		final List<GuestConn> targetConns = new ArrayList<>(targets.size());
 		for (InetSocketAddress addr : targets)
 		{
-			try
+			targetConns.add(new GuestConn(addr, metrics.nanos(PrushMetrics.HOST_WRITE + addr)));
+		}
+
+		conns = List.copyOf(targetConns);
+		selector = sel;
+		thread = new Thread(() -> runLoop(sel, targetConns), "RuneMirrorHostBroadcaster");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * @return how many guests have completed the handshake and are receiving actions
+	 */
+	public int getConnectedCount()
+	{
+		int n = 0;
+		for (GuestConn c : conns)
+		{
+			if (c.state == ConnState.CONNECTED)
+			{
+				++n;
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * Encode {@code action} and offer it to every guest which has completed the handshake. Never blocks
+	 * on the network; each wire format is encoded at most once and the resulting buffer is shared between
+	 * guests, each of which writes from its own duplicate.
+	 */
+	@Override
+	public synchronized void broadcast(PrushAction action)
+	{
+		final Selector sel = selector;
+		if (sel == null)
+		{
+			return;
+		}
+
+		GuestSession s;
+		while ((s = joined.poll()) != null)
+		{
+			sessions.add(s);
+			if (s.format == PrushWireFormat.BINARY)
+			{
+				// new readers have an empty string table
+				encoder.reset();
+			}
+		}
+
+		ByteBuffer binary = null;
+		ByteBuffer json = null;
+		boolean queued = false;
+		for (int i = sessions.size() - 1; i >= 0; --i)
+		{
+			s = sessions.get(i);
+			if (s.closed)
+			{
+				sessions.remove(i);
+				continue;
+			}
+
+			ByteBuffer frame;
+			if (s.format == PrushWireFormat.BINARY)
 			{
-				Socket s = new Socket();
-				s.connect(addr, connectTimeoutMs);
-				s.setTcpNoDelay(true);
-				BufferedWriter w = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8));
-				conns.add(new GuestConn(addr, s, w));
-				log.info("[RuneMirrorHost] Connected guest {}", addr);
+				if (binary == null)
+				{
+					binary = ByteBuffer.wrap(encoder.encode(action)).asReadOnlyBuffer();
+				}
+				frame = binary;
 			}
-			catch (IOException e)
+			else
 			{
-				log.warn("[RuneMirrorHost] Failed to connect guest {}: {}", addr, e.getMessage());
+				if (json == null)
+				{
+					json = ByteBuffer.wrap((gson.toJson(action) + '\n').getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+				}
+				frame = json;
 			}
+
+			if (!s.queue.offer(frame))
+			{
+				// The selector thread owns the channel, so just flag the guest and let it drop it.
+				s.overflowed = true;
+			}
+			queued = true;
+		}
+
+		if (queued)
+		{
+			sel.wakeup();
 		}
 	}
 
-	public void broadcastJson(String json)
+	@Override
+	public synchronized void close()
 	{
-		for (int i = conns.size() - 1; i >= 0; i--)
+		final Selector sel = selector;
+		selector = null;
+		if (sel != null)
 		{
-			GuestConn c = conns.get(i);
-			try
+			sel.wakeup();
+		}
+
+		if (thread != null)
+		{
+			// wait for the loop to close its channels, so no two loops ever write to one guest
+			boolean interrupted = false;
+			while (thread.isAlive())
 			{
-				c.writer.write(json);
-				c.writer.write('\n');
-				c.writer.flush();
+				try
+				{
+					thread.join();
+				}
+				catch (InterruptedException e)
+				{
+					interrupted = true;
+				}
 			}
-			catch (IOException e)
+			if (interrupted)
+			{
+				Thread.currentThread().interrupt();
+			}
+			thread = null;
+		}
+
+		conns = List.of();
+	}
+
+	private void runLoop(Selector sel, List<GuestConn> conns)
+	{
+		try
+		{
+			while (selector == sel)
+			{
+				long now = System.nanoTime();
+				for (GuestConn c : conns)
+				{
+					service(sel, c, now);
+				}
+
+				sel.select(SELECT_TIMEOUT_MS);
+
+				Iterator<SelectionKey> it = sel.selectedKeys().iterator();
+				while (it.hasNext())
+				{
+					SelectionKey key = it.next();
+					it.remove();
+
+					GuestConn c = (GuestConn) key.attachment();
+					if (!key.isValid())
+					{
+						continue;
+					}
+
+					if (key.isConnectable())
+					{
+						finishConnect(c, System.nanoTime());
+						continue;
+					}
+
+					if (key.isReadable())
+					{
+						read(c);
+					}
+
+					if (key.isValid() && key.isWritable())
+					{
+						flush(c);
+					}
+				}
+			}
+		}
+		catch (IOException | ClosedSelectorException e)
+		{
+			log.warn("[RuneMirrorHost] Broadcaster stopped: {}", e.getMessage());
+		}
+		finally
+		{
+			for (GuestConn c : conns)
 			{
-				log.warn("[RuneMirrorHost] Dropping guest {}: {}", c.addr, e.getMessage());
 				c.close();
-				conns.remove(i);
+			}
+
+			try
+			{
+				sel.close();
+			}
+			catch (IOException ignored)
+			{
 			}
 		}
 	}
 
-	public void broadcast(PrushAction action, String json)
+	private void service(Selector sel, GuestConn c, long now)
 	{
-		broadcastJson(json);
+		switch (c.state)
+		{
+			case DISCONNECTED:
+				if (now - c.deadlineNanos >= 0)
+				{
+					startConnect(sel, c, now);
+				}
+				break;
+			case CONNECTING:
+				if (now - c.deadlineNanos >= 0)
+				{
+					disconnect(c, "connect timed out");
+				}
+				break;
+			case HANDSHAKING:
+				if (now - c.deadlineNanos >= 0)
+				{
+					disconnect(c, "no handshake reply; is the guest running an older RuneMirror?");
+				}
+				break;
+			case CONNECTED:
+				if (c.session.overflowed)
+				{
+					disconnect(c, "outbound queue overflowed (" + queueCapacity + " pending)");
+				}
+				else if (c.current != null || !c.session.queue.isEmpty())
+				{
+					flush(c);
+				}
+				else if (now - c.lastWriteNanos >= TimeUnit.MILLISECONDS.toNanos(PrushProtocol.HEARTBEAT_INTERVAL_MS))
+				{
+					c.current = ByteBuffer.wrap(PrushProtocol.heartbeat(c.session.format));
+					flush(c);
+				}
+				break;
+		}
 	}
 
-	public void close()
+	private void startConnect(Selector sel, GuestConn c, long now)
 	{
-		for (GuestConn c : conns)
+		try
 		{
-			c.close();
+			SocketChannel ch = SocketChannel.open();
+			c.channel = ch;
+			ch.configureBlocking(false);
+			ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+			if (ch.connect(c.addr))
+			{
+				c.key = ch.register(sel, SelectionKey.OP_READ, c);
+				startHandshake(c, now);
+			}
+			else
+			{
+				c.key = ch.register(sel, SelectionKey.OP_CONNECT, c);
+				c.deadlineNanos = now + TimeUnit.MILLISECONDS.toNanos(connectTimeoutMs);
+				c.state = ConnState.CONNECTING;
+			}
+		}
+		catch (IOException e)
+		{
+			disconnect(c, e.getMessage());
+		}
+	}
+
+	private void finishConnect(GuestConn c, long now)
+	{
+		try
+		{
+			if (c.channel.finishConnect())
+			{
+				c.key.interestOps(SelectionKey.OP_READ);
+				startHandshake(c, now);
+			}
+		}
+		catch (IOException e)
+		{
+			disconnect(c, e.getMessage());
+		}
+	}
+
+	private void startHandshake(GuestConn c, long now)
+	{
+		c.state = ConnState.HANDSHAKING;
+		c.deadlineNanos = now + TimeUnit.MILLISECONDS.toNanos(HANDSHAKE_TIMEOUT_MS);
+		c.handshake.clear();
+		c.current = ByteBuffer.wrap(new PrushProtocol.Handshake(PrushProtocol.VERSION, format, sessionId).toBytes());
+		flush(c);
+	}
+
+	private void read(GuestConn c)
+	{
+		ByteBuffer dst = c.state == ConnState.HANDSHAKING ? c.handshake : readBuffer;
+		try
+		{
+			if (dst == readBuffer)
+			{
+				readBuffer.clear();
+			}
+
+			if (c.channel.read(dst) < 0)
+			{
+				disconnect(c, "closed by guest");
+				return;
+			}
+		}
+		catch (IOException e)
+		{
+			disconnect(c, e.getMessage());
+			return;
+		}
+
+		if (c.state == ConnState.HANDSHAKING)
+		{
+			readHandshake(c);
+		}
+	}
+
+	private void readHandshake(GuestConn c)
+	{
+		ByteBuffer buf = c.handshake;
+		int end = -1;
+		for (int i = 0; i < buf.position(); ++i)
+		{
+			if (buf.get(i) == '\n')
+			{
+				end = i;
+				break;
+			}
+		}
+
+		if (end < 0)
+		{
+			if (!buf.hasRemaining())
+			{
+				disconnect(c, "handshake reply too long");
+			}
+			return;
+		}
+
+		String line = new String(buf.array(), 0, end, StandardCharsets.US_ASCII);
+		PrushProtocol.Handshake reply = PrushProtocol.parseHandshake(line);
+		if (reply == null || reply.getVersion() != PrushProtocol.VERSION || reply.getSession() != sessionId)
+		{
+			disconnect(c, "incompatible guest handshake '" + line + "', expected version " + PrushProtocol.VERSION);
+			return;
+		}
+
+		GuestSession session = new GuestSession(reply.getFormat(), queueCapacity);
+		c.session = session;
+		c.state = ConnState.CONNECTED;
+		joined.add(session);
+		log.info("[RuneMirrorHost] Connected guest {} (format={})", c.addr, reply.getFormat());
+	}
+
+	/**
+	 * Write as much pending data as the socket will take, and only ask for OP_WRITE when the socket buffer
+	 * is full.
+	 */
+	private void flush(GuestConn c)
+	{
+		try
+		{
+			while (true)
+			{
+				ByteBuffer cur = c.current;
+				if (cur == null)
+				{
+					ByteBuffer next = c.session == null ? null : c.session.queue.poll();
+					if (next == null)
+					{
+						break;
+					}
+					cur = c.current = next.duplicate();
+				}
+
+				long start = System.nanoTime();
+				if (c.channel.write(cur) > 0)
+				{
+					c.lastWriteNanos = System.nanoTime();
+					c.writeTime.record(c.lastWriteNanos - start);
+				}
+				if (cur.hasRemaining())
+				{
+					c.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+					return;
+				}
+				c.current = null;
+			}
+
+			c.key.interestOps(SelectionKey.OP_READ);
+		}
+		catch (IOException e)
+		{
+			disconnect(c, e.getMessage());
 		}
-		conns.clear();
 	}
 
+	private void disconnect(GuestConn c, String reason)
+	{
+		if (c.state == ConnState.CONNECTED)
+		{
+			log.warn("[RuneMirrorHost] Dropping guest {}: {}", c.addr, reason);
+		}
+		else
+		{
+			// Guests which are not running yet would otherwise log every reconnect attempt.
+			log.debug("[RuneMirrorHost] Failed to connect guest {}: {}", c.addr, reason);
+		}
+		c.close();
+		c.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RECONNECT_DELAY_MS);
+	}
+
+	private enum ConnState
+	{
+		DISCONNECTED,
+		CONNECTING,
+		HANDSHAKING,
+		CONNECTED,
+	}
+
+	/**
+	 * One successfully handshaken connection. Shared between the selector thread and broadcast().
+	 */
+	private static class GuestSession
+	{
+		private final PrushWireFormat format;
+		private final ArrayBlockingQueue<ByteBuffer> queue;
+		private volatile boolean overflowed;
+		private volatile boolean closed;
+
+		private GuestSession(PrushWireFormat format, int queueCapacity)
+		{
+			this.format = format;
+			this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		}
+	}
+
+	/**
+	 * A configured guest endpoint. Owned by the selector thread.
+	 */
 	private static class GuestConn
 	{
 		private final InetSocketAddress addr;
-		private final Socket socket;
-		private final BufferedWriter writer;
+		private final PrushHistogram writeTime;
+		private final ByteBuffer handshake = ByteBuffer.allocate(PrushProtocol.MAX_HANDSHAKE_LENGTH);
+
+		// written by the selector thread, read by getConnectedCount()
+		private volatile ConnState state = ConnState.DISCONNECTED;
+		private GuestSession session;
+		private SocketChannel channel;
+		private SelectionKey key;
+		private ByteBuffer current;
+		private long lastWriteNanos;
+		// connect/handshake timeout, or the next connect attempt while disconnected
+		private long deadlineNanos = System.nanoTime();
 
-		private GuestConn(InetSocketAddress addr, Socket socket, BufferedWriter writer)
+		private GuestConn(InetSocketAddress addr, PrushHistogram writeTime)
 		{
 			this.addr = addr;
-			this.socket = socket;
-			this.writer = writer;
+			this.writeTime = writeTime;
 		}
 
 		private void close()
 		{
-			try
+			state = ConnState.DISCONNECTED;
+			if (session != null)
 			{
-				socket.close();
+				session.closed = true;
+				session.queue.clear();
+				session = null;
 			}
-			catch (IOException ignored)
+			if (key != null)
+			{
+				key.cancel();
+				key = null;
+			}
+			if (channel != null)
 			{
+				try
+				{
+					channel.close();
+				}
+				catch (IOException ignored)
+				{
+				}
+				channel = null;
 			}
+			current = null;
 		}
 	}
 }
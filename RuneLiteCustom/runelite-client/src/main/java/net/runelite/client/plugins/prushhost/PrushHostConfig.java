@@ -3,6 +3,7 @@ package net.runelite.client.plugins.prushhost;
 import net.runelite.client.config.Config;
 import net.runelite.client.config.ConfigGroup;
 import net.runelite.client.config.ConfigItem;
+import net.runelite.client.plugins.prushsync.PrushWireFormat;
 
 @ConfigGroup("runemirrorhost")
 public interface PrushHostConfig extends Config
@@ -36,4 +37,84 @@ public interface PrushHostConfig extends Config
 	{
 		return 200;
 	}
+
+	@ConfigItem(
+		keyName = "guestQueueSize",
+		name = "Guest queue size",
+		description = "Maximum number of actions buffered per guest. A guest that falls further behind is dropped and reconnected"
+	)
+	default int guestQueueSize()
+	{
+		return 128;
+	}
+
+	@ConfigItem(
+		keyName = "wireFormat",
+		name = "Wire format",
+		description = "Encoding used to send actions to guests. JSON is larger and slower, but human readable for debugging"
+	)
+	default PrushWireFormat wireFormat()
+	{
+		return PrushWireFormat.BINARY;
+	}
+
+	@ConfigItem(
+		keyName = "udpTarget",
+		name = "UDP target",
+		description = "Also send every action once over UDP to this multicast group, broadcast address or host:port (example: 239.255.77.77:46100). Guests listening there should not also be listed as guest targets. Empty to disable"
+	)
+	default String udpTarget()
+	{
+		return "";
+	}
+
+	@ConfigItem(
+		keyName = "udpNackPort",
+		name = "UDP retransmit port",
+		description = "TCP port on which guests request UDP datagrams they missed"
+	)
+	default int udpNackPort()
+	{
+		return 46100;
+	}
+
+	@ConfigItem(
+		keyName = "sharedMemory",
+		name = "Shared memory",
+		description = "Also write every action to a shared memory file, read by guests on this machine without going through the network. Guests reading it should not also be listed as guest targets"
+	)
+	default boolean sharedMemory()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "journal",
+		name = "Record journal",
+		description = "Record every action to a journal in .runelite/runemirror/journals, which PrushJournalReplay can stream to guests later"
+	)
+	default boolean journal()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "showMetrics",
+		name = "Show metrics",
+		description = "Show an overlay with the latency percentiles of each RuneMirror stage"
+	)
+	default boolean showMetrics()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "dumpMetrics",
+		name = "Dump metrics",
+		description = "Write the latency percentiles of each RuneMirror stage to .runelite/runemirror/host-metrics.txt every 30 seconds"
+	)
+	default boolean dumpMetrics()
+	{
+		return false;
+	}
 }
@@ -1,11 +1,16 @@
 package net.runelite.client.plugins.prushhost;
 
-import com.google.gson.Gson;
 import com.google.inject.Provides;
 import java.awt.event.KeyEvent;
+import java.io.File;
+import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
@@ -14,17 +19,32 @@ import net.runelite.api.MenuAction;
 import net.runelite.api.MenuEntry;
 import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
 import net.runelite.api.events.MenuOptionClicked;
+import net.runelite.api.events.WidgetClosed;
+import net.runelite.api.events.WidgetLoaded;
 import net.runelite.client.callback.ClientThread;
+import net.runelite.client.RuneLite;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.input.KeyListener;
 import net.runelite.client.input.KeyManager;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.plugins.prushsync.PrushAction;
 import net.runelite.client.plugins.prushsync.PrushActionType;
-import net.runelite.client.plugins.prushsync.PrushSyncGson;
+import net.runelite.client.plugins.prushsync.PrushHistogram;
+import net.runelite.client.plugins.prushsync.PrushJournal;
+import net.runelite.client.plugins.prushsync.PrushMetrics;
+import net.runelite.client.plugins.prushsync.PrushMetricsOverlay;
+import net.runelite.client.plugins.prushsync.PrushProtocol;
+import net.runelite.client.plugins.prushsync.PrushRing;
+import net.runelite.client.plugins.prushsync.PrushStateCache;
+import net.runelite.client.plugins.prushsync.PrushStateFingerprint;
+import net.runelite.client.task.Schedule;
+import net.runelite.client.ui.overlay.OverlayManager;
 
 @Slf4j
 @PluginDescriptor(
@@ -35,7 +55,9 @@ import net.runelite.client.plugins.prushsync.PrushSyncGson;
 )
 public class PrushHostPlugin extends Plugin
 {
-	private static final int PROTOCOL_VERSION = 1;
+	private static final File METRICS_FILE = new File(new File(RuneLite.RUNELITE_DIR, "runemirror"), "host-metrics.txt");
+	private static final File JOURNAL_DIR = new File(new File(RuneLite.RUNELITE_DIR, "runemirror"), "journals");
+	private static final DateTimeFormatter JOURNAL_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
 
 	@Inject
 	private Client client;
@@ -49,8 +71,15 @@ public class PrushHostPlugin extends Plugin
 	@Inject
 	private KeyManager keyManager;
 
+	@Inject
+	private OverlayManager overlayManager;
+
 	private final AtomicLong seq = new AtomicLong(0);
-	private Gson gson;
+	private final PrushMetrics metrics = new PrushMetrics();
+	private final PrushHistogram captureToBroadcast = metrics.nanos(PrushMetrics.HOST_CAPTURE_TO_BROADCAST);
+	private final PrushMetricsOverlay metricsOverlay = new PrushMetricsOverlay(this, "RuneMirror Host", metrics);
+	private final List<PrushHostTransport> transports = new CopyOnWriteArrayList<>();
+	private final PrushStateCache stateCache = new PrushStateCache();
 	private PrushHostBroadcaster broadcaster;
 	private final KeyListener keyListener = new KeyListener()
 	{
@@ -73,15 +102,14 @@ public class PrushHostPlugin extends Plugin
 				// Only mirror bare spacebar presses for now.
 				return;
 			}
-			PrushAction a = new PrushAction();
-			a.setV(PROTOCOL_VERSION);
-			a.setSeq(seq.incrementAndGet());
-			a.setTick(client.getTickCount());
-			a.setType(PrushActionType.DIALOG_CONTINUE);
+			// Key events arrive on the AWT thread, so use the state as of the last client thread capture.
+			PrushAction a = newAction(PrushActionType.DIALOG_CONTINUE, System.nanoTime(), stateCache.peek());
 
-			String json = gson.toJson(a);
-			log.info("[RuneMirrorHost] Sending DIALOG_CONTINUE action: {}", a);
-			broadcaster.broadcast(a, json);
+			if (log.isDebugEnabled() && PrushMetrics.sampled(a.getSeq()))
+			{
+				log.debug("[RuneMirrorHost] Sending DIALOG_CONTINUE action: {}", a);
+			}
+			broadcast(a);
 		}
 
 		@Override
@@ -93,13 +121,20 @@ public class PrushHostPlugin extends Plugin
 	@Override
 	protected void startUp()
 	{
-		gson = PrushSyncGson.create();
-		broadcaster = new PrushHostBroadcaster(config.connectTimeoutMs());
+		broadcaster = new PrushHostBroadcaster(config.connectTimeoutMs(), config.guestQueueSize(), config.wireFormat(), metrics);
 		reloadTargets();
+		transports.add(broadcaster);
+		startUdp();
+		startRing();
+		startJournal();
 		if (keyManager != null)
 		{
 			keyManager.registerKeyListener(keyListener);
 		}
+		if (config.showMetrics())
+		{
+			overlayManager.add(metricsOverlay);
+		}
 		log.info("[RuneMirrorHost] Started (client={})", client != null ? client.hashCode() : "null");
 	}
 
@@ -110,11 +145,15 @@ public class PrushHostPlugin extends Plugin
 		{
 			keyManager.unregisterKeyListener(keyListener);
 		}
-		if (broadcaster != null)
+		for (PrushHostTransport t : transports)
 		{
-			broadcaster.close();
-			broadcaster = null;
+			t.close();
 		}
+		transports.clear();
+		broadcaster = null;
+		overlayManager.remove(metricsOverlay);
+		metrics.reset();
+		stateCache.clear();
 		log.info("[RuneMirrorHost] Stopped");
 	}
 
@@ -138,35 +177,168 @@ public class PrushHostPlugin extends Plugin
 					continue;
 				}
 
-				int idx = s.lastIndexOf(':');
-				if (idx <= 0 || idx >= s.length() - 1)
+				InetSocketAddress addr = PrushProtocol.parseAddress(s);
+				if (addr == null)
 				{
 					log.warn("[RuneMirrorHost] Invalid guest target '{}'. Expected host:port", s);
 					continue;
 				}
 
-				String host = s.substring(0, idx);
-				int port;
-				try
-				{
-					port = Integer.parseInt(s.substring(idx + 1));
-				}
-				catch (NumberFormatException e)
-				{
-					log.warn("[RuneMirrorHost] Invalid port in guest target '{}'", s);
-					continue;
-				}
-
-				targets.add(new InetSocketAddress(host, port));
+				targets.add(addr);
 			}
 		}
 
 		broadcaster.setTargets(targets);
 	}
 
+	private void startUdp()
+	{
+		String raw = config.udpTarget();
+		if (raw == null || raw.trim().isEmpty())
+		{
+			return;
+		}
+
+		InetSocketAddress target = PrushProtocol.parseAddress(raw);
+		if (target == null || target.isUnresolved())
+		{
+			log.warn("[RuneMirrorHost] Invalid UDP target '{}'. Expected host:port", raw);
+			return;
+		}
+
+		PrushUdpSender sender = new PrushUdpSender(target, config.udpNackPort(), metrics);
+		try
+		{
+			sender.start();
+		}
+		catch (IOException e)
+		{
+			log.warn("[RuneMirrorHost] Unable to send UDP to {}: {}", target, e.getMessage());
+			return;
+		}
+		transports.add(sender);
+	}
+
+	private void startRing()
+	{
+		if (!config.sharedMemory())
+		{
+			return;
+		}
+
+		PrushRingWriter writer = new PrushRingWriter(PrushRing.defaultFile(), PrushRing.DEFAULT_CAPACITY, metrics);
+		try
+		{
+			writer.start();
+		}
+		catch (IOException e)
+		{
+			log.warn("[RuneMirrorHost] Unable to write shared memory {}: {}", PrushRing.defaultFile(), e.getMessage());
+			return;
+		}
+		transports.add(writer);
+	}
+
+	private void startJournal()
+	{
+		if (!config.journal())
+		{
+			return;
+		}
+
+		File file = new File(JOURNAL_DIR, LocalDateTime.now().format(JOURNAL_NAME) + PrushJournal.EXTENSION);
+		PrushJournalWriter writer = new PrushJournalWriter(file);
+		try
+		{
+			writer.start();
+		}
+		catch (IOException e)
+		{
+			log.warn("[RuneMirrorHost] Unable to record journal {}: {}", file, e.getMessage());
+			return;
+		}
+		transports.add(writer);
+	}
+
+	private void broadcast(PrushAction a)
+	{
+		for (PrushHostTransport t : transports)
+		{
+			t.broadcast(a);
+		}
+		captureToBroadcast.recordSince(a.getCaptureNanos());
+	}
+
+	@Subscribe
+	public void onConfigChanged(ConfigChanged event)
+	{
+		if (event.getGroup().equals("runemirrorhost") && event.getKey().equals("showMetrics"))
+		{
+			if (config.showMetrics())
+			{
+				overlayManager.add(metricsOverlay);
+			}
+			else
+			{
+				overlayManager.remove(metricsOverlay);
+			}
+		}
+	}
+
+	@Subscribe
+	public void onGameTick(GameTick event)
+	{
+		// Recapture eagerly, so key presses, which cannot capture it themselves, see at most a tick old state.
+		stateCache.invalidate();
+		stateCache.get(client);
+	}
+
+	@Subscribe
+	public void onGameStateChanged(GameStateChanged event)
+	{
+		stateCache.invalidate();
+	}
+
+	@Subscribe
+	public void onWidgetLoaded(WidgetLoaded event)
+	{
+		stateCache.invalidate();
+		stateCache.get(client);
+	}
+
+	@Subscribe
+	public void onWidgetClosed(WidgetClosed event)
+	{
+		// posted before the interface is removed, so the next capture sees it gone
+		stateCache.invalidate();
+	}
+
+	@Schedule(
+		period = 30,
+		unit = ChronoUnit.SECONDS,
+		asynchronous = true
+	)
+	public void dumpMetrics()
+	{
+		if (!config.dumpMetrics())
+		{
+			return;
+		}
+
+		try
+		{
+			metrics.dump(METRICS_FILE);
+		}
+		catch (IOException e)
+		{
+			log.warn("[RuneMirrorHost] Unable to write {}: {}", METRICS_FILE, e.getMessage());
+		}
+	}
+
 	@Subscribe
 	public void onMenuOptionClicked(MenuOptionClicked event)
 	{
+		long captured = System.nanoTime();
 		if (!config.enabled())
 		{
 			log.debug("[RuneMirrorHost] Ignoring MenuOptionClicked because host config is disabled");
@@ -185,7 +357,11 @@ public class PrushHostPlugin extends Plugin
 			return;
 		}
 
-		// Special-case walking: mirror relative step from the local player instead of raw scene coords.
+		// The state the click was made in, before it takes effect.
+		PrushStateFingerprint state = stateCache.get(client);
+
+		// Special-case walking: send the scene click together with its world destination, so guests whose
+		// scene does not line up with the host's can walk relative to their own player instead.
 		if (actionType == MenuAction.WALK)
 		{
 			try
@@ -209,7 +385,7 @@ public class PrushHostPlugin extends Plugin
 				if (destLocal == null)
 				{
 					// Local destination is sometimes set a tick after the MenuOptionClicked event.
-					// Defer building and sending the WALK_WORLD action to the client thread's next tick,
+					// Defer building and sending the WALK action to the client thread's next tick,
 					// which increases reliability and avoids incorrect fallback scene->world conversion.
 					clientThread.invokeLater(() -> {
 						try
@@ -219,55 +395,13 @@ public class PrushHostPlugin extends Plugin
 							{
 								// As a last resort, compute destination relative to the player's local position
 								// to avoid using the top-level WorldView which can produce distant world coords.
-								int sceneX = me.getParam0();
-								int sceneY = me.getParam1();
-								net.runelite.api.coords.LocalPoint playerLocal = client.getLocalPlayer().getLocalLocation();
-								int playerSceneX = playerLocal.getSceneX();
-								int playerSceneY = playerLocal.getSceneY();
-								int dx = sceneX - playerSceneX;
-								int dy = sceneY - playerSceneY;
+								LocalPoint playerLocal = client.getLocalPlayer().getLocalLocation();
+								int dx = me.getParam0() - playerLocal.getSceneX();
+								int dy = me.getParam1() - playerLocal.getSceneY();
 								WorldPoint fallback = new WorldPoint(playerWp.getX() + dx, playerWp.getY() + dy, playerWp.getPlane());
-								log.info("[RuneMirrorHost] WALK (delayed fallback): Using scene coords ({}, {}) relative dx={} dy={} -> world {} (player world={},{},{})",
-									sceneX, sceneY, dx, dy, fallback, playerWp.getX(), playerWp.getY(), playerWp.getPlane());
-								// Replay the original WALK menu action first so guests can set local destination/view
-								PrushAction menuA = new PrushAction();
-								menuA.setV(PROTOCOL_VERSION);
-								menuA.setSeq(seq.incrementAndGet());
-								menuA.setTick(client.getTickCount());
-								menuA.setType(PrushActionType.MENU_ACTION);
-								menuA.setParam0(me.getParam0());
-								menuA.setParam1(me.getParam1());
-								menuA.setOpcode(MenuAction.WALK.getId());
-								menuA.setIdentifier(me.getIdentifier());
-								menuA.setItemId(me.getItemId());
-								menuA.setOption(me.getOption());
-								menuA.setTarget(me.getTarget());
-								// Attach host worldview + player world for accurate guest reconstruction
-								if (client.getTopLevelWorldView() != null)
-								{
-									menuA.setHostBaseX(client.getTopLevelWorldView().getBaseX());
-									menuA.setHostBaseY(client.getTopLevelWorldView().getBaseY());
-								}
-								menuA.setHostPlayerWorldX(playerWp.getX());
-								menuA.setHostPlayerWorldY(playerWp.getY());
-								menuA.setHostPlayerWorldPlane(playerWp.getPlane());
-								// host player's scene coordinates
-								net.runelite.api.coords.LocalPoint pl = client.getLocalPlayer().getLocalLocation();
-								if (pl != null)
-								{
-									menuA.setHostPlayerSceneX(pl.getSceneX());
-									menuA.setHostPlayerSceneY(pl.getSceneY());
-								}
-								broadcaster.broadcast(menuA, gson.toJson(menuA));
-								// Also send WALK_WORLD fallback so guests can convert absolute world coords when MENU_ACTION fails
-								try
-								{
-									sendWalkAction(playerWp, fallback);
-								}
-								catch (Exception e)
-								{
-									log.warn("[RuneMirrorHost] Failed to send WALK_WORLD fallback: {}", e.getMessage(), e);
-								}
+								log.debug("[RuneMirrorHost] WALK (delayed fallback): Using scene coords ({}, {}) relative dx={} dy={} -> world {}",
+									me.getParam0(), me.getParam1(), dx, dy, fallback);
+								sendWalk(me, playerWp, fallback, captured, state);
 								return;
 							}
 
@@ -278,41 +412,11 @@ public class PrushHostPlugin extends Plugin
 								return;
 							}
 
-							// Replay the original WALK menu action first so guests can set local destination/view
-							PrushAction menuADel = new PrushAction();
-							menuADel.setV(PROTOCOL_VERSION);
-							menuADel.setSeq(seq.incrementAndGet());
-							menuADel.setTick(client.getTickCount());
-							menuADel.setType(PrushActionType.MENU_ACTION);
-							menuADel.setParam0(me.getParam0());
-							menuADel.setParam1(me.getParam1());
-							menuADel.setOpcode(MenuAction.WALK.getId());
-							menuADel.setIdentifier(me.getIdentifier());
-							menuADel.setItemId(me.getItemId());
-							menuADel.setOption(me.getOption());
-							menuADel.setTarget(me.getTarget());
-							if (client.getTopLevelWorldView() != null)
-							{
-								menuADel.setHostBaseX(client.getTopLevelWorldView().getBaseX());
-								menuADel.setHostBaseY(client.getTopLevelWorldView().getBaseY());
-							}
-							menuADel.setHostPlayerWorldX(playerWp.getX());
-							menuADel.setHostPlayerWorldY(playerWp.getY());
-							menuADel.setHostPlayerWorldPlane(playerWp.getPlane());
-							net.runelite.api.coords.LocalPoint pld = client.getLocalPlayer().getLocalLocation();
-							if (pld != null)
-							{
-								menuADel.setHostPlayerSceneX(pld.getSceneX());
-								menuADel.setHostPlayerSceneY(pld.getSceneY());
-							}
-							broadcaster.broadcast(menuADel, gson.toJson(menuADel));
-							// Also send a reliable absolute world destination so guests can fall back
-							// to world-based conversion if the MENU_ACTION doesn't set a local destination.
-							sendWalkAction(playerWp, destWpDelayed);
+							sendWalk(me, playerWp, destWpDelayed, captured, state);
 						}
 						catch (Exception e)
 						{
-							log.warn("[RuneMirrorHost] Failed to build delayed WALK_WORLD action: {}", e.getMessage(), e);
+							log.warn("[RuneMirrorHost] Failed to build delayed WALK action: {}", e.getMessage(), e);
 						}
 					});
 
@@ -327,54 +431,16 @@ public class PrushHostPlugin extends Plugin
 					return;
 				}
 
-				int dx = destWp.getX() - playerWp.getX();
-				int dy = destWp.getY() - playerWp.getY();
-
-				log.info("[RuneMirrorHost] Mirroring WALK as relative step dx={} dy={} from player world=({}, {}, {}) to dest world=({}, {}, {})",
-					dx, dy, playerWp.getX(), playerWp.getY(), playerWp.getPlane(), destWp.getX(), destWp.getY(), destWp.getPlane());
-
-				// Broadcast only the original WALK menu action so guests execute the client-native walk logic
-				PrushAction menuAImmediate = new PrushAction();
-				menuAImmediate.setV(PROTOCOL_VERSION);
-				menuAImmediate.setSeq(seq.incrementAndGet());
-				menuAImmediate.setTick(client.getTickCount());
-				menuAImmediate.setType(PrushActionType.MENU_ACTION);
-				menuAImmediate.setParam0(me.getParam0());
-				menuAImmediate.setParam1(me.getParam1());
-				menuAImmediate.setOpcode(MenuAction.WALK.getId());
-				menuAImmediate.setIdentifier(me.getIdentifier());
-				menuAImmediate.setItemId(me.getItemId());
-				menuAImmediate.setOption(me.getOption());
-				menuAImmediate.setTarget(me.getTarget());
-				if (client.getTopLevelWorldView() != null)
-				{
-					menuAImmediate.setHostBaseX(client.getTopLevelWorldView().getBaseX());
-					menuAImmediate.setHostBaseY(client.getTopLevelWorldView().getBaseY());
-				}
-				menuAImmediate.setHostPlayerWorldX(playerWp.getX());
-				menuAImmediate.setHostPlayerWorldY(playerWp.getY());
-				menuAImmediate.setHostPlayerWorldPlane(playerWp.getPlane());
-				net.runelite.api.coords.LocalPoint plimm = client.getLocalPlayer().getLocalLocation();
-				if (plimm != null)
-				{
-					menuAImmediate.setHostPlayerSceneX(plimm.getSceneX());
-					menuAImmediate.setHostPlayerSceneY(plimm.getSceneY());
-				}
-				broadcaster.broadcast(menuAImmediate, gson.toJson(menuAImmediate));
-				// Also send world destination so guests that fail to set local destination can use it.
-				sendWalkAction(playerWp, destWp);
+				sendWalk(me, playerWp, destWp, captured, state);
 			}
 			catch (Exception e)
 			{
-				log.warn("[RuneMirrorHost] Failed to build WALK_WORLD action: {}", e.getMessage(), e);
+				log.warn("[RuneMirrorHost] Failed to build WALK action: {}", e.getMessage(), e);
 			}
 
 			return;
 		}
 
-		log.info("[RuneMirrorHost] Mirroring MENU_ACTION type={} p0={} p1={} id={} itemId={} opt='{}' tgt='{}'",
-			actionType, me.getParam0(), me.getParam1(), me.getIdentifier(), me.getItemId(), me.getOption(), me.getTarget());
-
 		// Do not mirror RuneLite injected actions.
 		if (actionType == MenuAction.RUNELITE || actionType == MenuAction.RUNELITE_OVERLAY || actionType == MenuAction.RUNELITE_OVERLAY_CONFIG
 			|| actionType == MenuAction.RUNELITE_HIGH_PRIORITY || actionType == MenuAction.RUNELITE_LOW_PRIORITY)
@@ -382,18 +448,13 @@ public class PrushHostPlugin extends Plugin
 			return;
 		}
 
-		PrushAction a = new PrushAction();
-		a.setV(PROTOCOL_VERSION);
-		a.setSeq(seq.incrementAndGet());
-		a.setTick(client.getTickCount());
-		a.setType(PrushActionType.MENU_ACTION);
-		a.setParam0(me.getParam0());
-		a.setParam1(me.getParam1());
-		a.setOpcode(actionType.getId());
-		a.setIdentifier(me.getIdentifier());
-		a.setItemId(me.getItemId());
-		a.setOption(me.getOption());
-		a.setTarget(me.getTarget());
+		PrushAction a = newAction(PrushActionType.MENU_ACTION, captured, state);
+		copyMenuEntry(a, me, actionType);
+		if (log.isDebugEnabled() && PrushMetrics.sampled(a.getSeq()))
+		{
+			log.debug("[RuneMirrorHost] Mirroring MENU_ACTION type={} p0={} p1={} id={} itemId={} opt='{}' tgt='{}'",
+				actionType, me.getParam0(), me.getParam1(), me.getIdentifier(), me.getItemId(), me.getOption(), me.getTarget());
+		}
 
 		if (client.getTopLevelWorldView() != null)
 		{
@@ -408,8 +469,7 @@ public class PrushHostPlugin extends Plugin
 			a.setHostPlayerWorldPlane(pw.getPlane());
 		}
 
-		String json = gson.toJson(a);
-		broadcaster.broadcast(a, json);
+		broadcast(a);
 	}
 
 	@Provides
@@ -418,16 +478,43 @@ public class PrushHostPlugin extends Plugin
 		return configManager.getConfig(PrushHostConfig.class);
 	}
 
-	private void sendWalkAction(net.runelite.api.coords.WorldPoint playerWp, net.runelite.api.coords.WorldPoint destWp)
+	private PrushAction newAction(PrushActionType type, long capturedNanos, PrushStateFingerprint state)
 	{
-		int dx = destWp.getX() - playerWp.getX();
-		int dy = destWp.getY() - playerWp.getY();
-
 		PrushAction a = new PrushAction();
-		a.setV(PROTOCOL_VERSION);
+		if (state != null)
+		{
+			state.stamp(a);
+		}
+		a.setCaptureNanos(capturedNanos);
+		a.setV(PrushProtocol.VERSION);
 		a.setSeq(seq.incrementAndGet());
 		a.setTick(client.getTickCount());
-		a.setType(PrushActionType.WALK_WORLD);
+		a.setType(type);
+		return a;
+	}
+
+	private static void copyMenuEntry(PrushAction a, MenuEntry me, MenuAction type)
+	{
+		a.setParam0(me.getParam0());
+		a.setParam1(me.getParam1());
+		a.setOpcode(type.getId());
+		a.setIdentifier(me.getIdentifier());
+		a.setItemId(me.getItemId());
+		a.setOption(me.getOption());
+		a.setTarget(me.getTarget());
+	}
+
+	/**
+	 * Broadcast a walk click as a single {@link PrushActionType#WALK}, holding both the original scene click
+	 * and the world destination it resolved to.
+	 */
+	private void sendWalk(MenuEntry me, WorldPoint playerWp, WorldPoint destWp, long capturedNanos, PrushStateFingerprint state)
+	{
+		int dx = destWp.getX() - playerWp.getX();
+		int dy = destWp.getY() - playerWp.getY();
+
+		PrushAction a = newAction(PrushActionType.WALK, capturedNanos, state);
+		copyMenuEntry(a, me, MenuAction.WALK);
 		// Send absolute world destination coordinates to the guest.
 		a.setWorldX(destWp.getX());
 		a.setWorldY(destWp.getY());
@@ -445,18 +532,19 @@ public class PrushHostPlugin extends Plugin
 		a.setHostPlayerWorldX(playerWp.getX());
 		a.setHostPlayerWorldY(playerWp.getY());
 		a.setHostPlayerWorldPlane(playerWp.getPlane());
-		net.runelite.api.coords.LocalPoint pl = client.getLocalPlayer().getLocalLocation();
+		LocalPoint pl = client.getLocalPlayer().getLocalLocation();
 		if (pl != null)
 		{
 			a.setHostPlayerSceneX(pl.getSceneX());
 			a.setHostPlayerSceneY(pl.getSceneY());
 		}
 
-		log.info("[RuneMirrorHost] Mirroring WALK as relative step dx={} dy={} from player world=({}, {}, {}) to dest world=({}, {}, {})",
-			dx, dy, playerWp.getX(), playerWp.getY(), playerWp.getPlane(), destWp.getX(), destWp.getY(), destWp.getPlane());
-
-		String json = gson.toJson(a);
-		broadcaster.broadcast(a, json);
+		if (log.isDebugEnabled() && PrushMetrics.sampled(a.getSeq()))
+		{
+			log.debug("[RuneMirrorHost] Mirroring WALK as relative step dx={} dy={} from player world=({}, {}, {}) to dest world=({}, {}, {})",
+				dx, dy, playerWp.getX(), playerWp.getY(), playerWp.getPlane(), destWp.getX(), destWp.getY(), destWp.getPlane());
+		}
 
+		broadcast(a);
 	}
 }
@@ -0,0 +1,17 @@
+package net.runelite.client.plugins.prushhost;
+
+import net.runelite.client.plugins.prushsync.PrushAction;
+
+/**
+ * A way of getting actions from the host to its guests.
+ */
+public interface PrushHostTransport
+{
+	/**
+	 * Send {@code action} to every guest reachable through this transport. Called from the client thread, so
+	 * implementations must not block on the network.
+	 */
+	void broadcast(PrushAction action);
+
+	void close();
+}
@@ -0,0 +1,113 @@
+package net.runelite.client.plugins.prushhost;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import net.runelite.client.plugins.prushsync.PrushAction;
+import net.runelite.client.plugins.prushsync.PrushHistogram;
+import net.runelite.client.plugins.prushsync.PrushJournalReader;
+import net.runelite.client.plugins.prushsync.PrushMetrics;
+import net.runelite.client.plugins.prushsync.PrushProtocol;
+import net.runelite.client.plugins.prushsync.PrushWireFormat;
+
+/**
+ * Streams a recorded journal to any number of guests, as a host would have sent it, to load test guests
+ * without a host client:
+ * <pre>
+ *   java -cp client-shaded.jar net.runelite.client.plugins.prushhost.PrushJournalReplay \
+ *       journal.rmj 127.0.0.1:46001,127.0.0.1:46002 [speed]
+ * </pre>
+ * {@code speed} is 1 for the recorded pace (the default), 4 for four times as fast, or 0 to send every action
+ * as fast as the guests take them.
+ */
+public class PrushJournalReplay
+{
+	private static final long CONNECT_WAIT_MS = 10_000;
+	private static final long DRAIN_WAIT_MS = 1_000;
+	// deep enough that an unpaced replay does not overflow a guest that is keeping up
+	private static final int QUEUE_CAPACITY = 1 << 16;
+
+	public static void main(String[] args) throws IOException, InterruptedException
+	{
+		if (args.length < 2 || args.length > 3)
+		{
+			System.err.println("usage: PrushJournalReplay <journal> <host:port,...> [speed]");
+			System.exit(1);
+		}
+
+		File journal = new File(args[0]);
+		List<InetSocketAddress> targets = new ArrayList<>();
+		for (String s : args[1].split(","))
+		{
+			InetSocketAddress addr = PrushProtocol.parseAddress(s);
+			if (addr == null)
+			{
+				System.err.println("invalid guest '" + s + "', expected host:port");
+				System.exit(1);
+			}
+			targets.add(addr);
+		}
+		double speed = args.length > 2 ? Double.parseDouble(args[2]) : 1;
+
+		PrushMetrics metrics = new PrushMetrics();
+		PrushHostBroadcaster broadcaster = new PrushHostBroadcaster(1000, QUEUE_CAPACITY, PrushWireFormat.BINARY, metrics);
+		broadcaster.setTargets(targets);
+		try
+		{
+			long deadline = System.currentTimeMillis() + CONNECT_WAIT_MS;
+			while (broadcaster.getConnectedCount() < targets.size() && System.currentTimeMillis() < deadline)
+			{
+				Thread.sleep(50);
+			}
+			System.out.println("Replaying " + journal + " to " + broadcaster.getConnectedCount() + " of " + targets.size()
+				+ " guests at " + (speed > 0 ? speed + "x" : "full speed"));
+
+			replay(journal, broadcaster, speed);
+			Thread.sleep(DRAIN_WAIT_MS);
+		}
+		finally
+		{
+			broadcaster.close();
+		}
+
+		for (PrushHistogram h : metrics.getHistograms())
+		{
+			System.out.println(h.getName() + ": " + h.snapshot());
+		}
+	}
+
+	private static void replay(File journal, PrushHostTransport transport, double speed) throws IOException
+	{
+		int count = 0;
+		long start = System.nanoTime();
+		try (PrushJournalReader reader = new PrushJournalReader(new FileInputStream(journal)))
+		{
+			PrushJournalReader.Entry e;
+			while ((e = reader.read()) != null)
+			{
+				if (speed > 0)
+				{
+					long due = start + (long) (e.getOffsetNanos() / speed);
+					long wait;
+					while ((wait = due - System.nanoTime()) > 0)
+					{
+						LockSupport.parkNanos(wait);
+					}
+				}
+
+				PrushAction a = e.getAction();
+				a.setCaptureNanos(System.nanoTime());
+				transport.broadcast(a);
+				++count;
+			}
+		}
+
+		long elapsed = System.nanoTime() - start;
+		System.out.printf("Sent %d actions in %.1fs (%.0f actions/s)%n", count, elapsed / 1e9,
+			count / Math.max(elapsed / 1e9, 1e-9));
+	}
+}
@@ -0,0 +1,114 @@
+package net.runelite.client.plugins.prushhost;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.plugins.prushsync.PrushAction;
+import net.runelite.client.plugins.prushsync.PrushActionEncoder;
+import net.runelite.client.plugins.prushsync.PrushJournal;
+import net.runelite.client.plugins.prushsync.PrushProtocol;
+
+/**
+ * Records every action the host sends to a journal file, see {@link PrushJournal}. Writes are buffered and
+ * flushed at most once a second, so recording costs the client thread no more than an encode.
+ */
+@Slf4j
+public class PrushJournalWriter implements PrushHostTransport
+{
+	private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private final File file;
+	private final PrushActionEncoder encoder = new PrushActionEncoder();
+
+	// guarded by this
+	private DataOutputStream out;
+	private long startNanos;
+	private long lastFlushNanos;
+	private int count;
+
+	public PrushJournalWriter(File file)
+	{
+		this.file = file;
+	}
+
+	public synchronized void start() throws IOException
+	{
+		File dir = file.getParentFile();
+		if (dir != null && !dir.isDirectory() && !dir.mkdirs())
+		{
+			throw new IOException("unable to create " + dir);
+		}
+
+		DataOutputStream o = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+		try
+		{
+			o.write(PrushJournal.MAGIC);
+			o.writeByte(PrushJournal.VERSION);
+			o.writeByte(PrushProtocol.VERSION);
+			o.writeLong(System.currentTimeMillis());
+		}
+		catch (IOException e)
+		{
+			o.close();
+			throw e;
+		}
+
+		out = o;
+		startNanos = lastFlushNanos = System.nanoTime();
+		count = 0;
+		log.info("[RuneMirrorHost] Recording journal {}", file);
+	}
+
+	@Override
+	public synchronized void broadcast(PrushAction action)
+	{
+		if (out == null)
+		{
+			return;
+		}
+
+		long now = System.nanoTime();
+		long captured = action.getCaptureNanos() != 0 ? action.getCaptureNanos() : now;
+		try
+		{
+			PrushJournal.writeVarLong(out, Math.max(0, captured - startNanos));
+			out.write(encoder.encode(action));
+			++count;
+
+			if (now - lastFlushNanos >= FLUSH_INTERVAL_NANOS)
+			{
+				lastFlushNanos = now;
+				out.flush();
+			}
+		}
+		catch (IOException e)
+		{
+			log.warn("[RuneMirrorHost] Stopped recording journal {}: {}", file, e.getMessage());
+			close();
+		}
+	}
+
+	@Override
+	public synchronized void close()
+	{
+		if (out == null)
+		{
+			return;
+		}
+
+		try
+		{
+			out.close();
+			log.info("[RuneMirrorHost] Recorded {} actions to journal {}", count, file);
+		}
+		catch (IOException e)
+		{
+			log.warn("[RuneMirrorHost] Unable to finish journal {}: {}", file, e.getMessage());
+		}
+		out = null;
+	}
+}
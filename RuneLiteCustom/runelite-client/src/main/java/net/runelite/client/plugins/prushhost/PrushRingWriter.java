@@ -0,0 +1,138 @@
+package net.runelite.client.plugins.prushhost;
+
+import com.google.common.base.Preconditions;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.plugins.prushsync.PrushAction;
+import net.runelite.client.plugins.prushsync.PrushActionEncoder;
+import net.runelite.client.plugins.prushsync.PrushHistogram;
+import net.runelite.client.plugins.prushsync.PrushMetrics;
+import net.runelite.client.plugins.prushsync.PrushRing;
+
+/**
+ * Writes every action once into a memory mapped ring, which guests on the same machine read without going
+ * through the network stack. See {@link PrushRing}.
+ */
+@Slf4j
+public class PrushRingWriter implements PrushHostTransport
+{
+	private final File file;
+	private final int capacity;
+	private final PrushHistogram writeTime;
+	// records are read independently of each other, so there is no string table to intern into
+	private final PrushActionEncoder encoder = new PrushActionEncoder(false);
+
+	// guarded by this
+	private MappedByteBuffer buf;
+	private ByteBuffer data;
+	private long cursor;
+
+	/**
+	 * @param capacity size of the ring in bytes, a power of two of at least 1024
+	 */
+	public PrushRingWriter(File file, int capacity, PrushMetrics metrics)
+	{
+		Preconditions.checkArgument(PrushRing.isValidCapacity(capacity), "invalid ring capacity %s", capacity);
+		this.file = file;
+		this.capacity = capacity;
+		this.writeTime = metrics.nanos(PrushMetrics.HOST_WRITE + "ring");
+	}
+
+	public synchronized void start() throws IOException
+	{
+		File dir = file.getParentFile();
+		if (dir != null && !dir.isDirectory() && !dir.mkdirs())
+		{
+			throw new IOException("unable to create " + dir);
+		}
+
+		int length = PrushRing.HEADER_LENGTH + capacity;
+		MappedByteBuffer b;
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+		{
+			// guests may still have the file mapped, which on Windows prevents shrinking it
+			if (raf.length() < length)
+			{
+				raf.setLength(length);
+			}
+			b = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+		}
+		b.order(ByteOrder.LITTLE_ENDIAN);
+
+		// readers ignore the ring while the session is 0, and restart from the beginning when it changes
+		PrushRing.setSession(b, 0);
+		PrushRing.writeHeader(b, capacity);
+		PrushRing.setCursor(b, 0);
+		long session;
+		do
+		{
+			session = ThreadLocalRandom.current().nextLong();
+		}
+		while (session == 0);
+		PrushRing.setSession(b, session);
+
+		b.position(PrushRing.HEADER_LENGTH);
+		data = b.slice().order(ByteOrder.LITTLE_ENDIAN);
+		b.position(0);
+		buf = b;
+		cursor = 0;
+
+		log.info("[RuneMirrorHost] Writing actions to shared memory {} ({} KiB)", file, capacity / 1024);
+	}
+
+	@Override
+	public synchronized void broadcast(PrushAction action)
+	{
+		if (buf == null)
+		{
+			return;
+		}
+
+		long start = System.nanoTime();
+		byte[] frame = encoder.encode(action);
+		int length = PrushRing.recordLength(frame.length);
+		if (length > PrushRing.maxRecordLength(capacity))
+		{
+			log.warn("[RuneMirrorHost] Not writing action seq {}: {} bytes does not fit in the ring", action.getSeq(), frame.length);
+			return;
+		}
+
+		int mask = capacity - 1;
+		int idx = (int) (cursor & mask);
+		// records are 4 byte aligned, so the length never wraps
+		data.putInt(idx, frame.length);
+		idx = (idx + 4) & mask;
+
+		int first = Math.min(frame.length, capacity - idx);
+		data.position(idx);
+		data.put(frame, 0, first);
+		if (first < frame.length)
+		{
+			data.position(0);
+			data.put(frame, first, frame.length - first);
+		}
+
+		cursor += length;
+		PrushRing.setCursor(buf, cursor);
+		// the write side of the seqlock: the cursor must be visible before the next record overwrites old data, or a
+		// reader copying that data would re-check a stale cursor and accept a torn record
+		VarHandle.releaseFence();
+		writeTime.record(System.nanoTime() - start);
+	}
+
+	@Override
+	public synchronized void close()
+	{
+		// the mapping goes away once it is collected; readers simply see no new records
+		buf = null;
+		data = null;
+	}
+}
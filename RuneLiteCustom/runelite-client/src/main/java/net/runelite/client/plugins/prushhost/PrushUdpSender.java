@@ -0,0 +1,319 @@
+package net.runelite.client.plugins.prushhost;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.plugins.prushsync.PrushAction;
+import net.runelite.client.plugins.prushsync.PrushActionEncoder;
+import net.runelite.client.plugins.prushsync.PrushDatagram;
+import net.runelite.client.plugins.prushsync.PrushHistogram;
+import net.runelite.client.plugins.prushsync.PrushMetrics;
+import net.runelite.client.plugins.prushsync.PrushProtocol;
+
+/**
+ * Sends every action once, as a single datagram, to a multicast group, a broadcast address or one local
+ * guest, so the cost of a broadcast does not grow with the number of guests. See {@link PrushDatagram}.
+ * <p>
+ * UDP may drop datagrams, so the most recent {@link PrushDatagram#RETRANSMIT_WINDOW} are kept and served to
+ * guests which ask for them over a TCP side channel. Idle periods are filled with heartbeats carrying the
+ * last sequence number, so guests also notice a lost final datagram.
+ */
+@Slf4j
+public class PrushUdpSender implements PrushHostTransport
+{
+	private static final long HEARTBEAT_CHECK_MS = 250;
+
+	private final InetSocketAddress target;
+	private final int nackPort;
+	private final PrushHistogram writeTime;
+	private final long sessionId = ThreadLocalRandom.current().nextLong();
+	// datagrams are decoded independently, so there is no string table to intern into
+	private final PrushActionEncoder encoder = new PrushActionEncoder(false);
+
+	// guarded by this
+	private final byte[][] window = new byte[PrushDatagram.RETRANSMIT_WINDOW][];
+	private final long[] windowSeq = new long[PrushDatagram.RETRANSMIT_WINDOW];
+	private long seq;
+	private long lastSendNanos;
+
+	private final Set<Socket> nackConnections = ConcurrentHashMap.newKeySet();
+
+	private volatile boolean running;
+	private DatagramChannel channel;
+	private ServerSocket nackServer;
+	private Thread heartbeatThread;
+	private Thread nackThread;
+
+	private volatile LongPredicate dropFilter;
+
+	/**
+	 * @param nackPort TCP port for retransmission requests, or 0 for any free port
+	 */
+	public PrushUdpSender(InetSocketAddress target, int nackPort, PrushMetrics metrics)
+	{
+		this.target = target;
+		this.nackPort = nackPort;
+		this.writeTime = metrics.nanos(PrushMetrics.HOST_WRITE + "udp " + target);
+	}
+
+	/**
+	 * Skip sending the datagrams whose sequence number matches, to test recovery.
+	 */
+	void setDropFilter(LongPredicate dropFilter)
+	{
+		this.dropFilter = dropFilter;
+	}
+
+	public void start() throws IOException
+	{
+		DatagramChannel ch = DatagramChannel.open(StandardProtocolFamily.INET);
+		ServerSocket ss = null;
+		try
+		{
+			if (target.getAddress().isMulticastAddress())
+			{
+				// one hop is enough for guests on the same LAN, and local guests need loopback
+				ch.setOption(StandardSocketOptions.IP_MULTICAST_TTL, 1);
+				ch.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+			}
+			else
+			{
+				ch.setOption(StandardSocketOptions.SO_BROADCAST, true);
+			}
+
+			ss = new ServerSocket(nackPort);
+		}
+		catch (IOException e)
+		{
+			ch.close();
+			throw e;
+		}
+
+		channel = ch;
+		nackServer = ss;
+		running = true;
+
+		heartbeatThread = new Thread(this::heartbeatLoop, "RuneMirrorHostUdpHeartbeat");
+		heartbeatThread.setDaemon(true);
+		heartbeatThread.start();
+
+		nackThread = new Thread(this::acceptLoop, "RuneMirrorHostUdpNack");
+		nackThread.setDaemon(true);
+		nackThread.start();
+
+		log.info("[RuneMirrorHost] Sending UDP to {}, retransmissions on TCP port {}", target, ss.getLocalPort());
+	}
+
+	@Override
+	public synchronized void broadcast(PrushAction action)
+	{
+		if (!running)
+		{
+			return;
+		}
+
+		byte[] frame = encoder.encode(action);
+		if (PrushDatagram.HEADER_LENGTH + frame.length > PrushDatagram.MAX_LENGTH)
+		{
+			log.warn("[RuneMirrorHost] Not sending action seq {}: {} bytes does not fit in a datagram", action.getSeq(), frame.length);
+			return;
+		}
+
+		long s = ++seq;
+		ByteBuffer buf = ByteBuffer.allocate(PrushDatagram.HEADER_LENGTH + frame.length);
+		PrushDatagram.writeHeader(buf, PrushDatagram.KIND_ACTION, nackServer.getLocalPort(), sessionId, s);
+		buf.put(frame);
+
+		int idx = (int) (s % window.length);
+		window[idx] = buf.array();
+		windowSeq[idx] = s;
+
+		buf.flip();
+		send(buf, s);
+	}
+
+	private void send(ByteBuffer buf, long s)
+	{
+		LongPredicate drop = dropFilter;
+		if (drop != null && drop.test(s))
+		{
+			lastSendNanos = System.nanoTime();
+			return;
+		}
+
+		try
+		{
+			long start = System.nanoTime();
+			channel.send(buf, target);
+			lastSendNanos = System.nanoTime();
+			writeTime.record(lastSendNanos - start);
+		}
+		catch (IOException e)
+		{
+			// guests recover it through a NACK
+			log.debug("[RuneMirrorHost] UDP send of seq {} failed: {}", s, e.getMessage());
+		}
+	}
+
+	private void heartbeatLoop()
+	{
+		long interval = TimeUnit.MILLISECONDS.toNanos(PrushProtocol.HEARTBEAT_INTERVAL_MS);
+		ByteBuffer buf = ByteBuffer.allocate(PrushDatagram.HEADER_LENGTH);
+		while (running)
+		{
+			synchronized (this)
+			{
+				if (System.nanoTime() - lastSendNanos >= interval)
+				{
+					buf.clear();
+					PrushDatagram.writeHeader(buf, PrushDatagram.KIND_HEARTBEAT, nackServer.getLocalPort(), sessionId, seq);
+					buf.flip();
+					send(buf, 0);
+				}
+			}
+
+			try
+			{
+				Thread.sleep(HEARTBEAT_CHECK_MS);
+			}
+			catch (InterruptedException e)
+			{
+				return;
+			}
+		}
+	}
+
+	private void acceptLoop()
+	{
+		while (running)
+		{
+			Socket s;
+			try
+			{
+				s = nackServer.accept();
+			}
+			catch (IOException e)
+			{
+				if (running)
+				{
+					log.warn("[RuneMirrorHost] Retransmission channel stopped: {}", e.getMessage());
+				}
+				return;
+			}
+
+			nackConnections.add(s);
+			Thread t = new Thread(() -> serveNacks(s), "RuneMirrorHostUdpNack-" + s.getPort());
+			t.setDaemon(true);
+			t.start();
+		}
+	}
+
+	private void serveNacks(Socket socket)
+	{
+		try (Socket s = socket;
+			DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream())))
+		{
+			s.setTcpNoDelay(true);
+			while (running)
+			{
+				long session = in.readLong();
+				long first = in.readLong();
+				int count = Math.min(in.readInt(), window.length);
+
+				List<byte[]> found = new ArrayList<>();
+				if (session == sessionId)
+				{
+					synchronized (this)
+					{
+						for (long n = first; n < first + count; ++n)
+						{
+							int idx = (int) (n % window.length);
+							if (n > 0 && windowSeq[idx] == n)
+							{
+								found.add(window[idx]);
+							}
+						}
+					}
+				}
+
+				log.debug("[RuneMirrorHost] Retransmitting {} of {} datagrams from seq {} to {}", found.size(), count, first, s.getRemoteSocketAddress());
+				out.writeInt(found.size());
+				for (byte[] d : found)
+				{
+					out.writeInt(d.length);
+					out.write(d);
+				}
+				out.flush();
+			}
+		}
+		catch (EOFException e)
+		{
+			// guest went away
+		}
+		catch (IOException e)
+		{
+			if (running)
+			{
+				log.debug("[RuneMirrorHost] Retransmission connection failed: {}", e.getMessage());
+			}
+		}
+		finally
+		{
+			nackConnections.remove(socket);
+		}
+	}
+
+	@Override
+	public void close()
+	{
+		running = false;
+
+		closeQuietly(nackServer);
+		closeQuietly(channel);
+		for (Socket s : nackConnections)
+		{
+			closeQuietly(s);
+		}
+
+		if (heartbeatThread != null)
+		{
+			heartbeatThread.interrupt();
+		}
+	}
+
+	private static void closeQuietly(Closeable c)
+	{
+		if (c == null)
+		{
+			return;
+		}
+
+		try
+		{
+			c.close();
+		}
+		catch (IOException ignored)
+		{
+		}
+	}
+}
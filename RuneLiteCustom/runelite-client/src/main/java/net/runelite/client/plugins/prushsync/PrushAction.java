@@ -40,4 +40,14 @@ public class PrushAction
 	// Host player's scene coordinates (local scene) at time of click
 	private Integer hostPlayerSceneX;
 	private Integer hostPlayerSceneY;
+
+	// Host state fingerprint at the time of the click, see PrushStateFingerprint
+	private Integer gameState;
+	private Integer plane;
+	private Integer interfaces;
+
+	// Local System.nanoTime() stamps for latency metrics, never sent over the wire. 0 means not stamped.
+	private transient long captureNanos;
+	private transient long receiveNanos;
+	private transient long decodeNanos;
 }
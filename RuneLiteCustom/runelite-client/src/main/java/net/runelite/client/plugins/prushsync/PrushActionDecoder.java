@@ -0,0 +1,220 @@
+package net.runelite.client.plugins.prushsync;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import static net.runelite.client.plugins.prushsync.PrushActionEncoder.*;
+
+/**
+ * Decodes frames written by {@link PrushActionEncoder}. Holds the string table of one stream, so each
+ * connection needs its own decoder. Not thread safe.
+ */
+public class PrushActionDecoder
+{
+	private static final int MAX_FRAME_LENGTH = 1 << 16;
+	private static final PrushActionType[] TYPES = PrushActionType.values();
+
+	private final List<String> strings = new ArrayList<>();
+
+	private byte[] buf = new byte[128];
+	private byte[] data;
+	private int pos;
+	private int limit;
+
+	/**
+	 * Read and decode the next frame of {@code in}.
+	 *
+	 * @return the decoded action, stamped with when its frame arrived and was decoded, or null if the frame
+	 * was a heartbeat
+	 * @throws EOFException if the stream ends
+	 * @throws IOException if the stream fails or the frame is malformed
+	 */
+	public PrushAction read(InputStream in) throws IOException
+	{
+		int length = 0;
+		for (int shift = 0; ; shift += 7)
+		{
+			int b = in.read();
+			if (b < 0)
+			{
+				throw new EOFException();
+			}
+			if (shift > 28)
+			{
+				throw new IOException("malformed frame length");
+			}
+			length |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+			{
+				break;
+			}
+		}
+
+		if (length == 0)
+		{
+			return null;
+		}
+		long received = System.nanoTime();
+		if (length > MAX_FRAME_LENGTH)
+		{
+			throw new IOException("frame too large: " + length);
+		}
+
+		if (buf.length < length)
+		{
+			buf = new byte[Math.max(length, buf.length * 2)];
+		}
+
+		int off = 0;
+		while (off < length)
+		{
+			int n = in.read(buf, off, length - off);
+			if (n < 0)
+			{
+				throw new EOFException();
+			}
+			off += n;
+		}
+
+		PrushAction a = decode(buf, 0, length);
+		a.setReceiveNanos(received);
+		a.setDecodeNanos(System.nanoTime());
+		return a;
+	}
+
+	/**
+	 * Decode a frame body, without its length prefix.
+	 */
+	public PrushAction decode(byte[] frame, int offset, int length) throws IOException
+	{
+		data = frame;
+		pos = offset;
+		limit = offset + length;
+
+		int flags = readByte();
+		if ((flags & FLAG_RESET_STRINGS) != 0)
+		{
+			strings.clear();
+		}
+
+		PrushAction a = new PrushAction();
+		a.setV(PrushProtocol.VERSION);
+
+		int type = readVarInt();
+		a.setType(type == 0 || type > TYPES.length ? null : TYPES[type - 1]);
+		a.setSeq(readVarLong());
+		a.setTick(readVarInt());
+
+		a.setParam0(readZigZag());
+		a.setParam1(readZigZag());
+		a.setOpcode(readZigZag());
+		a.setIdentifier(readZigZag());
+		a.setItemId(readZigZag());
+		a.setOption(readString());
+		a.setTarget(readString());
+
+		int mask = readVarInt();
+		a.setWorldX(readOptional(mask, FIELD_WORLD_X));
+		a.setWorldY(readOptional(mask, FIELD_WORLD_Y));
+		a.setWorldPlane(readOptional(mask, FIELD_WORLD_PLANE));
+		a.setRelDx(readOptional(mask, FIELD_REL_DX));
+		a.setRelDy(readOptional(mask, FIELD_REL_DY));
+		a.setHostBaseX(readOptional(mask, FIELD_HOST_BASE_X));
+		a.setHostBaseY(readOptional(mask, FIELD_HOST_BASE_Y));
+		a.setHostPlayerWorldX(readOptional(mask, FIELD_HOST_PLAYER_WORLD_X));
+		a.setHostPlayerWorldY(readOptional(mask, FIELD_HOST_PLAYER_WORLD_Y));
+		a.setHostPlayerWorldPlane(readOptional(mask, FIELD_HOST_PLAYER_WORLD_PLANE));
+		a.setHostPlayerSceneX(readOptional(mask, FIELD_HOST_PLAYER_SCENE_X));
+		a.setHostPlayerSceneY(readOptional(mask, FIELD_HOST_PLAYER_SCENE_Y));
+		a.setGameState(readOptional(mask, FIELD_GAME_STATE));
+		a.setPlane(readOptional(mask, FIELD_PLANE));
+		a.setInterfaces(readOptional(mask, FIELD_INTERFACES));
+		return a;
+	}
+
+	private Integer readOptional(int mask, int field) throws IOException
+	{
+		return (mask & (1 << field)) == 0 ? null : readZigZag();
+	}
+
+	private String readString() throws IOException
+	{
+		int code = readVarInt();
+		if (code == STRING_NULL)
+		{
+			return null;
+		}
+
+		if (code >= STRING_REF)
+		{
+			int idx = code - STRING_REF;
+			if (idx >= strings.size())
+			{
+				throw new IOException("unknown string reference " + idx);
+			}
+			return strings.get(idx);
+		}
+
+		int length = readVarInt();
+		if (length < 0 || pos + length > limit)
+		{
+			throw new IOException("truncated string");
+		}
+		String s = new String(data, pos, length, StandardCharsets.UTF_8);
+		pos += length;
+
+		if (code == STRING_DEFINE)
+		{
+			strings.add(s);
+		}
+		return s;
+	}
+
+	private int readByte() throws IOException
+	{
+		if (pos >= limit)
+		{
+			throw new IOException("truncated frame");
+		}
+		return data[pos++] & 0xFF;
+	}
+
+	private int readZigZag() throws IOException
+	{
+		int v = readVarInt();
+		return (v >>> 1) ^ -(v & 1);
+	}
+
+	private int readVarInt() throws IOException
+	{
+		int v = 0;
+		for (int shift = 0; shift < 35; shift += 7)
+		{
+			int b = readByte();
+			v |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+			{
+				return v;
+			}
+		}
+		throw new IOException("malformed varint");
+	}
+
+	private long readVarLong() throws IOException
+	{
+		long v = 0;
+		for (int shift = 0; shift < 70; shift += 7)
+		{
+			int b = readByte();
+			v |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+			{
+				return v;
+			}
+		}
+		throw new IOException("malformed varint");
+	}
+}
@@ -0,0 +1,264 @@
+package net.runelite.client.plugins.prushsync;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encodes {@link PrushAction}s into the binary wire format.
+ * <p>
+ * Each frame is a varint body length followed by the body:
+ * <pre>
+ *   u8      flags (FLAG_RESET_STRINGS)
+ *   varint  type ordinal + 1, or 0 for null
+ *   varlong seq
+ *   varint  tick
+ *   zigzag  param0, param1, opcode, identifier, itemId
+ *   string  option, target
+ *   varint  presence mask of the nullable fields, see {@link #FIELD_WORLD_X} and friends
+ *   zigzag  each present nullable field, in mask bit order
+ * </pre>
+ * Strings are interned per stream: {@code 0} is null, {@code 1} is followed by a varint byte length and
+ * UTF-8 bytes, {@code 2} is the same but also appends the string to the string table, and {@code n >= 3}
+ * refers to table entry {@code n - 3}.
+ * A zero length frame is a heartbeat.
+ * <p>
+ * An encoder is stateful and must only feed one stream, which every reader must have seen from its last
+ * string table reset. Not thread safe.
+ */
+public class PrushActionEncoder
+{
+	static final int FLAG_RESET_STRINGS = 1;
+
+	static final int FIELD_WORLD_X = 0;
+	static final int FIELD_WORLD_Y = 1;
+	static final int FIELD_WORLD_PLANE = 2;
+	static final int FIELD_REL_DX = 3;
+	static final int FIELD_REL_DY = 4;
+	static final int FIELD_HOST_BASE_X = 5;
+	static final int FIELD_HOST_BASE_Y = 6;
+	static final int FIELD_HOST_PLAYER_WORLD_X = 7;
+	static final int FIELD_HOST_PLAYER_WORLD_Y = 8;
+	static final int FIELD_HOST_PLAYER_WORLD_PLANE = 9;
+	static final int FIELD_HOST_PLAYER_SCENE_X = 10;
+	static final int FIELD_HOST_PLAYER_SCENE_Y = 11;
+	static final int FIELD_GAME_STATE = 12;
+	static final int FIELD_PLANE = 13;
+	static final int FIELD_INTERFACES = 14;
+
+	static final int STRING_NULL = 0;
+	static final int STRING_LITERAL = 1;
+	static final int STRING_DEFINE = 2;
+	static final int STRING_REF = 3;
+
+	private static final int MAX_STRINGS = 1024;
+
+	private final Map<String, Integer> strings = new HashMap<>();
+	private final boolean intern;
+	private boolean resetPending = true;
+
+	private byte[] buf = new byte[128];
+	private int pos;
+
+	/**
+	 * @param intern whether to send repeated strings as string table references. Streams which can lose
+	 *               frames, or which readers may join midway, must not intern.
+	 */
+	public PrushActionEncoder(boolean intern)
+	{
+		this.intern = intern;
+	}
+
+	public PrushActionEncoder()
+	{
+		this(true);
+	}
+
+	/**
+	 * Forget every interned string. The next frame tells readers to do the same, so this must be called
+	 * before a new reader starts receiving frames from this encoder.
+	 */
+	public void reset()
+	{
+		strings.clear();
+		resetPending = true;
+	}
+
+	/**
+	 * @return a new array holding the length-prefixed frame for {@code a}
+	 */
+	public byte[] encode(PrushAction a)
+	{
+		pos = 0;
+
+		int flags = 0;
+		if (resetPending || strings.size() >= MAX_STRINGS)
+		{
+			strings.clear();
+			resetPending = false;
+			flags |= FLAG_RESET_STRINGS;
+		}
+		writeByte(flags);
+
+		writeVarInt(a.getType() == null ? 0 : a.getType().ordinal() + 1);
+		writeVarLong(a.getSeq());
+		writeVarInt(a.getTick());
+
+		writeZigZag(a.getParam0());
+		writeZigZag(a.getParam1());
+		writeZigZag(a.getOpcode());
+		writeZigZag(a.getIdentifier());
+		writeZigZag(a.getItemId());
+		writeString(a.getOption());
+		writeString(a.getTarget());
+
+		int mask = bit(a.getWorldX(), FIELD_WORLD_X)
+			| bit(a.getWorldY(), FIELD_WORLD_Y)
+			| bit(a.getWorldPlane(), FIELD_WORLD_PLANE)
+			| bit(a.getRelDx(), FIELD_REL_DX)
+			| bit(a.getRelDy(), FIELD_REL_DY)
+			| bit(a.getHostBaseX(), FIELD_HOST_BASE_X)
+			| bit(a.getHostBaseY(), FIELD_HOST_BASE_Y)
+			| bit(a.getHostPlayerWorldX(), FIELD_HOST_PLAYER_WORLD_X)
+			| bit(a.getHostPlayerWorldY(), FIELD_HOST_PLAYER_WORLD_Y)
+			| bit(a.getHostPlayerWorldPlane(), FIELD_HOST_PLAYER_WORLD_PLANE)
+			| bit(a.getHostPlayerSceneX(), FIELD_HOST_PLAYER_SCENE_X)
+			| bit(a.getHostPlayerSceneY(), FIELD_HOST_PLAYER_SCENE_Y)
+			| bit(a.getGameState(), FIELD_GAME_STATE)
+			| bit(a.getPlane(), FIELD_PLANE)
+			| bit(a.getInterfaces(), FIELD_INTERFACES);
+		writeVarInt(mask);
+		writeOptional(a.getWorldX());
+		writeOptional(a.getWorldY());
+		writeOptional(a.getWorldPlane());
+		writeOptional(a.getRelDx());
+		writeOptional(a.getRelDy());
+		writeOptional(a.getHostBaseX());
+		writeOptional(a.getHostBaseY());
+		writeOptional(a.getHostPlayerWorldX());
+		writeOptional(a.getHostPlayerWorldY());
+		writeOptional(a.getHostPlayerWorldPlane());
+		writeOptional(a.getHostPlayerSceneX());
+		writeOptional(a.getHostPlayerSceneY());
+		writeOptional(a.getGameState());
+		writeOptional(a.getPlane());
+		writeOptional(a.getInterfaces());
+
+		int bodyLength = pos;
+		int prefixLength = varIntSize(bodyLength);
+		byte[] frame = new byte[prefixLength + bodyLength];
+		System.arraycopy(buf, 0, frame, prefixLength, bodyLength);
+
+		int v = bodyLength;
+		for (int i = 0; i < prefixLength - 1; ++i)
+		{
+			frame[i] = (byte) ((v & 0x7F) | 0x80);
+			v >>>= 7;
+		}
+		frame[prefixLength - 1] = (byte) v;
+		return frame;
+	}
+
+	/**
+	 * @return a zero length frame, which readers skip
+	 */
+	public static byte[] heartbeat()
+	{
+		return new byte[]{0};
+	}
+
+	private static int bit(Integer value, int field)
+	{
+		return value == null ? 0 : 1 << field;
+	}
+
+	private void writeOptional(Integer value)
+	{
+		if (value != null)
+		{
+			writeZigZag(value);
+		}
+	}
+
+	private void writeString(String s)
+	{
+		if (s == null)
+		{
+			writeVarInt(STRING_NULL);
+			return;
+		}
+
+		int code = STRING_LITERAL;
+		if (intern)
+		{
+			Integer idx = strings.get(s);
+			if (idx != null)
+			{
+				writeVarInt(idx + STRING_REF);
+				return;
+			}
+			strings.put(s, strings.size());
+			code = STRING_DEFINE;
+		}
+
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(code);
+		writeVarInt(bytes.length);
+		ensureCapacity(bytes.length);
+		System.arraycopy(bytes, 0, buf, pos, bytes.length);
+		pos += bytes.length;
+	}
+
+	private void writeByte(int b)
+	{
+		ensureCapacity(1);
+		buf[pos++] = (byte) b;
+	}
+
+	private void writeZigZag(int v)
+	{
+		writeVarInt((v << 1) ^ (v >> 31));
+	}
+
+	private void writeVarInt(int v)
+	{
+		ensureCapacity(5);
+		while ((v & ~0x7F) != 0)
+		{
+			buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+			v >>>= 7;
+		}
+		buf[pos++] = (byte) v;
+	}
+
+	private void writeVarLong(long v)
+	{
+		ensureCapacity(10);
+		while ((v & ~0x7FL) != 0)
+		{
+			buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+			v >>>= 7;
+		}
+		buf[pos++] = (byte) v;
+	}
+
+	private static int varIntSize(int v)
+	{
+		int size = 1;
+		while ((v & ~0x7F) != 0)
+		{
+			v >>>= 7;
+			++size;
+		}
+		return size;
+	}
+
+	private void ensureCapacity(int n)
+	{
+		if (pos + n > buf.length)
+		{
+			buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+		}
+	}
+}
@@ -4,5 +4,11 @@ public enum PrushActionType
 {
 	MENU_ACTION,
 	WALK_WORLD,
-	DIALOG_CONTINUE
+	DIALOG_CONTINUE,
+	/**
+	 * A walk click carrying both the host's scene click, as {@link #MENU_ACTION} fields, and its world
+	 * destination, as {@link #WALK_WORLD} fields. Guests replay the scene click and fall back to the world
+	 * destination only if that does not work.
+	 */
+	WALK
 }
@@ -0,0 +1,78 @@
+package net.runelite.client.plugins.prushsync;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of the UDP transport, which sends every action once to a multicast group, a broadcast address or a
+ * single local guest, instead of once per guest connection.
+ * <p>
+ * Every datagram starts with a fixed header:
+ * <pre>
+ *   u8   protocol version
+ *   u8   kind, {@link #KIND_ACTION} or {@link #KIND_HEARTBEAT}
+ *   u16  TCP port of the host's retransmission (NACK) channel
+ *   i64  host session id
+ *   i64  datagram sequence number, or for a heartbeat the last sequence number sent
+ * </pre>
+ * An action datagram is followed by one {@link PrushActionEncoder} frame from a non-interning encoder, so
+ * any datagram can be decoded on its own.
+ * <p>
+ * A guest which sees a gap in the sequence numbers connects to the NACK port on the sending address and
+ * writes {@code i64 session, i64 first missing seq, i32 count}. The host answers with an {@code i32} number
+ * of datagrams, followed by each datagram it still holds as an {@code i32} length and its bytes.
+ */
+public final class PrushDatagram
+{
+	public static final int KIND_ACTION = 0;
+	public static final int KIND_HEARTBEAT = 1;
+
+	public static final int HEADER_LENGTH = 20;
+	public static final int MAX_LENGTH = 65507;
+
+	/**
+	 * How many recent datagrams the host keeps for retransmission
+	 */
+	public static final int RETRANSMIT_WINDOW = 1024;
+
+	private PrushDatagram()
+	{
+	}
+
+	public static void writeHeader(ByteBuffer buf, int kind, int nackPort, long session, long seq)
+	{
+		buf.put((byte) PrushProtocol.VERSION);
+		buf.put((byte) kind);
+		buf.putShort((short) nackPort);
+		buf.putLong(session);
+		buf.putLong(seq);
+	}
+
+	/**
+	 * @return whether {@code buf} holds a datagram of this protocol version, in which case the header fields
+	 * can be read at their absolute offsets
+	 */
+	public static boolean isValid(ByteBuffer buf)
+	{
+		return buf.remaining() >= HEADER_LENGTH && buf.get(buf.position()) == PrushProtocol.VERSION;
+	}
+
+	public static int kind(ByteBuffer buf)
+	{
+		return buf.get(buf.position() + 1);
+	}
+
+	public static int nackPort(ByteBuffer buf)
+	{
+		return buf.getShort(buf.position() + 2) & 0xFFFF;
+	}
+
+	public static long session(ByteBuffer buf)
+	{
+		return buf.getLong(buf.position() + 4);
+	}
+
+	public static long seq(ByteBuffer buf)
+	{
+		return buf.getLong(buf.position() + 12);
+	}
+}
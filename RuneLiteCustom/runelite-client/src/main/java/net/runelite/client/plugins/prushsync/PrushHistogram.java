@@ -0,0 +1,196 @@
+package net.runelite.client.plugins.prushsync;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A fixed size, log-linear histogram in the style of HdrHistogram. Values below {@code 2 * SUB_BUCKETS} have a
+ * bucket each, and every power of two above that is split into {@code SUB_BUCKETS} linear buckets, so any
+ * recorded value is reported to within about 3%.
+ * <p>
+ * Recording is lock free and allocation free, so it is safe to call from the client thread and the network
+ * threads at once.
+ */
+public class PrushHistogram
+{
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	@RequiredArgsConstructor
+	public enum Unit
+	{
+		/**
+		 * Recorded in nanoseconds, shown in milliseconds.
+		 */
+		NANOSECONDS(1_000_000d, "%.2fms"),
+		TICKS(1d, "%.1f ticks");
+
+		private final double divisor;
+		private final String format;
+
+		String format(double value)
+		{
+			return String.format(format, value / divisor);
+		}
+	}
+
+	@Getter
+	private final String name;
+	@Getter
+	private final Unit unit;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	public PrushHistogram(String name, Unit unit)
+	{
+		this.name = name;
+		this.unit = unit;
+	}
+
+	/**
+	 * Record a value. Negative values, from clocks that went backwards, count as zero.
+	 */
+	public void record(long value)
+	{
+		if (value < 0)
+		{
+			value = 0;
+		}
+
+		counts.incrementAndGet(bucket(value));
+		sum.addAndGet(value);
+		max.accumulateAndGet(value, Math::max);
+	}
+
+	/**
+	 * Record the time elapsed since {@code startNanos}, unless it is 0, which means the start was never
+	 * stamped.
+	 */
+	public void recordSince(long startNanos)
+	{
+		if (startNanos != 0)
+		{
+			record(System.nanoTime() - startNanos);
+		}
+	}
+
+	public void reset()
+	{
+		for (int i = 0; i < BUCKETS; ++i)
+		{
+			counts.set(i, 0);
+		}
+		sum.set(0);
+		max.set(0);
+	}
+
+	/**
+	 * Take a copy of the current counts. The copy is not atomic with respect to concurrent recording, so its
+	 * percentiles may be off by the handful of values recorded while it was taken.
+	 */
+	public Snapshot snapshot()
+	{
+		long[] copy = new long[BUCKETS];
+		long n = 0;
+		for (int i = 0; i < BUCKETS; ++i)
+		{
+			copy[i] = counts.get(i);
+			n += copy[i];
+		}
+		return new Snapshot(copy, n, sum.get(), max.get());
+	}
+
+	static int bucket(long value)
+	{
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		if (exponent < SUB_BUCKET_BITS)
+		{
+			return (int) value;
+		}
+
+		int shift = exponent - SUB_BUCKET_BITS;
+		return shift * SUB_BUCKETS + (int) (value >>> shift);
+	}
+
+	/**
+	 * @return the largest value which falls in {@code bucket}
+	 */
+	static long highestValue(int bucket)
+	{
+		if (bucket < 2 * SUB_BUCKETS)
+		{
+			return bucket;
+		}
+
+		int shift = bucket / SUB_BUCKETS - 1;
+		long mantissa = bucket % SUB_BUCKETS + SUB_BUCKETS;
+		return ((mantissa + 1) << shift) - 1;
+	}
+
+	public class Snapshot
+	{
+		private final long[] counts;
+		@Getter
+		private final long count;
+		private final long sum;
+		@Getter
+		private final long max;
+
+		private Snapshot(long[] counts, long count, long sum, long max)
+		{
+			this.counts = counts;
+			this.count = count;
+			this.sum = sum;
+			this.max = max;
+		}
+
+		public double getMean()
+		{
+			return count == 0 ? 0 : (double) sum / count;
+		}
+
+		/**
+		 * @param percentile between 0 and 100
+		 * @return the upper bound of the bucket holding the given percentile, capped at the recorded maximum
+		 */
+		public long getValueAtPercentile(double percentile)
+		{
+			if (count == 0)
+			{
+				return 0;
+			}
+
+			long rank = Math.max(1, (long) Math.ceil(percentile / 100d * count));
+			long seen = 0;
+			for (int i = 0; i < counts.length; ++i)
+			{
+				seen += counts[i];
+				if (seen >= rank)
+				{
+					return Math.min(highestValue(i), max);
+				}
+			}
+			return max;
+		}
+
+		public String format(long value)
+		{
+			return unit.format(value);
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("%-32s n=%-8d mean=%-10s p50=%-10s p90=%-10s p99=%-10s p99.9=%-10s max=%s",
+				name, count, unit.format(getMean()),
+				format(getValueAtPercentile(50)), format(getValueAtPercentile(90)),
+				format(getValueAtPercentile(99)), format(getValueAtPercentile(99.9)),
+				format(max));
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package net.runelite.client.plugins.prushsync;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Layout of a RuneMirror journal, an append-only recording of every action a host sent, which can be replayed
+ * to guests or fed to benchmarks.
+ * <pre>
+ *   u8[4]   {@link #MAGIC}
+ *   u8      journal format version
+ *   u8      protocol version of the recorded actions
+ *   i64     wall clock time the journal was started, in epoch milliseconds
+ * </pre>
+ * followed by one record per action until the end of the file:
+ * <pre>
+ *   varlong nanoseconds since the journal was started that the action was captured
+ *   frame   one {@link PrushActionEncoder} frame, with strings interned across the whole journal
+ * </pre>
+ * A journal cut short by a crash is read up to its last complete record.
+ */
+public final class PrushJournal
+{
+	public static final byte[] MAGIC = {'R', 'M', 'J', 'L'};
+	public static final int VERSION = 1;
+	public static final int HEADER_LENGTH = 14;
+
+	/**
+	 * File name extension of journals
+	 */
+	public static final String EXTENSION = ".rmj";
+
+	private PrushJournal()
+	{
+	}
+
+	public static void writeVarLong(OutputStream out, long v) throws IOException
+	{
+		while ((v & ~0x7FL) != 0)
+		{
+			out.write((int) ((v & 0x7F) | 0x80));
+			v >>>= 7;
+		}
+		out.write((int) v);
+	}
+
+	/**
+	 * @return the value, or -1 if the stream ended before its first byte
+	 * @throws EOFException if the stream ends part way through the value
+	 */
+	public static long readVarLong(InputStream in) throws IOException
+	{
+		long v = 0;
+		for (int shift = 0; ; shift += 7)
+		{
+			int b = in.read();
+			if (b < 0)
+			{
+				if (shift == 0)
+				{
+					return -1;
+				}
+				throw new EOFException();
+			}
+			if (shift > 63)
+			{
+				throw new IOException("malformed varlong");
+			}
+			v |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+			{
+				return v;
+			}
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package net.runelite.client.plugins.prushsync;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * Reads the actions of a journal, see {@link PrushJournal}. Not thread safe.
+ */
+public class PrushJournalReader implements Closeable
+{
+	@Value
+	public static class Entry
+	{
+		/**
+		 * When the action was captured, in nanoseconds since the journal was started
+		 */
+		private final long offsetNanos;
+		private final PrushAction action;
+	}
+
+	private final InputStream in;
+	private final PrushActionDecoder decoder = new PrushActionDecoder();
+
+	@Getter
+	private final long startMillis;
+
+	/**
+	 * @throws IOException if {@code in} does not start with a journal header this version can read
+	 */
+	public PrushJournalReader(InputStream in) throws IOException
+	{
+		this.in = in instanceof BufferedInputStream ? in : new BufferedInputStream(in);
+
+		DataInputStream data = new DataInputStream(this.in);
+		byte[] magic = new byte[PrushJournal.MAGIC.length];
+		data.readFully(magic);
+		if (!Arrays.equals(magic, PrushJournal.MAGIC))
+		{
+			throw new IOException("not a RuneMirror journal");
+		}
+
+		int version = data.readUnsignedByte();
+		int protocol = data.readUnsignedByte();
+		if (version != PrushJournal.VERSION || protocol != PrushProtocol.VERSION)
+		{
+			throw new IOException("unsupported journal version " + version + " (protocol " + protocol + ")");
+		}
+		startMillis = data.readLong();
+	}
+
+	/**
+	 * @return the next entry, or null at the end of the journal, including after a truncated last record
+	 * @throws IOException if reading fails or a record is malformed
+	 */
+	public Entry read() throws IOException
+	{
+		while (true)
+		{
+			long offset = PrushJournal.readVarLong(in);
+			if (offset < 0)
+			{
+				return null;
+			}
+
+			PrushAction a;
+			try
+			{
+				a = decoder.read(in);
+			}
+			catch (EOFException e)
+			{
+				return null;
+			}
+
+			if (a != null)
+			{
+				return new Entry(offset, a);
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		in.close();
+	}
+
+	/**
+	 * Read every entry of {@code file}.
+	 */
+	public static List<Entry> readAll(File file) throws IOException
+	{
+		List<Entry> entries = new ArrayList<>();
+		try (PrushJournalReader reader = new PrushJournalReader(new FileInputStream(file)))
+		{
+			Entry e;
+			while ((e = reader.read()) != null)
+			{
+				entries.add(e);
+			}
+		}
+		return entries;
+	}
+}
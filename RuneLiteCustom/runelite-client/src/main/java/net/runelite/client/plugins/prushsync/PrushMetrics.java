@@ -0,0 +1,100 @@
+package net.runelite.client.plugins.prushsync;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-process registry of the latency histograms recorded along the host and guest hot paths.
+ */
+public class PrushMetrics
+{
+	public static final String HOST_CAPTURE_TO_BROADCAST = "host capture->broadcast";
+	/**
+	 * Prefix of the per guest socket write histograms, followed by the guest address.
+	 */
+	public static final String HOST_WRITE = "host write ";
+	public static final String GUEST_RECEIVE_TO_DECODE = "guest receive->decode";
+	public static final String GUEST_DECODE_TO_EXECUTE = "guest decode->execute";
+	public static final String GUEST_TICK_LAG = "guest tick lag";
+
+	/**
+	 * Per action debug logging only logs one action in this many.
+	 */
+	private static final int LOG_SAMPLE_INTERVAL = 64;
+
+	private final ConcurrentMap<String, PrushHistogram> histograms = new ConcurrentSkipListMap<>();
+
+	public PrushHistogram histogram(String name, PrushHistogram.Unit unit)
+	{
+		return histograms.computeIfAbsent(name, n -> new PrushHistogram(n, unit));
+	}
+
+	public PrushHistogram nanos(String name)
+	{
+		return histogram(name, PrushHistogram.Unit.NANOSECONDS);
+	}
+
+	/**
+	 * @return every histogram, ordered by name
+	 */
+	public Collection<PrushHistogram> getHistograms()
+	{
+		return Collections.unmodifiableCollection(histograms.values());
+	}
+
+	public void reset()
+	{
+		for (PrushHistogram h : histograms.values())
+		{
+			h.reset();
+		}
+	}
+
+	/**
+	 * Replace {@code file} with a snapshot of every histogram.
+	 */
+	public void dump(File file) throws IOException
+	{
+		File dir = file.getParentFile();
+		dir.mkdirs();
+
+		File tempFile = File.createTempFile("runemirror_metrics", null, dir);
+		try (PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8)))
+		{
+			out.println("# RuneMirror metrics " + Instant.now());
+			for (PrushHistogram h : histograms.values())
+			{
+				out.println(h.snapshot());
+			}
+		}
+
+		try
+		{
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException ex)
+		{
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * @return whether the action with sequence number {@code seq} should be logged by per action debug logging
+	 */
+	public static boolean sampled(long seq)
+	{
+		return seq % LOG_SAMPLE_INTERVAL == 1;
+	}
+}
@@ -0,0 +1,68 @@
+package net.runelite.client.plugins.prushsync;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.util.ArrayList;
+import java.util.List;
+import net.runelite.client.plugins.Plugin;
+import net.runelite.client.ui.overlay.OverlayPanel;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.components.LineComponent;
+import net.runelite.client.ui.overlay.components.TitleComponent;
+
+/**
+ * Shows the median and 99th percentile of every histogram in a {@link PrushMetrics}.
+ */
+public class PrushMetricsOverlay extends OverlayPanel
+{
+	private static final int WIDTH = 260;
+	/**
+	 * Snapshots copy every bucket, so take them once a second rather than every frame.
+	 */
+	private static final long REFRESH_NANOS = 1_000_000_000L;
+
+	private final String title;
+	private final PrushMetrics metrics;
+	private final List<LineComponent> lines = new ArrayList<>();
+	private long lastRefresh;
+
+	public PrushMetricsOverlay(Plugin plugin, String title, PrushMetrics metrics)
+	{
+		super(plugin);
+		setPosition(OverlayPosition.TOP_LEFT);
+		setPriority(PRIORITY_LOW);
+		this.title = title;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public Dimension render(Graphics2D graphics)
+	{
+		panelComponent.setPreferredSize(new Dimension(WIDTH, 0));
+		panelComponent.getChildren().add(TitleComponent.builder()
+			.text(title)
+			.build());
+		panelComponent.getChildren().add(LineComponent.builder()
+			.left("stage")
+			.right("p50 / p99 (n)")
+			.build());
+
+		long now = System.nanoTime();
+		if (lastRefresh == 0 || now - lastRefresh >= REFRESH_NANOS)
+		{
+			lastRefresh = now;
+			lines.clear();
+			for (PrushHistogram h : metrics.getHistograms())
+			{
+				PrushHistogram.Snapshot s = h.snapshot();
+				lines.add(LineComponent.builder()
+					.left(h.getName())
+					.right(s.format(s.getValueAtPercentile(50)) + " / " + s.format(s.getValueAtPercentile(99)) + " (" + s.getCount() + ")")
+					.build());
+			}
+		}
+		panelComponent.getChildren().addAll(lines);
+
+		return super.render(graphics);
+	}
+}
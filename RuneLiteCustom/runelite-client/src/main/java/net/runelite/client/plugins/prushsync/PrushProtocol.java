@@ -0,0 +1,100 @@
+package net.runelite.client.plugins.prushsync;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import lombok.Value;
+
+/**
+ * Protocol constants and the handshake which opens every host to guest connection.
+ * <p>
+ * After connecting, the host sends a single line {@code RUNEMIRROR <version> <format> <session>}. The guest
+ * answers with the same line once it has switched its reader to the requested format, and the host only
+ * starts sending actions after that answer. The session id is random per host run, so guests can tell a
+ * reconnecting host, whose sequence numbers carry on, from a restarted one. A guest that receives anything else as the first line treats the
+ * connection as a legacy newline-delimited JSON stream.
+ */
+public final class PrushProtocol
+{
+	public static final int VERSION = 2;
+
+	static final String HANDSHAKE_MAGIC = "RUNEMIRROR";
+	public static final int MAX_HANDSHAKE_LENGTH = 128;
+
+	/**
+	 * How often the host writes a heartbeat to an otherwise idle connection, so guests can reap dead peers
+	 */
+	public static final int HEARTBEAT_INTERVAL_MS = 1000;
+
+	private PrushProtocol()
+	{
+	}
+
+	@Value
+	public static class Handshake
+	{
+		int version;
+		PrushWireFormat format;
+		long session;
+
+		public byte[] toBytes()
+		{
+			return (HANDSHAKE_MAGIC + ' ' + version + ' ' + format.name() + ' ' + Long.toHexString(session) + '\n')
+				.getBytes(StandardCharsets.US_ASCII);
+		}
+	}
+
+	/**
+	 * @return the bytes of an empty frame, which readers skip
+	 */
+	public static byte[] heartbeat(PrushWireFormat format)
+	{
+		return format == PrushWireFormat.BINARY ? PrushActionEncoder.heartbeat() : new byte[]{'\n'};
+	}
+
+	/**
+	 * Parse a handshake line, without its terminating newline.
+	 *
+	 * @return the handshake, or null if the line is not a handshake
+	 */
+	public static Handshake parseHandshake(String line)
+	{
+		String[] parts = line.trim().split(" ");
+		if (parts.length != 4 || !HANDSHAKE_MAGIC.equals(parts[0]))
+		{
+			return null;
+		}
+
+		try
+		{
+			return new Handshake(Integer.parseInt(parts[1]), PrushWireFormat.valueOf(parts[2]), Long.parseUnsignedLong(parts[3], 16));
+		}
+		catch (IllegalArgumentException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Parse a {@code host:port} endpoint.
+	 *
+	 * @return the address, or null if {@code s} is not of that form
+	 */
+	public static InetSocketAddress parseAddress(String s)
+	{
+		s = s.trim();
+		int idx = s.lastIndexOf(':');
+		if (idx <= 0 || idx >= s.length() - 1)
+		{
+			return null;
+		}
+
+		try
+		{
+			return new InetSocketAddress(s.substring(0, idx), Integer.parseInt(s.substring(idx + 1)));
+		}
+		catch (IllegalArgumentException e)
+		{
+			return null;
+		}
+	}
+}
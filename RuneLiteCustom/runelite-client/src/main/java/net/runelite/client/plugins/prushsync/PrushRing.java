@@ -0,0 +1,123 @@
+package net.runelite.client.plugins.prushsync;
+
+import java.io.File;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the shared memory transport, a memory mapped file with a single writer (the host) and any number of
+ * readers (guests on the same machine).
+ * <p>
+ * The file starts with a {@link #HEADER_LENGTH} byte header, followed by a ring of {@code capacity} bytes:
+ * <pre>
+ *   0   i32  {@link #MAGIC}
+ *   4   i32  protocol version
+ *   8   i32  ring capacity, a power of two
+ *   16  i64  host session id, 0 while the host is (re)initializing the file
+ *   64  i64  write cursor, the total number of bytes ever written to the ring
+ * </pre>
+ * Each record is an {@code i32} length followed by one frame from a non-interning {@link PrushActionEncoder},
+ * padded to 4 bytes, and wraps around the end of the ring. The writer publishes a record by advancing the cursor
+ * with release semantics, so a reader which loads it with acquire semantics sees the whole record.
+ * <p>
+ * Every reader keeps its own cursor, and the writer never waits for readers. A reader which falls more than
+ * {@code capacity - maxRecordLength(capacity)} bytes behind may have had records overwritten, and skips ahead.
+ */
+public final class PrushRing
+{
+	public static final int MAGIC = 0x524D5242;
+	public static final int HEADER_LENGTH = 128;
+	public static final int DEFAULT_CAPACITY = 1 << 20;
+
+	public static final int CAPACITY_OFFSET = 8;
+	private static final int SESSION_OFFSET = 16;
+	// on its own cache line, as it is the only field written per record
+	private static final int CURSOR_OFFSET = 64;
+
+	private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+	private PrushRing()
+	{
+	}
+
+	/**
+	 * Guests run with their own {@code user.home}, so the file lives under the temporary directory rather than
+	 * the RuneLite directory, unless the {@code runemirror.ring} system property names another file.
+	 */
+	public static File defaultFile()
+	{
+		String override = System.getProperty("runemirror.ring");
+		if (override != null && !override.trim().isEmpty())
+		{
+			return new File(override.trim());
+		}
+		return new File(new File(System.getProperty("java.io.tmpdir"), "runemirror"), "actions.ring");
+	}
+
+	/**
+	 * @return whether {@code capacity} is usable as a ring size
+	 */
+	public static boolean isValidCapacity(int capacity)
+	{
+		return capacity >= 1024 && Integer.bitCount(capacity) == 1;
+	}
+
+	/**
+	 * @return the largest record, including its length, the writer puts in a ring of {@code capacity} bytes
+	 */
+	public static int maxRecordLength(int capacity)
+	{
+		return capacity / 4;
+	}
+
+	public static int recordLength(int frameLength)
+	{
+		return (4 + frameLength + 3) & ~3;
+	}
+
+	/**
+	 * @param buf the mapped file, in {@link ByteOrder#LITTLE_ENDIAN} order
+	 */
+	public static void writeHeader(ByteBuffer buf, int capacity)
+	{
+		buf.putInt(0, MAGIC);
+		buf.putInt(4, PrushProtocol.VERSION);
+		buf.putInt(CAPACITY_OFFSET, capacity);
+	}
+
+	/**
+	 * @return the ring capacity, or 0 if {@code buf} does not hold a ring of this protocol version
+	 */
+	public static int readHeader(ByteBuffer buf)
+	{
+		if (buf.capacity() < HEADER_LENGTH || buf.getInt(0) != MAGIC || buf.getInt(4) != PrushProtocol.VERSION)
+		{
+			return 0;
+		}
+
+		int capacity = buf.getInt(CAPACITY_OFFSET);
+		return isValidCapacity(capacity) && buf.capacity() >= HEADER_LENGTH + capacity ? capacity : 0;
+	}
+
+	public static long session(ByteBuffer buf)
+	{
+		return (long) LONGS.getAcquire(buf, SESSION_OFFSET);
+	}
+
+	public static void setSession(ByteBuffer buf, long session)
+	{
+		LONGS.setRelease(buf, SESSION_OFFSET, session);
+	}
+
+	public static long cursor(ByteBuffer buf)
+	{
+		return (long) LONGS.getAcquire(buf, CURSOR_OFFSET);
+	}
+
+	public static void setCursor(ByteBuffer buf, long cursor)
+	{
+		LONGS.setRelease(buf, CURSOR_OFFSET, cursor);
+	}
+}
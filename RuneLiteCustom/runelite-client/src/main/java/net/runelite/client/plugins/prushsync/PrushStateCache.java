@@ -0,0 +1,51 @@
+package net.runelite.client.plugins.prushsync;
+
+import net.runelite.api.Client;
+
+/**
+ * Holds the client's {@link PrushStateFingerprint}, recaptured only after something it depends on may have
+ * changed. The owning plugin calls {@link #invalidate()} on every game tick, game state change and interface
+ * load or close, so comparing against it is O(1) the rest of the time.
+ */
+public class PrushStateCache
+{
+	private volatile PrushStateFingerprint fingerprint;
+	private boolean stale = true;
+
+	/**
+	 * Recapture the fingerprint the next time it is asked for. Client thread only.
+	 */
+	public void invalidate()
+	{
+		stale = true;
+	}
+
+	/**
+	 * @return the current fingerprint, recapturing it if stale. Client thread only.
+	 */
+	public PrushStateFingerprint get(Client client)
+	{
+		PrushStateFingerprint f = fingerprint;
+		if (stale || f == null)
+		{
+			f = PrushStateFingerprint.capture(client);
+			fingerprint = f;
+			stale = false;
+		}
+		return f;
+	}
+
+	/**
+	 * @return the last captured fingerprint, or null if none was captured yet. Safe from any thread.
+	 */
+	public PrushStateFingerprint peek()
+	{
+		return fingerprint;
+	}
+
+	public void clear()
+	{
+		fingerprint = null;
+		stale = true;
+	}
+}
@@ -0,0 +1,90 @@
+package net.runelite.client.plugins.prushsync;
+
+import lombok.Value;
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.WidgetNode;
+import net.runelite.api.WorldView;
+import net.runelite.api.widgets.WidgetModalMode;
+
+/**
+ * The parts of a client's state an action depends on: the game state, the player's plane and the set of open
+ * modal interfaces (bank, shops, dialogues and the like). The host stamps it on every action, and a guest whose
+ * own fingerprint differs is in the wrong state to replay it.
+ * <p>
+ * Non-modal interfaces such as the side panels are left out, since which tab is open differs between
+ * clients without affecting what a click does.
+ */
+@Value
+public class PrushStateFingerprint
+{
+	private final int gameState;
+	/**
+	 * The player's plane, or -1 when not logged in
+	 */
+	private final int plane;
+	/**
+	 * An order independent hash of the group ids of the open modal interfaces
+	 */
+	private final int interfaces;
+
+	/**
+	 * Read the fingerprint of {@code client}. Must be called on the client thread.
+	 */
+	public static PrushStateFingerprint capture(Client client)
+	{
+		GameState state = client.getGameState();
+		WorldView wv = client.getTopLevelWorldView();
+		int plane = state == GameState.LOGGED_IN && wv != null ? wv.getPlane() : -1;
+
+		int interfaces = 0;
+		for (WidgetNode node : client.getComponentTable())
+		{
+			if (node.getModalMode() != WidgetModalMode.NON_MODAL)
+			{
+				interfaces += mix(node.getId());
+			}
+		}
+
+		return new PrushStateFingerprint(state.getState(), plane, interfaces);
+	}
+
+	public void stamp(PrushAction a)
+	{
+		a.setGameState(gameState);
+		a.setPlane(plane);
+		a.setInterfaces(interfaces);
+	}
+
+	/**
+	 * @return the name of the first field of this fingerprint which differs from the one stamped on
+	 * {@code a}, or null if they match or {@code a} carries no fingerprint
+	 */
+	public String mismatch(PrushAction a)
+	{
+		if (a.getGameState() != null && a.getGameState() != gameState)
+		{
+			return "game state";
+		}
+		if (a.getPlane() != null && a.getPlane() != plane)
+		{
+			return "plane";
+		}
+		if (a.getInterfaces() != null && a.getInterfaces() != interfaces)
+		{
+			return "interfaces";
+		}
+		return null;
+	}
+
+	private static int mix(int v)
+	{
+		// murmur3 finalizer, so that summing the group ids does not collide on simple arithmetic
+		v ^= v >>> 16;
+		v *= 0x85EBCA6B;
+		v ^= v >>> 13;
+		v *= 0xC2B2AE35;
+		v ^= v >>> 16;
+		return v;
+	}
+}
@@ -0,0 +1,13 @@
+package net.runelite.client.plugins.prushsync;
+
+public enum PrushWireFormat
+{
+	/**
+	 * Length-prefixed frames produced by {@link PrushActionEncoder}
+	 */
+	BINARY,
+	/**
+	 * Newline-delimited {@link PrushSyncGson} output. Larger and slower, but readable with netcat
+	 */
+	JSON
+}
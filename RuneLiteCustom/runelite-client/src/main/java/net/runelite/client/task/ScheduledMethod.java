@@ -25,11 +25,9 @@
 package net.runelite.client.task;
 
 import java.lang.reflect.Method;
-import java.time.Instant;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.Setter;
 import lombok.ToString;
 
 @RequiredArgsConstructor
@@ -42,6 +40,4 @@ public class ScheduledMethod
 	private final Object object;
 	@EqualsAndHashCode.Exclude
 	private final Runnable lambda;
-	@Setter
-	private Instant last = Instant.now();
 }
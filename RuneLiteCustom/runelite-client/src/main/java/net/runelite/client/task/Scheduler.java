@@ -24,35 +24,109 @@
  */
 package net.runelite.client.task;
 
+import com.google.common.annotations.VisibleForTesting;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.time.Duration;
-import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.util.HandlerProfiler;
 
+/**
+ * Runs {@link Schedule} methods. Each method is due its period after it was added or last ran, and runs on the
+ * first {@link #tick()} after that; due methods are found with a {@link TimingWheel}, so a tick doesn't look at
+ * methods which aren't due.
+ */
 @Singleton
 @Slf4j
 public class Scheduler
 {
+	private static final long OVERRUN_WARNING_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+
+	/**
+	 * Timings of a scheduled method since it was added
+	 */
+	@Value
+	public static class Stats
+	{
+		ScheduledMethod method;
+		long runs;
+		/**
+		 * How long after becoming due it was started, on average
+		 */
+		long meanLateNanos;
+		long maxLateNanos;
+		long maxRunNanos;
+		/**
+		 * Runs which took longer than the period
+		 */
+		long overruns;
+	}
+
 	private final List<ScheduledMethod> scheduledMethods = new CopyOnWriteArrayList<>();
+	private final LongSupplier nanoTime;
+	// guarded by this
+	private final Map<ScheduledMethod, Task> tasks = new IdentityHashMap<>();
+	private final TimingWheel<Task> wheel;
+	// client thread only
+	private final List<Task> due = new ArrayList<>();
 
 	@Inject
 	ScheduledExecutorService executor;
 
+	@Inject
+	HandlerProfiler profiler;
+
+	public Scheduler()
+	{
+		this(System::nanoTime);
+	}
+
+	@VisibleForTesting
+	Scheduler(LongSupplier nanoTime)
+	{
+		this.nanoTime = nanoTime;
+		wheel = new TimingWheel<>(nanoTime.getAsLong());
+	}
+
 	public void addScheduledMethod(ScheduledMethod method)
 	{
+		synchronized (this)
+		{
+			if (tasks.containsKey(method))
+			{
+				return;
+			}
+
+			final Task task = new Task(method, nanoTime.getAsLong());
+			tasks.put(method, task);
+			wheel.add(task);
+		}
 		scheduledMethods.add(method);
 	}
 
 	public void removeScheduledMethod(ScheduledMethod method)
 	{
 		scheduledMethods.remove(method);
+		synchronized (this)
+		{
+			final Task task = tasks.remove(method);
+			if (task != null)
+			{
+				wheel.remove(task);
+			}
+		}
 	}
 
 	public List<ScheduledMethod> getScheduledMethods()
@@ -60,39 +134,56 @@ public class Scheduler
 		return Collections.unmodifiableList(scheduledMethods);
 	}
 
-	public void tick()
+	public List<Stats> getStats()
 	{
-		Instant now = Instant.now();
+		final List<Task> tasks;
+		synchronized (this)
+		{
+			tasks = new ArrayList<>(this.tasks.values());
+		}
 
-		for (ScheduledMethod scheduledMethod : scheduledMethods)
+		final List<Stats> stats = new ArrayList<>(tasks.size());
+		for (Task task : tasks)
 		{
-			Instant last = scheduledMethod.getLast();
+			stats.add(task.stats());
+		}
+		return stats;
+	}
 
-			Duration difference = Duration.between(last, now);
+	public void tick()
+	{
+		final long now = nanoTime.getAsLong();
 
-			Schedule schedule = scheduledMethod.getSchedule();
-			Duration timeSinceRun = Duration.of(schedule.period(), schedule.unit());
+		synchronized (this)
+		{
+			wheel.advance(now, due);
+			for (Task task : due)
+			{
+				task.started(now);
+				wheel.add(task);
+			}
+		}
 
-			if (difference.compareTo(timeSinceRun) > 0)
+		for (Task task : due)
+		{
+			log.trace("Scheduled task triggered: {}", task.method);
+
+			if (task.method.getSchedule().asynchronous())
+			{
+				executor.submit(() -> run(task));
+			}
+			else
 			{
-				log.trace("Scheduled task triggered: {}", scheduledMethod);
-
-				scheduledMethod.setLast(now);
-
-				if (schedule.asynchronous())
-				{
-					executor.submit(() -> run(scheduledMethod));
-				}
-				else
-				{
-					run(scheduledMethod);
-				}
+				run(task);
 			}
 		}
+		due.clear();
 	}
 
-	private void run(ScheduledMethod scheduledMethod)
+	private void run(Task task)
 	{
+		final ScheduledMethod scheduledMethod = task.method;
+		final long start = System.nanoTime();
 		try
 		{
 			Runnable lambda = scheduledMethod.getLambda();
@@ -114,5 +205,76 @@ public class Scheduler
 		{
 			log.warn("error during scheduled task", ex);
 		}
+
+		final long end = System.nanoTime();
+		if (task.finished(end - start, end))
+		{
+			log.warn("Scheduled task {} took {}ms, longer than its period of {}ms", scheduledMethod.getMethod(),
+				TimeUnit.NANOSECONDS.toMillis(end - start), TimeUnit.NANOSECONDS.toMillis(task.period));
+		}
+
+		if (profiler != null && profiler.isEnabled())
+		{
+			profiler.record(scheduledMethod.getObject().getClass(), HandlerProfiler.SCHEDULER, end - start);
+		}
+	}
+
+	private static final class Task extends TimingWheel.Entry
+	{
+		private final ScheduledMethod method;
+		private final long period;
+
+		// guarded by this
+		private long runs;
+		private long totalLateNanos;
+		private long maxLateNanos;
+		private long maxRunNanos;
+		private long overruns;
+		private long lastWarning;
+
+		private Task(ScheduledMethod method, long now)
+		{
+			this.method = method;
+			final Schedule schedule = method.getSchedule();
+			period = Duration.of(schedule.period(), schedule.unit()).toNanos();
+			due = now + period;
+		}
+
+		/**
+		 * Record a start and make the task due again one period from now
+		 */
+		private synchronized void started(long now)
+		{
+			final long late = now - due;
+			++runs;
+			totalLateNanos += late;
+			maxLateNanos = Math.max(maxLateNanos, late);
+			due = now + period;
+		}
+
+		/**
+		 * @return whether to warn about the run overrunning
+		 */
+		private synchronized boolean finished(long runNanos, long now)
+		{
+			maxRunNanos = Math.max(maxRunNanos, runNanos);
+			if (runNanos <= period)
+			{
+				return false;
+			}
+
+			++overruns;
+			if (lastWarning != 0 && now - lastWarning < OVERRUN_WARNING_INTERVAL)
+			{
+				return false;
+			}
+			lastWarning = now;
+			return true;
+		}
+
+		private synchronized Stats stats()
+		{
+			return new Stats(method, runs, runs > 0 ? totalLateNanos / runs : 0, maxLateNanos, maxRunNanos, overruns);
+		}
 	}
 }
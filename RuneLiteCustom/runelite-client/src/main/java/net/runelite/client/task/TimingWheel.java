@@ -0,0 +1,170 @@
+package net.runelite.client.task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel over {@link System#nanoTime()} time. Four levels of 64 slots cover about 13 days at a
+ * resolution of 2^26 ns (about 67ms). Entries further out than that wait in the top level and are placed again
+ * each time it turns. Advancing costs one step per elapsed slot plus the entries which cascade or come due,
+ * however many entries are waiting.
+ * <p>
+ * Not thread safe.
+ */
+class TimingWheel<E extends TimingWheel.Entry>
+{
+	static class Entry
+	{
+		/**
+		 * The {@link System#nanoTime()} after which this entry is due
+		 */
+		long due;
+		int slot = -1;
+	}
+
+	private static final int RESOLUTION_SHIFT = 26;
+	private static final int LEVEL_BITS = 6;
+	private static final int SLOTS = 1 << LEVEL_BITS;
+	private static final int LEVELS = 4;
+	private static final long MAX_DELTA = (1L << (LEVEL_BITS * LEVELS)) - 1;
+
+	private final List<E>[] slots;
+	private List<E> spare = new ArrayList<>();
+	/**
+	 * The current tick. Earlier ticks have been emptied; this one's slot may hold entries which aren't due yet.
+	 */
+	private long tick;
+	private int size;
+
+	@SuppressWarnings("unchecked")
+	TimingWheel(long now)
+	{
+		slots = new List[SLOTS * LEVELS];
+		for (int i = 0; i < slots.length; ++i)
+		{
+			slots[i] = new ArrayList<>();
+		}
+		tick = now >> RESOLUTION_SHIFT;
+	}
+
+	int size()
+	{
+		return size;
+	}
+
+	void add(E entry)
+	{
+		assert entry.slot == -1;
+		place(entry, tick);
+		++size;
+	}
+
+	void remove(E entry)
+	{
+		if (entry.slot != -1)
+		{
+			slots[entry.slot].remove(entry);
+			entry.slot = -1;
+			--size;
+		}
+	}
+
+	/**
+	 * Advance the wheel to the given time, removing the entries due before it.
+	 *
+	 * @param now the current {@link System#nanoTime()}
+	 * @param out the list to add due entries to
+	 */
+	void advance(long now, List<? super E> out)
+	{
+		final long target = now >> RESOLUTION_SHIFT;
+		for (;;)
+		{
+			final List<E> entries = take(index(tick, 0));
+			for (E entry : entries)
+			{
+				if (entry.due - now < 0)
+				{
+					out.add(entry);
+					--size;
+				}
+				else
+				{
+					place(entry, tick);
+				}
+			}
+			recycle(entries);
+
+			if (tick - target >= 0)
+			{
+				break;
+			}
+			++tick;
+
+			// entering a new block of a higher level moves its entries down, top level first, as those may land in
+			// the lower level slot being emptied next
+			int levels = 0;
+			while (levels < LEVELS - 1 && (tick & ((1L << (LEVEL_BITS * (levels + 1))) - 1)) == 0)
+			{
+				++levels;
+			}
+			for (int level = levels; level > 0; --level)
+			{
+				final List<E> cascaded = take(level * SLOTS + index(tick, level));
+				for (E entry : cascaded)
+				{
+					place(entry, tick);
+				}
+				recycle(cascaded);
+			}
+		}
+	}
+
+	private void place(E entry, long minTick)
+	{
+		long dueTick = entry.due >> RESOLUTION_SHIFT;
+		if (dueTick - minTick < 0)
+		{
+			dueTick = minTick;
+		}
+
+		final long delta = dueTick - tick;
+		if (delta > MAX_DELTA)
+		{
+			dueTick = tick + MAX_DELTA;
+		}
+
+		int level = 0;
+		while (level < LEVELS - 1 && delta >= 1L << (LEVEL_BITS * (level + 1)))
+		{
+			++level;
+		}
+
+		final int slot = level * SLOTS + index(dueTick, level);
+		slots[slot].add(entry);
+		entry.slot = slot;
+	}
+
+	private List<E> take(int slot)
+	{
+		final List<E> entries = slots[slot];
+		slots[slot] = spare;
+		spare = null;
+		for (E entry : entries)
+		{
+			entry.slot = -1;
+		}
+		return entries;
+	}
+
+	private void recycle(List<E> entries)
+	{
+		entries.clear();
+		spare = entries;
+	}
+
+	private static int index(long tick, int level)
+	{
+		return (int) ((tick >> (LEVEL_BITS * level)) & (SLOTS - 1));
+	}
+}
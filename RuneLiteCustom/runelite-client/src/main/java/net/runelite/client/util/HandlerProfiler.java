@@ -0,0 +1,175 @@
+package net.runelite.client.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.inject.Singleton;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Opt-in timing of event subscribers, client thread tasks and scheduled methods, aggregated by the class that
+ * owns the handler and what it handled. Off by default; while off, callers pay one volatile read per dispatch.
+ */
+@Singleton
+@Slf4j
+public class HandlerProfiler
+{
+	public static final String CLIENT_THREAD = "ClientThread";
+	public static final String CLIENT_THREAD_TICK_END = "ClientThread tick end";
+	public static final String SCHEDULER = "Scheduler";
+
+	private static final long ALARM_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+	private static final ClassValue<String> OWNERS = new ClassValue<>()
+	{
+		@Override
+		protected String computeValue(Class<?> type)
+		{
+			return ownerName(type);
+		}
+	};
+
+	@Value
+	public static class Entry
+	{
+		/**
+		 * The top level class the handler was declared in, which for plugins is the plugin
+		 */
+		private final String owner;
+		/**
+		 * The event class, or {@link #CLIENT_THREAD}, {@link #CLIENT_THREAD_TICK_END} or {@link #SCHEDULER}
+		 */
+		private final String source;
+		private final long count;
+		private final long totalNanos;
+		private final long maxNanos;
+		private final long overBudget;
+	}
+
+	private static class Stats
+	{
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final AtomicLong maxNanos = new AtomicLong();
+		private final LongAdder overBudget = new LongAdder();
+		private volatile long lastAlarm;
+	}
+
+	// handler class -> source -> stats
+	private final Map<Class<?>, Map<Object, Stats>> stats = new ConcurrentHashMap<>();
+
+	@Getter
+	@Setter
+	private volatile boolean enabled;
+
+	/**
+	 * A single call taking longer than this is counted and logged, at most once every 10 seconds per handler
+	 */
+	@Getter
+	@Setter
+	private volatile long budgetNanos = TimeUnit.MILLISECONDS.toNanos(2);
+
+	/**
+	 * Record one call of a handler of class {@code handler}. {@code source} is the event class, or one of the
+	 * constants of this class.
+	 */
+	public void record(Class<?> handler, Object source, long nanos)
+	{
+		Map<Object, Stats> sources = stats.get(handler);
+		if (sources == null)
+		{
+			sources = stats.computeIfAbsent(handler, k -> new ConcurrentHashMap<>());
+		}
+
+		Stats s = sources.get(source);
+		if (s == null)
+		{
+			s = sources.computeIfAbsent(source, k -> new Stats());
+		}
+
+		s.count.increment();
+		s.totalNanos.add(nanos);
+		s.maxNanos.accumulateAndGet(nanos, Math::max);
+
+		if (nanos > budgetNanos)
+		{
+			s.overBudget.increment();
+
+			long now = System.nanoTime();
+			long last = s.lastAlarm;
+			if (last == 0 || now - last >= ALARM_INTERVAL)
+			{
+				s.lastAlarm = now;
+				log.warn("{} took {}ms handling {} on {}, over the {}ms budget", OWNERS.get(handler),
+					String.format("%.2f", nanos / 1e6), sourceName(source), Thread.currentThread().getName(),
+					String.format("%.2f", budgetNanos / 1e6));
+			}
+		}
+	}
+
+	/**
+	 * @return the totals since the last reset, merged by owner and source, most total time first
+	 */
+	public List<Entry> snapshot()
+	{
+		Map<String, long[]> merged = new HashMap<>();
+		for (Map.Entry<Class<?>, Map<Object, Stats>> handler : stats.entrySet())
+		{
+			String owner = OWNERS.get(handler.getKey());
+			for (Map.Entry<Object, Stats> source : handler.getValue().entrySet())
+			{
+				Stats s = source.getValue();
+				long[] totals = merged.computeIfAbsent(owner + '\0' + sourceName(source.getKey()), k -> new long[4]);
+				totals[0] += s.count.sum();
+				totals[1] += s.totalNanos.sum();
+				totals[2] = Math.max(totals[2], s.maxNanos.get());
+				totals[3] += s.overBudget.sum();
+			}
+		}
+
+		List<Entry> entries = new ArrayList<>(merged.size());
+		for (Map.Entry<String, long[]> e : merged.entrySet())
+		{
+			int sep = e.getKey().indexOf('\0');
+			long[] totals = e.getValue();
+			entries.add(new Entry(e.getKey().substring(0, sep), e.getKey().substring(sep + 1),
+				totals[0], totals[1], totals[2], totals[3]));
+		}
+		entries.sort(Comparator.comparingLong(Entry::getTotalNanos).reversed());
+		return entries;
+	}
+
+	public void reset()
+	{
+		stats.clear();
+	}
+
+	/**
+	 * The class {@code type} was declared in, with lambdas and nested classes resolved to their top level class
+	 */
+	static String ownerName(Class<?> type)
+	{
+		String name = type.getName();
+		int lambda = name.indexOf("$$Lambda");
+		if (lambda != -1)
+		{
+			name = name.substring(0, lambda);
+		}
+		int nested = name.indexOf('$');
+		return nested != -1 ? name.substring(0, nested) : name;
+	}
+
+	private static String sourceName(Object source)
+	{
+		return source instanceof Class ? ((Class<?>) source).getSimpleName() : String.valueOf(source);
+	}
+}
@@ -42,6 +42,9 @@ public class Text
 {
 	private static final JaroWinklerDistance DISTANCE = new JaroWinklerDistance();
 	private static final Pattern TAG_REGEXP = Pattern.compile("<[^>]*>");
+	private static final int TAG_CACHE_SIZE = 512;
+	// direct mapped; entries are immutable so racing threads at worst miss
+	private static final TagCacheEntry[] TAG_CACHE = new TagCacheEntry[TAG_CACHE_SIZE];
 	private static final Splitter COMMA_SPLITTER = Splitter
 		.on(",")
 		.omitEmptyStrings()
@@ -81,7 +84,83 @@ public class Text
 	 */
 	public static String removeTags(String str)
 	{
-		return TAG_REGEXP.matcher(str).replaceAll("");
+		final int open = str.indexOf('<');
+		if (open == -1)
+		{
+			return str;
+		}
+
+		final StringBuilder sb = new StringBuilder(str.length());
+		appendWithoutTags(str, open, sb);
+		return sb.toString();
+	}
+
+	/**
+	 * Removes all tags from the given string, appending the result to the given builder.
+	 *
+	 * @param str The string to remove tags from.
+	 * @param out The builder to append to.
+	 * @return The given builder.
+	 */
+	public static StringBuilder removeTags(String str, StringBuilder out)
+	{
+		final int open = str.indexOf('<');
+		if (open == -1)
+		{
+			return out.append(str);
+		}
+
+		appendWithoutTags(str, open, out);
+		return out;
+	}
+
+	/**
+	 * Removes all tags from the given string, remembering recent results. For strings which are seen
+	 * over and over, such as menu targets, this returns the same instance each time rather than a copy.
+	 *
+	 * @param str The string to remove tags from.
+	 * @return The given string with all tags removed from it.
+	 */
+	public static String removeTagsCached(String str)
+	{
+		if (str.indexOf('<') == -1)
+		{
+			return str;
+		}
+
+		final int hash = str.hashCode();
+		final int slot = (hash ^ (hash >>> 16)) & (TAG_CACHE_SIZE - 1);
+		final TagCacheEntry entry = TAG_CACHE[slot];
+		if (entry != null && entry.tagged.equals(str))
+		{
+			return entry.untagged;
+		}
+
+		final String untagged = removeTags(str);
+		TAG_CACHE[slot] = new TagCacheEntry(str, untagged);
+		return untagged;
+	}
+
+	/**
+	 * Matches {@code <[^>]*>}: a tag runs from a {@code <} to the next {@code >}, and a {@code <} with no
+	 * {@code >} after it is kept.
+	 */
+	private static void appendWithoutTags(String str, int open, StringBuilder out)
+	{
+		int start = 0;
+		while (open != -1)
+		{
+			final int close = str.indexOf('>', open + 1);
+			if (close == -1)
+			{
+				break;
+			}
+
+			out.append(str, start, open);
+			start = close + 1;
+			open = str.indexOf('<', start);
+		}
+		out.append(str, start, str.length());
 	}
 
 	/**
@@ -233,4 +312,16 @@ public class Text
 		}
 		return true;
 	}
+
+	private static final class TagCacheEntry
+	{
+		private final String tagged;
+		private final String untagged;
+
+		private TagCacheEntry(String tagged, String untagged)
+		{
+			this.tagged = tagged;
+			this.untagged = untagged;
+		}
+	}
 }
@@ -0,0 +1,180 @@
+package net.runelite.client.callback;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.util.ArrayList;
+import java.util.List;
+import javax.inject.Inject;
+import net.runelite.api.Client;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClientThreadTest
+{
+	@Mock
+	@Bind
+	private Client client;
+
+	@Inject
+	private ClientThread clientThread;
+
+	private boolean onClientThread;
+	private final List<String> ran = new ArrayList<>();
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+		when(client.isClientThread()).thenAnswer(i -> onClientThread);
+	}
+
+	private void cycle()
+	{
+		onClientThread = true;
+		clientThread.invoke();
+		onClientThread = false;
+	}
+
+	@Test
+	public void runsHigherPrioritiesFirst()
+	{
+		clientThread.invokeLater(() -> ran.add("low"), InvokePriority.LOW);
+		clientThread.invokeLater(() -> ran.add("normal"));
+		clientThread.invoke(() -> ran.add("high"), InvokePriority.HIGH);
+		assertEquals(3, clientThread.getQueueDepth());
+
+		cycle();
+		assertEquals(List.of("high", "normal", "low"), ran);
+		assertEquals(0, clientThread.getQueueDepth());
+	}
+
+	@Test
+	public void leavesWorkOverBudgetForNextCycle()
+	{
+		clientThread.setFrameBudgetNanos(0);
+		clientThread.invokeLater(() -> ran.add("normal 1"));
+		clientThread.invokeLater(() -> ran.add("normal 2"));
+		clientThread.invokeLater(() -> ran.add("high 1"), InvokePriority.HIGH);
+		clientThread.invokeLater(() -> ran.add("high 2"), InvokePriority.HIGH);
+
+		cycle();
+		assertEquals(List.of("high 1", "high 2"), ran);
+		assertEquals(1, clientThread.getStats().getOverBudgetCycles());
+
+		cycle();
+		assertEquals(List.of("high 1", "high 2", "normal 1"), ran);
+
+		cycle();
+		assertEquals(4, ran.size());
+		assertEquals(0, clientThread.getQueueDepth());
+	}
+
+	@Test
+	public void tasksQueuedWhileRunningWaitForNextCycle()
+	{
+		clientThread.invokeLater(() ->
+		{
+			ran.add("first");
+			clientThread.invokeLater(() -> ran.add("second"));
+		});
+
+		cycle();
+		assertEquals(List.of("first"), ran);
+
+		cycle();
+		assertEquals(List.of("first", "second"), ran);
+	}
+
+	@Test
+	public void retriesNextCycle()
+	{
+		int[] attempts = new int[1];
+		clientThread.invokeLater(() -> ++attempts[0] > 3);
+
+		for (int i = 1; i <= 4; ++i)
+		{
+			cycle();
+			assertEquals(i, attempts[0]);
+		}
+		assertEquals(0, clientThread.getQueueDepth());
+
+		ClientThread.Stats stats = clientThread.getStats();
+		assertEquals(1, stats.getStarted());
+		assertEquals(3, stats.getRetries());
+	}
+
+	@Test
+	public void backsOffRetries() throws InterruptedException
+	{
+		int[] attempts = new int[1];
+		clientThread.invokeWithBackOff(() -> ++attempts[0] > 2, InvokePriority.NORMAL);
+
+		cycle();
+		assertEquals(1, attempts[0]);
+
+		// the first retry is on the next cycle
+		cycle();
+		assertEquals(2, attempts[0]);
+
+		// then it waits
+		cycle();
+		assertEquals(2, attempts[0]);
+		assertEquals(1, clientThread.getQueueDepth());
+
+		Thread.sleep(20);
+		cycle();
+		assertEquals(3, attempts[0]);
+		assertEquals(0, clientThread.getQueueDepth());
+
+		ClientThread.Stats stats = clientThread.getStats();
+		assertEquals(1, stats.getStarted());
+		assertEquals(2, stats.getRetries());
+	}
+
+	@Test
+	public void onlyTasksFromOtherThreadsEndTheWait()
+	{
+		clientThread.invokeLater(() -> ran.add("other"));
+		assertTrue(clientThread.takeQueued());
+		assertFalse(clientThread.takeQueued());
+
+		// a task which requeues itself every cycle
+		Runnable[] requeue = new Runnable[1];
+		requeue[0] = () ->
+		{
+			ran.add("requeue");
+			clientThread.invokeLater(requeue[0]);
+		};
+		clientThread.invokeLater(requeue[0]);
+		assertTrue(clientThread.takeQueued());
+
+		cycle();
+		assertFalse(clientThread.takeQueued());
+		cycle();
+		assertFalse(clientThread.takeQueued());
+		assertEquals(List.of("other", "requeue", "requeue"), ran);
+
+		onClientThread = true;
+		clientThread.invokeAtTickEnd(() -> ran.add("tick end"));
+		onClientThread = false;
+		assertFalse(clientThread.takeQueued());
+	}
+
+	@Test
+	public void runsInlineOnClientThread()
+	{
+		onClientThread = true;
+		clientThread.invoke(() -> ran.add("inline"));
+		assertEquals(List.of("inline"), ran);
+		assertEquals(0, clientThread.getQueueDepth());
+	}
+}
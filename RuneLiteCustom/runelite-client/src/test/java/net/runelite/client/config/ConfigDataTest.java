@@ -0,0 +1,154 @@
+package net.runelite.client.config;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ConfigDataTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File configFile;
+
+	@Before
+	public void before()
+	{
+		configFile = new File(folder.getRoot(), "default-1.properties");
+	}
+
+	@Test
+	public void testFlushIsReadBack()
+	{
+		ConfigData data = new ConfigData(configFile);
+		data.setProperty("a.b", "1");
+		data.setProperty("a.c", "2");
+		data.flush();
+		data.unset("a.c");
+		data.setProperty("a.d", "multi\nline = value");
+		data.flush();
+
+		// only the log has been written
+		assertFalse(configFile.exists());
+
+		Map<String, String> props = new ConfigData(configFile).get();
+		assertEquals(Map.of("a.b", "1", "a.d", "multi\nline = value"), props);
+	}
+
+	@Test
+	public void testCompact() throws IOException
+	{
+		ConfigData data = new ConfigData(configFile);
+		data.setProperty("a.b", "1");
+		data.flush();
+		data.setProperty("a.c", "2");
+		data.compact();
+
+		assertEquals(Map.of("a.b", "1", "a.c", "2"), loadProperties());
+		assertFalse(ConfigJournal.hasLog(configFile));
+		assertTrue(ConfigJournal.snapshotFile(configFile).exists());
+
+		data.setProperty("a.c", "3");
+		data.flush();
+		assertTrue(ConfigJournal.hasLog(configFile));
+		assertEquals(Map.of("a.b", "1", "a.c", "3"), new ConfigData(configFile).get());
+	}
+
+	@Test
+	public void testMerge()
+	{
+		// two clients sharing one config
+		ConfigData first = new ConfigData(configFile);
+		ConfigData second = new ConfigData(configFile);
+		first.setProperty("a.b", "1");
+		first.compact();
+		second.setProperty("a.c", "2");
+		second.flush();
+		first.setProperty("a.d", "3");
+		first.compact();
+
+		assertEquals(Map.of("a.b", "1", "a.c", "2", "a.d", "3"), new ConfigData(configFile).get());
+	}
+
+	@Test
+	public void testReplacedProperties() throws IOException
+	{
+		ConfigData data = new ConfigData(configFile);
+		data.setProperty("a.b", "1");
+		data.compact();
+		data.setProperty("a.c", "2");
+		data.flush();
+
+		// the snapshot and log are stale once the properties are replaced, such as by an import
+		Properties props = new Properties();
+		props.setProperty("x.y", "z");
+		try (OutputStreamWriter out = new OutputStreamWriter(new FileOutputStream(configFile), StandardCharsets.UTF_8))
+		{
+			props.store(out, null);
+		}
+		configFile.setLastModified(configFile.lastModified() + 2000);
+
+		assertEquals(Map.of("x.y", "z"), new ConfigData(configFile).get());
+	}
+
+	@Test
+	public void testTornLogRecord() throws IOException
+	{
+		ConfigData data = new ConfigData(configFile);
+		data.setProperty("a.b", "1");
+		data.flush();
+		data.setProperty("a.c", "2");
+		data.flush();
+
+		File log = ConfigJournal.logFile(configFile);
+		try (RandomAccessFile raf = new RandomAccessFile(log, "rw"))
+		{
+			raf.setLength(raf.length() - 1);
+		}
+
+		ConfigData read = new ConfigData(configFile);
+		assertEquals("1", read.getProperty("a.b"));
+		assertNull(read.getProperty("a.c"));
+
+		// appending after the torn record must not leave the new record behind it
+		read.setProperty("a.d", "3");
+		read.flush();
+
+		ConfigData reread = new ConfigData(configFile);
+		assertEquals("1", reread.getProperty("a.b"));
+		assertEquals("3", reread.getProperty("a.d"));
+
+		reread.compact();
+		assertEquals("3", loadProperties().get("a.d"));
+		assertEquals("3", new ConfigData(configFile).getProperty("a.d"));
+	}
+
+	private Map<String, String> loadProperties() throws IOException
+	{
+		Properties props = new Properties();
+		try (InputStreamReader in = new InputStreamReader(new FileInputStream(configFile), StandardCharsets.UTF_8))
+		{
+			props.load(in);
+		}
+
+		Map<String, String> map = new HashMap<>();
+		props.forEach((k, v) -> map.put((String) k, (String) v));
+		return map;
+	}
+}
@@ -145,6 +145,24 @@ public class ConfigManagerTest
 		Assert.assertEquals("new value", conf.key());
 	}
 
+	@Test
+	public void testCachedConfigInvalidated()
+	{
+		TestConfig conf = manager.getConfig(TestConfig.class);
+		Assert.assertEquals("default", conf.key());
+
+		manager.setConfiguration("test", "key", "moo");
+		Assert.assertEquals("moo", conf.key());
+
+		// a profile's key is not the proxy's
+		manager.setConfiguration("test", "rsprofile.123", "key", "baa");
+		Assert.assertEquals("moo", conf.key());
+
+		manager.unsetConfiguration("test", "key");
+		Assert.assertEquals("default", conf.key());
+		Assert.assertEquals("default", manager.getConfig(TestConfig.class).key());
+	}
+
 	@Test
 	public void testGetConfigDescriptor() throws IOException
 	{
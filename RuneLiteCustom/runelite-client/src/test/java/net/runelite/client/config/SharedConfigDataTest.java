@@ -0,0 +1,107 @@
+package net.runelite.client.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SharedConfigDataTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private SharedConfigStore firstStore;
+	private SharedConfigStore secondStore;
+	private SharedConfigData first;
+	private SharedConfigData second;
+
+	@Before
+	public void before() throws IOException
+	{
+		File file = new File(folder.getRoot(), "shared.dat");
+		firstStore = new SharedConfigStore(file, 64 << 10, 4096, 1);
+		secondStore = new SharedConfigStore(file, 64 << 10, 4096, 2);
+		Set<String> localKeys = Set.of("guest.port");
+		first = new SharedConfigData(new File(folder.newFolder("first"), "overrides.properties"), null, firstStore, localKeys);
+		second = new SharedConfigData(new File(folder.newFolder("second"), "overrides.properties"), null, secondStore, localKeys);
+	}
+
+	@After
+	public void after() throws IOException
+	{
+		firstStore.close();
+		secondStore.close();
+	}
+
+	@Test
+	public void testLayers()
+	{
+		first.setProperty("guest.port", "1001");
+		second.setProperty("guest.port", "1002");
+		first.setProperty("a.b", "shared");
+
+		// visible here before it is written
+		assertEquals("shared", first.getProperty("a.b"));
+		assertNull(second.getProperty("a.b"));
+
+		first.flush();
+		second.flush();
+		assertEquals("shared", second.getProperty("a.b"));
+		assertEquals("1001", first.getProperty("guest.port"));
+		assertEquals("1002", second.getProperty("guest.port"));
+		assertEquals(Map.of("a.b", "shared", "guest.port", "1002"), second.get());
+
+		assertEquals(Map.of("a.b", "shared", "guest.port", "1001"), first.swapChanges());
+		assertEquals(Map.of("guest.port", "1002"), second.swapChanges());
+	}
+
+	@Test
+	public void testUnsetOverride() throws IOException
+	{
+		first.setProperty("a.b", "shared");
+		first.flush();
+
+		// a key set in the overrides file which isn't a local key
+		File overridesPath = new File(folder.newFolder("third"), "overrides.properties");
+		Files.write(overridesPath.toPath(), List.of("a.b=override"));
+		SharedConfigData third = new SharedConfigData(overridesPath, null, secondStore, Set.of());
+		assertEquals("override", third.getProperty("a.b"));
+
+		assertEquals("override", third.unset("a.b"));
+		assertNull(third.getProperty("a.b"));
+		assertNull(third.get().get("a.b"));
+
+		third.flush();
+		assertNull(first.getProperty("a.b"));
+		assertNull(new SharedConfigData(overridesPath, null, secondStore, Set.of()).getProperty("a.b"));
+	}
+
+	@Test
+	public void testPoll()
+	{
+		List<String> changes = new ArrayList<>();
+		first.setProperty("a.b", "1");
+		first.setProperty("guest.port", "1001");
+		first.flush();
+		second.poll((key, oldValue, newValue) -> changes.add(key + ":" + oldValue + "->" + newValue));
+		assertEquals(List.of("a.b:null->1"), changes);
+
+		changes.clear();
+		second.unset("a.b");
+		second.flush();
+		second.poll((key, oldValue, newValue) -> changes.add(key));
+		first.poll((key, oldValue, newValue) -> changes.add(key + ":" + oldValue + "->" + newValue));
+		assertEquals(List.of("a.b:1->null"), changes);
+		assertNull(first.getProperty("a.b"));
+	}
+}
@@ -0,0 +1,175 @@
+package net.runelite.client.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SharedConfigStoreTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	// two stores on one file stand in for two client processes
+	private SharedConfigStore first;
+	private SharedConfigStore second;
+
+	@Before
+	public void before() throws IOException
+	{
+		File file = new File(folder.getRoot(), "shared.dat");
+		first = new SharedConfigStore(file, 64 << 10, 1024, 1);
+		second = new SharedConfigStore(file, 64 << 10, 1024, 2);
+	}
+
+	@After
+	public void after() throws IOException
+	{
+		first.close();
+		second.close();
+	}
+
+	@Test
+	public void testReadWrite() throws IOException
+	{
+		assertTrue(first.read().isEmpty());
+		assertNull(first.get("a.b"));
+
+		Map<String, String> changes = new HashMap<>();
+		for (int i = 0; i < 100; ++i)
+		{
+			changes.put("group.key" + i, "value " + i);
+		}
+		changes.put("group.ünicode", "välue");
+		first.write(changes);
+
+		assertFalse(second.read().isEmpty());
+		assertEquals(changes, second.read());
+		assertEquals("value 42", second.get("group.key42"));
+		assertEquals("välue", second.get("group.ünicode"));
+		assertNull(second.get("group.key100"));
+
+		Map<String, String> unset = new HashMap<>();
+		unset.put("group.key42", null);
+		second.write(unset);
+		assertNull(first.get("group.key42"));
+		assertEquals(100, first.read().size());
+	}
+
+	@Test
+	public void testSeed() throws IOException
+	{
+		assertFalse(second.isSeeded());
+		assertTrue(first.seed(Map.of("a.b", "1")));
+		assertTrue(second.isSeeded());
+		assertFalse(second.seed(Map.of("a.b", "2")));
+		assertEquals("1", second.get("a.b"));
+
+		// emptied, but not seeded again
+		Map<String, String> unset = new HashMap<>();
+		unset.put("a.b", null);
+		first.write(unset);
+		assertTrue(second.read().isEmpty());
+		assertFalse(second.seed(Map.of("a.b", "3")));
+		assertNull(first.get("a.b"));
+	}
+
+	@Test
+	public void testPoll() throws IOException
+	{
+		long firstPosition = first.ringHead();
+		long secondPosition = second.ringHead();
+		long counter = second.counter();
+
+		first.write(Map.of("a.b", "1"));
+		first.write(Map.of("a.b", "2", "a.c", "3"));
+		assertEquals(counter + 2, second.counter());
+
+		List<String> changes = new ArrayList<>();
+		SharedConfigStore.Listener listener = new SharedConfigStore.Listener()
+		{
+			@Override
+			public void changed(String key, String oldValue)
+			{
+				changes.add(key + "=" + oldValue);
+			}
+
+			@Override
+			public void overflowed()
+			{
+				changes.add("overflowed");
+			}
+		};
+
+		secondPosition = second.poll(secondPosition, listener);
+		changes.sort(null);
+		assertEquals(List.of("a.b=1", "a.b=null", "a.c=null"), changes);
+
+		// nothing new, and a process doesn't see its own writes
+		changes.clear();
+		second.poll(secondPosition, listener);
+		first.poll(firstPosition, listener);
+		assertTrue(changes.isEmpty());
+	}
+
+	@Test
+	public void testPollOverflow() throws IOException
+	{
+		long position = second.ringHead();
+		for (int i = 0; i < 100; ++i)
+		{
+			first.write(Map.of("a.b", "value" + i));
+		}
+
+		List<String> changes = new ArrayList<>();
+		position = second.poll(position, new SharedConfigStore.Listener()
+		{
+			@Override
+			public void changed(String key, String oldValue)
+			{
+				changes.add(key);
+			}
+
+			@Override
+			public void overflowed()
+			{
+				changes.add("overflowed");
+			}
+		});
+		assertEquals(List.of("overflowed"), changes);
+
+		// the ring wraps and is read from the start again
+		changes.clear();
+		for (int i = 0; i < 10; ++i)
+		{
+			first.write(Map.of("a.c", "value" + i));
+			position = second.poll(position, new SharedConfigStore.Listener()
+			{
+				@Override
+				public void changed(String key, String oldValue)
+				{
+					changes.add(key);
+				}
+
+				@Override
+				public void overflowed()
+				{
+					changes.add("overflowed");
+				}
+			});
+		}
+		assertEquals(10, changes.size());
+		assertTrue(changes.stream().allMatch("a.c"::equals));
+	}
+}
@@ -0,0 +1,196 @@
+package net.runelite.client.eventbus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.events.BeforeRender;
+import net.runelite.api.events.ClientTick;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Cost of {@link EventBus#post(Object)} for the per-frame events, with {@code subscribers} listeners of
+ * {@link ClientTick} and {@link BeforeRender} registered. Each operation is one post.
+ * <p>
+ * Run {@link #main} with {@code profile} to instead time each subscriber separately and list the most
+ * expensive ones per event type.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark
+{
+	private static final ClientTick CLIENT_TICK = new ClientTick();
+	private static final BeforeRender BEFORE_RENDER = new BeforeRender();
+	private static final Object UNSUBSCRIBED = new Object();
+
+	@Param({"0", "10", "100"})
+	public int subscribers;
+
+	private EventBus eventBus;
+
+	@Setup
+	public void setup()
+	{
+		eventBus = createEventBus(subscribers);
+	}
+
+	@Benchmark
+	public void postClientTick()
+	{
+		eventBus.post(CLIENT_TICK);
+	}
+
+	@Benchmark
+	public void postBeforeRender()
+	{
+		eventBus.post(BEFORE_RENDER);
+	}
+
+	@Benchmark
+	public void postUnsubscribed()
+	{
+		eventBus.post(UNSUBSCRIBED);
+	}
+
+	static EventBus createEventBus(int subscribers)
+	{
+		EventBus eventBus = new EventBus();
+		for (int i = 0; i < subscribers; ++i)
+		{
+			switch (i % 3)
+			{
+				case 0:
+					eventBus.register(new CountingListener());
+					break;
+				case 1:
+					eventBus.register(new HashingListener());
+					break;
+				default:
+					eventBus.register(new FormattingListener());
+					break;
+			}
+		}
+		return eventBus;
+	}
+
+	/**
+	 * Time every subscriber of each of {@code events} over {@code iterations} calls, and print the
+	 * {@code top} most expensive per event type, merged by subscriber class and method.
+	 */
+	static void profile(EventBus eventBus, Object[] events, int iterations, int top) throws Exception
+	{
+		for (Object event : events)
+		{
+			Map<String, long[]> costs = new LinkedHashMap<>();
+			EventBus.Subscriber[] subs = eventBus.getSubscribers(event.getClass());
+			for (EventBus.Subscriber sub : subs)
+			{
+				for (int i = 0; i < iterations; ++i)
+				{
+					sub.invoke(event);
+				}
+
+				long start = System.nanoTime();
+				for (int i = 0; i < iterations; ++i)
+				{
+					sub.invoke(event);
+				}
+				long elapsed = System.nanoTime() - start;
+
+				String name = sub.getMethod() != null
+					? sub.getObject().getClass().getSimpleName() + "." + sub.getMethod().getName()
+					: sub.getObject().getClass().getName();
+				long[] cost = costs.computeIfAbsent(name, k -> new long[2]);
+				cost[0] += elapsed;
+				++cost[1];
+			}
+
+			long total = costs.values().stream().mapToLong(c -> c[0]).sum();
+			System.out.printf("%s: %d subscribers, %.1f ns/event%n", event.getClass().getSimpleName(), subs.length,
+				(double) total / iterations);
+
+			List<Map.Entry<String, long[]>> sorted = new ArrayList<>(costs.entrySet());
+			sorted.sort(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[0]).reversed());
+			for (Map.Entry<String, long[]> e : sorted.subList(0, Math.min(top, sorted.size())))
+			{
+				long[] cost = e.getValue();
+				System.out.printf("  %-40s x%-4d %10.1f ns/event %5.1f%%%n", e.getKey(), cost[1],
+					(double) cost[0] / iterations, total > 0 ? 100.0 * cost[0] / total : 0);
+			}
+		}
+	}
+
+	public static void main(String[] args) throws Exception
+	{
+		if (args.length > 0 && args[0].equals("profile"))
+		{
+			profile(createEventBus(100), new Object[]{CLIENT_TICK, BEFORE_RENDER}, 100_000, 10);
+			return;
+		}
+
+		new Runner(new OptionsBuilder()
+			.include(EventBusBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+
+	public static class CountingListener
+	{
+		private int ticks;
+		private int renders;
+
+		@Subscribe
+		public void onClientTick(ClientTick event)
+		{
+			++ticks;
+		}
+
+		@Subscribe(priority = 1)
+		public void onBeforeRender(BeforeRender event)
+		{
+			++renders;
+		}
+	}
+
+	public static class HashingListener
+	{
+		private int hash = 1;
+
+		@Subscribe
+		public void onClientTick(ClientTick event)
+		{
+			for (int i = 0; i < 64; ++i)
+			{
+				hash = hash * 31 + i;
+			}
+		}
+	}
+
+	public static class FormattingListener
+	{
+		private String last;
+
+		@Subscribe(priority = -1)
+		public void onBeforeRender(BeforeRender event)
+		{
+			last = "frame " + System.identityHashCode(event);
+		}
+	}
+}
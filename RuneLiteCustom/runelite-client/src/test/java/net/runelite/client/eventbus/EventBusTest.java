@@ -0,0 +1,169 @@
+package net.runelite.client.eventbus;
+
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class EventBusTest
+{
+	public static class Event
+	{
+	}
+
+	public static class OtherEvent
+	{
+	}
+
+	public static class BaseEvent
+	{
+	}
+
+	public static class DerivedEvent extends BaseEvent
+	{
+	}
+
+	private final List<String> calls = new ArrayList<>();
+
+	public class Low
+	{
+		@Subscribe(priority = -1)
+		public void onEvent(Event event)
+		{
+			calls.add("low");
+		}
+	}
+
+	public class Normal
+	{
+		@Subscribe
+		public void onEvent(Event event)
+		{
+			calls.add("normal");
+		}
+
+		@Subscribe
+		public void onOtherEvent(OtherEvent event)
+		{
+			calls.add("other");
+		}
+	}
+
+	public class High
+	{
+		@Subscribe(priority = 1)
+		public void onEvent(Event event)
+		{
+			calls.add("high");
+		}
+	}
+
+	public class Throwing
+	{
+		@Subscribe
+		public void onEvent(Event event)
+		{
+			throw new IllegalStateException();
+		}
+	}
+
+	public class BaseListener
+	{
+		@Subscribe
+		public void onBaseEvent(BaseEvent event)
+		{
+		}
+	}
+
+	public class DerivedListener
+	{
+		@Subscribe
+		public void onDerivedEvent(DerivedEvent event)
+		{
+		}
+	}
+
+	@Test
+	public void postsInPriorityOrder()
+	{
+		EventBus eventBus = new EventBus();
+		eventBus.register(new Normal());
+		eventBus.register(new Low());
+		eventBus.register(new High());
+		eventBus.register(Event.class, e -> calls.add("lambda"), 0.5f);
+
+		eventBus.post(new Event());
+		assertEquals(List.of("high", "lambda", "normal", "low"), calls);
+	}
+
+	@Test
+	public void samePriorityKeepsRegistrationOrder()
+	{
+		EventBus eventBus = new EventBus();
+		Normal first = new Normal();
+		Normal second = new Normal();
+		eventBus.register(first);
+		eventBus.register(second);
+
+		EventBus.Subscriber[] subs = eventBus.getSubscribers(Event.class);
+		assertEquals(2, subs.length);
+		assertTrue(subs[0].getObject() == first);
+		assertTrue(subs[1].getObject() == second);
+	}
+
+	@Test
+	public void unregister()
+	{
+		EventBus eventBus = new EventBus();
+		Normal normal = new Normal();
+		High high = new High();
+		eventBus.register(normal);
+		eventBus.register(high);
+		EventBus.Subscriber lambda = eventBus.register(Event.class, e -> calls.add("lambda"), 0);
+
+		eventBus.unregister(normal);
+		eventBus.unregister(lambda);
+		eventBus.post(new Event());
+		eventBus.post(new OtherEvent());
+		assertEquals(List.of("high"), calls);
+		assertEquals(0, eventBus.getSubscribers(OtherEvent.class).length);
+
+		eventBus.unregister(high);
+		eventBus.post(new Event());
+		assertEquals(1, calls.size());
+	}
+
+	@Test
+	public void postDuringRegistrationSeesSnapshot()
+	{
+		EventBus eventBus = new EventBus();
+		eventBus.register(Event.class, e -> eventBus.register(new Normal()), 0);
+
+		eventBus.post(new Event());
+		assertEquals(0, calls.size());
+		eventBus.post(new Event());
+		assertEquals(List.of("normal"), calls);
+	}
+
+	@Test
+	public void exceptionsGoToHandler()
+	{
+		List<Throwable> errors = new ArrayList<>();
+		EventBus eventBus = new EventBus(errors::add);
+		eventBus.register(new Throwing());
+		eventBus.register(new Low());
+
+		eventBus.post(new Event());
+		assertEquals(1, errors.size());
+		assertEquals(List.of("low"), calls);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsSubclassOfSubscribedEvent()
+	{
+		EventBus eventBus = new EventBus();
+		eventBus.register(new BaseListener());
+		eventBus.register(new DerivedListener());
+	}
+}
@@ -40,6 +40,7 @@ import net.runelite.api.ObjectComposition;
 import net.runelite.api.events.PostMenuSort;
 import net.runelite.client.chat.ChatMessageManager;
 import net.runelite.client.config.ConfigManager;
+import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.menus.TestMenuEntry;
 import org.junit.After;
@@ -385,4 +386,45 @@ public class MenuEntrySwapperPluginTest
 			menu("Last-destination (AIQ)", "Fairy ring", MenuAction.GAME_OBJECT_SECOND_OPTION),
 		}, argumentCaptor.getValue());
 	}
+
+	@Test
+	public void testCustomObjectSwap()
+	{
+		ConfigChanged configChanged = new ConfigChanged();
+		configChanged.setGroup(MenuEntrySwapperConfig.GROUP);
+		configChanged.setKey("object_0");
+		configChanged.setNewValue("1");
+		menuEntrySwapperPlugin.onConfigChanged(configChanged);
+
+		entries = new MenuEntry[]{
+			menu("Cancel", "", MenuAction.CANCEL),
+			menu("Examine", "Door", MenuAction.EXAMINE_OBJECT),
+			menu("Walk here", "", MenuAction.WALK),
+
+			menu("Pick-lock", "Door", MenuAction.GAME_OBJECT_SECOND_OPTION),
+			menu("Open", "Door", MenuAction.GAME_OBJECT_FIRST_OPTION),
+		};
+
+		menuEntrySwapperPlugin.onPostMenuSort(new PostMenuSort());
+
+		ArgumentCaptor<MenuEntry[]> argumentCaptor = ArgumentCaptor.forClass(MenuEntry[].class);
+		verify(menu).setMenuEntries(argumentCaptor.capture());
+
+		assertArrayEquals(new MenuEntry[]{
+			menu("Cancel", "", MenuAction.CANCEL),
+			menu("Examine", "Door", MenuAction.EXAMINE_OBJECT),
+			menu("Walk here", "", MenuAction.WALK),
+
+			menu("Open", "Door", MenuAction.GAME_OBJECT_FIRST_OPTION),
+			menu("Pick-lock", "Door", MenuAction.GAME_OBJECT_SECOND_OPTION),
+		}, argumentCaptor.getValue());
+
+		// unsetting the swap removes it
+		configChanged.setOldValue("1");
+		configChanged.setNewValue(null);
+		menuEntrySwapperPlugin.onConfigChanged(configChanged);
+
+		menuEntrySwapperPlugin.onPostMenuSort(new PostMenuSort());
+		verify(menu, times(1)).setMenuEntries(any(MenuEntry[].class));
+	}
 }
\ No newline at end of file
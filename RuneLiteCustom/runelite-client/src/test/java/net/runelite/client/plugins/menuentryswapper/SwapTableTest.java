@@ -0,0 +1,47 @@
+package net.runelite.client.plugins.menuentryswapper;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class SwapTableTest
+{
+	@Test
+	public void testPutGetRemove()
+	{
+		SwapTable table = new SwapTable();
+		for (int i = 0; i < 1000; ++i)
+		{
+			table.put(i * 31L, i);
+		}
+		assertEquals(1000, table.size());
+
+		// remove every other key, which has to move the rest of each probe run back
+		for (int i = 0; i < 1000; i += 2)
+		{
+			table.remove(i * 31L);
+		}
+		assertEquals(500, table.size());
+
+		for (int i = 0; i < 1000; ++i)
+		{
+			assertEquals(i % 2 == 0 ? SwapTable.NONE : i, table.get(i * 31L));
+		}
+	}
+
+	@Test
+	public void testCopy()
+	{
+		SwapTable table = new SwapTable();
+		table.put(1, -1);
+		table.put((long) 12345 << 32 | 0xFFFFFFFFL, 2);
+
+		SwapTable copy = table.copy();
+		copy.put(1, 3);
+		copy.remove((long) 12345 << 32 | 0xFFFFFFFFL);
+
+		assertEquals(-1, table.get(1));
+		assertEquals(2, table.get((long) 12345 << 32 | 0xFFFFFFFFL));
+		assertEquals(3, copy.get(1));
+		assertEquals(SwapTable.NONE, copy.get((long) 12345 << 32 | 0xFFFFFFFFL));
+	}
+}
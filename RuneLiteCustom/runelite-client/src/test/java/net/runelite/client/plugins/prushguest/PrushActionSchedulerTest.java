@@ -0,0 +1,141 @@
+package net.runelite.client.plugins.prushguest;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.runelite.api.MenuAction;
+import net.runelite.client.plugins.prushsync.PrushAction;
+import net.runelite.client.plugins.prushsync.PrushActionType;
+import net.runelite.client.plugins.prushsync.PrushHistogram;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrushActionSchedulerTest
+{
+	private PrushHistogram tickLag;
+	private PrushActionScheduler scheduler;
+	private List<PrushAction> out;
+
+	@Before
+	public void before()
+	{
+		tickLag = new PrushHistogram("tick lag", PrushHistogram.Unit.TICKS);
+		scheduler = new PrushActionScheduler(tickLag);
+		out = new ArrayList<>();
+	}
+
+	@Test
+	public void holdsUntilNextTick()
+	{
+		PrushAction a = action(1, 500, PrushActionType.DIALOG_CONTINUE);
+		scheduler.offer(a, 100, 0);
+
+		assertEquals(0, scheduler.drain(100, 1, 8, out));
+		assertTrue(out.isEmpty());
+
+		assertEquals(0, scheduler.drain(101, 1, 8, out));
+		assertEquals(1, out.size());
+		assertSame(a, out.get(0));
+	}
+
+	@Test
+	public void tickOffset()
+	{
+		scheduler.offer(action(1, 500, PrushActionType.DIALOG_CONTINUE), 100, 2);
+
+		scheduler.drain(102, 1, 8, out);
+		assertTrue(out.isEmpty());
+
+		scheduler.drain(103, 1, 8, out);
+		assertEquals(1, out.size());
+	}
+
+	@Test
+	public void keepsHostTickSpacing()
+	{
+		scheduler.offer(action(1, 500, PrushActionType.DIALOG_CONTINUE), 100, 0);
+		// Arrives a tick late, but is still due one tick after the first
+		scheduler.offer(action(2, 501, PrushActionType.DIALOG_CONTINUE), 102, 0);
+
+		scheduler.drain(101, 5, 8, out);
+		assertEquals(1, out.size());
+		assertEquals(1, out.get(0).getSeq());
+
+		out.clear();
+		scheduler.drain(102, 5, 8, out);
+		assertEquals(1, out.size());
+		assertEquals(2, out.get(0).getSeq());
+	}
+
+	@Test
+	public void dropsStale()
+	{
+		scheduler.offer(action(1, 500, PrushActionType.DIALOG_CONTINUE), 100, 0);
+		scheduler.offer(action(2, 501, PrushActionType.DIALOG_CONTINUE), 101, 0);
+
+		assertEquals(1, scheduler.drain(103, 1, 8, out));
+		assertEquals(1, out.size());
+		assertEquals(2, out.get(0).getSeq());
+		assertEquals(0, scheduler.size());
+		assertEquals(2, tickLag.snapshot().getCount());
+		assertEquals(2, tickLag.snapshot().getMax());
+	}
+
+	@Test
+	public void coalescesWalks()
+	{
+		scheduler.offer(action(1, 500, PrushActionType.WALK), 100, 0);
+		PrushAction click = action(2, 500, PrushActionType.MENU_ACTION);
+		click.setOpcode(MenuAction.WALK.getId());
+		scheduler.offer(click, 100, 0);
+		scheduler.offer(action(3, 500, PrushActionType.DIALOG_CONTINUE), 100, 0);
+		scheduler.offer(action(4, 501, PrushActionType.WALK_WORLD), 101, 0);
+
+		scheduler.drain(101, 1, 8, out);
+		assertEquals(2, out.size());
+		assertSame(click, out.get(0));
+		assertEquals(3, out.get(1).getSeq());
+	}
+
+	@Test
+	public void boundsWorkPerTick()
+	{
+		for (int i = 1; i <= 5; ++i)
+		{
+			scheduler.offer(action(i, 500, PrushActionType.DIALOG_CONTINUE), 100, 0);
+		}
+
+		scheduler.drain(101, 1, 3, out);
+		assertEquals(3, out.size());
+		assertEquals(2, scheduler.size());
+
+		out.clear();
+		scheduler.drain(102, 1, 3, out);
+		assertEquals(2, out.size());
+		assertEquals(4, out.get(0).getSeq());
+	}
+
+	@Test
+	public void reanchorsAfterHostTickJump()
+	{
+		scheduler.offer(action(1, 500, PrushActionType.DIALOG_CONTINUE), 100, 0);
+		scheduler.drain(101, 1, 8, out);
+
+		// Host relogged and its tick count restarted
+		out.clear();
+		scheduler.offer(action(2, 3, PrushActionType.DIALOG_CONTINUE), 200, 0);
+		scheduler.drain(201, 1, 8, out);
+		assertEquals(1, out.size());
+	}
+
+	private static PrushAction action(long seq, int tick, PrushActionType type)
+	{
+		PrushAction a = new PrushAction();
+		a.setSeq(seq);
+		a.setTick(tick);
+		a.setType(type);
+		return a;
+	}
+}
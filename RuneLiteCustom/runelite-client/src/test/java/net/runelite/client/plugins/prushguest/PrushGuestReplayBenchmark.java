@@ -0,0 +1,166 @@
+package net.runelite.client.plugins.prushguest;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.HashTable;
+import net.runelite.api.Player;
+import net.runelite.api.WidgetNode;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.callback.InvokePriority;
+import net.runelite.client.plugins.prushsync.PrushAction;
+import net.runelite.client.plugins.prushsync.PrushActionDecoder;
+import net.runelite.client.plugins.prushsync.PrushActionEncoder;
+import net.runelite.client.plugins.prushsync.PrushJournalReader;
+import net.runelite.client.plugins.prushsync.PrushWireBenchmark;
+import net.runelite.client.ui.overlay.OverlayManager;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Headless guest: decodes a recorded journal, or the {@link PrushWireBenchmark} corpus if none is given, and
+ * dispatches every action through {@link PrushGuestPlugin} against a mocked {@link Client} whose client
+ * thread runs everything inline. Each operation is one action.
+ * <p>
+ * Pass a journal with {@code -Drunemirror.journal=<file>}, or as the first argument to {@link #main}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrushGuestReplayBenchmark
+{
+	@Param({"true", "false"})
+	public boolean stateGating;
+
+	@Bind
+	private final Client client = mock(Client.class);
+
+	@Bind
+	private final ClientThread clientThread = mock(ClientThread.class);
+
+	@Bind
+	private final PrushGuestConfig config = mock(PrushGuestConfig.class);
+
+	@Bind
+	private final OverlayManager overlayManager = mock(OverlayManager.class);
+
+	private PrushGuestPlugin plugin;
+	private byte[] stream;
+	private ByteArrayInputStream in;
+	private PrushActionDecoder decoder;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() throws IOException
+	{
+		WorldView wv = mock(WorldView.class);
+		when(wv.getId()).thenReturn(-1);
+		when(wv.getSizeX()).thenReturn(104);
+		when(wv.getSizeY()).thenReturn(104);
+		Player player = mock(Player.class);
+		when(player.getLocalLocation()).thenReturn(new LocalPoint(6464, 6464, -1));
+		when(player.getWorldLocation()).thenReturn(new WorldPoint(3218, 3218, 0));
+		HashTable<WidgetNode> components = mock(HashTable.class);
+		when(components.iterator()).thenAnswer(i -> Collections.emptyIterator());
+
+		when(client.getGameState()).thenReturn(GameState.LOGGED_IN);
+		when(client.getTickCount()).thenReturn(100);
+		when(client.getTopLevelWorldView()).thenReturn(wv);
+		when(client.getLocalPlayer()).thenReturn(player);
+		when(client.getComponentTable()).thenReturn(components);
+		doAnswer(i ->
+		{
+			((Runnable) i.getArgument(0)).run();
+			return null;
+		}).when(clientThread).invoke(any(Runnable.class), any(InvokePriority.class));
+
+		// dispatch on arrival, as tick alignment would only measure the scheduler
+		when(config.enabled()).thenReturn(true);
+		when(config.tickAligned()).thenReturn(false);
+		when(config.stateGating()).thenReturn(stateGating);
+
+		plugin = new PrushGuestPlugin();
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(plugin);
+
+		PrushActionEncoder encoder = new PrushActionEncoder();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		String journal = System.getProperty("runemirror.journal");
+		if (journal != null)
+		{
+			for (PrushJournalReader.Entry e : PrushJournalReader.readAll(new File(journal)))
+			{
+				out.write(encoder.encode(e.getAction()));
+			}
+		}
+		else
+		{
+			for (PrushAction a : PrushWireBenchmark.corpus())
+			{
+				out.write(encoder.encode(a));
+			}
+		}
+		stream = out.toByteArray();
+		if (stream.length == 0)
+		{
+			throw new IOException("no actions to replay");
+		}
+		rewind();
+	}
+
+	private void rewind()
+	{
+		in = new ByteArrayInputStream(stream);
+		decoder = new PrushActionDecoder();
+	}
+
+	@Benchmark
+	public void decodeAndDispatch() throws IOException
+	{
+		if (in.available() == 0)
+		{
+			rewind();
+		}
+		plugin.handleAction(decoder.read(in));
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		OptionsBuilder options = new OptionsBuilder();
+		options.include(PrushGuestReplayBenchmark.class.getSimpleName());
+		if (args.length > 0)
+		{
+			options.jvmArgsAppend("-Drunemirror.journal=" + new File(args[0]).getAbsolutePath());
+		}
+		new Runner(options.build()).run();
+	}
+}
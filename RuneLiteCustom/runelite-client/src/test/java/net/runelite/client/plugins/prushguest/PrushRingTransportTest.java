@@ -0,0 +1,124 @@
+package net.runelite.client.plugins.prushguest;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import net.runelite.client.plugins.prushhost.PrushRingWriter;
+import net.runelite.client.plugins.prushsync.PrushAction;
+import net.runelite.client.plugins.prushsync.PrushMetrics;
+import static net.runelite.client.plugins.prushsync.PrushTestActions.action;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrushRingTransportTest
+{
+	private static final int CAPACITY = 4096;
+
+	private final List<PrushAction> received = new ArrayList<>();
+	private File file;
+	private PrushRingWriter writer;
+	private PrushRingReader reader;
+
+	@Before
+	public void before() throws IOException
+	{
+		file = File.createTempFile("runemirror", ".ring");
+		file.delete();
+		reader = new PrushRingReader(file, received::add, new PrushMetrics());
+	}
+
+	@After
+	public void after()
+	{
+		if (writer != null)
+		{
+			writer.close();
+		}
+		file.delete();
+	}
+
+	@Test
+	public void waitsForHost() throws IOException
+	{
+		assertFalse(reader.attach());
+
+		writer = startWriter();
+		assertTrue(reader.attach());
+		assertEquals(0, reader.poll());
+	}
+
+	@Test
+	public void readsAcrossWrap() throws IOException
+	{
+		writer = startWriter();
+		assertTrue(reader.attach());
+		reader.poll();
+
+		// enough records to wrap the ring several times, read in small batches
+		int seq = 0;
+		for (int batch = 0; batch < 100; ++batch)
+		{
+			for (int i = 0; i < 7; ++i)
+			{
+				writer.broadcast(action(++seq));
+			}
+			assertEquals(7, reader.poll());
+		}
+
+		assertEquals(seq, received.size());
+		for (int i = 0; i < seq; ++i)
+		{
+			assertEquals(i + 1, received.get(i).getSeq());
+			assertEquals("opt" + (i + 1), received.get(i).getOption());
+		}
+	}
+
+	@Test
+	public void skipsAheadWhenLapped() throws IOException
+	{
+		writer = startWriter();
+		assertTrue(reader.attach());
+		reader.poll();
+
+		for (int seq = 1; seq <= 1000; ++seq)
+		{
+			writer.broadcast(action(seq));
+		}
+		assertEquals(0, reader.poll());
+
+		writer.broadcast(action(1001));
+		assertEquals(1, reader.poll());
+		assertEquals(1001, received.get(0).getSeq());
+	}
+
+	@Test
+	public void followsNewHostSession() throws IOException
+	{
+		writer = startWriter();
+		assertTrue(reader.attach());
+		reader.poll();
+		writer.broadcast(action(1));
+		assertEquals(1, reader.poll());
+
+		// a restarted host reuses the file and numbers its actions from the start again
+		writer.close();
+		writer = startWriter();
+		writer.broadcast(action(1));
+		writer.broadcast(action(2));
+		assertEquals(2, reader.poll());
+		assertEquals(1, received.get(1).getSeq());
+		assertEquals(2, received.get(2).getSeq());
+	}
+
+	private PrushRingWriter startWriter() throws IOException
+	{
+		PrushRingWriter w = new PrushRingWriter(file, CAPACITY, new PrushMetrics());
+		w.start();
+		return w;
+	}
+}
@@ -0,0 +1,44 @@
+package net.runelite.client.plugins.prushhost;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import net.runelite.client.plugins.prushsync.PrushMetrics;
+import net.runelite.client.plugins.prushsync.PrushWireFormat;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class PrushHostBroadcasterTest
+{
+	@Test
+	public void testSetTargetsStopsPreviousLoop()
+	{
+		PrushHostBroadcaster broadcaster = new PrushHostBroadcaster(100, 16, PrushWireFormat.BINARY, new PrushMetrics());
+		List<InetSocketAddress> targets = List.of(new InetSocketAddress("127.0.0.1", 1));
+		try
+		{
+			for (int i = 0; i < 10; ++i)
+			{
+				broadcaster.setTargets(targets);
+				assertEquals(1, loopThreads());
+			}
+		}
+		finally
+		{
+			broadcaster.close();
+		}
+		assertEquals(0, loopThreads());
+	}
+
+	private static int loopThreads()
+	{
+		int n = 0;
+		for (Thread thread : Thread.getAllStackTraces().keySet())
+		{
+			if (thread.getName().equals("RuneMirrorHostBroadcaster") && thread.isAlive())
+			{
+				++n;
+			}
+		}
+		return n;
+	}
+}
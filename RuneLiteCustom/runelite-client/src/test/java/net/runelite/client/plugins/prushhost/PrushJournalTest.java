@@ -0,0 +1,82 @@
+package net.runelite.client.plugins.prushhost;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+import net.runelite.client.plugins.prushsync.PrushJournalReader;
+import static net.runelite.client.plugins.prushsync.PrushTestActions.action;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrushJournalTest
+{
+	private File file;
+
+	@Before
+	public void before() throws IOException
+	{
+		file = File.createTempFile("runemirror", ".rmj");
+	}
+
+	@After
+	public void after()
+	{
+		file.delete();
+	}
+
+	@Test
+	public void roundTrip() throws IOException
+	{
+		PrushJournalWriter writer = new PrushJournalWriter(file);
+		writer.start();
+		for (int i = 1; i <= 100; ++i)
+		{
+			writer.broadcast(action(i));
+		}
+		writer.close();
+
+		List<PrushJournalReader.Entry> entries = PrushJournalReader.readAll(file);
+		assertEquals(100, entries.size());
+		long previous = 0;
+		for (int i = 0; i < entries.size(); ++i)
+		{
+			PrushJournalReader.Entry e = entries.get(i);
+			assertEquals(action(i + 1), e.getAction());
+			assertTrue(e.getOffsetNanos() >= previous);
+			previous = e.getOffsetNanos();
+		}
+	}
+
+	@Test
+	public void readsUpToTruncatedRecord() throws IOException
+	{
+		PrushJournalWriter writer = new PrushJournalWriter(file);
+		writer.start();
+		writer.broadcast(action(1));
+		writer.broadcast(action(2));
+		writer.close();
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+		{
+			raf.setLength(raf.length() - 3);
+		}
+
+		List<PrushJournalReader.Entry> entries = PrushJournalReader.readAll(file);
+		assertEquals(1, entries.size());
+		assertEquals(1, entries.get(0).getAction().getSeq());
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsOtherFiles() throws IOException
+	{
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+		{
+			raf.write(new byte[64]);
+		}
+		PrushJournalReader.readAll(file);
+	}
+}
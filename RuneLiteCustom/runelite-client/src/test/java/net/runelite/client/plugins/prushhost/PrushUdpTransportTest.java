@@ -0,0 +1,95 @@
+package net.runelite.client.plugins.prushhost;
+
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import net.runelite.client.plugins.prushguest.PrushUdpReceiver;
+import net.runelite.client.plugins.prushsync.PrushAction;
+import net.runelite.client.plugins.prushsync.PrushMetrics;
+import static net.runelite.client.plugins.prushsync.PrushTestActions.action;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrushUdpTransportTest
+{
+	private final BlockingQueue<PrushAction> received = new LinkedBlockingQueue<>();
+	private InetSocketAddress address;
+	private PrushUdpReceiver receiver;
+	private PrushUdpSender sender;
+
+	@Before
+	public void before() throws IOException
+	{
+		int port;
+		try (DatagramSocket s = new DatagramSocket(0))
+		{
+			port = s.getLocalPort();
+		}
+
+		address = new InetSocketAddress("127.0.0.1", port);
+		receiver = new PrushUdpReceiver(address, received::add, new PrushMetrics());
+		receiver.start();
+	}
+
+	@After
+	public void after()
+	{
+		if (sender != null)
+		{
+			sender.close();
+		}
+		receiver.stop();
+	}
+
+	@Test
+	public void recoversDroppedDatagrams() throws Exception
+	{
+		sender = startSender();
+		// a gap in the middle is noticed by the next datagram, the last one only by a heartbeat
+		sender.setDropFilter(seq -> seq == 3 || seq == 7 || seq == 10);
+
+		for (int i = 1; i <= 10; ++i)
+		{
+			sender.broadcast(action(i));
+		}
+
+		for (int i = 1; i <= 10; ++i)
+		{
+			PrushAction a = received.poll(5, TimeUnit.SECONDS);
+			assertNotNull("action " + i + " was not delivered", a);
+			assertEquals(i, a.getSeq());
+			assertEquals("opt" + i, a.getOption());
+		}
+		assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void followsNewHostSession() throws Exception
+	{
+		sender = startSender();
+		sender.broadcast(action(1));
+		sender.broadcast(action(2));
+		assertEquals(1, received.poll(5, TimeUnit.SECONDS).getSeq());
+		assertEquals(2, received.poll(5, TimeUnit.SECONDS).getSeq());
+
+		// a restarted host numbers its datagrams from the start again
+		sender.close();
+		sender = startSender();
+		sender.broadcast(action(1));
+		assertEquals(1, received.poll(5, TimeUnit.SECONDS).getSeq());
+	}
+
+	private PrushUdpSender startSender() throws IOException
+	{
+		PrushUdpSender s = new PrushUdpSender(address, 0, new PrushMetrics());
+		s.start();
+		return s;
+	}
+}
@@ -0,0 +1,117 @@
+package net.runelite.client.plugins.prushsync;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class PrushActionCodecTest
+{
+	static PrushAction walk(long seq)
+	{
+		PrushAction a = new PrushAction();
+		a.setV(PrushProtocol.VERSION);
+		a.setSeq(seq);
+		a.setTick(1234 + (int) seq);
+		a.setType(PrushActionType.WALK_WORLD);
+		a.setParam0(52);
+		a.setParam1(-1);
+		a.setOpcode(23);
+		a.setItemId(-1);
+		a.setOption("Walk here");
+		a.setTarget("");
+		a.setWorldX(3222);
+		a.setWorldY(3218);
+		a.setWorldPlane(0);
+		a.setRelDx(-3);
+		a.setRelDy(7);
+		a.setHostBaseX(3168);
+		a.setHostBaseY(3168);
+		a.setHostPlayerWorldX(3225);
+		a.setHostPlayerWorldY(3211);
+		a.setHostPlayerWorldPlane(0);
+		return a;
+	}
+
+	@Test
+	public void roundTrip() throws IOException
+	{
+		PrushActionEncoder encoder = new PrushActionEncoder();
+		PrushActionDecoder decoder = new PrushActionDecoder();
+
+		PrushAction click = new PrushAction();
+		click.setV(PrushProtocol.VERSION);
+		click.setSeq(Long.MAX_VALUE);
+		click.setType(PrushActionType.MENU_ACTION);
+		click.setParam0(Integer.MIN_VALUE);
+		click.setParam1(Integer.MAX_VALUE);
+		click.setIdentifier(-1);
+		click.setOption("Talk-to");
+		click.setTarget("<col=ffff00>Hans");
+		click.setHostPlayerSceneY(-5);
+		click.setGameState(30);
+		click.setPlane(1);
+		click.setInterfaces(Integer.MIN_VALUE + 7);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(encoder.encode(walk(1)));
+		out.write(PrushActionEncoder.heartbeat());
+		out.write(encoder.encode(click));
+		out.write(encoder.encode(walk(2)));
+
+		InputStream in = new ByteArrayInputStream(out.toByteArray());
+		assertEquals(walk(1), decoder.read(in));
+		assertNull(decoder.read(in));
+		assertEquals(click, decoder.read(in));
+		assertEquals(walk(2), decoder.read(in));
+		assertEquals(-1, in.read());
+	}
+
+	@Test
+	public void internsStrings() throws IOException
+	{
+		PrushActionEncoder encoder = new PrushActionEncoder();
+		byte[] first = encoder.encode(walk(1));
+		byte[] second = encoder.encode(walk(2));
+		assertTrue(second.length < first.length);
+
+		PrushActionEncoder literal = new PrushActionEncoder(false);
+		literal.encode(walk(1));
+		assertEquals(first.length, literal.encode(walk(2)).length);
+	}
+
+	@Test
+	public void resetStartsNewStringTable() throws IOException
+	{
+		PrushActionEncoder encoder = new PrushActionEncoder();
+		encoder.encode(walk(1));
+		encoder.reset();
+
+		// a reader which joins after the reset must be able to decode without having seen earlier frames
+		PrushActionDecoder late = new PrushActionDecoder();
+		assertEquals(walk(2), late.read(new ByteArrayInputStream(encoder.encode(walk(2)))));
+	}
+
+	@Test(expected = EOFException.class)
+	public void truncatedFrame() throws IOException
+	{
+		byte[] frame = new PrushActionEncoder().encode(walk(1));
+		new PrushActionDecoder().read(new ByteArrayInputStream(frame, 0, frame.length - 1));
+	}
+
+	@Test
+	public void handshake()
+	{
+		PrushProtocol.Handshake hs = new PrushProtocol.Handshake(PrushProtocol.VERSION, PrushWireFormat.BINARY, -2L);
+		String line = new String(hs.toBytes()).trim();
+		assertEquals(hs, PrushProtocol.parseHandshake(line));
+		assertNull(PrushProtocol.parseHandshake("{\"v\":1}"));
+		assertNull(PrushProtocol.parseHandshake("RUNEMIRROR 2 XML 1"));
+		assertNull(PrushProtocol.parseHandshake("RUNEMIRROR 2 BINARY"));
+	}
+}
@@ -0,0 +1,59 @@
+package net.runelite.client.plugins.prushsync;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class PrushHistogramTest
+{
+	@Test
+	public void bucketsAreContiguous()
+	{
+		long previous = -1;
+		for (int bucket = 0; bucket < 2000 && previous < Long.MAX_VALUE / 4; ++bucket)
+		{
+			long highest = PrushHistogram.highestValue(bucket);
+			assertEquals(bucket, PrushHistogram.bucket(previous + 1));
+			assertEquals(bucket, PrushHistogram.bucket(highest));
+			previous = highest;
+		}
+		assertEquals(PrushHistogram.bucket(Long.MAX_VALUE), PrushHistogram.bucket(Long.MAX_VALUE - 1));
+	}
+
+	@Test
+	public void percentiles()
+	{
+		PrushHistogram h = new PrushHistogram("test", PrushHistogram.Unit.NANOSECONDS);
+		for (long v = 1; v <= 10_000; ++v)
+		{
+			h.record(v * 1000);
+		}
+
+		PrushHistogram.Snapshot s = h.snapshot();
+		assertEquals(10_000, s.getCount());
+		assertEquals(10_000_000, s.getMax());
+		assertEquals(5_000_500, s.getMean(), 1);
+		assertWithin(5_000_000, s.getValueAtPercentile(50));
+		assertWithin(9_900_000, s.getValueAtPercentile(99));
+		assertEquals(10_000_000, s.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void reset()
+	{
+		PrushHistogram h = new PrushHistogram("test", PrushHistogram.Unit.TICKS);
+		h.record(3);
+		h.record(-1);
+		assertEquals(2, h.snapshot().getCount());
+		assertEquals(0, h.snapshot().getValueAtPercentile(50));
+
+		h.reset();
+		assertEquals(0, h.snapshot().getCount());
+		assertEquals(0, h.snapshot().getValueAtPercentile(99));
+	}
+
+	private static void assertWithin(long expected, long actual)
+	{
+		assertTrue("expected ~" + expected + ", got " + actual, Math.abs(actual - expected) <= expected / 32);
+	}
+}
@@ -0,0 +1,38 @@
+package net.runelite.client.plugins.prushsync;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+
+public class PrushStateFingerprintTest
+{
+	private static final PrushStateFingerprint BANKING = new PrushStateFingerprint(30, 0, 0x1234);
+
+	@Test
+	public void matchesOwnStamp()
+	{
+		PrushAction a = new PrushAction();
+		BANKING.stamp(a);
+		assertNull(BANKING.mismatch(a));
+	}
+
+	@Test
+	public void unstampedActionsPass()
+	{
+		assertNull(BANKING.mismatch(new PrushAction()));
+	}
+
+	@Test
+	public void reportsFirstDifference()
+	{
+		PrushAction a = new PrushAction();
+		new PrushStateFingerprint(10, -1, 0).stamp(a);
+		assertEquals("game state", BANKING.mismatch(a));
+
+		new PrushStateFingerprint(30, 1, 0).stamp(a);
+		assertEquals("plane", BANKING.mismatch(a));
+
+		new PrushStateFingerprint(30, 0, 0).stamp(a);
+		assertEquals("interfaces", BANKING.mismatch(a));
+	}
+}
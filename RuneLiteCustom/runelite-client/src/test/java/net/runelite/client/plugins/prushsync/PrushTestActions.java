@@ -0,0 +1,28 @@
+package net.runelite.client.plugins.prushsync;
+
+/**
+ * Actions for the transport tests
+ */
+public final class PrushTestActions
+{
+	private PrushTestActions()
+	{
+	}
+
+	/**
+	 * @return an action which survives encoding unchanged. Even and odd seqs alternate between walks and clicks, so
+	 * consecutive actions differ in which fields are set.
+	 */
+	public static PrushAction action(long seq)
+	{
+		PrushAction a = new PrushAction();
+		a.setV(PrushProtocol.VERSION);
+		a.setType(seq % 2 == 0 ? PrushActionType.WALK : PrushActionType.MENU_ACTION);
+		a.setSeq(seq);
+		a.setTick(100 + (int) seq);
+		a.setOption("opt" + seq);
+		a.setTarget("");
+		a.setWorldX(seq % 2 == 0 ? 3200 + (int) seq : null);
+		return a;
+	}
+}
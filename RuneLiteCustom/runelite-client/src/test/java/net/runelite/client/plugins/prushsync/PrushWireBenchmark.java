@@ -0,0 +1,179 @@
+package net.runelite.client.plugins.prushsync;
+
+import com.google.gson.Gson;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the binary wire format against the Gson JSON lines it replaced. Each operation is one action
+ * from a corpus shaped like a real session: mostly walks, with repeated menu options and targets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrushWireBenchmark
+{
+	static final int CORPUS_SIZE = 1024;
+
+	private PrushAction[] corpus;
+	private Gson gson;
+	private PrushActionEncoder encoder;
+	private byte[] binaryStream;
+	private String[] jsonLines;
+
+	public static PrushAction[] corpus()
+	{
+		String[][] clicks = {
+			{"Talk-to", "<col=ffff00>Hans"},
+			{"Attack", "<col=ffff00>Goblin<col=ff00>  (level-2)"},
+			{"Open", "<col=ffff>Door"},
+			{"Chop down", "<col=ffff>Tree"},
+			{"Use", "<col=ff9040>Bronze axe"},
+			{"Continue", ""},
+		};
+
+		PrushAction[] actions = new PrushAction[CORPUS_SIZE];
+		for (int i = 0; i < actions.length; ++i)
+		{
+			PrushAction a = new PrushAction();
+			a.setV(PrushProtocol.VERSION);
+			a.setSeq(i + 1);
+			a.setTick(52000 + i / 3);
+			a.setHostBaseX(3168);
+			a.setHostBaseY(3168);
+			a.setHostPlayerWorldX(3200 + i % 40);
+			a.setHostPlayerWorldY(3200 + i % 25);
+			a.setHostPlayerWorldPlane(0);
+
+			if (i % 3 != 0)
+			{
+				a.setType(PrushActionType.WALK);
+				a.setParam0(40 + i % 20);
+				a.setParam1(50 + i % 17);
+				a.setOpcode(23);
+				a.setItemId(-1);
+				a.setOption("Walk here");
+				a.setTarget("");
+				a.setWorldX(3200 + i % 40 + 4);
+				a.setWorldY(3200 + i % 25 - 2);
+				a.setWorldPlane(0);
+				a.setRelDx(4);
+				a.setRelDy(-2);
+				a.setHostPlayerSceneX(32 + i % 40);
+				a.setHostPlayerSceneY(32 + i % 25);
+			}
+			else
+			{
+				String[] click = clicks[i % clicks.length];
+				a.setType(PrushActionType.MENU_ACTION);
+				a.setParam0(i % 100);
+				a.setParam1(i % 7 == 0 ? 10485775 : 60);
+				a.setOpcode(9 + i % 5);
+				a.setIdentifier(i % 2048);
+				a.setItemId(-1);
+				a.setOption(click[0]);
+				a.setTarget(click[1]);
+			}
+			actions[i] = a;
+		}
+		return actions;
+	}
+
+	@Setup
+	public void setup() throws IOException
+	{
+		corpus = corpus();
+		gson = PrushSyncGson.create();
+		encoder = new PrushActionEncoder();
+
+		PrushActionEncoder streamEncoder = new PrushActionEncoder();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		jsonLines = new String[corpus.length];
+		for (int i = 0; i < corpus.length; ++i)
+		{
+			out.write(streamEncoder.encode(corpus[i]));
+			jsonLines[i] = gson.toJson(corpus[i]);
+		}
+		binaryStream = out.toByteArray();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CORPUS_SIZE)
+	public void encodeBinary(Blackhole bh)
+	{
+		for (PrushAction a : corpus)
+		{
+			bh.consume(encoder.encode(a));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CORPUS_SIZE)
+	public void encodeJson(Blackhole bh)
+	{
+		for (PrushAction a : corpus)
+		{
+			bh.consume((gson.toJson(a) + '\n').getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CORPUS_SIZE)
+	public void decodeBinary(Blackhole bh) throws IOException
+	{
+		PrushActionDecoder decoder = new PrushActionDecoder();
+		ByteArrayInputStream in = new ByteArrayInputStream(binaryStream);
+		for (int i = 0; i < CORPUS_SIZE; ++i)
+		{
+			bh.consume(decoder.read(in));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CORPUS_SIZE)
+	public void decodeJson(Blackhole bh)
+	{
+		for (String line : jsonLines)
+		{
+			bh.consume(gson.fromJson(line, PrushAction.class));
+		}
+	}
+
+	public static void main(String[] args) throws IOException, RunnerException
+	{
+		PrushWireBenchmark b = new PrushWireBenchmark();
+		b.setup();
+		long jsonBytes = 0;
+		for (String line : b.jsonLines)
+		{
+			jsonBytes += line.getBytes(StandardCharsets.UTF_8).length + 1;
+		}
+		System.out.printf("bytes/action: binary %.1f, json %.1f%n",
+			(double) b.binaryStream.length / CORPUS_SIZE, (double) jsonBytes / CORPUS_SIZE);
+
+		new Runner(new OptionsBuilder()
+			.include(PrushWireBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
@@ -0,0 +1,90 @@
+package net.runelite.client.task;
+
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SchedulerTest
+{
+	private long now;
+	private int runs;
+	private Scheduler scheduler;
+	private ScheduledMethod scheduledMethod;
+
+	@Before
+	public void before() throws Exception
+	{
+		now = 0;
+		runs = 0;
+		scheduler = new Scheduler(() -> now);
+		scheduledMethod = new ScheduledMethod(
+			getClass().getDeclaredMethod("task").getAnnotation(Schedule.class),
+			getClass().getDeclaredMethod("task"),
+			this,
+			this::task);
+		scheduler.addScheduledMethod(scheduledMethod);
+	}
+
+	@Schedule(period = 1, unit = ChronoUnit.SECONDS)
+	public void task()
+	{
+		++runs;
+	}
+
+	@Test
+	public void testPeriod()
+	{
+		tick(TimeUnit.MILLISECONDS.toNanos(600));
+		assertEquals(0, runs);
+
+		// the period has to have passed, not only been reached
+		tick(TimeUnit.MILLISECONDS.toNanos(400));
+		assertEquals(0, runs);
+
+		tick(TimeUnit.MILLISECONDS.toNanos(200));
+		assertEquals(1, runs);
+
+		// next due a period after it ran
+		tick(TimeUnit.MILLISECONDS.toNanos(600));
+		assertEquals(1, runs);
+		tick(TimeUnit.MILLISECONDS.toNanos(600));
+		assertEquals(2, runs);
+
+		List<Scheduler.Stats> stats = scheduler.getStats();
+		assertEquals(1, stats.size());
+		assertEquals(2, stats.get(0).getRuns());
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(200), stats.get(0).getMaxLateNanos());
+		assertEquals(0, stats.get(0).getOverruns());
+	}
+
+	@Test
+	public void testRemove()
+	{
+		scheduler.removeScheduledMethod(scheduledMethod);
+		assertTrue(scheduler.getScheduledMethods().isEmpty());
+		assertTrue(scheduler.getStats().isEmpty());
+
+		tick(TimeUnit.SECONDS.toNanos(5));
+		assertEquals(0, runs);
+	}
+
+	@Test
+	public void testAddTwice()
+	{
+		scheduler.addScheduledMethod(scheduledMethod);
+		assertEquals(1, scheduler.getScheduledMethods().size());
+
+		tick(TimeUnit.SECONDS.toNanos(2));
+		assertEquals(1, runs);
+	}
+
+	private void tick(long nanos)
+	{
+		now += nanos;
+		scheduler.tick();
+	}
+}
@@ -0,0 +1,121 @@
+package net.runelite.client.task;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class TimingWheelTest
+{
+	private static class Entry extends TimingWheel.Entry
+	{
+		Entry(long due)
+		{
+			this.due = due;
+		}
+	}
+
+	@Test
+	public void testDue()
+	{
+		long now = 1000;
+		TimingWheel<Entry> wheel = new TimingWheel<>(now);
+		Entry entry = new Entry(now + TimeUnit.SECONDS.toNanos(1));
+		wheel.add(entry);
+
+		List<Entry> due = new ArrayList<>();
+		wheel.advance(now + TimeUnit.MILLISECONDS.toNanos(999), due);
+		assertTrue(due.isEmpty());
+
+		// due only once strictly after its due time
+		wheel.advance(entry.due, due);
+		assertTrue(due.isEmpty());
+
+		wheel.advance(entry.due + 1, due);
+		assertEquals(List.of(entry), due);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	public void testRemove()
+	{
+		TimingWheel<Entry> wheel = new TimingWheel<>(0);
+		Entry entry = new Entry(TimeUnit.MINUTES.toNanos(5));
+		wheel.add(entry);
+		wheel.remove(entry);
+		wheel.remove(entry);
+		assertEquals(0, wheel.size());
+
+		List<Entry> due = new ArrayList<>();
+		wheel.advance(TimeUnit.MINUTES.toNanos(10), due);
+		assertTrue(due.isEmpty());
+	}
+
+	@Test
+	public void testRandom()
+	{
+		Random random = new Random(42);
+		long now = random.nextLong();
+		TimingWheel<Entry> wheel = new TimingWheel<>(now);
+		List<Entry> pending = new ArrayList<>();
+		List<Entry> due = new ArrayList<>();
+
+		for (int step = 0; step < 5_000; ++step)
+		{
+			int action = random.nextInt(10);
+			if (action < 4)
+			{
+				long delay;
+				switch (random.nextInt(4))
+				{
+					case 0:
+						delay = random.nextInt(1_000_000_000);
+						break;
+					case 1:
+						delay = (long) (random.nextDouble() * TimeUnit.HOURS.toNanos(2));
+						break;
+					case 2:
+						// further out than the wheel covers
+						delay = (long) (random.nextDouble() * TimeUnit.DAYS.toNanos(30));
+						break;
+					default:
+						delay = -random.nextInt(1_000_000);
+						break;
+				}
+				Entry entry = new Entry(now + delay);
+				wheel.add(entry);
+				pending.add(entry);
+			}
+			else if (action < 5 && !pending.isEmpty())
+			{
+				Entry entry = pending.remove(random.nextInt(pending.size()));
+				wheel.remove(entry);
+			}
+			else
+			{
+				now += random.nextInt(16) == 0
+					? (long) (random.nextDouble() * TimeUnit.HOURS.toNanos(6))
+					: random.nextInt(700_000_000);
+				wheel.advance(now, due);
+
+				Set<Entry> expected = new HashSet<>();
+				for (Entry entry : pending)
+				{
+					if (entry.due - now < 0)
+					{
+						expected.add(entry);
+					}
+				}
+				assertEquals(expected, new HashSet<>(due));
+				pending.removeAll(expected);
+				due.clear();
+			}
+			assertEquals(pending.size(), wheel.size());
+		}
+	}
+}
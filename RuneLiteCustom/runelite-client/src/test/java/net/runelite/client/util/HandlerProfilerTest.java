@@ -0,0 +1,81 @@
+package net.runelite.client.util;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.Subscribe;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class HandlerProfilerTest
+{
+	public static class Event
+	{
+	}
+
+	public static class Listener
+	{
+		@Subscribe
+		public void onEvent(Event event)
+		{
+		}
+	}
+
+	@Test
+	public void ownerName()
+	{
+		Runnable lambda = () ->
+		{
+		};
+		assertEquals(HandlerProfilerTest.class.getName(), HandlerProfiler.ownerName(lambda.getClass()));
+		assertEquals(HandlerProfilerTest.class.getName(), HandlerProfiler.ownerName(Listener.class));
+		assertEquals(String.class.getName(), HandlerProfiler.ownerName(String.class));
+	}
+
+	@Test
+	public void mergesByOwnerAndSource()
+	{
+		HandlerProfiler profiler = new HandlerProfiler();
+		profiler.setBudgetNanos(TimeUnit.MILLISECONDS.toNanos(2));
+		profiler.record(Listener.class, Event.class, 1000);
+		profiler.record(Event.class, Event.class, TimeUnit.MILLISECONDS.toNanos(3));
+		profiler.record(Listener.class, HandlerProfiler.CLIENT_THREAD, 500);
+
+		List<HandlerProfiler.Entry> entries = profiler.snapshot();
+		assertEquals(2, entries.size());
+
+		HandlerProfiler.Entry event = entries.get(0);
+		assertEquals(HandlerProfilerTest.class.getName(), event.getOwner());
+		assertEquals("Event", event.getSource());
+		assertEquals(2, event.getCount());
+		assertEquals(1000 + TimeUnit.MILLISECONDS.toNanos(3), event.getTotalNanos());
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(3), event.getMaxNanos());
+		assertEquals(1, event.getOverBudget());
+
+		HandlerProfiler.Entry invoke = entries.get(1);
+		assertEquals(HandlerProfiler.CLIENT_THREAD, invoke.getSource());
+		assertEquals(1, invoke.getCount());
+
+		profiler.reset();
+		assertEquals(0, profiler.snapshot().size());
+	}
+
+	@Test
+	public void profilesEventBusOnlyWhileEnabled()
+	{
+		HandlerProfiler profiler = new HandlerProfiler();
+		EventBus eventBus = new EventBus();
+		eventBus.setProfiler(profiler);
+		eventBus.register(new Listener());
+
+		eventBus.post(new Event());
+		assertEquals(0, profiler.snapshot().size());
+
+		profiler.setEnabled(true);
+		eventBus.post(new Event());
+		eventBus.post(new Event());
+		List<HandlerProfiler.Entry> entries = profiler.snapshot();
+		assertEquals(1, entries.size());
+		assertEquals(2, entries.get(0).getCount());
+	}
+}
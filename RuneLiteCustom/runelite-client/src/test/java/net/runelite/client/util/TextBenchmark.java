@@ -0,0 +1,145 @@
+package net.runelite.client.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * {@link Text#removeTags} and friends against the regex they replaced, over menu options, menu targets and
+ * chat messages as the client sees them. Each operation strips the whole corpus; run with {@code -prof gc} to
+ * compare allocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextBenchmark
+{
+	private static final Pattern TAG_REGEXP = Pattern.compile("<[^>]*>");
+
+	private static final String[] CORPUS = {
+		// menu options
+		"Cancel",
+		"Walk here",
+		"Examine",
+		"Talk-to",
+		"Bank",
+		"Collect",
+		"Attack",
+		"Use",
+		"Drop",
+		"Wield",
+		"Take",
+		"Chop down",
+		"Deposit-All",
+		"Withdraw-1",
+		"Withdraw-All-but-1",
+		"<col=ff9040>Use</col>",
+		// menu targets
+		"",
+		"<col=ffff00>Banker",
+		"<col=ffff00>Banker tutor",
+		"<col=ffff00>Goblin<col=ff00>  (level-2)",
+		"<col=ffff00>Guard<col=ffff00>  (level-21)",
+		"<col=ffffff>Zezima<col=40ff00>  (level-126)",
+		"<col=ffffff><img=2>Zezima<col=40ff00>  (level-126)",
+		"<col=00ffff>Bank booth",
+		"<col=00ffff>Yew tree",
+		"<col=00ffff>Door",
+		"<col=ff9040>Coins</col>",
+		"<col=ff9040>Shark</col>",
+		"<col=ff9040>Abyssal whip</col>",
+		"<col=ff9040>Rune pouch</col><col=ffffff> -> <col=ffff00>Banker",
+		"<col=00ff00>High Level Alchemy</col><col=ffffff> -> <col=ff9040>Magic longbow</col>",
+		// chat
+		"Welcome to Old School RuneScape.",
+		"Oh dear, you are dead!",
+		"You catch a shark.",
+		"You get some yew logs.",
+		"<col=ef1020>You have been poisoned!</col>",
+		"<col=006000>Your Fishing level is now 76.</col>",
+		"<col=ef20ff>Congratulations, you've just advanced your Woodcutting level. You are now level 61.</col>",
+		"Your reward is: <col=ff0000>1</col> x <col=ff0000>Dragon bones</col>.",
+		"<img=2>Zezima: buying gf 10k",
+		"Selling lobbies 200 ea",
+		"a < b",
+		"<lt>3",
+	};
+
+	private final StringBuilder builder = new StringBuilder();
+
+	@Benchmark
+	public void regex(Blackhole bh)
+	{
+		for (String str : CORPUS)
+		{
+			bh.consume(TAG_REGEXP.matcher(str).replaceAll(""));
+		}
+	}
+
+	@Benchmark
+	public void removeTags(Blackhole bh)
+	{
+		for (String str : CORPUS)
+		{
+			bh.consume(Text.removeTags(str));
+		}
+	}
+
+	@Benchmark
+	public void removeTagsBuilder(Blackhole bh)
+	{
+		for (String str : CORPUS)
+		{
+			builder.setLength(0);
+			bh.consume(Text.removeTags(str, builder).length());
+		}
+	}
+
+	@Benchmark
+	public void removeTagsCached(Blackhole bh)
+	{
+		for (String str : CORPUS)
+		{
+			bh.consume(Text.removeTagsCached(str));
+		}
+	}
+
+	@Benchmark
+	public void standardizeRegex(Blackhole bh)
+	{
+		for (String str : CORPUS)
+		{
+			bh.consume(TAG_REGEXP.matcher(str).replaceAll("").replace('\u00A0', ' ').trim().toLowerCase());
+		}
+	}
+
+	@Benchmark
+	public void standardize(Blackhole bh)
+	{
+		for (String str : CORPUS)
+		{
+			bh.consume(Text.standardize(str));
+		}
+	}
+
+	public static void main(String[] args) throws Exception
+	{
+		new Runner(new OptionsBuilder()
+			.include(TextBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
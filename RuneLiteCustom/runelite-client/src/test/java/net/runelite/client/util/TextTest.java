@@ -25,6 +25,7 @@
 package net.runelite.client.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import org.junit.Test;
 
 public class TextTest
@@ -41,6 +42,29 @@ public class TextTest
 		assertEquals("a < b", Text.removeTags("a < b"));
 		assertEquals("a  b", Text.removeTags("a <lt> b"));
 		assertEquals("Remove no tags", Text.removeTags("Remove no tags"));
+		assertEquals("c", Text.removeTags("<a<b>c"));
+		assertEquals("a<b", Text.removeTags("a<b"));
+		assertEquals("ab<c", Text.removeTags("a<>b<c"));
+		assertEquals("a\nb", Text.removeTags("a<br\n>\nb"));
+	}
+
+	@Test
+	public void removeTagsBuilder()
+	{
+		StringBuilder sb = new StringBuilder("x");
+		assertEquals("xTestUse Item -> Man", Text.removeTags("Use Item -> Man", Text.removeTags("<col=FFFFFF>Test</col>", sb)).toString());
+	}
+
+	@Test
+	public void removeTagsCached()
+	{
+		String untagged = Text.removeTagsCached("<col=ffff00>Banker");
+		assertEquals("Banker", untagged);
+		assertSame(untagged, Text.removeTagsCached(new String("<col=ffff00>Banker")));
+		assertEquals("Banker tutor", Text.removeTagsCached("<col=ffff00>Banker tutor"));
+
+		String noTags = "Walk here";
+		assertSame(noTags, Text.removeTagsCached(noTags));
 	}
 
 	@Test
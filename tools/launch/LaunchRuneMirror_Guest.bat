@@ -13,6 +13,9 @@ REM Base port; port per guest = BASE_PORT + (index - 1)
 set "BASE_PORT=46001"
 set /a "PORT=%BASE_PORT% + %GUEST_INDEX% - 1"
 
+REM Nobody watches a guest: skip overlays and limit its frame rate (RuneLite "Low render mode")
+set "LOW_RENDER=true"
+
 REM Unique user.home per guest
 set "GUEST_HOME=C:\Users\James\Desktop\RuneMirrorGuestHome%GUEST_INDEX%"
 
@@ -51,7 +54,7 @@ echo Guest port: %PORT%
 echo.
 
 pushd "%REPO_ROOT%RuneLiteCustom\runelite-client\target"
-"%JAVA_BIN%" -Duser.home="%GUEST_HOME%" -Drunemirror.guest.port=%PORT% -Xmx768m -Xss2m -XX:CompileThreshold=1500 -jar "%CLIENT_JAR%"
+"%JAVA_BIN%" -Duser.home="%GUEST_HOME%" -Drunemirror.guest.port=%PORT% -Drunelite.lowrender=%LOW_RENDER% -Xmx768m -Xss2m -XX:CompileThreshold=1500 -jar "%CLIENT_JAR%"
 popd
 
 endlocal